@@ -20,7 +20,7 @@ import {
   Visibility
 } from '@mui/icons-material';
 import { useNavigate } from 'react-router-dom';
-import employeeService from '../services/employeeService';
+import departmentService from '../services/departmentService';
 import { DEPARTMENTS } from '../utils/constants';
 import { useAuth } from '../hooks/useAuth.jsx';
 
@@ -40,28 +40,15 @@ const DepartmentList = () => {
       setLoading(true);
       setError('');
       
-      // Get employee counts for each department
-      const departmentPromises = Object.values(DEPARTMENTS).map(async (dept) => {
-        try {
-          const response = await employeeService.getEmployeesByDepartment(dept, { size: 1 });
-          return {
-            name: dept,
-            displayName: dept.replace(/_/g, ' '),
-            employeeCount: response.totalElements || 0,
-            employees: response.content || []
-          };
-        } catch (error) {
-          console.error(`Error fetching ${dept} data:`, error);
-          return {
-            name: dept,
-            displayName: dept.replace(/_/g, ' '),
-            employeeCount: 0,
-            employees: []
-          };
-        }
-      });
-
-      const departmentData = await Promise.all(departmentPromises);
+      // Headcounts for every department in one request
+      const stats = await departmentService.getDepartmentStats();
+      const headcounts = Object.fromEntries(stats.map((entry) => [entry.department, entry.headcount]));
+      const departmentData = Object.values(DEPARTMENTS).map((dept) => ({
+        name: dept,
+        displayName: dept.replace(/_/g, ' '),
+        employeeCount: headcounts[dept] || 0
+      }));
+
       setDepartments(departmentData);
     } catch (error) {
       setError('Failed to load departments');
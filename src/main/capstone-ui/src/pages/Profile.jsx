@@ -40,21 +40,13 @@ const Profile = () => {
       }
 
       try {
-        // Try to find the employee record by email
-        const employeesResponse = await employeeService.getAllEmployees();
-        // Handle both array and paginated response formats
-        const employees = Array.isArray(employeesResponse) 
-          ? employeesResponse 
-          : employeesResponse.content || [];
-        
-        const currentEmployee = employees.find(emp => emp.email === user.email);
-        
-        if (currentEmployee) {
-          setEmployeeData(currentEmployee);
-        }
+        setEmployeeData(await employeeService.getCurrentEmployee());
       } catch (error) {
-        console.error('Error fetching employee profile:', error);
-        setError('Unable to load profile information');
+        // 404: the account has no employee record; show the account details only
+        if (error.response?.status !== 404) {
+          console.error('Error fetching employee profile:', error);
+          setError('Unable to load profile information');
+        }
       } finally {
         setLoading(false);
       }
@@ -7,6 +7,19 @@ class DepartmentService {
     return response.data;
   }
 
+  // Get headcount, salary and project/review counts for every department
+  async getDepartmentStats() {
+    const response = await api.get('/departments/stats');
+    return response.data;
+  }
+
+  // Get several departments in one request; entries follow the order of ids and
+  // unknown ids come back as { id, found: false }
+  async getDepartmentsByIds(ids) {
+    const response = await api.get('/departments', { params: { ids: ids.join(',') } });
+    return response.data;
+  }
+
   // Get department by ID
   async getDepartmentById(id) {
     const response = await api.get(`/departments/${id}`);
@@ -19,6 +32,24 @@ class DepartmentService {
     return response.data;
   }
 
+  // Get totals for a department and every department below it
+  async getDepartmentRollup(id) {
+    const response = await api.get(`/departments/${id}/rollup`);
+    return response.data;
+  }
+
+  // Get a department followed by every department below it, in tree order
+  async getDepartmentSubtree(id) {
+    const response = await api.get(`/departments/${id}/subtree`);
+    return response.data;
+  }
+
+  // Move a department, with everything below it, under a new parent (null for the top level)
+  async moveDepartment(id, parentId) {
+    const response = await api.patch(`/departments/${id}`, { parentId });
+    return response.data;
+  }
+
   // Get department by name
   async getDepartmentByName(name) {
     const response = await api.get(`/departments/name/${name}`);
@@ -17,6 +17,19 @@ class EmployeeService {
     return response.data;
   }
 
+  // Get several employees in one request; entries follow the order of ids and
+  // unknown ids come back as { id, found: false }
+  async getEmployeesByIds(ids) {
+    const response = await api.get('/employees', { params: { ids: ids.join(',') } });
+    return response.data;
+  }
+
+  // Get the signed-in user's own employee record
+  async getCurrentEmployee() {
+    const response = await api.get('/employees/me');
+    return response.data;
+  }
+
   // Get employee by ID
   async getEmployeeById(id) {
     const response = await api.get(`/employees/${id}`);
@@ -65,6 +78,24 @@ class EmployeeService {
     return response.data;
   }
 
+  // Get everyone under a manager, nearest levels first; maxDepth 1 for direct reports only
+  async getReports(id, params = {}) {
+    const response = await api.get(`/employees/${id}/reports`, { params });
+    return response.data;
+  }
+
+  // Get the managers above an employee, direct manager first
+  async getChainOfCommand(id) {
+    const response = await api.get(`/employees/${id}/chain-of-command`);
+    return response.data;
+  }
+
+  // Move employees, with everyone under them, to a new manager (null for the top)
+  async assignManager(ids, managerId) {
+    const response = await api.put('/employees/bulk/manager', { ids, managerId });
+    return response.data;
+  }
+
   // Search employees
   async searchEmployees(searchTerm, params = {}) {
     const response = await api.get('/search/employees', { 
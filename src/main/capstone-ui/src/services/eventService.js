@@ -0,0 +1,105 @@
+import { API_BASE_URL } from './api';
+
+const RETRY_DELAY_MS = 5000;
+
+// Reads the /events change stream with fetch rather than EventSource, because
+// EventSource cannot send the Authorization header the API requires
+class EventService {
+  // Subscribe to change events; onChange gets each change and onReset
+  // means the lists must be reloaded. Returns a function that closes the stream.
+  subscribe({ types = [], onChange, onReset, onReady } = {}) {
+    const controller = new AbortController();
+    let lastEventId = null;
+
+    const dispatch = (message) => {
+      if (message.id) {
+        lastEventId = message.id;
+      }
+      const data = message.data ? JSON.parse(message.data) : null;
+      if (message.event === 'change') {
+        onChange?.(data);
+      } else if (message.event === 'reset') {
+        onReset?.(data);
+      } else if (message.event === 'ready') {
+        onReady?.(data);
+      }
+    };
+
+    const connect = async () => {
+      const headers = { Accept: 'text/event-stream' };
+      const token = localStorage.getItem('authToken');
+      if (token) {
+        headers.Authorization = `Bearer ${token}`;
+      }
+      if (lastEventId) {
+        headers['Last-Event-ID'] = lastEventId;
+      }
+      const query = types.length ? `?types=${types.join(',')}` : '';
+      const response = await fetch(`${API_BASE_URL}/events${query}`, {
+        headers,
+        signal: controller.signal,
+      });
+      if (response.status === 401 || response.status === 403) {
+        // Stop retrying; the next API call sends the user back to login
+        controller.abort();
+        return;
+      }
+      if (!response.ok || !response.body) {
+        throw new Error(`Event stream failed with status ${response.status}`);
+      }
+
+      const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+      let buffer = '';
+      let message = {};
+      for (;;) {
+        const { value, done } = await reader.read();
+        if (done) {
+          return;
+        }
+        buffer += value;
+        const lines = buffer.split(/\r\n|\r|\n/);
+        buffer = lines.pop();
+        for (const line of lines) {
+          if (line === '') {
+            // A blank line ends the message; heartbeats are comments with no fields
+            if (message.event || message.data) {
+              dispatch(message);
+            }
+            message = {};
+          } else if (!line.startsWith(':')) {
+            const colon = line.indexOf(':');
+            const field = colon < 0 ? line : line.slice(0, colon);
+            const value = colon < 0 ? '' : line.slice(colon + 1).replace(/^ /, '');
+            if (field === 'data') {
+              message.data = message.data ? `${message.data}\n${value}` : value;
+            } else if (field === 'event' || field === 'id') {
+              message[field] = value;
+            }
+          }
+        }
+      }
+    };
+
+    // Reconnect with the last seen id, so missed events are replayed
+    const run = async () => {
+      while (!controller.signal.aborted) {
+        try {
+          await connect();
+        } catch (error) {
+          if (controller.signal.aborted) {
+            return;
+          }
+          console.error('Change stream error:', error);
+        }
+        if (!controller.signal.aborted) {
+          await new Promise((resolve) => setTimeout(resolve, RETRY_DELAY_MS));
+        }
+      }
+    };
+    run();
+
+    return () => controller.abort();
+  }
+}
+
+export default new EventService();
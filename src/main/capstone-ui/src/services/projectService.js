@@ -17,6 +17,13 @@ class ProjectService {
     return response.data;
   }
 
+  // Get several projects in one request; entries follow the order of ids and
+  // unknown ids come back as { id, found: false }
+  async getProjectsByIds(ids) {
+    const response = await api.get('/projects', { params: { ids: ids.join(',') } });
+    return response.data;
+  }
+
   // Get project by ID
   async getProjectById(id) {
     const response = await api.get(`/projects/${id}`);
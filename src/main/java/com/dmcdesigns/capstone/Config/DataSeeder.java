@@ -27,6 +27,9 @@ public class DataSeeder implements CommandLineRunner {
     
     @Autowired
     private ProjectRepository projectRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
     
     @Autowired
     private PasswordEncoder passwordEncoder;
@@ -36,6 +39,9 @@ public class DataSeeder implements CommandLineRunner {
         System.out.println("🔍 DataSeeder starting - checking database state...");
         long userCount = userRepository.count();
         System.out.println("📊 Current user count: " + userCount);
+
+        // Users and projects must name an existing department
+        seedDepartments();
         
         // Only seed if database is empty to avoid duplicates
         if (userCount == 0) {
@@ -77,6 +83,25 @@ public class DataSeeder implements CommandLineRunner {
         System.out.println("🚀 Application ready for testing!");
     }
 
+    /**
+     * Creates the departments the sample data is assigned to, skipping any that exist
+     */
+    private void seedDepartments() {
+        String[][] departments = {
+            { "ENGINEERING", "Software development and platform engineering" },
+            { "HR", "Human resources and recruiting" },
+            { "SALES", "Sales and account management" },
+            { "MARKETING", "Marketing and communications" },
+            { "FINANCE", "Finance and accounting" },
+            { "IT", "IT infrastructure and support" }
+        };
+        for (String[] department : departments) {
+            if (!departmentRepository.existsByName(department[0])) {
+                departmentRepository.save(new Department(department[0], department[1]));
+            }
+        }
+    }
+
     /**
      * Seeds the database with basic user accounts for testing authentication
      * These accounts are created for testing and review purposes
@@ -0,0 +1,165 @@
+package com.dmcdesigns.capstone.Config;
+
+import com.dmcdesigns.capstone.Entities.User;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.SingleTableEntityPersister;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.Locale;
+
+/**
+ * Reports which table layout the User hierarchy is mapped to and moves
+ * existing rows into it on startup.
+ * <p>
+ * By default each subclass has its own table (users, employee, manager, admin)
+ * joined on id. Listing META-INF/orm-single-table.xml in
+ * spring.jpa.mapping-resources maps the whole hierarchy to users, told apart
+ * by user_type, so loading an employee or a login needs no joins. Switching
+ * either way copies the subclass columns across and drops the old layout, so
+ * the migration only does work on the first startup after a switch. It runs
+ * before the data seeder and the startup rebuilds read any users.
+ *
+ * @author DMC Designs
+ */
+@Component
+public class UserInheritanceMapping {
+
+    private static final String[] LEGACY_TABLES = { "admin", "manager", "employee" };
+
+    // Subclass columns as they are created on users in single-table mode
+    private static final String[][] SUBCLASS_COLUMNS = {
+        { "role", "VARCHAR(255)" },
+        { "has_access", "BOOLEAN" },
+        { "salary", "NUMERIC(10,2)" },
+        { "hire_date", "VARCHAR(255)" }
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean singleTable;
+
+    public UserInheritanceMapping(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.singleTable = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getMappingMetamodel().getEntityDescriptor(User.class) instanceof SingleTableEntityPersister;
+    }
+
+    /**
+     * True when every user type is stored in the users table alone
+     */
+    public boolean isSingleTable() {
+        return singleTable;
+    }
+
+    // ============ Migration ============
+
+    @PostConstruct
+    public void migrate() {
+        int moved = singleTable ? migrateToSingleTable() : migrateToJoinedTables();
+        if (moved > 0) {
+            System.out.println("🧬 Moved " + moved + " user(s) to the "
+                + (singleTable ? "single-table" : "joined-table") + " user mapping");
+        }
+    }
+
+    /**
+     * Copies role, access, salary and hire date from the employee table onto
+     * users, then drops the per-subclass tables. Does nothing once they are gone.
+     */
+    public int migrateToSingleTable() {
+        if (!tableExists("employee")) {
+            return 0;
+        }
+        return transactionTemplate.execute(status -> {
+            // Schema update cannot add NOT NULL columns to a table that already has rows
+            for (String[] column : SUBCLASS_COLUMNS) {
+                if (!columnExists("users", column[0])) {
+                    jdbcTemplate.execute("ALTER TABLE users ADD COLUMN " + column[0] + " " + column[1]);
+                }
+            }
+            int moved = jdbcTemplate.update("UPDATE users SET "
+                + "role = (SELECT e.role FROM employee e WHERE e.id = users.id), "
+                + "has_access = (SELECT e.has_access FROM employee e WHERE e.id = users.id), "
+                + "salary = (SELECT e.salary FROM employee e WHERE e.id = users.id), "
+                + "hire_date = (SELECT e.hire_date FROM employee e WHERE e.id = users.id) "
+                + "WHERE EXISTS (SELECT 1 FROM employee e WHERE e.id = users.id)");
+            for (String table : LEGACY_TABLES) {
+                if (tableExists(table)) {
+                    jdbcTemplate.execute("DROP TABLE " + table);
+                }
+            }
+            return moved;
+        });
+    }
+
+    /**
+     * Fills the employee, manager and admin tables from the columns a
+     * single-table run left on users, then drops those columns. Does nothing
+     * once they are gone.
+     */
+    public int migrateToJoinedTables() {
+        if (!columnExists("users", "role")) {
+            return 0;
+        }
+        return transactionTemplate.execute(status -> {
+            int moved = jdbcTemplate.update("INSERT INTO employee (id, role, has_access, salary, hire_date) "
+                + "SELECT u.id, COALESCE(u.role, 'Employee'), COALESCE(u.has_access, FALSE), u.salary, u.hire_date "
+                + "FROM users u WHERE u.user_type IN ('EMPLOYEE', 'MANAGER', 'ADMIN') "
+                + "AND NOT EXISTS (SELECT 1 FROM employee e WHERE e.id = u.id)");
+            jdbcTemplate.update("INSERT INTO manager (id) SELECT u.id FROM users u WHERE u.user_type = 'MANAGER' "
+                + "AND NOT EXISTS (SELECT 1 FROM manager m WHERE m.id = u.id)");
+            jdbcTemplate.update("INSERT INTO admin (id) SELECT u.id FROM users u WHERE u.user_type = 'ADMIN' "
+                + "AND NOT EXISTS (SELECT 1 FROM admin a WHERE a.id = u.id)");
+            for (String[] column : SUBCLASS_COLUMNS) {
+                if (columnExists("users", column[0])) {
+                    jdbcTemplate.execute("ALTER TABLE users DROP COLUMN " + column[0]);
+                }
+            }
+            return moved;
+        });
+    }
+
+    // ============ Helpers ============
+
+    // Identifier case in the catalog differs between H2 and PostgreSQL, so both are tried
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String name : new String[] { table, table.toUpperCase(Locale.ROOT) }) {
+                try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, name, new String[] {"TABLE"})) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+
+    private boolean columnExists(String table, String column) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (boolean upper : new boolean[] { false, true }) {
+                String tableName = upper ? table.toUpperCase(Locale.ROOT) : table;
+                String columnName = upper ? column.toUpperCase(Locale.ROOT) : column;
+                try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null, tableName, columnName)) {
+                    if (columns.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+}
@@ -1,15 +1,21 @@
 package com.dmcdesigns.capstone.Controllers;
 
+import com.dmcdesigns.capstone.DTOs.MergePatch;
+import com.dmcdesigns.capstone.DTOs.MultiGetEntry;
 import com.dmcdesigns.capstone.Entities.Department;
 import com.dmcdesigns.capstone.Entities.Employee;
 import com.dmcdesigns.capstone.Services.DepartmentService;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -32,6 +38,44 @@ public class DepartmentController {
         return ResponseEntity.ok(departments);
     }
 
+    /**
+     * Headcount, salary totals and project/review counts for every department
+     * GET /api/departments/stats
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<Map<String, Object>>> getDepartmentStats() {
+        return ResponseEntity.ok(departmentService.getDepartmentStats());
+    }
+
+    /**
+     * Several departments in one request: GET /api/departments?ids=3,7,12
+     * Entries follow the order of ids; unknown ids come back with found=false.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<MultiGetEntry<Department>>> getDepartmentsByIds(@RequestParam List<Integer> ids) {
+        return ResponseEntity.ok(departmentService.getDepartmentsByIds(ids));
+    }
+
+    /**
+     * Totals for a department and every department below it: headcount,
+     * salary, project and review counts, budget and budget used
+     * GET /api/departments/{id}/rollup
+     */
+    @GetMapping("/{id}/rollup")
+    public ResponseEntity<Map<String, Object>> getDepartmentRollup(@PathVariable Integer id) {
+        return ResponseEntity.ok(departmentService.getDepartmentRollup(id));
+    }
+
+    /**
+     * A department followed by every department below it, in tree order;
+     * each carries its parentId
+     * GET /api/departments/{id}/subtree
+     */
+    @GetMapping("/{id}/subtree")
+    public ResponseEntity<List<Department>> getDepartmentSubtree(@PathVariable Integer id) {
+        return ResponseEntity.ok(departmentService.getDepartmentSubtree(id));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Department> getDepartmentById(@PathVariable Integer id) {
         Optional<Department> department = departmentService.getDepartmentById(id);
@@ -53,6 +97,8 @@ public class DepartmentController {
         try {
             Department createdDepartment = departmentService.createDepartment(department);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdDepartment);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
@@ -72,6 +118,15 @@ public class DepartmentController {
         }
     }
 
+    /**
+     * Partial update with an RFC 7396 merge patch; only the fields present
+     * change, and a patch that changes nothing does not write
+     */
+    @PatchMapping(value = "/{id}", consumes = {MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Department> patchDepartment(@PathVariable Integer id, @RequestBody JsonNode patch) {
+        return ResponseEntity.ok(departmentService.patchDepartment(id, patch));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteDepartment(@PathVariable Integer id) {
         try {
@@ -109,10 +164,15 @@ public class DepartmentController {
         return ResponseEntity.ok(exists);
     }
 
+    /**
+     * Employees of a department; includeDescendants=true adds the departments below it
+     */
     @GetMapping("/{id}/employees")
-    public ResponseEntity<List<Employee>> getEmployeesByDepartmentId(@PathVariable Integer id) {
+    public ResponseEntity<List<Employee>> getEmployeesByDepartmentId(
+            @PathVariable Integer id,
+            @RequestParam(defaultValue = "false") boolean includeDescendants) {
         try {
-            List<Employee> employees = departmentService.getEmployeesByDepartmentId(id);
+            List<Employee> employees = departmentService.getEmployeesByDepartmentId(id, includeDescendants);
             return ResponseEntity.ok(employees);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
@@ -120,18 +180,23 @@ public class DepartmentController {
     }
 
     @GetMapping("/name/{name}/employees")
-    public ResponseEntity<List<Employee>> getEmployeesByDepartmentName(@PathVariable String name) {
-        List<Employee> employees = departmentService.getEmployeesByDepartmentName(name);
+    public ResponseEntity<List<Employee>> getEmployeesByDepartmentName(
+            @PathVariable String name,
+            @RequestParam(defaultValue = "false") boolean includeDescendants) {
+        List<Employee> employees = departmentService.getEmployeesByDepartmentName(name, includeDescendants);
         return ResponseEntity.ok(employees);
     }
 
     @PostMapping("/{fromId}/transfer-to/{toId}")
-    public ResponseEntity<Department> transferEmployeesBetweenDepartments(
+    public ResponseEntity<Map<String, Object>> transferEmployeesBetweenDepartments(
             @PathVariable Integer fromId, 
             @PathVariable Integer toId) {
         try {
-            Department targetDepartment = departmentService.transferEmployeesToDepartment(fromId, toId);
-            return ResponseEntity.ok(targetDepartment);
+            int moved = departmentService.transferEmployeesToDepartment(fromId, toId);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("department", departmentService.getDepartmentById(toId).orElse(null));
+            result.put("employeesMoved", moved);
+            return ResponseEntity.ok(result);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -1,15 +1,31 @@
 package com.dmcdesigns.capstone.Controllers;
 
+import com.dmcdesigns.capstone.DTOs.BulkEmployeeUpdateRequest;
+import com.dmcdesigns.capstone.DTOs.BulkUpdateResult;
+import com.dmcdesigns.capstone.DTOs.EmployeeImportResult;
+import com.dmcdesigns.capstone.DTOs.EmployeeSummary;
+import com.dmcdesigns.capstone.DTOs.ManagerAssignmentRequest;
+import com.dmcdesigns.capstone.DTOs.MergePatch;
+import com.dmcdesigns.capstone.DTOs.MultiGetEntry;
 import com.dmcdesigns.capstone.Entities.Employee;
 import com.dmcdesigns.capstone.Entities.Admin;
+import com.dmcdesigns.capstone.Services.EmployeeImportService;
 import com.dmcdesigns.capstone.Services.EmployeeService;
+import com.dmcdesigns.capstone.Services.ReportingLineService;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -23,11 +39,39 @@ public class EmployeeController {
     @Autowired
     private EmployeeService employeeService;
 
+    @Autowired
+    private EmployeeImportService employeeImportService;
+
+    @Autowired
+    private ReportingLineService reportingLineService;
+
     @GetMapping
-    @Transactional(readOnly = true)
-    public ResponseEntity<List<Employee>> getAllEmployees() {
-        List<Employee> employees = employeeService.getAllEmployees();
-        return ResponseEntity.ok(employees);
+    public ResponseEntity<Page<EmployeeSummary>> getAllEmployees(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "lastName") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+        return ResponseEntity.ok(employeeService.getEmployeeSummaries(page, size, sortBy, sortDir));
+    }
+
+    /**
+     * Several employees in one request: GET /api/employees?ids=3,7,12
+     * Entries follow the order of ids and hold the same summaries as the list;
+     * unknown ids come back with found=false.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<MultiGetEntry<EmployeeSummary>>> getEmployeesByIds(@RequestParam List<Integer> ids) {
+        return ResponseEntity.ok(employeeService.getEmployeesByIds(ids));
+    }
+
+    /**
+     * The signed-in user's own employee record: GET /api/employees/me
+     */
+    @GetMapping("/me")
+    public ResponseEntity<EmployeeSummary> getCurrentEmployee(Authentication authentication) {
+        return employeeService.getEmployeeSummaryByUsername(authentication.getName())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/{id}")
@@ -50,6 +94,18 @@ public class EmployeeController {
         }
     }
 
+    /**
+     * Bulk import from a CSV (text/csv, with a header line) or NDJSON
+     * (application/x-ndjson) request body. The body is streamed, not buffered;
+     * rows that fail are listed in the result and the rest are still imported.
+     */
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EmployeeImportResult> importEmployees(HttpServletRequest request) throws IOException {
+        EmployeeImportService.Format format = EmployeeImportService.formatFor(request.getContentType());
+        return ResponseEntity.ok(employeeImportService.importEmployees(request.getInputStream(), format));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Employee> updateEmployee(@PathVariable Integer id, 
                                                  @RequestBody Map<String, Object> employeeData) {
@@ -65,6 +121,19 @@ public class EmployeeController {
         }
     }
 
+    /**
+     * Partial update with an RFC 7396 merge patch; only the fields present
+     * change, and a patch that changes nothing does not write. hasAccess needs
+     * ROLE_ADMIN, and password needs ROLE_ADMIN unless it is the caller's own.
+     */
+    @PatchMapping(value = "/{id}", consumes = {MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Employee> patchEmployee(@PathVariable Integer id, @RequestBody JsonNode patch,
+                                                  Authentication authentication) {
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        return ResponseEntity.ok(employeeService.patchEmployee(id, patch, authentication.getName(), admin));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteEmployee(@PathVariable Integer id) {
         try {
@@ -77,8 +146,10 @@ public class EmployeeController {
 
     @GetMapping("/department/{department}")
     @Transactional(readOnly = true)
-    public ResponseEntity<List<Employee>> getEmployeesByDepartment(@PathVariable String department) {
-        List<Employee> employees = employeeService.getEmployeesByDepartment(department);
+    public ResponseEntity<List<Employee>> getEmployeesByDepartment(
+            @PathVariable String department,
+            @RequestParam(defaultValue = "false") boolean includeDescendants) {
+        List<Employee> employees = employeeService.getEmployeesByDepartment(department, includeDescendants);
         return ResponseEntity.ok(employees);
     }
 
@@ -102,6 +173,64 @@ public class EmployeeController {
         }
     }
 
+    /**
+     * Bulk access and role changes. The body selects employees by "ids", or by
+     * "department" and/or "role"; each applies as a set-based UPDATE and
+     * reports how many employees matched and how many changed.
+     */
+    @PutMapping("/bulk/grant-access")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkUpdateResult> grantAccessInBulk(@RequestBody BulkEmployeeUpdateRequest request) {
+        return ResponseEntity.ok(employeeService.updateAccessInBulk(request, true));
+    }
+
+    @PutMapping("/bulk/revoke-access")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkUpdateResult> revokeAccessInBulk(@RequestBody BulkEmployeeUpdateRequest request) {
+        return ResponseEntity.ok(employeeService.updateAccessInBulk(request, false));
+    }
+
+    @PutMapping("/bulk/role")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkUpdateResult> changeRoleInBulk(@RequestBody BulkEmployeeUpdateRequest request) {
+        return ResponseEntity.ok(employeeService.updateRoleInBulk(request));
+    }
+
+    /**
+     * Reporting lines. GET /{id}/reports pages through everyone under a
+     * manager, nearest levels first (maxDepth=1 for direct reports only);
+     * GET /{id}/chain-of-command lists the managers above a user, direct
+     * manager first. PUT /{id}/manager and /bulk/manager move users, with
+     * everyone under them, to a new manager (managerId null for the top).
+     */
+    @GetMapping("/{id}/reports")
+    public ResponseEntity<Page<EmployeeSummary>> getReports(
+            @PathVariable Integer id,
+            @RequestParam(required = false) Integer maxDepth,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(reportingLineService.getReports(id, maxDepth, page, size));
+    }
+
+    @GetMapping("/{id}/chain-of-command")
+    public ResponseEntity<List<EmployeeSummary>> getChainOfCommand(@PathVariable Integer id) {
+        return ResponseEntity.ok(reportingLineService.getChainOfCommand(id));
+    }
+
+    @PutMapping("/{id}/manager")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkUpdateResult> assignManager(@PathVariable Integer id,
+                                                          @RequestBody ManagerAssignmentRequest request) {
+        BulkUpdateResult result = reportingLineService.assignManager(List.of(id), request.managerId());
+        return result.matched() == 0 ? ResponseEntity.notFound().build() : ResponseEntity.ok(result);
+    }
+
+    @PutMapping("/bulk/manager")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkUpdateResult> assignManagerInBulk(@RequestBody ManagerAssignmentRequest request) {
+        return ResponseEntity.ok(reportingLineService.assignManager(request.ids(), request.managerId()));
+    }
+
     @GetMapping("/{id}/projects")
     public ResponseEntity<List<Object>> getEmployeeProjects(@PathVariable Integer id) {
         try {
@@ -0,0 +1,56 @@
+package com.dmcdesigns.capstone.Controllers;
+
+import com.dmcdesigns.capstone.Services.ChangeStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+/**
+ * Server-sent event stream of committed employee, project and review changes
+ *
+ * @author DMC Designs
+ */
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class EventController {
+
+    @Autowired
+    private ChangeStreamService changeStreamService;
+
+    /**
+     * Subscribe to change events
+     * GET /api/events?types=employee,project
+     * Browsers resume with the Last-Event-ID header on reconnect; other clients
+     * may pass ?lastEventId= instead.
+     * Like the rest of the API this needs the Authorization: Bearer header, which
+     * EventSource cannot send, so the frontend reads the stream with fetch
+     * (services/eventService.js) and sends Last-Event-ID itself.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(required = false) Long lastEventId,
+            @RequestParam(required = false) Set<String> types) {
+        try {
+            SseEmitter emitter = changeStreamService.subscribe(
+                lastEventIdHeader != null ? lastEventIdHeader : lastEventId, types);
+            return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                // Stop nginx from buffering the stream
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .build();
+        }
+    }
+}
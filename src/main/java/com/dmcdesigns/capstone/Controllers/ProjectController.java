@@ -1,10 +1,14 @@
 package com.dmcdesigns.capstone.Controllers;
 
+import com.dmcdesigns.capstone.DTOs.MergePatch;
+import com.dmcdesigns.capstone.DTOs.MultiGetEntry;
 import com.dmcdesigns.capstone.Entities.Project;
 import com.dmcdesigns.capstone.Services.ProjectService;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -36,6 +40,15 @@ public class ProjectController {
         return ResponseEntity.ok(projects);
     }
 
+    /**
+     * Several projects in one request: GET /api/projects?ids=3,7,12
+     * Entries follow the order of ids; unknown ids come back with found=false.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<MultiGetEntry<Project>>> getProjectsByIds(@RequestParam List<Integer> ids) {
+        return ResponseEntity.ok(projectService.getProjectsByIds(ids));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Project> getProjectById(@PathVariable Integer id) {
         Optional<Project> project = projectService.getProjectById(id);
@@ -64,6 +77,15 @@ public class ProjectController {
         }
     }
 
+    /**
+     * Partial update with an RFC 7396 merge patch; only the fields present
+     * change, and a patch that changes nothing does not write
+     */
+    @PatchMapping(value = "/{id}", consumes = {MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Project> patchProject(@PathVariable Integer id, @RequestBody JsonNode patch) {
+        return ResponseEntity.ok(projectService.patchProject(id, patch));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProject(@PathVariable Integer id) {
         try {
@@ -121,9 +143,15 @@ public class ProjectController {
         return ResponseEntity.ok(projects);
     }
 
+    /**
+     * Projects of a department; includeDescendants=true adds the departments below it,
+     * as it does for the count, progress and budget totals below
+     */
     @GetMapping("/department/{department}")
-    public ResponseEntity<List<Project>> getProjectsByDepartment(@PathVariable String department) {
-        List<Project> projects = projectService.getProjectsByDepartment(department);
+    public ResponseEntity<List<Project>> getProjectsByDepartment(
+            @PathVariable String department,
+            @RequestParam(defaultValue = "false") boolean includeDescendants) {
+        List<Project> projects = projectService.getProjectsByDepartment(department, includeDescendants);
         return ResponseEntity.ok(projects);
     }
 
@@ -315,26 +343,34 @@ public class ProjectController {
     }
 
     @GetMapping("/department/{department}/count")
-    public ResponseEntity<Long> getProjectCountByDepartment(@PathVariable String department) {
-        Long count = projectService.getProjectCountByDepartment(department);
+    public ResponseEntity<Long> getProjectCountByDepartment(
+            @PathVariable String department,
+            @RequestParam(defaultValue = "false") boolean includeDescendants) {
+        Long count = projectService.getProjectCountByDepartment(department, includeDescendants);
         return ResponseEntity.ok(count);
     }
 
     @GetMapping("/department/{department}/average-progress")
-    public ResponseEntity<Double> getAverageProgressByDepartment(@PathVariable String department) {
-        Double avgProgress = projectService.getAverageProgressByDepartment(department);
+    public ResponseEntity<Double> getAverageProgressByDepartment(
+            @PathVariable String department,
+            @RequestParam(defaultValue = "false") boolean includeDescendants) {
+        Double avgProgress = projectService.getAverageProgressByDepartment(department, includeDescendants);
         return ResponseEntity.ok(avgProgress != null ? avgProgress : 0.0);
     }
 
     @GetMapping("/department/{department}/total-budget")
-    public ResponseEntity<BigDecimal> getTotalBudgetByDepartment(@PathVariable String department) {
-        BigDecimal totalBudget = projectService.getTotalBudgetByDepartment(department);
+    public ResponseEntity<BigDecimal> getTotalBudgetByDepartment(
+            @PathVariable String department,
+            @RequestParam(defaultValue = "false") boolean includeDescendants) {
+        BigDecimal totalBudget = projectService.getTotalBudgetByDepartment(department, includeDescendants);
         return ResponseEntity.ok(totalBudget != null ? totalBudget : BigDecimal.ZERO);
     }
 
     @GetMapping("/department/{department}/total-budget-used")
-    public ResponseEntity<BigDecimal> getTotalBudgetUsedByDepartment(@PathVariable String department) {
-        BigDecimal totalBudgetUsed = projectService.getTotalBudgetUsedByDepartment(department);
+    public ResponseEntity<BigDecimal> getTotalBudgetUsedByDepartment(
+            @PathVariable String department,
+            @RequestParam(defaultValue = "false") boolean includeDescendants) {
+        BigDecimal totalBudgetUsed = projectService.getTotalBudgetUsedByDepartment(department, includeDescendants);
         return ResponseEntity.ok(totalBudgetUsed != null ? totalBudgetUsed : BigDecimal.ZERO);
     }
 
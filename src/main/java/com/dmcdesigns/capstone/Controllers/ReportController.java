@@ -1,19 +1,44 @@
 package com.dmcdesigns.capstone.Controllers;
 
+import com.dmcdesigns.capstone.Entities.CustomReportDefinition;
+import com.dmcdesigns.capstone.Entities.ReportArtifact;
+import com.dmcdesigns.capstone.Reports.CustomReportSpec;
+import com.dmcdesigns.capstone.Services.CustomReportService;
+import com.dmcdesigns.capstone.Services.ReportChartService;
+import com.dmcdesigns.capstone.Services.ReportArtifactService;
+import com.dmcdesigns.capstone.Services.PerformanceRollupService;
+import com.dmcdesigns.capstone.Services.ReportBundleService;
+import com.dmcdesigns.capstone.Services.ReportExportService;
+import com.dmcdesigns.capstone.Services.ReportRenderingService;
 import com.dmcdesigns.capstone.Services.ReportService;
+import com.dmcdesigns.capstone.Services.SalaryDistributionService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/reports")
@@ -23,87 +48,129 @@ public class ReportController {
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private ReportExportService reportExportService;
+
+    @Autowired
+    private ReportBundleService reportBundleService;
+
+    @Autowired
+    private ReportArtifactService reportArtifactService;
+
+    @Autowired
+    private PerformanceRollupService performanceRollupService;
+
+    @Autowired
+    private SalaryDistributionService salaryDistributionService;
+
+    @Autowired
+    private ReportRenderingService reportRenderingService;
+
+    @Autowired
+    private CustomReportService customReportService;
+
+    @Autowired
+    private ReportChartService reportChartService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     private static final DateTimeFormatter FILENAME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+    private static final String XLSX_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
 
     /**
      * Generate Employee Roster Report
      * GET /api/reports/employee-roster
+     * Serves the newest pre-generated version unless ?fresh=true
      */
     @GetMapping("/employee-roster")
     @Transactional(readOnly = true)
-    public ResponseEntity<byte[]> generateEmployeeRosterReport() {
-        try {
-            byte[] pdfBytes = reportService.generateEmployeeRosterReport();
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", 
-                "employee-roster-" + LocalDateTime.now().format(FILENAME_FORMATTER) + ".pdf");
-            headers.setContentLength(pdfBytes.length);
-            
-            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
-            
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(("Error generating employee roster report: " + e.getMessage()).getBytes());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(("Unexpected error: " + e.getMessage()).getBytes());
+    public CompletableFuture<ResponseEntity<byte[]>> generateEmployeeRosterReport(@RequestParam(defaultValue = "false") boolean fresh) {
+        if (!fresh) {
+            Optional<ReportArtifact> artifact = reportArtifactService.getLatestArtifact(ReportArtifactService.EMPLOYEE_ROSTER);
+            if (artifact.isPresent()) {
+                return CompletableFuture.completedFuture(artifactResponse(artifact.get(), "employee-roster"));
+            }
         }
+
+        return renderPdf("employee-roster", "employee-roster", "employee roster", () -> reportService.generateEmployeeRosterReport());
+    }
+
+    /**
+     * Export Employee Roster as CSV
+     * GET /api/reports/employee-roster.csv
+     */
+    @GetMapping("/employee-roster.csv")
+    public ResponseEntity<StreamingResponseBody> exportEmployeeRosterCsv() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(new MediaType("text", "csv", StandardCharsets.UTF_8));
+        headers.setContentDispositionFormData("attachment", 
+            "employee-roster-" + LocalDateTime.now().format(FILENAME_FORMATTER) + ".csv");
+
+        // Rows are written from the DB cursor as the client reads; the transaction is opened inside the service call
+        ReportRenderingService.Permit permit = reportRenderingService.admit("employee-roster.csv");
+        StreamingResponseBody body = outputStream -> {
+            try (permit) {
+                reportExportService.writeEmployeeRosterCsv(outputStream);
+            }
+        };
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Export Employee Roster as XLSX
+     * GET /api/reports/employee-roster.xlsx
+     */
+    @GetMapping("/employee-roster.xlsx")
+    public ResponseEntity<StreamingResponseBody> exportEmployeeRosterXlsx() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(XLSX_CONTENT_TYPE));
+        headers.setContentDispositionFormData("attachment", 
+            "employee-roster-" + LocalDateTime.now().format(FILENAME_FORMATTER) + ".xlsx");
+
+        ReportRenderingService.Permit permit = reportRenderingService.admit("employee-roster.xlsx");
+        StreamingResponseBody body = outputStream -> {
+            try (permit) {
+                reportExportService.writeEmployeeRosterXlsx(outputStream);
+            }
+        };
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
     }
 
     /**
      * Generate Salary Analysis Report
      * GET /api/reports/salary-analysis
+     * Serves the newest pre-generated version unless ?fresh=true
      */
     @GetMapping("/salary-analysis")
     @Transactional(readOnly = true)
-    public ResponseEntity<byte[]> generateSalaryAnalysisReport() {
-        try {
-            byte[] pdfBytes = reportService.generateSalaryAnalysisReport();
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", 
-                "salary-analysis-" + LocalDateTime.now().format(FILENAME_FORMATTER) + ".pdf");
-            headers.setContentLength(pdfBytes.length);
-            
-            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
-            
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(("Error generating salary analysis report: " + e.getMessage()).getBytes());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(("Unexpected error: " + e.getMessage()).getBytes());
+    public CompletableFuture<ResponseEntity<byte[]>> generateSalaryAnalysisReport(@RequestParam(defaultValue = "false") boolean fresh) {
+        if (!fresh) {
+            Optional<ReportArtifact> artifact = reportArtifactService.getLatestArtifact(ReportArtifactService.SALARY_ANALYSIS);
+            if (artifact.isPresent()) {
+                return CompletableFuture.completedFuture(artifactResponse(artifact.get(), "salary-analysis"));
+            }
         }
+
+        return renderPdf("salary-analysis", "salary-analysis", "salary analysis", () -> reportService.generateSalaryAnalysisReport());
     }
 
     /**
      * Generate Performance Summary Report
      * GET /api/reports/performance-summary
+     * Serves the newest pre-generated version unless ?fresh=true
      */
     @GetMapping("/performance-summary")
     @Transactional(readOnly = true)
-    public ResponseEntity<byte[]> generatePerformanceSummaryReport() {
-        try {
-            byte[] pdfBytes = reportService.generatePerformanceSummaryReport();
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", 
-                "performance-summary-" + LocalDateTime.now().format(FILENAME_FORMATTER) + ".pdf");
-            headers.setContentLength(pdfBytes.length);
-            
-            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
-            
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(("Error generating performance summary report: " + e.getMessage()).getBytes());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(("Unexpected error: " + e.getMessage()).getBytes());
+    public CompletableFuture<ResponseEntity<byte[]>> generatePerformanceSummaryReport(@RequestParam(defaultValue = "false") boolean fresh) {
+        if (!fresh) {
+            Optional<ReportArtifact> artifact = reportArtifactService.getLatestArtifact(ReportArtifactService.PERFORMANCE_SUMMARY);
+            if (artifact.isPresent()) {
+                return CompletableFuture.completedFuture(artifactResponse(artifact.get(), "performance-summary"));
+            }
         }
+
+        return renderPdf("performance-summary", "performance-summary", "performance summary", () -> reportService.generatePerformanceSummaryReport());
     }
 
     /**
@@ -111,27 +178,60 @@ public class ReportController {
      * GET /api/reports/department/{department}
      */
     @GetMapping("/department/{department}")
-    public ResponseEntity<byte[]> generateDepartmentReport(@PathVariable String department) {
-        try {
-            // For now, generate employee roster filtered by department
-            // This can be extended to include department-specific analysis
-            byte[] pdfBytes = reportService.generateEmployeeRosterReport();
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", 
-                "department-" + department + "-report-" + LocalDateTime.now().format(FILENAME_FORMATTER) + ".pdf");
-            headers.setContentLength(pdfBytes.length);
-            
-            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
-            
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(("Error generating department report: " + e.getMessage()).getBytes());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(("Unexpected error: " + e.getMessage()).getBytes());
-        }
+    public CompletableFuture<ResponseEntity<byte[]>> generateDepartmentReport(@PathVariable String department) {
+        return renderPdf("department", "department-" + department + "-report", "department",
+            () -> reportService.generateDepartmentReport(department));
+    }
+
+    /**
+     * Generate a ZIP bundle with one report per department
+     * GET /api/reports/department-bundle
+     */
+    @GetMapping("/department-bundle")
+    public ResponseEntity<StreamingResponseBody> generateDepartmentReportBundle() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDispositionFormData("attachment", 
+            "department-reports-" + LocalDateTime.now().format(FILENAME_FORMATTER) + ".zip");
+
+        ReportRenderingService.Permit permit = reportRenderingService.admit("department-bundle");
+        StreamingResponseBody body = outputStream -> {
+            try (permit) {
+                reportBundleService.writeDepartmentReportBundle(outputStream);
+            }
+        };
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Dashboard chart image, the same chart the PDF reports embed
+     * GET /api/reports/charts/{chart}?width=400&height=200&format=png
+     * chart: salary-distribution or performance-ratings; format: png or svg
+     */
+    @GetMapping("/charts/{chart}")
+    public CompletableFuture<ResponseEntity<byte[]>> getChart(@PathVariable String chart,
+                                                              @RequestParam(defaultValue = "400") int width,
+                                                              @RequestParam(defaultValue = "200") int height,
+                                                              @RequestParam(defaultValue = "png") String format,
+                                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        CompletableFuture<ReportChartService.ChartImage> image = switch (chart) {
+            case ReportChartService.SALARY_DISTRIBUTION -> reportChartService.getSalaryDistributionChart(width, height, format);
+            case ReportChartService.PERFORMANCE_RATINGS -> reportChartService.getPerformanceRatingChart(width, height, format);
+            default -> throw new RuntimeException("Chart not found: " + chart);
+        };
+
+        return image.thenApply(rendered -> {
+            String etag = "\"" + rendered.etag() + "\"";
+            CacheControl cacheControl = CacheControl.maxAge(60, TimeUnit.SECONDS).cachePrivate();
+            if (etag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+            }
+            return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(rendered.contentType()))
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(rendered.content());
+        });
     }
 
     /**
@@ -157,6 +257,15 @@ public class ReportController {
         return ResponseEntity.ok("Report service is healthy and ready to generate PDF reports");
     }
 
+    /**
+     * Render pool and per-type admission load
+     * GET /api/reports/capacity
+     */
+    @GetMapping("/capacity")
+    public ResponseEntity<Map<String, Object>> getRenderCapacity() {
+        return ResponseEntity.ok(reportRenderingService.getStatus());
+    }
+
     /**
      * Get saved reports - placeholder endpoint
      * GET /api/reports/saved
@@ -205,37 +314,39 @@ public class ReportController {
     }
 
     /**
-     * Generate projects report - placeholder endpoint  
+     * Generate projects report
      * POST /api/reports/projects
+     * The summary is computed up front; the project rows are then written to the
+     * response straight from the database cursor
      */
     @PostMapping("/projects")
-    public ResponseEntity<Object> generateProjectsReport(@RequestBody(required = false) Object filters) {
-        try {
-            // Get project data from report service
-            Object projectData = reportService.getProjectReportData();
-            
-            Map<String, Object> summary = new HashMap<>();
-            summary.put("totalProjects", reportService.getProjectCount());
-            summary.put("activeProjects", reportService.getActiveProjectCount());
-            summary.put("generatedAt", LocalDateTime.now().format(FILENAME_FORMATTER));
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("data", projectData);
-            response.put("summary", summary);
-            response.put("reportType", "projects");
-            response.put("message", "Projects report generated successfully");
-            
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            System.err.println("Error generating projects report: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of(
-                    "error", "Failed to generate projects report",
-                    "message", e.getMessage(),
-                    "reportType", "projects"
-                ));
-        }
+    public ResponseEntity<StreamingResponseBody> generateProjectsReport(@RequestBody(required = false) Object filters) {
+        // One grouped query for all status counts
+        Map<String, Long> statusCounts = reportService.getProjectCountsByStatus();
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("totalProjects", statusCounts.values().stream().mapToLong(Long::longValue).sum());
+        summary.put("activeProjects", statusCounts.getOrDefault("ACTIVE", 0L));
+        summary.put("projectsByStatus", statusCounts);
+        summary.put("generatedAt", LocalDateTime.now().format(FILENAME_FORMATTER));
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                     .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                generator.writeStartObject();
+                generator.writeObjectField("summary", summary);
+                generator.writeStringField("reportType", "projects");
+                generator.writeStringField("message", "Projects report generated successfully");
+                generator.writeFieldName("data");
+                reportService.writeProjectReportData(generator);
+                generator.writeEndObject();
+            } catch (IOException | RuntimeException e) {
+                // The status is already sent; the client sees a truncated document
+                System.err.println("Error generating projects report: " + e.getMessage());
+                throw e;
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     /**
@@ -273,42 +384,205 @@ public class ReportController {
     }
 
     /**
-     * Generate performance report - placeholder endpoint  
+     * Salary percentiles (p10, p25, median, p75, p90) and histograms
+     * GET /api/reports/salary-distribution?groupBy=department|role&bins=10
+     * Served from in-memory quantile sketches; the employee table is not scanned.
+     */
+    @GetMapping("/salary-distribution")
+    public ResponseEntity<Object> getSalaryDistribution(@RequestParam(defaultValue = "department") String groupBy,
+                                                        @RequestParam(defaultValue = "10") int bins) {
+        if (bins < 1 || bins > 100) {
+            return ResponseEntity.badRequest().body(Map.of("error", "bins must be between 1 and 100"));
+        }
+        try {
+            Map<String, Object> distribution = new LinkedHashMap<>(salaryDistributionService.getSalaryDistribution(groupBy, bins));
+            distribution.put("generatedAt", LocalDateTime.now().format(FILENAME_FORMATTER));
+            return ResponseEntity.ok(distribution);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Generate performance report
      * POST /api/reports/performance
+     * Optional body: {"department": "...", "reviewPeriod": "..."}; served from the performance rollups
      */
     @PostMapping("/performance")
-    public ResponseEntity<Object> generatePerformanceReport(@RequestBody(required = false) Object filters) {
-        return ResponseEntity.ok(Map.of(
-            "reportType", "performance",
-            "generatedAt", LocalDateTime.now().format(FILENAME_FORMATTER),
-            "totalReviews", 0,
-            "message", "Performance report generated successfully"
-        ));
+    public ResponseEntity<Object> generatePerformanceReport(@RequestBody(required = false) Map<String, Object> filters) {
+        String department = filterValue(filters, "department");
+        String reviewPeriod = filterValue(filters, "reviewPeriod");
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("reportType", "performance");
+        report.put("generatedAt", LocalDateTime.now().format(FILENAME_FORMATTER));
+        report.put("department", department);
+        report.put("reviewPeriod", reviewPeriod);
+        report.putAll(performanceRollupService.getPerformanceAnalytics(department, reviewPeriod));
+        report.put("message", "Performance report generated successfully");
+        return ResponseEntity.ok(report);
+    }
+
+    private static String filterValue(Map<String, Object> filters, String name) {
+        if (filters == null || filters.get(name) == null) {
+            return null;
+        }
+        String value = filters.get(name).toString().trim();
+        return value.isEmpty() || "all".equalsIgnoreCase(value) ? null : value;
     }
 
     /**
-     * Get report templates - placeholder endpoint  
+     * Get report templates: the standard reports plus every saved custom report
      * GET /api/reports/templates
      */
     @GetMapping("/templates")
-    public ResponseEntity<Object[]> getReportTemplates() {
-        Object[] templates = {
+    public ResponseEntity<List<Map<String, Object>>> getReportTemplates() {
+        List<Map<String, Object>> templates = new ArrayList<>(List.of(
             Map.of("id", "employee-roster", "name", "Employee Roster", "description", "List of all employees"),
             Map.of("id", "salary-analysis", "name", "Salary Analysis", "description", "Salary statistics and analysis"),
             Map.of("id", "performance-summary", "name", "Performance Summary", "description", "Performance review summary")
-        };
+        ));
+        for (CustomReportDefinition definition : customReportService.getReports()) {
+            Map<String, Object> template = new LinkedHashMap<>();
+            template.put("id", "custom-" + definition.getId());
+            template.put("name", definition.getName());
+            template.put("description", definition.getDescription() != null ? definition.getDescription() : "");
+            template.put("entity", definition.getEntity());
+            template.put("custom", true);
+            templates.add(template);
+        }
         return ResponseEntity.ok(templates);
     }
 
+    // ============ Custom Reports ============
+
     /**
-     * Save custom report - placeholder endpoint  
+     * Save a custom report definition; it is validated and compiled before it is stored
      * POST /api/reports/custom
      */
     @PostMapping("/custom")
-    public ResponseEntity<Object> saveCustomReport(@RequestBody Object reportData) {
-        return ResponseEntity.ok(Map.of(
-            "id", System.currentTimeMillis(),
-            "message", "Custom report saved successfully"
-        ));
+    public ResponseEntity<Object> saveCustomReport(@RequestBody CustomReportSpec reportData) {
+        CustomReportDefinition definition = customReportService.saveReport(reportData);
+        Map<String, Object> response = customReportSummary(definition);
+        response.put("message", "Custom report saved successfully");
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * List saved custom reports
+     * GET /api/reports/custom
+     */
+    @GetMapping("/custom")
+    public ResponseEntity<List<Map<String, Object>>> getCustomReports() {
+        return ResponseEntity.ok(customReportService.getReports().stream()
+            .map(this::customReportSummary)
+            .toList());
+    }
+
+    /**
+     * Get one saved custom report definition
+     * GET /api/reports/custom/{id}
+     */
+    @GetMapping("/custom/{id}")
+    public ResponseEntity<Object> getCustomReport(@PathVariable int id) {
+        return ResponseEntity.ok(customReportSummary(customReportService.getReport(id)));
+    }
+
+    /**
+     * Replace a saved custom report definition
+     * PUT /api/reports/custom/{id}
+     */
+    @PutMapping("/custom/{id}")
+    public ResponseEntity<Object> updateCustomReport(@PathVariable int id, @RequestBody CustomReportSpec reportData) {
+        return ResponseEntity.ok(customReportSummary(customReportService.updateReport(id, reportData)));
+    }
+
+    /**
+     * Delete a saved custom report
+     * DELETE /api/reports/custom/{id}
+     */
+    @DeleteMapping("/custom/{id}")
+    public ResponseEntity<Void> deleteCustomReport(@PathVariable int id) {
+        customReportService.deleteReport(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Run a saved custom report and return its rows as JSON
+     * GET /api/reports/custom/{id}/run
+     */
+    @GetMapping("/custom/{id}/run")
+    public ResponseEntity<Object> runCustomReport(@PathVariable int id) {
+        return ResponseEntity.ok(customReportService.runReport(id));
+    }
+
+    /**
+     * Render a saved custom report as PDF
+     * GET /api/reports/custom/{id}/pdf
+     */
+    @GetMapping("/custom/{id}/pdf")
+    public CompletableFuture<ResponseEntity<byte[]>> generateCustomReportPdf(@PathVariable int id) {
+        return renderPdf("custom", "custom-report-" + id, "custom",
+            () -> customReportService.generateReportPdf(id));
+    }
+
+    private Map<String, Object> customReportSummary(CustomReportDefinition definition) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("id", definition.getId());
+        summary.put("name", definition.getName());
+        summary.put("description", definition.getDescription());
+        summary.put("entity", definition.getEntity());
+        summary.put("definition", customReportService.fromJson(definition.getDefinition()));
+        summary.put("createdAt", definition.getCreatedAt());
+        summary.put("updatedAt", definition.getUpdatedAt());
+        return summary;
+    }
+
+    /**
+     * Renders a PDF on the report render pool, keeping the request thread free.
+     * Over-capacity requests fail with ReportCapacityException (429).
+     */
+    private CompletableFuture<ResponseEntity<byte[]>> renderPdf(String reportType, String filenamePrefix,
+                                                                String errorLabel, Callable<byte[]> renderer) {
+        return reportRenderingService.submit(reportType, () -> {
+            try {
+                byte[] pdfBytes = renderer.call();
+
+                HttpHeaders headers = new HttpHeaders();
+                headers.setContentType(MediaType.APPLICATION_PDF);
+                headers.setContentDispositionFormData("attachment", 
+                    filenamePrefix + "-" + LocalDateTime.now().format(FILENAME_FORMATTER) + ".pdf");
+                headers.setContentLength(pdfBytes.length);
+
+                return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+
+            } catch (IOException e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(("Error generating " + errorLabel + " report: " + e.getMessage()).getBytes());
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(("Unexpected error: " + e.getMessage()).getBytes());
+            }
+        });
+    }
+
+    /**
+     * Builds a PDF response from a pre-generated artifact.
+     * Last-Modified / Age tell the client when it was rendered; X-Report-Stale is true
+     * when data has changed since, in which case ?fresh=true renders a current copy.
+     */
+    private ResponseEntity<byte[]> artifactResponse(ReportArtifact artifact, String filenamePrefix) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(artifact.getContentType()));
+        headers.setContentDispositionFormData("attachment", 
+            filenamePrefix + "-" + artifact.getGeneratedAt().format(FILENAME_FORMATTER) + ".pdf");
+        headers.setContentLength(artifact.getContent().length);
+        headers.setLastModified(artifact.getGeneratedAt().atZone(ZoneId.systemDefault()));
+        headers.set(HttpHeaders.AGE, String.valueOf(
+            Math.max(0, Duration.between(artifact.getGeneratedAt(), LocalDateTime.now()).getSeconds())));
+        headers.set("X-Report-Version", String.valueOf(artifact.getVersion()));
+        headers.set("X-Report-Stale", String.valueOf(reportArtifactService.isStale(artifact)));
+
+        return new ResponseEntity<>(artifact.getContent(), headers, HttpStatus.OK);
     }
 }
@@ -8,6 +8,8 @@ import com.dmcdesigns.capstone.Repositories.DepartmentRepository;
 import com.dmcdesigns.capstone.Repositories.EmployeeRepository;
 import com.dmcdesigns.capstone.Repositories.ProjectRepository;
 import com.dmcdesigns.capstone.Repositories.UserRepository;
+import com.dmcdesigns.capstone.Services.DepartmentLookupService;
+import com.dmcdesigns.capstone.Services.DepartmentTreeService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -36,6 +38,12 @@ public class SearchController {
     @Autowired
     private ProjectRepository projectRepository;
 
+    @Autowired
+    private DepartmentLookupService departmentLookupService;
+
+    @Autowired
+    private DepartmentTreeService departmentTreeService;
+
     // Global search across all entities
     @GetMapping("/global")
     public ResponseEntity<Map<String, Object>> globalSearch(
@@ -153,7 +161,9 @@ public class SearchController {
             Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<User> users = userRepository.findUsersByDepartment(department, pageable);
+        Page<User> users = departmentLookupService.findId(department)
+            .map(departmentId -> userRepository.findUsersByDepartmentId(departmentId, pageable))
+            .orElse(Page.empty(pageable));
         return ResponseEntity.ok(users);
     }
 
@@ -164,13 +174,18 @@ public class SearchController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "lastName") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "false") boolean includeDescendants) {
 
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
             Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Employee> employees = employeeRepository.findEmployeesByDepartment(department, pageable);
+        Page<Employee> employees = departmentLookupService.findId(department)
+            .map(departmentId -> departmentTreeService.findSubtree(departmentId, includeDescendants)
+                .map(tree -> employeeRepository.findEmployeesInDepartmentTree(tree.left(), tree.right(), pageable))
+                .orElseGet(() -> employeeRepository.findEmployeesByDepartmentId(departmentId, pageable)))
+            .orElse(Page.empty(pageable));
         return ResponseEntity.ok(employees);
     }
 
@@ -273,18 +288,22 @@ public class SearchController {
 
         Map<String, Object> results = new HashMap<>();
 
-        if (name != null && !name.trim().isEmpty()) {
-            Page<User> users = userRepository.searchUsers(name, pageable);
-            results.put("users", users);
-        }
-
         if (department != null && !department.trim().isEmpty()) {
-            Page<User> usersByDept = userRepository.findUsersByDepartment(department, pageable);
+            // Before any user query: loaded users leave lazy department references in the
+            // persistence context, and the department search would then return those proxies
             Page<Department> departments = departmentRepository.searchDepartmentsByName(department, pageable);
+            Page<User> usersByDept = departmentLookupService.findId(department)
+                .map(departmentId -> userRepository.findUsersByDepartmentId(departmentId, pageable))
+                .orElse(Page.empty(pageable));
             results.put("usersByDepartment", usersByDept);
             results.put("departments", departments);
         }
 
+        if (name != null && !name.trim().isEmpty()) {
+            Page<User> users = userRepository.searchUsers(name, pageable);
+            results.put("users", users);
+        }
+
         if (role != null && !role.trim().isEmpty()) {
             Page<Employee> employees = employeeRepository.findEmployeesByRole(role, pageable);
             results.put("employeesByRole", employees);
@@ -0,0 +1,35 @@
+package com.dmcdesigns.capstone.Controllers;
+
+import com.dmcdesigns.capstone.DTOs.DirectorySyncResult;
+import com.dmcdesigns.capstone.Services.DirectorySyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Delta sync of the user, department and project directory for offline clients
+ *
+ * @author DMC Designs
+ */
+@RestController
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class SyncController {
+
+    @Autowired
+    private DirectorySyncService directorySyncService;
+
+    /**
+     * Changes since the token from the previous sync
+     * GET /api/sync?token=1234
+     * Without a token, or with one too old to serve, the response is a full
+     * snapshot with reset=true
+     */
+    @GetMapping
+    public ResponseEntity<DirectorySyncResult> sync(@RequestParam(required = false) String token) {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noStore())
+            .body(directorySyncService.sync(token));
+    }
+}
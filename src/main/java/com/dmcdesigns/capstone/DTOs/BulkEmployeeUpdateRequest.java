@@ -0,0 +1,17 @@
+package com.dmcdesigns.capstone.DTOs;
+
+import java.util.List;
+
+/**
+ * Selects the employees a bulk access or role change applies to: either an
+ * explicit id list, or a department and/or role filter, but not both.
+ *
+ * @param ids Employee ids, or null to select by filter
+ * @param department Exact department name to filter on
+ * @param role Exact current role to filter on
+ * @param newRole The role to assign; only used by a role change
+ *
+ * @author DMC Designs
+ */
+public record BulkEmployeeUpdateRequest(List<Integer> ids, String department, String role, String newRole) {
+}
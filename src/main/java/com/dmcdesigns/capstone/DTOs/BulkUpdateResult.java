@@ -0,0 +1,20 @@
+package com.dmcdesigns.capstone.DTOs;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk access, role or manager change.
+ * Matched employees that already had the requested value are counted in
+ * matched but not in updated.
+ *
+ * @param matched Employees the ids or filter selected
+ * @param updated Employees whose row actually changed
+ * @param notFound Requested ids with no employee, or null for a filter
+ *
+ * @author DMC Designs
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkUpdateResult(long matched, long updated, List<Integer> notFound) {
+}
@@ -0,0 +1,30 @@
+package com.dmcdesigns.capstone.DTOs;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One committed change pushed on the /api/events stream.
+ * The version is the event's position in the stream (also its SSE id), so a
+ * client can apply events in order and resume after the last one it saw. A
+ * "bulk" event has no id: many rows of that type changed at once and the
+ * client should reload the list.
+ *
+ * @param type employee, project or review
+ * @param id The entity id, or null for a bulk change
+ * @param op created, updated, deleted or bulk
+ * @param version Stream sequence number
+ *
+ * @author DMC Designs
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChangeEvent(String type, Integer id, String op, long version) {
+
+    public static final String EMPLOYEE = "employee";
+    public static final String PROJECT = "project";
+    public static final String REVIEW = "review";
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    public static final String BULK = "bulk";
+}
@@ -0,0 +1,30 @@
+package com.dmcdesigns.capstone.DTOs;
+
+import com.dmcdesigns.capstone.Entities.Department;
+import com.dmcdesigns.capstone.Entities.Project;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One delta-sync response (GET /api/sync).
+ * The lists hold the current state of every user, department and project
+ * created or updated since the client's token; deleted maps each of those
+ * three types to the ids removed in the same span. When reset is true the
+ * lists are a full snapshot and the client should replace its local copy,
+ * e.g. on a first sync or when its token is too old. The client sends the
+ * returned token on its next sync.
+ *
+ * @param token Opaque position to sync from next time
+ * @param reset True if this is a full snapshot rather than a delta
+ * @param users Created or updated users, as employee summaries
+ * @param departments Created or updated departments
+ * @param projects Created or updated projects
+ * @param deleted Ids deleted since the token, keyed by users, departments or projects
+ *
+ * @author DMC Designs
+ */
+public record DirectorySyncResult(String token, boolean reset, List<EmployeeSummary> users,
+                                  List<Department> departments, List<Project> projects,
+                                  Map<String, List<Integer>> deleted) {
+}
@@ -0,0 +1,87 @@
+package com.dmcdesigns.capstone.DTOs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk employee import.
+ * Rows are numbered from 1 in input order, not counting a CSV header line.
+ * Only the first {@link #MAX_REPORTED_ERRORS} row errors are listed; the
+ * failed count always covers every rejected row.
+ *
+ * @author DMC Designs
+ */
+public class EmployeeImportResult {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    /**
+     * Why one input row was not imported
+     */
+    public record RowError(long row, String message) {
+    }
+
+    private final String format;
+    private long totalRows;
+    private long imported;
+    private long failed;
+    private final List<RowError> errors = new ArrayList<>();
+    private long durationMs;
+
+    public EmployeeImportResult(String format) {
+        this.format = format;
+    }
+
+    public synchronized void addError(long row, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(row, message));
+        }
+    }
+
+    public synchronized void addImported(long count) {
+        imported += count;
+    }
+
+    public synchronized void setTotalRows(long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public synchronized void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public synchronized long getTotalRows() {
+        return totalRows;
+    }
+
+    public synchronized long getImported() {
+        return imported;
+    }
+
+    public synchronized long getFailed() {
+        return failed;
+    }
+
+    public synchronized List<RowError> getErrors() {
+        List<RowError> sorted = new ArrayList<>(errors);
+        sorted.sort((a, b) -> Long.compare(a.row(), b.row()));
+        return sorted;
+    }
+
+    public synchronized boolean isErrorsTruncated() {
+        return failed > errors.size();
+    }
+
+    public synchronized long getDurationMs() {
+        return durationMs;
+    }
+
+    public synchronized long getRowsPerSecond() {
+        return durationMs == 0 ? totalRows : totalRows * 1000 / durationMs;
+    }
+}
@@ -0,0 +1,98 @@
+package com.dmcdesigns.capstone.DTOs;
+
+import java.math.BigDecimal;
+
+/**
+ * Lean row for employee listings.
+ * Built directly by a JPQL constructor expression, so listing employees never
+ * hydrates entities or touches their lazy collections.
+ *
+ * @author DMC Designs
+ */
+public class EmployeeSummary {
+    private final int id;
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final String phoneNumber;
+    private final String department;
+    private final String role;
+    private final BigDecimal salary;
+    private final String hireDate;
+    private final boolean hasAccess;
+    private final String userType;
+
+    public EmployeeSummary(int id, String firstName, String lastName, String email, String phoneNumber,
+                           String department, String role, BigDecimal salary, String hireDate,
+                           boolean hasAccess, Class<?> entityType) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.phoneNumber = phoneNumber;
+        this.department = department;
+        this.role = role;
+        this.salary = salary;
+        this.hireDate = hireDate;
+        this.hasAccess = hasAccess;
+        this.userType = entityType.getSimpleName().toUpperCase();
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public BigDecimal getSalary() {
+        return salary;
+    }
+
+    public String getHireDate() {
+        return hireDate;
+    }
+
+    public boolean isHasAccess() {
+        return hasAccess;
+    }
+
+    /**
+     * ADMIN, MANAGER or EMPLOYEE, matching User.getUserType()
+     */
+    public String getUserType() {
+        return userType;
+    }
+
+    /**
+     * Display title, matching the entities' getPosition()
+     */
+    public String getPosition() {
+        return switch (userType) {
+            case "ADMIN" -> "Administrator";
+            case "MANAGER" -> "Manager";
+            default -> role;
+        };
+    }
+}
@@ -0,0 +1,14 @@
+package com.dmcdesigns.capstone.DTOs;
+
+import java.util.List;
+
+/**
+ * Moves users, with everyone under them, to report to a new manager.
+ *
+ * @param ids Users to move; ignored by the single-user endpoint, which takes the id from the path
+ * @param managerId The new direct manager, or null to make the users top of the hierarchy
+ *
+ * @author DMC Designs
+ */
+public record ManagerAssignmentRequest(List<Integer> ids, Integer managerId) {
+}
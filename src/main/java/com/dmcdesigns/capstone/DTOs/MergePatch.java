@@ -0,0 +1,160 @@
+package com.dmcdesigns.capstone.DTOs;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * An RFC 7396 JSON merge patch, applied one field at a time to a managed
+ * entity. A member present in the patch replaces the field, a null member
+ * clears it, and an absent member leaves it alone. A setter only runs when the
+ * value actually differs, so unchanged fields stay clean in the persistence
+ * context and {@link #isChanged()} tells callers whether there is anything to
+ * write at all.
+ * <p>
+ * The patched resources have no nested objects, so the merge never recurses.
+ *
+ * @author DMC Designs
+ */
+public final class MergePatch {
+
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private final ObjectNode patch;
+    private final ObjectMapper objectMapper;
+    private final Set<String> handled = new HashSet<>();
+    private final List<String> changedFields = new ArrayList<>();
+
+    private MergePatch(ObjectNode patch, ObjectMapper objectMapper) {
+        this.patch = patch;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the body is not a JSON object
+     */
+    public static MergePatch of(JsonNode body, ObjectMapper objectMapper) {
+        if (body == null || !body.isObject()) {
+            throw new IllegalArgumentException("Merge patch must be a JSON object");
+        }
+        return new MergePatch((ObjectNode) body, objectMapper);
+    }
+
+    /**
+     * True if the patch has a member with this name, null or not
+     */
+    public boolean has(String name) {
+        return patch.has(name);
+    }
+
+    /**
+     * The member's value converted to the given type, or null when absent or null
+     */
+    public <T> T value(String name, Class<T> type) {
+        handled.add(name);
+        JsonNode node = patch.get(name);
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        try {
+            return objectMapper.treeToValue(node, type);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid value for " + name + ": " + node);
+        }
+    }
+
+    /**
+     * Applies a member that may be cleared with null
+     */
+    public <T> MergePatch field(String name, Class<T> type, Supplier<T> current, Consumer<T> setter) {
+        if (patch.has(name)) {
+            T value = value(name, type);
+            if (!same(current.get(), value)) {
+                setter.accept(value);
+                changedFields.add(name);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Applies a member that cannot be cleared; null is rejected
+     */
+    public <T> MergePatch requiredField(String name, Class<T> type, Supplier<T> current, Consumer<T> setter) {
+        if (patch.has(name) && patch.get(name).isNull()) {
+            throw new IllegalArgumentException(name + " cannot be removed");
+        }
+        return field(name, type, current, setter);
+    }
+
+    /**
+     * Records a change the caller applied itself, for members with no plain getter
+     */
+    public void markChanged(String name) {
+        handled.add(name);
+        changedFields.add(name);
+    }
+
+    /**
+     * @throws IllegalArgumentException naming every member no field handled
+     */
+    public MergePatch rejectUnknownFields() {
+        Set<String> unknown = new TreeSet<>();
+        for (Iterator<String> names = patch.fieldNames(); names.hasNext(); ) {
+            String name = names.next();
+            if (!handled.contains(name)) {
+                unknown.add(name);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown or read-only field(s): " + String.join(", ", unknown));
+        }
+        return this;
+    }
+
+    /**
+     * Checks the patched entity's bean validation constraints
+     *
+     * @throws IllegalArgumentException listing every violation
+     */
+    public void validate(Object target, Validator validator) {
+        Set<? extends ConstraintViolation<?>> violations = validator.validate(target);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; ")));
+        }
+    }
+
+    public boolean isChanged() {
+        return !changedFields.isEmpty();
+    }
+
+    public List<String> getChangedFields() {
+        return List.copyOf(changedFields);
+    }
+
+    // 75000 and 75000.00 are the same salary
+    private static boolean same(Object current, Object value) {
+        if (current instanceof BigDecimal a && value instanceof BigDecimal b) {
+            return a.compareTo(b) == 0;
+        }
+        return Objects.equals(current, value);
+    }
+}
@@ -0,0 +1,67 @@
+package com.dmcdesigns.capstone.DTOs;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * One position in a multi-get response (GET ...?ids=). Entries come back in
+ * the order the ids were requested, duplicates included; an id with no row
+ * has found=false and no item, so the client can tell it apart from a
+ * request that failed.
+ *
+ * @param id The requested id
+ * @param found Whether a row exists for the id
+ * @param item The row, or null when not found
+ *
+ * @author DMC Designs
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MultiGetEntry<T>(Integer id, boolean found, T item) {
+
+    /** Most ids one request may ask for */
+    public static final int MAX_IDS = 1000;
+
+    /** Ids per IN query, so a long list never turns into one oversized statement */
+    public static final int CHUNK_SIZE = 500;
+
+    /**
+     * Loads the distinct ids in chunks of {@link #CHUNK_SIZE} and lays the rows
+     * out in request order
+     *
+     * @param ids Requested ids, in the order the client wants them back
+     * @param loader Fetches the rows for one chunk of ids with a single IN query
+     * @param idOf Extracts a loaded row's id
+     * @throws IllegalArgumentException if ids is empty, holds a null or has more than {@link #MAX_IDS} entries
+     */
+    public static <T> List<MultiGetEntry<T>> collect(List<Integer> ids, Function<List<Integer>, List<T>> loader,
+                                                     Function<T, Integer> idOf) {
+        if (ids == null || ids.isEmpty() || ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("ids must be a non-empty list of ids");
+        }
+        if (ids.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " ids can be requested at once");
+        }
+
+        List<Integer> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Integer, T> rows = new HashMap<>();
+        for (int from = 0; from < distinct.size(); from += CHUNK_SIZE) {
+            for (T row : loader.apply(distinct.subList(from, Math.min(from + CHUNK_SIZE, distinct.size())))) {
+                rows.put(idOf.apply(row), row);
+            }
+        }
+
+        List<MultiGetEntry<T>> entries = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            T row = rows.get(id);
+            entries.add(new MultiGetEntry<>(id, row != null, row));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,63 @@
+package com.dmcdesigns.capstone.DTOs;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only project row for reports.
+ * Built directly by a JPQL constructor expression, so producing it never loads a
+ * Project entity or any of its collections.
+ */
+public class ProjectReportRow {
+    private final int id;
+    private final String name;
+    private final String status;
+    private final String department;
+    private final BigDecimal budget;
+    private final BigDecimal budgetUsed;
+    private final int progress;
+    private final long assignedCount;
+
+    public ProjectReportRow(int id, String name, String status, String department,
+                            BigDecimal budget, BigDecimal budgetUsed, int progress, long assignedCount) {
+        this.id = id;
+        this.name = name;
+        this.status = status;
+        this.department = department;
+        this.budget = budget;
+        this.budgetUsed = budgetUsed;
+        this.progress = progress;
+        this.assignedCount = assignedCount;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public BigDecimal getBudget() {
+        return budget;
+    }
+
+    public BigDecimal getBudgetUsed() {
+        return budgetUsed;
+    }
+
+    public int getProgress() {
+        return progress;
+    }
+
+    public long getAssignedCount() {
+        return assignedCount;
+    }
+}
@@ -1,8 +1,10 @@
 package com.dmcdesigns.capstone.Entities;
 import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
+@DynamicUpdate
 @DiscriminatorValue("ADMIN")
 public class Admin extends Employee {
     
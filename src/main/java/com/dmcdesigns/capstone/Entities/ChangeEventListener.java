@@ -0,0 +1,46 @@
+package com.dmcdesigns.capstone.Entities;
+
+import com.dmcdesigns.capstone.DTOs.ChangeEvent;
+import com.dmcdesigns.capstone.Services.ChangeStreamService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA entity listener that feeds the /api/events change stream. Changes are
+ * only recorded here; the stream service publishes them after commit.
+ *
+ * @author DMC Designs
+ */
+public class ChangeEventListener {
+
+    @Autowired
+    private ObjectProvider<ChangeStreamService> changeStreamService;
+
+    @PostPersist
+    public void onCreate(Object entity) {
+        record(entity, ChangeEvent.CREATED);
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        record(entity, ChangeEvent.UPDATED);
+    }
+
+    @PostRemove
+    public void onDelete(Object entity) {
+        record(entity, ChangeEvent.DELETED);
+    }
+
+    private void record(Object entity, String op) {
+        if (entity instanceof User user) {
+            ListenerServices.ifAvailable(changeStreamService, service -> service.record(ChangeEvent.EMPLOYEE, user.getId(), op));
+        } else if (entity instanceof Project project) {
+            ListenerServices.ifAvailable(changeStreamService, service -> service.record(ChangeEvent.PROJECT, project.getId(), op));
+        } else if (entity instanceof PerformanceReview review) {
+            ListenerServices.ifAvailable(changeStreamService, service -> service.record(ChangeEvent.REVIEW, review.getId(), op));
+        }
+    }
+}
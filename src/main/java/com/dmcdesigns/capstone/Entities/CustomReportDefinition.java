@@ -0,0 +1,92 @@
+package com.dmcdesigns.capstone.Entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A saved, user-defined report. The definition is stored as the JSON of its
+ * CustomReportSpec and compiled to a parameterized query when first run.
+ *
+ * @author DMC Designs
+ */
+@Entity
+@Table(name = "custom_report_definitions", indexes = {
+    @Index(name = "idx_custom_report_definitions_name", columnList = "name", unique = true)
+})
+public class CustomReportDefinition {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, updatable = false)
+    private int id;
+
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    @Column(name = "description", length = 500)
+    private String description;
+
+    @Column(name = "entity", nullable = false, length = 50)
+    private String entity;
+
+    @Column(name = "definition", nullable = false, length = 10000)
+    private String definition;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Default constructor required by JPA
+    public CustomReportDefinition() {
+    }
+
+    public CustomReportDefinition(String name, String description, String entity, String definition) {
+        this.name = name;
+        this.description = description;
+        this.entity = entity;
+        this.definition = definition;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    /**
+     * Replaces the stored definition, e.g. when a saved report is edited
+     */
+    public void update(String name, String description, String entity, String definition) {
+        this.name = name;
+        this.description = description;
+        this.entity = entity;
+        this.definition = definition;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public String getDefinition() {
+        return definition;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,38 @@
+package com.dmcdesigns.capstone.Entities;
+
+import jakarta.persistence.*;
+
+/**
+ * Monotonic counter bumped after every committed write to a tracked data set.
+ * Lets cached or pre-rendered output check cheaply, and across nodes, whether
+ * the data it was built from has changed.
+ *
+ * @author DMC Designs
+ */
+@Entity
+@Table(name = "data_versions")
+public class DataVersion {
+    @Id
+    @Column(name = "name", nullable = false, updatable = false, length = 100)
+    private String name;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    // Default constructor required by JPA
+    public DataVersion() {
+    }
+
+    public DataVersion(String name) {
+        this.name = name;
+        this.version = 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
@@ -1,13 +1,22 @@
 package com.dmcdesigns.capstone.Entities;
 import com.dmcdesigns.capstone.Interfaces.Searchable;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.DynamicUpdate;
 import java.util.List;
 import java.util.ArrayList;
 
 @Entity
-@Table(name = "departments")
+@DynamicUpdate
+@Table(name = "departments", indexes = {
+    @Index(name = "idx_departments_name", columnList = "name", unique = true),
+    @Index(name = "idx_departments_change_seq", columnList = "change_seq"),
+    @Index(name = "idx_departments_parent_id", columnList = "parent_id"),
+    @Index(name = "idx_departments_tree", columnList = "tree_left, tree_right")
+})
+@EntityListeners(DirectorySyncListener.class)
 public class Department implements Searchable {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Id
@@ -23,6 +32,25 @@ public class Department implements Searchable {
     @Size(min = 5, max = 500, message = "Department description must be between 5 and 500 characters")
     private String description;
 
+    // Sequence of the last committed change, stamped just before commit for delta sync
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    @JsonIgnore
+    private Long changeSeq;
+
+    // Parent in the department hierarchy, null for a top-level department; written by DepartmentTreeService
+    @Column(name = "parent_id", insertable = false, updatable = false)
+    private Integer parentId;
+
+    // Nested interval of the department's subtree: every department below it has a tree_left
+    // inside [treeLeft, treeRight]. Null until the tree is first numbered.
+    @Column(name = "tree_left", insertable = false, updatable = false)
+    @JsonIgnore
+    private Integer treeLeft;
+
+    @Column(name = "tree_right", insertable = false, updatable = false)
+    @JsonIgnore
+    private Integer treeRight;
+
     // Default constructor required by JPA
     public Department() {
     }
@@ -43,6 +71,18 @@ public class Department implements Searchable {
     public String getDescription() {
         return description;
     }
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+    public Integer getParentId() {
+        return parentId;
+    }
+    public Integer getTreeLeft() {
+        return treeLeft;
+    }
+    public Integer getTreeRight() {
+        return treeRight;
+    }
 
     //Setters
     public void setName(String name) {
@@ -51,6 +91,10 @@ public class Department implements Searchable {
     public void setDescription(String description) {
         this.description = description;
     }
+    // Only carries a requested parent; the column itself is written by DepartmentTreeService
+    public void setParentId(Integer parentId) {
+        this.parentId = parentId;
+    }
 
     /**
  * String representation of the Department object for logging and debugging
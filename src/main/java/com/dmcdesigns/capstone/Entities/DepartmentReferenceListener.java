@@ -0,0 +1,28 @@
+package com.dmcdesigns.capstone.Entities;
+
+import com.dmcdesigns.capstone.Interfaces.DepartmentAssignable;
+import com.dmcdesigns.capstone.Services.DepartmentLookupService;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA entity listener that points an entity's department foreign key at the
+ * department it names, before every insert and update.
+ *
+ * @author DMC Designs
+ */
+public class DepartmentReferenceListener {
+
+    @Autowired
+    private ObjectProvider<DepartmentLookupService> departmentLookupService;
+
+    @PrePersist
+    @PreUpdate
+    public void assignDepartment(Object entity) {
+        if (entity instanceof DepartmentAssignable assignable) {
+            ListenerServices.ifAvailable(departmentLookupService, service -> service.assign(assignable));
+        }
+    }
+}
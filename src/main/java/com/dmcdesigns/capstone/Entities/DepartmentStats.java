@@ -0,0 +1,123 @@
+package com.dmcdesigns.capstone.Entities;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Running totals for one department: headcount, salary sum, project count and
+ * review count. Kept up to date as employees, projects and reviews are written,
+ * so department pages and reports read one row per department instead of
+ * loading or counting every member.
+ *
+ * @author DMC Designs
+ */
+@Entity
+@Table(name = "department_stats")
+public class DepartmentStats {
+
+    // One row per department; the department's own id, not generated
+    @Id
+    @Column(name = "department_id", nullable = false, updatable = false)
+    private int departmentId;
+
+    @Column(name = "headcount", nullable = false)
+    private long headcount;
+
+    @Column(name = "salary_sum", nullable = false, precision = 15, scale = 2)
+    private BigDecimal salarySum = BigDecimal.ZERO;
+
+    @Column(name = "project_count", nullable = false)
+    private long projectCount;
+
+    @Column(name = "review_count", nullable = false)
+    private long reviewCount;
+
+    // Default constructor required by JPA
+    public DepartmentStats() {
+    }
+
+    public DepartmentStats(int departmentId) {
+        this.departmentId = departmentId;
+    }
+
+    /**
+     * Adds (count > 0) or removes (count < 0) employees with the given total salary
+     */
+    public void addEmployees(long count, BigDecimal salary) {
+        headcount += count;
+        if (salary != null) {
+            salarySum = salarySum.add(count < 0 ? salary.negate() : salary);
+        }
+    }
+
+    public void addProjects(long count) {
+        projectCount += count;
+    }
+
+    public void addReviews(long count) {
+        reviewCount += count;
+    }
+
+    /**
+     * Replaces the employee totals (used when a bulk move is recounted)
+     */
+    public void setEmployeeTotals(long headcount, BigDecimal salarySum) {
+        this.headcount = headcount;
+        this.salarySum = salarySum != null ? salarySum : BigDecimal.ZERO;
+    }
+
+    /**
+     * Replaces this row's totals with another's (used by the full rebuild)
+     */
+    public void copyTotalsFrom(DepartmentStats other) {
+        headcount = other.headcount;
+        salarySum = other.salarySum;
+        projectCount = other.projectCount;
+        reviewCount = other.reviewCount;
+    }
+
+    public boolean hasSameTotals(DepartmentStats other) {
+        return headcount == other.headcount && salarySum.compareTo(other.salarySum) == 0
+            && projectCount == other.projectCount && reviewCount == other.reviewCount;
+    }
+
+    public boolean isEmpty() {
+        return headcount == 0 && projectCount == 0 && reviewCount == 0;
+    }
+
+    public BigDecimal getAverageSalary() {
+        return headcount > 0 ? salarySum.divide(BigDecimal.valueOf(headcount), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO.setScale(2);
+    }
+
+    public int getDepartmentId() {
+        return departmentId;
+    }
+
+    public long getHeadcount() {
+        return headcount;
+    }
+
+    public BigDecimal getSalarySum() {
+        return salarySum;
+    }
+
+    public long getProjectCount() {
+        return projectCount;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    @Override
+    public String toString() {
+        return "DepartmentStats{" +
+                "departmentId=" + departmentId +
+                ", headcount=" + headcount +
+                ", salarySum=" + salarySum +
+                ", projectCount=" + projectCount +
+                ", reviewCount=" + reviewCount +
+                '}';
+    }
+}
@@ -0,0 +1,42 @@
+package com.dmcdesigns.capstone.Entities;
+
+import com.dmcdesigns.capstone.Services.DirectorySyncService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA entity listener that collects changed users, departments and projects
+ * for delta sync. The sync service stamps them with the transaction's change
+ * sequence, or writes tombstones for deletes, just before commit.
+ *
+ * @author DMC Designs
+ */
+public class DirectorySyncListener {
+
+    @Autowired
+    private ObjectProvider<DirectorySyncService> directorySyncService;
+
+    @PostPersist
+    @PostUpdate
+    public void onChange(Object entity) {
+        record(entity, false);
+    }
+
+    @PostRemove
+    public void onDelete(Object entity) {
+        record(entity, true);
+    }
+
+    private void record(Object entity, boolean deleted) {
+        if (entity instanceof User user) {
+            ListenerServices.ifAvailable(directorySyncService, service -> service.record(DirectorySyncService.USERS, user.getId(), deleted));
+        } else if (entity instanceof Department department) {
+            ListenerServices.ifAvailable(directorySyncService, service -> service.record(DirectorySyncService.DEPARTMENTS, department.getId(), deleted));
+        } else if (entity instanceof Project project) {
+            ListenerServices.ifAvailable(directorySyncService, service -> service.record(DirectorySyncService.PROJECTS, project.getId(), deleted));
+        }
+    }
+}
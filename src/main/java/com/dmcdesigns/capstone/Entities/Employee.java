@@ -2,6 +2,7 @@ package com.dmcdesigns.capstone.Entities;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.math.BigDecimal;
 
 /**
@@ -11,6 +12,7 @@ import java.math.BigDecimal;
  * @author DMC Designs
  */
 @Entity
+@DynamicUpdate
 @DiscriminatorValue("EMPLOYEE")
 public class Employee extends User {
     @Column(name = "role", nullable = false)
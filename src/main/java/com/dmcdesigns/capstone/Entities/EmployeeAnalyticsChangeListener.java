@@ -0,0 +1,29 @@
+package com.dmcdesigns.capstone.Entities;
+
+import com.dmcdesigns.capstone.Services.EmployeeAnalyticsService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA entity listener that adds changed employees to the analytics change log,
+ * so the columnar snapshot can reload just those rows.
+ *
+ * @author DMC Designs
+ */
+public class EmployeeAnalyticsChangeListener {
+
+    @Autowired
+    private ObjectProvider<EmployeeAnalyticsService> employeeAnalyticsService;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof Employee employee) {
+            ListenerServices.ifAvailable(employeeAnalyticsService, service -> service.recordChange(employee.getId()));
+        }
+    }
+}
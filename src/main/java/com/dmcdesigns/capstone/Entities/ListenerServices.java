@@ -0,0 +1,25 @@
+package com.dmcdesigns.capstone.Entities;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.function.Consumer;
+
+/**
+ * Looks up the services the entity listeners call. Hibernate injects the
+ * providers only when it creates listeners through the Spring bean container,
+ * which sliced test contexts (e.g. @DataJpaTest) do not, so a missing provider
+ * is treated like a missing bean.
+ *
+ * @author DMC Designs
+ */
+final class ListenerServices {
+
+    private ListenerServices() {
+    }
+
+    static <T> void ifAvailable(ObjectProvider<T> provider, Consumer<T> action) {
+        if (provider != null) {
+            provider.ifAvailable(action);
+        }
+    }
+}
@@ -1,4 +1,5 @@
 package com.dmcdesigns.capstone.Entities;
+import com.dmcdesigns.capstone.Interfaces.DepartmentAssignable;
 import com.dmcdesigns.capstone.Interfaces.Reportable;
 import com.dmcdesigns.capstone.Interfaces.Searchable;
 import java.util.ArrayList;
@@ -10,8 +11,11 @@ import jakarta.validation.constraints.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
-@Table(name = "performance_reviews")
-public class PerformanceReview implements Reportable, Searchable {
+@Table(name = "performance_reviews", indexes = {
+    @Index(name = "idx_performance_reviews_department_id", columnList = "department_id")
+})
+@EntityListeners({DepartmentReferenceListener.class, ReportDataChangeListener.class, ChangeEventListener.class})
+public class PerformanceReview implements Reportable, Searchable, DepartmentAssignable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id", nullable = false, updatable = false)
@@ -56,6 +60,11 @@ public class PerformanceReview implements Reportable, Searchable {
     @Column(name = "department", nullable = false)
     private String department;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "department_id", foreignKey = @ForeignKey(name = "fk_performance_reviews_department"))
+    @JsonIgnore
+    private Department departmentRef;
+
     @Column(name = "review_period", nullable = false)
     @NotBlank(message = "Review period is required")
     @Size(min = 2, max = 50, message = "Review period must be between 2 and 50 characters")
@@ -110,6 +119,16 @@ public class PerformanceReview implements Reportable, Searchable {
         return department;
     }
 
+    @Override
+    public Department getDepartmentRef() {
+        return departmentRef;
+    }
+
+    @Override
+    public void setDepartmentRef(Department departmentRef) {
+        this.departmentRef = departmentRef;
+    }
+
     public String getReviewPeriod() {
         return reviewPeriod;
     }
@@ -0,0 +1,205 @@
+package com.dmcdesigns.capstone.Entities;
+
+import jakarta.persistence.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Running totals of performance reviews for one department and review period.
+ * Kept up to date as reviews are written, so dashboards can compute averages and
+ * distributions from one row per department instead of scanning every review.
+ *
+ * @author DMC Designs
+ */
+@Entity
+@Table(name = "performance_rollups", indexes = {
+    @Index(name = "idx_performance_rollups_dept_period", columnList = "department, review_period", unique = true)
+})
+public class PerformanceRollup {
+    public static final int MIN_RATING = 1;
+    public static final int MAX_RATING = 5;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, updatable = false)
+    private int id;
+
+    @Column(name = "department", nullable = false, length = 100)
+    private String department;
+
+    @Column(name = "review_period", nullable = false, length = 50)
+    private String reviewPeriod;
+
+    @Column(name = "review_count", nullable = false)
+    private long reviewCount;
+
+    // Reviews with a rating in range; unrated drafts are counted but not averaged
+    @Column(name = "rated_count", nullable = false)
+    private long ratedCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_1_count", nullable = false)
+    private long rating1Count;
+
+    @Column(name = "rating_2_count", nullable = false)
+    private long rating2Count;
+
+    @Column(name = "rating_3_count", nullable = false)
+    private long rating3Count;
+
+    @Column(name = "rating_4_count", nullable = false)
+    private long rating4Count;
+
+    @Column(name = "rating_5_count", nullable = false)
+    private long rating5Count;
+
+    @Column(name = "draft_count", nullable = false)
+    private long draftCount;
+
+    @Column(name = "submitted_count", nullable = false)
+    private long submittedCount;
+
+    @Column(name = "approved_count", nullable = false)
+    private long approvedCount;
+
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+
+    // Default constructor required by JPA
+    public PerformanceRollup() {
+    }
+
+    public PerformanceRollup(String department, String reviewPeriod) {
+        this.department = department;
+        this.reviewPeriod = reviewPeriod;
+    }
+
+    /**
+     * Adds (count > 0) or removes (count < 0) reviews with the given rating and status
+     */
+    public void add(int rating, String status, int count) {
+        reviewCount += count;
+        if (rating >= MIN_RATING && rating <= MAX_RATING) {
+            ratedCount += count;
+            ratingSum += (long) rating * count;
+            switch (rating) {
+                case 1 -> rating1Count += count;
+                case 2 -> rating2Count += count;
+                case 3 -> rating3Count += count;
+                case 4 -> rating4Count += count;
+                default -> rating5Count += count;
+            }
+        }
+        if (status != null) {
+            switch (status) {
+                case "DRAFT" -> draftCount += count;
+                case "SUBMITTED" -> submittedCount += count;
+                case "APPROVED" -> approvedCount += count;
+                case "COMPLETED" -> completedCount += count;
+                default -> { }
+            }
+        }
+    }
+
+    /**
+     * Adds another rollup's totals to this one
+     */
+    public void merge(PerformanceRollup other) {
+        reviewCount += other.reviewCount;
+        ratedCount += other.ratedCount;
+        ratingSum += other.ratingSum;
+        rating1Count += other.rating1Count;
+        rating2Count += other.rating2Count;
+        rating3Count += other.rating3Count;
+        rating4Count += other.rating4Count;
+        rating5Count += other.rating5Count;
+        draftCount += other.draftCount;
+        submittedCount += other.submittedCount;
+        approvedCount += other.approvedCount;
+        completedCount += other.completedCount;
+    }
+
+    /**
+     * Replaces this rollup's totals with another's (used by the full rebuild)
+     */
+    public void copyTotalsFrom(PerformanceRollup other) {
+        reviewCount = 0;
+        ratedCount = 0;
+        ratingSum = 0;
+        rating1Count = 0;
+        rating2Count = 0;
+        rating3Count = 0;
+        rating4Count = 0;
+        rating5Count = 0;
+        draftCount = 0;
+        submittedCount = 0;
+        approvedCount = 0;
+        completedCount = 0;
+        merge(other);
+    }
+
+    public boolean hasSameTotals(PerformanceRollup other) {
+        return reviewCount == other.reviewCount && ratedCount == other.ratedCount
+            && ratingSum == other.ratingSum && getRatingDistribution().equals(other.getRatingDistribution())
+            && getStatusCounts().equals(other.getStatusCounts());
+    }
+
+    public Double getAverageRating() {
+        return ratedCount > 0 ? (double) ratingSum / ratedCount : null;
+    }
+
+    public Map<Integer, Long> getRatingDistribution() {
+        Map<Integer, Long> distribution = new LinkedHashMap<>();
+        distribution.put(1, rating1Count);
+        distribution.put(2, rating2Count);
+        distribution.put(3, rating3Count);
+        distribution.put(4, rating4Count);
+        distribution.put(5, rating5Count);
+        return distribution;
+    }
+
+    public Map<String, Long> getStatusCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("DRAFT", draftCount);
+        counts.put("SUBMITTED", submittedCount);
+        counts.put("APPROVED", approvedCount);
+        counts.put("COMPLETED", completedCount);
+        return counts;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public String getReviewPeriod() {
+        return reviewPeriod;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public long getRatedCount() {
+        return ratedCount;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    @Override
+    public String toString() {
+        return "PerformanceRollup{" +
+                "department='" + department + '\'' +
+                ", reviewPeriod='" + reviewPeriod + '\'' +
+                ", reviewCount=" + reviewCount +
+                ", averageRating=" + getAverageRating() +
+                '}';
+    }
+}
@@ -1,5 +1,6 @@
 package com.dmcdesigns.capstone.Entities;
 
+import com.dmcdesigns.capstone.Interfaces.DepartmentAssignable;
 import com.dmcdesigns.capstone.Interfaces.Reportable;
 import com.dmcdesigns.capstone.Interfaces.Searchable;
 import java.util.ArrayList;
@@ -10,12 +11,18 @@ import java.util.Set;
 import java.util.HashSet;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.DynamicUpdate;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "projects")
-public class Project implements Reportable, Searchable {
+@DynamicUpdate
+@Table(name = "projects", indexes = {
+    @Index(name = "idx_projects_department_id", columnList = "department_id"),
+    @Index(name = "idx_projects_change_seq", columnList = "change_seq")
+})
+@EntityListeners({DepartmentReferenceListener.class, ReportDataChangeListener.class, ChangeEventListener.class, DirectorySyncListener.class})
+public class Project implements Reportable, Searchable, DepartmentAssignable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id", nullable = false, updatable = false)
@@ -56,6 +63,16 @@ public class Project implements Reportable, Searchable {
     @Column(name = "department", nullable = false)
     private String department;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "department_id", foreignKey = @ForeignKey(name = "fk_projects_department"))
+    @JsonIgnore
+    private Department departmentRef;
+
+    // Sequence of the last committed change, stamped just before commit for delta sync
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    @JsonIgnore
+    private Long changeSeq;
+
     @DecimalMin(value = "0.0", message = "Budget must be positive")
     @Column(name = "budget", precision = 12, scale = 2)
     private BigDecimal budget = BigDecimal.ZERO;
@@ -146,6 +163,20 @@ public class Project implements Reportable, Searchable {
         return department;
     }
 
+    @Override
+    public Department getDepartmentRef() {
+        return departmentRef;
+    }
+
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
+    @Override
+    public void setDepartmentRef(Department departmentRef) {
+        this.departmentRef = departmentRef;
+    }
+
     public BigDecimal getBudget() {
         return budget;
     }
@@ -0,0 +1,102 @@
+package com.dmcdesigns.capstone.Entities;
+
+import jakarta.persistence.*;
+import org.hibernate.Length;
+import java.time.LocalDateTime;
+
+/**
+ * A pre-rendered report document.
+ * Each regeneration of a report type stores a new, higher version; the data
+ * version it was built from is kept so callers can tell whether it is stale.
+ *
+ * @author DMC Designs
+ */
+@Entity
+@Table(name = "report_artifacts", indexes = {
+    @Index(name = "idx_report_artifacts_type_version", columnList = "report_type, version", unique = true)
+})
+public class ReportArtifact {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, updatable = false)
+    private int id;
+
+    @Column(name = "report_type", nullable = false, length = 50)
+    private String reportType;
+
+    @Column(name = "version", nullable = false)
+    private int version;
+
+    @Column(name = "data_version", nullable = false)
+    private long dataVersion;
+
+    @Column(name = "generated_at", nullable = false)
+    private LocalDateTime generatedAt;
+
+    @Column(name = "content_type", nullable = false, length = 100)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "content", nullable = false, length = Length.LONG32)
+    private byte[] content;
+
+    // Default constructor required by JPA
+    public ReportArtifact() {
+    }
+
+    public ReportArtifact(String reportType, int version, long dataVersion, String contentType, byte[] content) {
+        this.reportType = reportType;
+        this.version = version;
+        this.dataVersion = dataVersion;
+        this.contentType = contentType;
+        this.content = content;
+        this.sizeBytes = content.length;
+        this.generatedAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public int getId() {
+        return id;
+    }
+
+    public String getReportType() {
+        return reportType;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public long getDataVersion() {
+        return dataVersion;
+    }
+
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    @Override
+    public String toString() {
+        return "ReportArtifact{" +
+                "reportType='" + reportType + '\'' +
+                ", version=" + version +
+                ", dataVersion=" + dataVersion +
+                ", generatedAt=" + generatedAt +
+                ", sizeBytes=" + sizeBytes +
+                '}';
+    }
+}
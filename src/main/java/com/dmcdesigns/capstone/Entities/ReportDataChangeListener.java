@@ -0,0 +1,28 @@
+package com.dmcdesigns.capstone.Entities;
+
+import com.dmcdesigns.capstone.Services.DataVersionService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA entity listener that marks report data as changed whenever a tracked
+ * entity is inserted, updated or deleted. Instantiated by Hibernate through
+ * the Spring bean container, so the version service is injected.
+ *
+ * @author DMC Designs
+ */
+public class ReportDataChangeListener {
+
+    @Autowired
+    private ObjectProvider<DataVersionService> dataVersionService;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        ListenerServices.ifAvailable(dataVersionService, service -> service.markChanged(DataVersionService.REPORT_DATA));
+    }
+}
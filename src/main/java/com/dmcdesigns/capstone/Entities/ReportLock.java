@@ -0,0 +1,45 @@
+package com.dmcdesigns.capstone.Entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Named lease used to make sure only one node runs a scheduled report job at a time.
+ * A node holds the lock until locked_until; an expired lease can be taken over.
+ *
+ * @author DMC Designs
+ */
+@Entity
+@Table(name = "report_locks")
+public class ReportLock {
+    @Id
+    @Column(name = "name", nullable = false, updatable = false, length = 100)
+    private String name;
+
+    @Column(name = "locked_by", length = 200)
+    private String lockedBy;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    // Default constructor required by JPA
+    public ReportLock() {
+    }
+
+    public ReportLock(String name) {
+        this.name = name;
+        this.lockedUntil = LocalDateTime.of(1970, 1, 1, 0, 0);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getLockedBy() {
+        return lockedBy;
+    }
+
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+}
@@ -0,0 +1,96 @@
+package com.dmcdesigns.capstone.Entities;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * One row of the reporting-line closure table: the user with ancestorId is a
+ * manager somewhere above the user with descendantId, depth levels up (1 for
+ * a direct report). Every indirect pair is stored, so "everyone under X" is a
+ * lookup on the primary key prefix and "chain of command for Y" a lookup on
+ * the descendant index. A user's own pair is not stored.
+ * <p>
+ * Rows are only written by ReportingLineService, together with users.manager_id.
+ *
+ * @author DMC Designs
+ */
+@Entity
+@IdClass(ReportingLine.Key.class)
+@Table(name = "reporting_lines", indexes = {
+    @Index(name = "idx_reporting_lines_descendant", columnList = "descendant_id, depth")
+})
+public class ReportingLine {
+
+    @Id
+    @Column(name = "ancestor_id", nullable = false, updatable = false)
+    private int ancestorId;
+
+    @Id
+    @Column(name = "descendant_id", nullable = false, updatable = false)
+    private int descendantId;
+
+    @Column(name = "depth", nullable = false, updatable = false)
+    private int depth;
+
+    // Default constructor required by JPA
+    public ReportingLine() {
+    }
+
+    public ReportingLine(int ancestorId, int descendantId, int depth) {
+        this.ancestorId = ancestorId;
+        this.descendantId = descendantId;
+        this.depth = depth;
+    }
+
+    public int getAncestorId() {
+        return ancestorId;
+    }
+
+    public int getDescendantId() {
+        return descendantId;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    @Override
+    public String toString() {
+        return "ReportingLine{" + ancestorId + " -> " + descendantId + ", depth=" + depth + '}';
+    }
+
+    /**
+     * Composite primary key (ancestor_id, descendant_id)
+     */
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private int ancestorId;
+        private int descendantId;
+
+        public Key() {
+        }
+
+        public Key(int ancestorId, int descendantId) {
+            this.ancestorId = ancestorId;
+            this.descendantId = descendantId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return ancestorId == key.ancestorId && descendantId == key.descendantId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ancestorId, descendantId);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.dmcdesigns.capstone.Entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Marks a deleted user, department or project for delta-sync clients.
+ * Rows are written in the deleting transaction with that transaction's
+ * change sequence, so a client syncing from an older token learns the row is
+ * gone; they are pruned once older than the retention window.
+ *
+ * @author DMC Designs
+ */
+@Entity
+@Table(name = "sync_tombstones", indexes = {
+    @Index(name = "idx_sync_tombstones_change_seq", columnList = "change_seq")
+})
+public class SyncTombstone {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, updatable = false)
+    private long id;
+
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private int entityId;
+
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    // Default constructor required by JPA
+    public SyncTombstone() {
+    }
+
+    public SyncTombstone(String entityType, int entityId, long changeSeq) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.changeSeq = changeSeq;
+        this.deletedAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public long getId() {
+        return id;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public int getEntityId() {
+        return entityId;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+}
@@ -1,11 +1,13 @@
 package com.dmcdesigns.capstone.Entities;
 
+import com.dmcdesigns.capstone.Interfaces.DepartmentAssignable;
 import com.dmcdesigns.capstone.Interfaces.Reviewable;
 import com.dmcdesigns.capstone.Interfaces.Searchable;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -16,10 +18,18 @@ import java.util.ArrayList;
  * @author DMC Designs
  */
 @Entity
-@Table(name = "users")
+@DynamicUpdate
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_department_id", columnList = "department_id"),
+    @Index(name = "idx_users_username", columnList = "username"),
+    @Index(name = "idx_users_email", columnList = "email"),
+    @Index(name = "idx_users_change_seq", columnList = "change_seq"),
+    @Index(name = "idx_users_manager_id", columnList = "manager_id")
+})
 @Inheritance(strategy = InheritanceType.JOINED)
+@EntityListeners({DepartmentReferenceListener.class, ReportDataChangeListener.class, EmployeeAnalyticsChangeListener.class, ChangeEventListener.class, DirectorySyncListener.class})
 @DiscriminatorColumn(name = "user_type", discriminatorType = DiscriminatorType.STRING)
-public class User implements Reviewable, Searchable {
+public class User implements Reviewable, Searchable, DepartmentAssignable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id", nullable = false, updatable = false)
@@ -62,6 +72,20 @@ public class User implements Reviewable, Searchable {
     @Size(min = 2, max = 100, message = "Department must be between 2 and 100 characters")
     protected String department;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "department_id", foreignKey = @ForeignKey(name = "fk_users_department"))
+    @JsonIgnore
+    private Department departmentRef;
+
+    // Direct manager; written only by ReportingLineService, which keeps the reporting_lines closure in step
+    @Column(name = "manager_id", insertable = false, updatable = false)
+    private Integer managerId;
+
+    // Sequence of the last committed change, stamped just before commit for delta sync
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    @JsonIgnore
+    private Long changeSeq;
+
     @OneToMany(mappedBy = "employee", fetch = FetchType.LAZY)
     @JsonIgnore
     private List<PerformanceReview> performanceReviews = new ArrayList<>();
@@ -122,6 +146,24 @@ public class User implements Reviewable, Searchable {
         return department;
     }
 
+    @Override
+    public Department getDepartmentRef() {
+        return departmentRef;
+    }
+
+    @Override
+    public void setDepartmentRef(Department departmentRef) {
+        this.departmentRef = departmentRef;
+    }
+
+    public Integer getManagerId() {
+        return managerId;
+    }
+
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
     public void setFirstName(String firstName) {
         this.firstName = firstName;
     }
@@ -0,0 +1,24 @@
+package com.dmcdesigns.capstone.Exceptions;
+
+/**
+ * Thrown when a report cannot be admitted because its type is already at its
+ * concurrency limit, the render queue is full, or it waited in the queue too long.
+ * Mapped to 429 Too Many Requests with a Retry-After header.
+ *
+ * @author DMC Designs
+ */
+public class ReportCapacityException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public ReportCapacityException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
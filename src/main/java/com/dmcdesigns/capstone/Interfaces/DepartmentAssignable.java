@@ -0,0 +1,16 @@
+package com.dmcdesigns.capstone.Interfaces;
+
+import com.dmcdesigns.capstone.Entities.Department;
+
+/**
+ * Entities that name a department and also hold a foreign key to it.
+ * The name stays the public field; the key is assigned from the name on
+ * every insert and update by DepartmentReferenceListener.
+ *
+ * @author DMC Designs
+ */
+public interface DepartmentAssignable {
+    String getDepartment();
+    Department getDepartmentRef();
+    void setDepartmentRef(Department departmentRef);
+}
@@ -0,0 +1,106 @@
+package com.dmcdesigns.capstone.Reports;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A custom report definition after validation: a parameterized Criteria query
+ * with its bound filter values, and the render plan for its output columns.
+ * Built once per definition and reused for every run; executing it only binds
+ * the stored parameter values, nothing is re-parsed or re-validated.
+ *
+ * @author DMC Designs
+ */
+public final class CompiledReport {
+
+    /**
+     * One output column, in display order
+     */
+    public record OutputColumn(String label, Class<?> type) {
+    }
+
+    private static final float TABLE_WIDTH = 500f;
+
+    private final CriteriaQuery<Tuple> query;
+    private final Map<String, Object> parameters;
+    private final List<OutputColumn> columns;
+    private final int limit;
+    private final List<ReportColumn<Map<String, Object>>> pdfColumns;
+
+    CompiledReport(CriteriaQuery<Tuple> query, Map<String, Object> parameters,
+                   List<OutputColumn> columns, int limit) {
+        this.query = query;
+        this.parameters = Map.copyOf(parameters);
+        this.columns = List.copyOf(columns);
+        this.limit = limit;
+
+        float width = Math.max(50f, TABLE_WIDTH / columns.size());
+        List<ReportColumn<Map<String, Object>>> plan = new ArrayList<>();
+        for (OutputColumn column : columns) {
+            plan.add(new ReportColumn<>(column.label(), width, row -> format(row.get(column.label()))));
+        }
+        this.pdfColumns = List.copyOf(plan);
+    }
+
+    /**
+     * Runs the query with the stored parameter values
+     *
+     * @return One map per row, keyed by output column label in display order
+     */
+    public List<Map<String, Object>> execute(EntityManager entityManager) {
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        parameters.forEach(typedQuery::setParameter);
+        typedQuery.setMaxResults(limit);
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : typedQuery.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (OutputColumn column : columns) {
+                row.put(column.label(), tuple.get(column.label()));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    public List<OutputColumn> getColumns() {
+        return columns;
+    }
+
+    public List<String> getColumnLabels() {
+        return columns.stream().map(OutputColumn::label).toList();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Column layout for rendering the rows with {@link PdfReportLayout}
+     */
+    public List<ReportColumn<Map<String, Object>>> getPdfColumns() {
+        return pdfColumns;
+    }
+
+    private static String format(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof Double d) {
+            return BigDecimal.valueOf(d).setScale(2, RoundingMode.HALF_UP).toPlainString();
+        }
+        if (value instanceof BigDecimal b) {
+            return b.toPlainString();
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,288 @@
+package com.dmcdesigns.capstone.Reports;
+
+import com.dmcdesigns.capstone.Entities.Employee;
+import com.dmcdesigns.capstone.Entities.PerformanceReview;
+import com.dmcdesigns.capstone.Entities.Project;
+
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Validates a {@link CustomReportSpec} against the fields each entity exposes for
+ * reporting and compiles it into a {@link CompiledReport}. Only whitelisted fields
+ * can be referenced and every filter value becomes a typed query parameter, so a
+ * saved definition can never inject JPQL.
+ *
+ * @author DMC Designs
+ */
+public class CustomReportCompiler {
+
+    public static final int DEFAULT_LIMIT = 1000;
+    public static final int MAX_LIMIT = 10000;
+
+    private static final Set<String> OPERATORS = Set.of("eq", "ne", "gt", "gte", "lt", "lte", "like", "in");
+    private static final Set<String> FUNCTIONS = Set.of("count", "sum", "avg", "min", "max");
+
+    private static final Map<String, ReportableEntity> ENTITIES = Map.of(
+        "employee", new ReportableEntity(Employee.class, fields(
+            "id", Integer.class, "firstName", String.class, "lastName", String.class, "email", String.class,
+            "department", String.class, "role", String.class, "salary", BigDecimal.class,
+            "hireDate", String.class, "hasAccess", Boolean.class)),
+        "project", new ReportableEntity(Project.class, fields(
+            "id", Integer.class, "name", String.class, "status", String.class, "priority", String.class,
+            "department", String.class, "budget", BigDecimal.class, "budgetUsed", BigDecimal.class,
+            "progressPercentage", Integer.class, "startDate", String.class, "endDate", String.class)),
+        "performance-review", new ReportableEntity(PerformanceReview.class, fields(
+            "id", Integer.class, "department", String.class, "reviewPeriod", String.class,
+            "rating", Integer.class, "status", String.class, "reviewDate", String.class))
+    );
+
+    private record ReportableEntity(Class<?> type, Map<String, Class<?>> fields) {
+    }
+
+    private final CriteriaBuilder criteriaBuilder;
+
+    /**
+     * @param criteriaBuilder Builder from the EntityManagerFactory, so compiled
+     *                        queries can be run from any EntityManager
+     */
+    public CustomReportCompiler(CriteriaBuilder criteriaBuilder) {
+        this.criteriaBuilder = criteriaBuilder;
+    }
+
+    public static Set<String> getEntityNames() {
+        return ENTITIES.keySet();
+    }
+
+    /**
+     * @throws IllegalArgumentException describing the first problem found in the spec
+     */
+    public CompiledReport compile(CustomReportSpec spec) {
+        if (spec == null || spec.entity() == null) {
+            throw new IllegalArgumentException("Report entity is required");
+        }
+        ReportableEntity entity = ENTITIES.get(spec.entity().toLowerCase(Locale.ROOT));
+        if (entity == null) {
+            throw new IllegalArgumentException("Unknown report entity '" + spec.entity() + "', expected one of " + ENTITIES.keySet());
+        }
+
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<?> root = query.from(entity.type());
+        Map<String, Object> parameters = new LinkedHashMap<>();
+
+        List<Predicate> predicates = new ArrayList<>();
+        for (CustomReportSpec.Filter filter : nullToEmpty(spec.filters())) {
+            predicates.add(toPredicate(entity, root, filter, parameters));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+
+        // Output columns in display order, with the expression each label selects
+        Map<String, Expression<?>> outputs = new LinkedHashMap<>();
+        Map<String, Class<?>> outputTypes = new LinkedHashMap<>();
+        List<String> groupBy = nullToEmpty(spec.groupBy());
+        List<CustomReportSpec.Aggregate> aggregates = nullToEmpty(spec.aggregates());
+
+        if (aggregates.isEmpty()) {
+            if (!groupBy.isEmpty()) {
+                throw new IllegalArgumentException("groupBy requires at least one aggregate");
+            }
+            List<String> columns = nullToEmpty(spec.columns()).isEmpty() ?
+                new ArrayList<>(entity.fields().keySet()) : spec.columns();
+            for (String column : columns) {
+                addOutput(outputs, outputTypes, column, root.get(requireField(entity, column)), entity.fields().get(column));
+            }
+        } else {
+            List<Expression<?>> grouping = new ArrayList<>();
+            for (String field : groupBy) {
+                Path<?> path = root.get(requireField(entity, field));
+                grouping.add(path);
+                addOutput(outputs, outputTypes, field, path, entity.fields().get(field));
+            }
+            for (String column : nullToEmpty(spec.columns())) {
+                if (!groupBy.contains(column)) {
+                    throw new IllegalArgumentException("Column '" + column + "' must be in groupBy when aggregating");
+                }
+            }
+            for (CustomReportSpec.Aggregate aggregate : aggregates) {
+                addAggregate(entity, root, aggregate, outputs, outputTypes);
+            }
+            query.groupBy(grouping);
+        }
+
+        List<Selection<?>> selections = new ArrayList<>();
+        outputs.forEach((label, expression) -> selections.add(expression.alias(label)));
+        query.multiselect(selections);
+
+        List<Order> orders = new ArrayList<>();
+        for (CustomReportSpec.Sort sort : nullToEmpty(spec.sort())) {
+            Expression<?> expression = outputs.get(sort.field());
+            if (expression == null) {
+                throw new IllegalArgumentException("Sort field '" + sort.field() + "' is not an output column");
+            }
+            orders.add("desc".equalsIgnoreCase(sort.direction()) ?
+                criteriaBuilder.desc(expression) : criteriaBuilder.asc(expression));
+        }
+        query.orderBy(orders);
+
+        List<CompiledReport.OutputColumn> columns = new ArrayList<>();
+        outputTypes.forEach((label, type) -> columns.add(new CompiledReport.OutputColumn(label, type)));
+        return new CompiledReport(query, parameters, columns, resolveLimit(spec.limit()));
+    }
+
+    // ============ Filters ============
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate toPredicate(ReportableEntity entity, Root<?> root, CustomReportSpec.Filter filter,
+                                  Map<String, Object> parameters) {
+        String field = requireField(entity, filter.field());
+        Class<?> type = entity.fields().get(field);
+        String operator = filter.operator() != null ? filter.operator().toLowerCase(Locale.ROOT) : "eq";
+        if (!OPERATORS.contains(operator)) {
+            throw new IllegalArgumentException("Unknown filter operator '" + filter.operator() + "', expected one of " + OPERATORS);
+        }
+        Path path = root.get(field);
+
+        if (operator.equals("in")) {
+            if (!(filter.value() instanceof Collection<?> values) || values.isEmpty()) {
+                throw new IllegalArgumentException("Filter on '" + field + "' with 'in' needs a non-empty list value");
+            }
+            CriteriaBuilder.In in = criteriaBuilder.in(path);
+            for (Object value : values) {
+                in.value(parameter(type, convert(field, type, value), parameters));
+            }
+            return in;
+        }
+        if (operator.equals("like")) {
+            if (type != String.class) {
+                throw new IllegalArgumentException("Filter on '" + field + "' cannot use 'like'");
+            }
+            String pattern = convert(field, type, filter.value()).toString().toLowerCase(Locale.ROOT);
+            return criteriaBuilder.like(criteriaBuilder.lower(path), parameter(String.class, pattern, parameters));
+        }
+
+        Expression value = parameter(type, convert(field, type, filter.value()), parameters);
+        return switch (operator) {
+            case "eq" -> criteriaBuilder.equal(path, value);
+            case "ne" -> criteriaBuilder.notEqual(path, value);
+            case "gt" -> criteriaBuilder.greaterThan(path, value);
+            case "gte" -> criteriaBuilder.greaterThanOrEqualTo(path, value);
+            case "lt" -> criteriaBuilder.lessThan(path, value);
+            default -> criteriaBuilder.lessThanOrEqualTo(path, value);
+        };
+    }
+
+    private <T> ParameterExpression<T> parameter(Class<T> type, Object value, Map<String, Object> parameters) {
+        // Named, because Hibernate treats unnamed parameters of the same type as equal
+        String name = "p" + parameters.size();
+        parameters.put(name, value);
+        return criteriaBuilder.parameter(type, name);
+    }
+
+    private static Object convert(String field, Class<?> type, Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Filter on '" + field + "' needs a value");
+        }
+        try {
+            if (type == Integer.class) {
+                return value instanceof Number n ? n.intValue() : Integer.parseInt(value.toString().trim());
+            }
+            if (type == BigDecimal.class) {
+                return new BigDecimal(value.toString().trim());
+            }
+            if (type == Boolean.class) {
+                return value instanceof Boolean b ? b : Boolean.parseBoolean(value.toString().trim());
+            }
+            return value.toString();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' for field '" + field + "'");
+        }
+    }
+
+    // ============ Aggregates ============
+
+    private void addAggregate(ReportableEntity entity, Root<?> root, CustomReportSpec.Aggregate aggregate,
+                              Map<String, Expression<?>> outputs, Map<String, Class<?>> outputTypes) {
+        String function = aggregate.function() != null ? aggregate.function().toLowerCase(Locale.ROOT) : null;
+        if (function == null || !FUNCTIONS.contains(function)) {
+            throw new IllegalArgumentException("Unknown aggregate '" + aggregate.function() + "', expected one of " + FUNCTIONS);
+        }
+        String alias = aggregate.alias() != null && !aggregate.alias().isBlank() ? aggregate.alias() :
+            aggregate.field() != null ? function + "_" + aggregate.field() : function;
+
+        if (function.equals("count")) {
+            Expression<Long> count = aggregate.field() != null ?
+                criteriaBuilder.count(root.get(requireField(entity, aggregate.field()))) : criteriaBuilder.count(root);
+            addOutput(outputs, outputTypes, alias, count, Long.class);
+            return;
+        }
+
+        String field = requireField(entity, aggregate.field());
+        Class<?> type = entity.fields().get(field);
+        if (!Number.class.isAssignableFrom(type)) {
+            throw new IllegalArgumentException("Aggregate '" + function + "' needs a numeric field, '" + field + "' is not");
+        }
+        Path<? extends Number> path = root.<Number>get(field);
+        switch (function) {
+            case "sum" -> addOutput(outputs, outputTypes, alias, criteriaBuilder.sum(path), type == Integer.class ? Long.class : type);
+            case "avg" -> addOutput(outputs, outputTypes, alias, criteriaBuilder.avg(path), Double.class);
+            case "min" -> addOutput(outputs, outputTypes, alias, criteriaBuilder.min(path), type);
+            default -> addOutput(outputs, outputTypes, alias, criteriaBuilder.max(path), type);
+        }
+    }
+
+    // ============ Helpers ============
+
+    private static void addOutput(Map<String, Expression<?>> outputs, Map<String, Class<?>> outputTypes,
+                                  String label, Expression<?> expression, Class<?> type) {
+        if (outputs.putIfAbsent(label, expression) != null) {
+            throw new IllegalArgumentException("Duplicate output column '" + label + "'");
+        }
+        outputTypes.put(label, type);
+    }
+
+    private static String requireField(ReportableEntity entity, String field) {
+        if (field == null || !entity.fields().containsKey(field)) {
+            throw new IllegalArgumentException("Unknown field '" + field + "', expected one of " + entity.fields().keySet());
+        }
+        return field;
+    }
+
+    private static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    private static Map<String, Class<?>> fields(Object... namesAndTypes) {
+        Map<String, Class<?>> fields = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndTypes.length; i += 2) {
+            fields.put((String) namesAndTypes[i], (Class<?>) namesAndTypes[i + 1]);
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,46 @@
+package com.dmcdesigns.capstone.Reports;
+
+import java.util.List;
+
+/**
+ * A user-defined report: which entity to read, how to filter it, and either the
+ * columns to list or the group-by fields and aggregates to compute.
+ * Stored as JSON on the custom report definition and compiled by
+ * {@link CustomReportCompiler}.
+ *
+ * @param name Unique display name
+ * @param description Optional description
+ * @param entity "employee", "project" or "performance-review"
+ * @param filters Conditions that are all required to match
+ * @param groupBy Fields to group by; with aggregates only
+ * @param aggregates Aggregates computed per group (or over all rows without groupBy)
+ * @param columns Fields listed per row when there are no aggregates (all fields when empty)
+ * @param sort Output ordering by field or aggregate alias
+ * @param limit Maximum rows returned
+ * @author DMC Designs
+ */
+public record CustomReportSpec(String name, String description, String entity, List<Filter> filters,
+                               List<String> groupBy, List<Aggregate> aggregates, List<String> columns,
+                               List<Sort> sort, Integer limit) {
+
+    /**
+     * @param operator eq, ne, gt, gte, lt, lte, like or in (value is a list for in)
+     */
+    public record Filter(String field, String operator, Object value) {
+    }
+
+    /**
+     * @param function count, sum, avg, min or max
+     * @param field Numeric field; optional for count
+     * @param alias Output column name; defaults to function_field
+     */
+    public record Aggregate(String function, String field, String alias) {
+    }
+
+    /**
+     * @param field Output column or aggregate alias
+     * @param direction asc or desc
+     */
+    public record Sort(String field, String direction) {
+    }
+}
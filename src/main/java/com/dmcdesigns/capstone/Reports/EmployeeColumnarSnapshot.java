@@ -0,0 +1,246 @@
+package com.dmcdesigns.capstone.Reports;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable column-oriented copy of the employee data used by salary and headcount
+ * analytics. Each employee is one index into parallel primitive arrays: salaries are
+ * held as long cents and department / role as int codes into small dictionaries, so
+ * aggregations are plain loops over arrays instead of walks over JPA entities.
+ *
+ * Snapshots are never modified; {@link #withChanges} returns a new snapshot, which
+ * lets readers keep using the one they hold while a refresh is being built.
+ *
+ * @author DMC Designs
+ */
+public final class EmployeeColumnarSnapshot {
+
+    /**
+     * One employee's analytic fields, as loaded from the database
+     */
+    public record Row(int id, BigDecimal salary, String department, String role) {
+    }
+
+    /**
+     * Headcount and salary totals for one department or role
+     */
+    public record SalaryGroup(String name, long headcount, long totalCents, long minCents, long maxCents) {
+        public BigDecimal getTotal() {
+            return BigDecimal.valueOf(totalCents, 2);
+        }
+
+        public BigDecimal getAverage() {
+            return headcount > 0 ?
+                BigDecimal.valueOf(totalCents, 2).divide(BigDecimal.valueOf(headcount), 2, RoundingMode.HALF_UP) :
+                BigDecimal.ZERO;
+        }
+
+        public BigDecimal getMin() {
+            return BigDecimal.valueOf(minCents, 2);
+        }
+
+        public BigDecimal getMax() {
+            return BigDecimal.valueOf(maxCents, 2);
+        }
+    }
+
+    private final int size;
+    private final int[] ids;
+    private final long[] salaryCents;
+    private final int[] departmentCodes;
+    private final int[] roleCodes;
+    private final Dictionary departments;
+    private final Dictionary roles;
+    private final long builtAtMillis;
+
+    private EmployeeColumnarSnapshot(int size, int[] ids, long[] salaryCents, int[] departmentCodes,
+                                     int[] roleCodes, Dictionary departments, Dictionary roles) {
+        this.size = size;
+        this.ids = ids;
+        this.salaryCents = salaryCents;
+        this.departmentCodes = departmentCodes;
+        this.roleCodes = roleCodes;
+        this.departments = departments;
+        this.roles = roles;
+        this.builtAtMillis = System.currentTimeMillis();
+    }
+
+    public static EmployeeColumnarSnapshot empty() {
+        return new EmployeeColumnarSnapshot(0, new int[0], new long[0], new int[0], new int[0],
+            new Dictionary(), new Dictionary());
+    }
+
+    /**
+     * Builds a snapshot from a full pass over the employee rows
+     */
+    public static EmployeeColumnarSnapshot of(Iterable<Row> rows) {
+        return empty().withChanges(rows, Set.of());
+    }
+
+    /**
+     * Returns a new snapshot with the given rows inserted or replaced (matched by id)
+     * and the given ids removed. This snapshot is left unchanged.
+     */
+    public EmployeeColumnarSnapshot withChanges(Iterable<Row> upserts, Collection<Integer> removedIds) {
+        Map<Integer, Row> changed = new HashMap<>();
+        for (Row row : upserts) {
+            changed.put(row.id(), row);
+        }
+
+        int capacity = size + changed.size();
+        int[] newIds = new int[capacity];
+        long[] newSalaries = new long[capacity];
+        int[] newDepartments = new int[capacity];
+        int[] newRoles = new int[capacity];
+        Dictionary newDepartmentDictionary = departments.copy();
+        Dictionary newRoleDictionary = roles.copy();
+
+        // Keep untouched rows as they are; the encoded codes stay valid in the copied dictionaries
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (changed.containsKey(ids[i]) || removedIds.contains(ids[i])) {
+                continue;
+            }
+            newIds[count] = ids[i];
+            newSalaries[count] = salaryCents[i];
+            newDepartments[count] = departmentCodes[i];
+            newRoles[count] = roleCodes[i];
+            count++;
+        }
+        for (Row row : changed.values()) {
+            if (removedIds.contains(row.id())) {
+                continue;
+            }
+            newIds[count] = row.id();
+            newSalaries[count] = toCents(row.salary());
+            newDepartments[count] = newDepartmentDictionary.encode(row.department());
+            newRoles[count] = newRoleDictionary.encode(row.role());
+            count++;
+        }
+
+        return new EmployeeColumnarSnapshot(count, newIds, newSalaries, newDepartments, newRoles,
+            newDepartmentDictionary, newRoleDictionary);
+    }
+
+    // ============ Aggregations ============
+
+    public int size() {
+        return size;
+    }
+
+    public long getBuiltAtMillis() {
+        return builtAtMillis;
+    }
+
+    public long totalSalaryCents() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += salaryCents[i];
+        }
+        return total;
+    }
+
+    /**
+     * Headcount and salary totals per department, ordered by department name
+     */
+    public List<SalaryGroup> byDepartment() {
+        return groupBy(departmentCodes, departments);
+    }
+
+    /**
+     * Headcount and salary totals per role, ordered by role name
+     */
+    public List<SalaryGroup> byRole() {
+        return groupBy(roleCodes, roles);
+    }
+
+    /**
+     * Number of departments with at least one employee
+     */
+    public int departmentCount() {
+        return byDepartment().size();
+    }
+
+    private List<SalaryGroup> groupBy(int[] codes, Dictionary dictionary) {
+        int groups = dictionary.size();
+        long[] counts = new long[groups];
+        long[] totals = new long[groups];
+        long[] mins = new long[groups];
+        long[] maxes = new long[groups];
+        Arrays.fill(mins, Long.MAX_VALUE);
+        Arrays.fill(maxes, Long.MIN_VALUE);
+
+        for (int i = 0; i < size; i++) {
+            int code = codes[i];
+            long salary = salaryCents[i];
+            counts[code]++;
+            totals[code] += salary;
+            mins[code] = Math.min(mins[code], salary);
+            maxes[code] = Math.max(maxes[code], salary);
+        }
+
+        List<SalaryGroup> result = new ArrayList<>();
+        for (int code = 0; code < groups; code++) {
+            // Dictionary entries outlive rows that were moved or removed
+            if (counts[code] > 0) {
+                result.add(new SalaryGroup(dictionary.decode(code), counts[code], totals[code], mins[code], maxes[code]));
+            }
+        }
+        result.sort((a, b) -> String.valueOf(a.name()).compareTo(String.valueOf(b.name())));
+        return result;
+    }
+
+    /**
+     * Salary in whole cents; a missing salary counts as zero, matching SUM() over the table
+     */
+    public static long toCents(BigDecimal salary) {
+        if (salary == null) {
+            return 0L;
+        }
+        return salary.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /**
+     * Append-only string dictionary mapping values to dense int codes
+     */
+    private static final class Dictionary {
+        private final List<String> values;
+        private final Map<String, Integer> codes;
+
+        Dictionary() {
+            this(new ArrayList<>(), new HashMap<>());
+        }
+
+        private Dictionary(List<String> values, Map<String, Integer> codes) {
+            this.values = values;
+            this.codes = codes;
+        }
+
+        int encode(String value) {
+            return codes.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        String decode(int code) {
+            return values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        Dictionary copy() {
+            return new Dictionary(new ArrayList<>(values), new HashMap<>(codes));
+        }
+    }
+}
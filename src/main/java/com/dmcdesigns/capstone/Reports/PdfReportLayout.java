@@ -0,0 +1,420 @@
+package com.dmcdesigns.capstone.Reports;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Page layout engine shared by all PDF reports.
+ * Tracks the vertical cursor, starts new pages when content reaches the bottom
+ * margin, and reuses one regular and one bold font for the whole document.
+ * Tables are written row by row, so a report can be fed straight from a
+ * database cursor without materializing the result set.
+ *
+ * In {@link OutputMode#COMPACT} images are flattened to opaque RGB (no soft mask),
+ * identical images are embedded once and referenced from every page that draws
+ * them, and the file is written with compressed object and cross-reference streams.
+ *
+ * @author DMC Designs
+ */
+public class PdfReportLayout implements Closeable {
+
+    /**
+     * How the document is serialized
+     */
+    public enum OutputMode {
+        /** Images embedded as given, one XObject per draw, default save settings */
+        STANDARD,
+        /** Shared, opaque images and compressed object / xref streams */
+        COMPACT
+    }
+
+    public static final float PAGE_TOP = 750;
+    public static final float BOTTOM_MARGIN = 50;
+    public static final float LEFT_MARGIN = 50;
+    public static final float RIGHT_MARGIN = 550;
+
+    private static final float HEADING_SIZE = 12;
+    private static final float TEXT_SIZE = 10;
+    private static final float TABLE_HEADER_SIZE = 10;
+    private static final float TABLE_ROW_SIZE = 9;
+    private static final float TABLE_HEADER_HEIGHT = 20;
+    private static final float TABLE_ROW_HEIGHT = 15;
+    private static final String ELLIPSIS = "...";
+
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final PDDocument document;
+    private final PDFont regularFont;
+    private final PDFont boldFont;
+    private final OutputMode outputMode;
+
+    // Image content hash -> embedded XObject, so repeated images are stored once (COMPACT only)
+    private final Map<String, PDImageXObject> imageCache = new HashMap<>();
+
+    private PDPageContentStream contentStream;
+    private float yPosition;
+
+    /**
+     * Creates a new document and writes the report title block on the first page
+     *
+     * @param title Report title shown at the top of the first page
+     */
+    public PdfReportLayout(String title) throws IOException {
+        this(title, OutputMode.STANDARD);
+    }
+
+    /**
+     * @param title Report title shown at the top of the first page
+     * @param outputMode How images are embedded and the document is saved
+     */
+    public PdfReportLayout(String title, OutputMode outputMode) throws IOException {
+        this.outputMode = outputMode;
+        this.document = new PDDocument();
+        this.regularFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        this.boldFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+        newPage();
+        writeTitle(title);
+    }
+
+    public PDDocument getDocument() {
+        return document;
+    }
+
+    public PDFont getRegularFont() {
+        return regularFont;
+    }
+
+    public PDFont getBoldFont() {
+        return boldFont;
+    }
+
+    public float getYPosition() {
+        return yPosition;
+    }
+
+    public OutputMode getOutputMode() {
+        return outputMode;
+    }
+
+    // ============ Free-form content ============
+
+    /**
+     * Writes a bold section heading
+     */
+    public void heading(String text) throws IOException {
+        ensureSpace(25 + TABLE_ROW_HEIGHT);
+        writeText(boldFont, HEADING_SIZE, LEFT_MARGIN, text);
+        yPosition -= 25;
+    }
+
+    /**
+     * Writes a single line of body text, truncated to the page width
+     *
+     * @param indent Offset from the left margin in points
+     */
+    public void line(String text, float indent) throws IOException {
+        ensureSpace(TABLE_ROW_HEIGHT);
+        float x = LEFT_MARGIN + indent;
+        writeText(regularFont, TEXT_SIZE, x, fit(regularFont, TEXT_SIZE, text, RIGHT_MARGIN - x));
+        yPosition -= TABLE_ROW_HEIGHT;
+    }
+
+    /**
+     * Adds vertical whitespace, starting a new page if it runs past the bottom margin
+     */
+    public void space(float height) throws IOException {
+        yPosition -= height;
+        if (yPosition < BOTTOM_MARGIN) {
+            newPage();
+        }
+    }
+
+    /**
+     * Draws an image below the cursor, moving to a new page if it does not fit
+     */
+    public void image(PDImageXObject image, float width, float height) throws IOException {
+        ensureSpace(height);
+        contentStream.drawImage(image, LEFT_MARGIN, yPosition - height, width, height);
+        yPosition -= height;
+    }
+
+    /**
+     * Embeds and draws a rendered image (e.g. a chart).
+     * In COMPACT mode the image is flattened onto white and reused if an identical
+     * image was already embedded in this document.
+     */
+    public void image(BufferedImage image, float width, float height) throws IOException {
+        if (outputMode == OutputMode.STANDARD) {
+            image(LosslessFactory.createFromImage(document, image), width, height);
+            return;
+        }
+
+        BufferedImage opaque = toOpaqueRgb(image);
+        String key = contentHash(opaque);
+        PDImageXObject xObject = imageCache.get(key);
+        if (xObject == null) {
+            xObject = LosslessFactory.createFromImage(document, opaque);
+            imageCache.put(key, xObject);
+        }
+        image(xObject, width, height);
+    }
+
+    /**
+     * Number of distinct images embedded through {@link #image(BufferedImage, float, float)} in COMPACT mode
+     */
+    public int getEmbeddedImageCount() {
+        return imageCache.size();
+    }
+
+    // ============ Tables ============
+
+    /**
+     * Starts a table and writes its header row.
+     * The header is repeated at the top of every page the table spans.
+     */
+    public <T> TableWriter<T> table(List<ReportColumn<T>> columns) throws IOException {
+        TableWriter<T> table = new TableWriter<>(columns);
+        table.writeHeader();
+        return table;
+    }
+
+    /**
+     * Writes rows for a single table. Obtained from {@link PdfReportLayout#table(List)}.
+     */
+    public class TableWriter<T> {
+        private final List<ReportColumn<T>> columns;
+        private long rowCount;
+
+        private TableWriter(List<ReportColumn<T>> columns) {
+            this.columns = columns;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        public void writeRow(T row) throws IOException {
+            if (yPosition - TABLE_ROW_HEIGHT < BOTTOM_MARGIN) {
+                newPage();
+                writeHeader();
+            }
+            writeCells(regularFont, TABLE_ROW_SIZE, column -> column.valueOf(row));
+            yPosition -= TABLE_ROW_HEIGHT;
+            rowCount++;
+        }
+
+        /**
+         * Consumes the iterator one row at a time; nothing is buffered
+         */
+        public void writeRows(Iterator<? extends T> rows) throws IOException {
+            while (rows.hasNext()) {
+                writeRow(rows.next());
+            }
+        }
+
+        private void writeHeader() throws IOException {
+            ensureSpace(TABLE_HEADER_HEIGHT + TABLE_ROW_HEIGHT);
+            writeCells(boldFont, TABLE_HEADER_SIZE, ReportColumn::getHeader);
+            yPosition -= TABLE_HEADER_HEIGHT;
+        }
+
+        private void writeCells(PDFont font, float fontSize,
+                                Function<ReportColumn<T>, String> text) throws IOException {
+            contentStream.setFont(font, fontSize);
+            contentStream.beginText();
+            contentStream.newLineAtOffset(LEFT_MARGIN, yPosition);
+            float previousWidth = 0;
+            for (ReportColumn<T> column : columns) {
+                if (previousWidth > 0) {
+                    contentStream.newLineAtOffset(previousWidth, 0);
+                }
+                // Leave a small gutter so adjacent cells never touch
+                contentStream.showText(fit(font, fontSize, text.apply(column), column.getWidth() - 4));
+                previousWidth = column.getWidth();
+            }
+            contentStream.endText();
+        }
+    }
+
+    // ============ Output ============
+
+    /**
+     * Finishes the current page and serializes the document
+     */
+    public byte[] toByteArray() throws IOException {
+        closeContentStream();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        if (outputMode == OutputMode.COMPACT) {
+            document.save(baos, CompressParameters.DEFAULT_COMPRESSION);
+        } else {
+            document.save(baos);
+        }
+        return baos.toByteArray();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            closeContentStream();
+        } finally {
+            document.close();
+        }
+    }
+
+    // ============ Internal helpers ============
+
+    private void writeTitle(String title) throws IOException {
+        writeText(boldFont, 16, LEFT_MARGIN, title);
+        writeText(regularFont, TEXT_SIZE, LEFT_MARGIN, 730,
+            "Generated on: " + LocalDateTime.now().format(TIMESTAMP_FORMATTER));
+
+        // Line separator
+        contentStream.moveTo(LEFT_MARGIN, 720);
+        contentStream.lineTo(RIGHT_MARGIN, 720);
+        contentStream.stroke();
+        yPosition = 700;
+    }
+
+    private void ensureSpace(float height) throws IOException {
+        if (yPosition - height < BOTTOM_MARGIN) {
+            newPage();
+        }
+    }
+
+    private void newPage() throws IOException {
+        closeContentStream();
+        PDPage page = new PDPage();
+        document.addPage(page);
+        contentStream = new PDPageContentStream(document, page);
+        yPosition = PAGE_TOP;
+    }
+
+    private void closeContentStream() throws IOException {
+        if (contentStream != null) {
+            contentStream.close();
+            contentStream = null;
+        }
+    }
+
+    private void writeText(PDFont font, float fontSize, float x, String text) throws IOException {
+        writeText(font, fontSize, x, yPosition, text);
+    }
+
+    private void writeText(PDFont font, float fontSize, float x, float y, String text) throws IOException {
+        contentStream.setFont(font, fontSize);
+        contentStream.beginText();
+        contentStream.newLineAtOffset(x, y);
+        contentStream.showText(encodable(font, text));
+        contentStream.endText();
+    }
+
+    // An alpha channel would be embedded as a second, soft-mask image
+    private static BufferedImage toOpaqueRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    private static String contentHash(BufferedImage image) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(ByteBuffer.allocate(8).putInt(image.getWidth()).putInt(image.getHeight()).array());
+            int[] row = new int[image.getWidth()];
+            ByteBuffer rowBytes = ByteBuffer.allocate(row.length * 4);
+            for (int y = 0; y < image.getHeight(); y++) {
+                image.getRGB(0, y, row.length, 1, row, 0, row.length);
+                rowBytes.clear();
+                rowBytes.asIntBuffer().put(row);
+                digest.update(rowBytes.array());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Truncates text with an ellipsis so it renders within maxWidth points
+     */
+    static String fit(PDFont font, float fontSize, String text, float maxWidth) throws IOException {
+        String safe = encodable(font, text);
+        float scale = fontSize / 1000f;
+        if (font.getStringWidth(safe) * scale <= maxWidth) {
+            return safe;
+        }
+
+        float budget = maxWidth - font.getStringWidth(ELLIPSIS) * scale;
+        float width = 0;
+        int end = 0;
+        while (end < safe.length()) {
+            float charWidth = font.getStringWidth(safe.substring(end, end + 1)) * scale;
+            if (width + charWidth > budget) {
+                break;
+            }
+            width += charWidth;
+            end++;
+        }
+        return safe.substring(0, end) + ELLIPSIS;
+    }
+
+    /**
+     * Replaces characters the standard 14 fonts cannot encode (e.g. emoji,
+     * non-Latin scripts) so a single odd name never aborts a report
+     */
+    static String encodable(PDFont font, String text) throws IOException {
+        if (text == null) {
+            return "";
+        }
+        try {
+            font.encode(text);
+            return text;
+        } catch (IllegalArgumentException e) {
+            StringBuilder builder = new StringBuilder(text.length());
+            text.codePoints().forEach(codePoint -> {
+                String character = new String(Character.toChars(codePoint));
+                try {
+                    font.encode(character);
+                    builder.append(character);
+                } catch (IllegalArgumentException | IOException unsupported) {
+                    builder.append('?');
+                }
+            });
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.dmcdesigns.capstone.Reports;
+
+import com.dmcdesigns.capstone.Reports.EmployeeColumnarSnapshot.SalaryGroup;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.general.DefaultPieDataset;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the report charts, so PDF reports and the dashboard chart endpoints
+ * draw exactly the same chart from the same data.
+ *
+ * @author DMC Designs
+ */
+public final class ReportCharts {
+
+    private ReportCharts() {
+    }
+
+    /**
+     * Pie chart of total salary per department
+     */
+    public static JFreeChart salaryDistribution(List<SalaryGroup> departmentTotals) {
+        DefaultPieDataset<String> dataset = new DefaultPieDataset<>();
+        for (SalaryGroup group : departmentTotals) {
+            dataset.setValue(String.valueOf(group.name()), group.getTotal().doubleValue());
+        }
+
+        return ChartFactory.createPieChart(
+            "Salary Distribution by Department",
+            dataset,
+            true, true, false
+        );
+    }
+
+    /**
+     * Bar chart of review counts per rating 1-5
+     */
+    public static JFreeChart performanceRatings(Map<Integer, Long> ratingCounts) {
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        for (int i = 1; i <= 5; i++) {
+            dataset.addValue(ratingCounts.getOrDefault(i, 0L), "Reviews", "Rating " + i);
+        }
+
+        return ChartFactory.createBarChart(
+            "Performance Rating Distribution",
+            "Rating",
+            "Number of Reviews",
+            dataset,
+            PlotOrientation.VERTICAL,
+            false, true, false
+        );
+    }
+}
@@ -0,0 +1,44 @@
+package com.dmcdesigns.capstone.Reports;
+
+import java.util.function.Function;
+
+/**
+ * Column definition for a PDF report table.
+ * Pairs a header label and a fixed width (in points) with the function that
+ * extracts the cell text from a row.
+ *
+ * @param <T> Row type rendered by the table
+ * @author DMC Designs
+ */
+public class ReportColumn<T> {
+    private final String header;
+    private final float width;
+    private final Function<? super T, String> extractor;
+
+    /**
+     * @param header Column header label
+     * @param width Column width in PDF points
+     * @param extractor Function producing the cell text for a row
+     */
+    public ReportColumn(String header, float width, Function<? super T, String> extractor) {
+        this.header = header;
+        this.width = width;
+        this.extractor = extractor;
+    }
+
+    public String getHeader() {
+        return header;
+    }
+
+    public float getWidth() {
+        return width;
+    }
+
+    /**
+     * Extracts the cell text for the given row, mapping nulls to an empty string
+     */
+    public String valueOf(T row) {
+        String value = extractor.apply(row);
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,174 @@
+package com.dmcdesigns.capstone.Reports;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mergeable quantile sketch over salaries in cents, using logarithmic buckets
+ * (the DDSketch scheme). Every quantile it returns is within a fixed relative
+ * error of the true value, the sketch size depends on the salary range rather
+ * than the number of employees, and, unlike t-digest or KLL, values can be
+ * removed again, which is what lets a salary change be applied as remove + add.
+ *
+ * Not thread-safe; callers synchronize.
+ *
+ * @author DMC Designs
+ */
+public class SalarySketch {
+
+    /** Quantiles are accurate to within 1% of the true salary */
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+    /**
+     * One histogram bin: salaries from lower (inclusive) to upper
+     */
+    public record HistogramBin(BigDecimal lower, BigDecimal upper, long count) {
+    }
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+
+    // Bucket index -> count; bucket i holds values in (gamma^(i-1), gamma^i]
+    private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+    private long zeroCount;
+    private long count;
+
+    public SalarySketch() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    public SalarySketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public void add(long cents) {
+        if (cents <= 0) {
+            zeroCount++;
+        } else {
+            buckets.merge(index(cents), 1L, Long::sum);
+        }
+        count++;
+    }
+
+    /**
+     * Removes one previously added value
+     *
+     * @return false if no value in that bucket was present (the sketch has drifted)
+     */
+    public boolean remove(long cents) {
+        if (cents <= 0) {
+            if (zeroCount == 0) {
+                return false;
+            }
+            zeroCount--;
+        } else {
+            int index = index(cents);
+            Long bucketCount = buckets.get(index);
+            if (bucketCount == null) {
+                return false;
+            }
+            if (bucketCount == 1) {
+                buckets.remove(index);
+            } else {
+                buckets.put(index, bucketCount - 1);
+            }
+        }
+        count--;
+        return true;
+    }
+
+    /**
+     * Adds all values of another sketch with the same accuracy
+     */
+    public void merge(SalarySketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches with different accuracy");
+        }
+        other.buckets.forEach((index, bucketCount) -> buckets.merge(index, bucketCount, Long::sum));
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Estimated salary at quantile q (0 to 1), or null when empty
+     */
+    public BigDecimal quantile(double q) {
+        if (count == 0) {
+            return null;
+        }
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+
+        long rank = (long) Math.floor(q * (count - 1));
+        if (rank < zeroCount) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        long seen = zeroCount;
+        for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+            seen += bucket.getValue();
+            if (seen > rank) {
+                return toDollars(representative(bucket.getKey()));
+            }
+        }
+        return toDollars(representative(buckets.lastKey()));
+    }
+
+    /**
+     * Equal-width histogram between the smallest and largest bucket.
+     * Each bucket's count is placed in the bin containing its representative value.
+     */
+    public List<HistogramBin> histogram(int binCount) {
+        List<HistogramBin> bins = new ArrayList<>();
+        if (count == 0 || binCount <= 0) {
+            return bins;
+        }
+
+        double min = zeroCount > 0 ? 0 : representative(buckets.firstKey());
+        double max = buckets.isEmpty() ? 0 : representative(buckets.lastKey());
+        double width = max > min ? (max - min) / binCount : 1;
+        int binsUsed = max > min ? binCount : 1;
+
+        long[] counts = new long[binsUsed];
+        counts[0] += zeroCount;
+        for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+            int bin = (int) ((representative(bucket.getKey()) - min) / width);
+            counts[Math.min(Math.max(bin, 0), binsUsed - 1)] += bucket.getValue();
+        }
+
+        for (int i = 0; i < binsUsed; i++) {
+            bins.add(new HistogramBin(toDollars(min + i * width), toDollars(min + (i + 1) * width), counts[i]));
+        }
+        return bins;
+    }
+
+    private int index(long cents) {
+        return (int) Math.ceil(Math.log(cents) / logGamma);
+    }
+
+    // Value within relativeAccuracy of every value in bucket i
+    private double representative(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    private static BigDecimal toDollars(double cents) {
+        return BigDecimal.valueOf(Math.round(cents), 2);
+    }
+}
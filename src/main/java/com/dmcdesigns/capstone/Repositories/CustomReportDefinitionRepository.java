@@ -0,0 +1,16 @@
+package com.dmcdesigns.capstone.Repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.dmcdesigns.capstone.Entities.CustomReportDefinition;
+
+public interface CustomReportDefinitionRepository extends JpaRepository<CustomReportDefinition, Integer> {
+
+    List<CustomReportDefinition> findAllByOrderByNameAsc();
+
+    boolean existsByName(String name);
+
+    boolean existsByNameAndIdNot(String name, int id);
+}
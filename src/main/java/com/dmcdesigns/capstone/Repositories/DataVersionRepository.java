@@ -0,0 +1,24 @@
+package com.dmcdesigns.capstone.Repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.dmcdesigns.capstone.Entities.DataVersion;
+
+public interface DataVersionRepository extends JpaRepository<DataVersion, String> {
+
+    @Query("SELECT v.version FROM DataVersion v WHERE v.name = :name")
+    Long findVersion(@Param("name") String name);
+
+    // Atomic increment; returns 0 if the counter row does not exist yet
+    @Modifying
+    @Query("UPDATE DataVersion v SET v.version = v.version + 1 WHERE v.name = :name")
+    int increment(@Param("name") String name);
+
+    // Moves the counter up to the given value; never moves it down
+    @Modifying
+    @Query("UPDATE DataVersion v SET v.version = :version WHERE v.name = :name AND v.version < :version")
+    int raise(@Param("name") String name, @Param("version") long version);
+}
@@ -5,6 +5,7 @@ import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -48,4 +49,32 @@ public interface DepartmentRepository extends JpaRepository<Department, Integer>
     @Query("SELECT d FROM Department d WHERE LOWER(d.description) LIKE LOWER(CONCAT('%', :description, '%'))")
     Page<Department> searchDepartmentsByDescription(@Param("description") String description, Pageable pageable);
 
+    // Departments changed in a change sequence range, on the change_seq index; for delta sync
+    @Query("SELECT d FROM Department d WHERE d.changeSeq > :after AND d.changeSeq <= :upTo ORDER BY d.changeSeq, d.id")
+    List<Department> findChangedBetween(@Param("after") long after, @Param("upTo") long upTo);
+
+    // ============ Department Hierarchy ============
+
+    // Every department's id, parent and current interval, for renumbering the tree
+    @Query("SELECT d.id, d.parentId, d.treeLeft, d.treeRight FROM Department d ORDER BY d.id")
+    List<Object[]> findTreeRows();
+
+    // A department and everything below it, in tree order; one range scan of idx_departments_tree
+    @Query("SELECT d FROM Department d WHERE d.treeLeft BETWEEN :left AND :right ORDER BY d.treeLeft")
+    List<Department> findInTree(@Param("left") int left, @Param("right") int right);
+
+    @Query("SELECT d.id FROM Department d WHERE d.parentId = :parentId ORDER BY d.id")
+    List<Integer> findChildIds(@Param("parentId") int parentId);
+
+    // Whether a parent was set without the tree being renumbered, e.g. by SQL outside the application
+    @Query("SELECT COUNT(d) > 0 FROM Department d WHERE d.parentId IS NOT NULL AND d.treeLeft IS NULL")
+    boolean existsUnnumberedChild();
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE departments SET parent_id = :parentId, change_seq = NULL WHERE id IN (:ids)", nativeQuery = true)
+    int updateParent(@Param("ids") List<Integer> ids, @Param("parentId") int parentId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE departments SET parent_id = NULL, change_seq = NULL WHERE id IN (:ids)", nativeQuery = true)
+    int clearParent(@Param("ids") List<Integer> ids);
 }
@@ -0,0 +1,55 @@
+package com.dmcdesigns.capstone.Repositories;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.dmcdesigns.capstone.Entities.DepartmentStats;
+
+import jakarta.persistence.LockModeType;
+
+public interface DepartmentStatsRepository extends JpaRepository<DepartmentStats, Integer> {
+
+    // Row lock so concurrent writes apply their deltas one after another
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM DepartmentStats s WHERE s.departmentId = :departmentId")
+    Optional<DepartmentStats> findForUpdate(@Param("departmentId") int departmentId);
+
+    // Lock every row for the full rebuild
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM DepartmentStats s ORDER BY s.departmentId")
+    List<DepartmentStats> findAllForUpdate();
+
+    // Department names with their stats, in name order; departments without a row yet have null stats
+    @Query("SELECT d.id, d.name, s FROM Department d LEFT JOIN DepartmentStats s ON s.departmentId = d.id " +
+           "ORDER BY d.name")
+    List<Object[]> findAllWithDepartmentNames();
+
+    // Totals over a department subtree in one statement: a range scan of idx_departments_tree joined
+    // to the stats rows and to the subtree's project budgets, summed per department.
+    // Columns: departments, headcount, salary sum, project count, review count, budget, budget used
+    @Query("SELECT COUNT(d), SUM(s.headcount), SUM(s.salarySum), SUM(s.projectCount), SUM(s.reviewCount), " +
+           "SUM(b.budget), SUM(b.budgetUsed) " +
+           "FROM Department d LEFT JOIN DepartmentStats s ON s.departmentId = d.id " +
+           "LEFT JOIN (SELECT p.departmentRef.id AS departmentId, SUM(p.budget) AS budget, " +
+           "SUM(p.budgetUsed) AS budgetUsed FROM Project p " +
+           "WHERE p.departmentRef.treeLeft BETWEEN :left AND :right GROUP BY p.departmentRef.id) b " +
+           "ON b.departmentId = d.id " +
+           "WHERE d.treeLeft BETWEEN :left AND :right")
+    List<Object[]> sumInTree(@Param("left") int left, @Param("right") int right);
+
+    // The same totals for a single department, on its id
+    @Query("SELECT COUNT(d), SUM(s.headcount), SUM(s.salarySum), SUM(s.projectCount), SUM(s.reviewCount), " +
+           "SUM(b.budget), SUM(b.budgetUsed) " +
+           "FROM Department d LEFT JOIN DepartmentStats s ON s.departmentId = d.id " +
+           "LEFT JOIN (SELECT p.departmentRef.id AS departmentId, SUM(p.budget) AS budget, " +
+           "SUM(p.budgetUsed) AS budgetUsed FROM Project p " +
+           "WHERE p.departmentRef.id = :departmentId GROUP BY p.departmentRef.id) b " +
+           "ON b.departmentId = d.id " +
+           "WHERE d.id = :departmentId")
+    List<Object[]> sumForDepartment(@Param("departmentId") int departmentId);
+}
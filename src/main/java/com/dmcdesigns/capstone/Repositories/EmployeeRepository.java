@@ -1,11 +1,19 @@
 package com.dmcdesigns.capstone.Repositories;
 
+import com.dmcdesigns.capstone.DTOs.EmployeeSummary;
 import com.dmcdesigns.capstone.Entities.Employee;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface EmployeeRepository extends UserRepository {
     // Find employee by username
@@ -27,8 +35,12 @@ public interface EmployeeRepository extends UserRepository {
            "OR LOWER(e.role) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     Page<Employee> searchEmployees(@Param("searchTerm") String searchTerm, Pageable pageable);
 
-    @Query("SELECT e FROM Employee e WHERE e.department = :department")
-    Page<Employee> findEmployeesByDepartment(@Param("department") String department, Pageable pageable);
+    @Query("SELECT e FROM Employee e WHERE e.departmentRef.id = :departmentId")
+    Page<Employee> findEmployeesByDepartmentId(@Param("departmentId") Integer departmentId, Pageable pageable);
+
+    // Employees of every department in a subtree interval (see Department.treeLeft)
+    @Query("SELECT e FROM Employee e WHERE e.departmentRef.treeLeft BETWEEN :left AND :right")
+    Page<Employee> findEmployeesInDepartmentTree(@Param("left") int left, @Param("right") int right, Pageable pageable);
 
     @Query("SELECT e FROM Employee e WHERE e.hasAccess = :hasAccess")
     Page<Employee> findEmployeesByAccessStatus(@Param("hasAccess") boolean hasAccess, Pageable pageable);
@@ -36,8 +48,113 @@ public interface EmployeeRepository extends UserRepository {
     @Query("SELECT e FROM Employee e WHERE LOWER(e.role) LIKE LOWER(CONCAT('%', :role, '%'))")
     Page<Employee> findEmployeesByRole(@Param("role") String role, Pageable pageable);
 
+    // One page of employees as lean summaries; TYPE(e) tells managers and admins apart without loading them
+    @Query(value = "SELECT new com.dmcdesigns.capstone.DTOs.EmployeeSummary(e.id, e.firstName, e.lastName, e.email, " +
+                   "e.phoneNumber, e.department, e.role, e.salary, e.hireDate, e.hasAccess, TYPE(e)) FROM Employee e",
+           countQuery = "SELECT COUNT(e) FROM Employee e")
+    Page<EmployeeSummary> findEmployeeSummaries(Pageable pageable);
+
+    // Summaries of the given employees in one IN query, in no particular order
+    @Query("SELECT new com.dmcdesigns.capstone.DTOs.EmployeeSummary(e.id, e.firstName, e.lastName, e.email, " +
+           "e.phoneNumber, e.department, e.role, e.salary, e.hireDate, e.hasAccess, TYPE(e)) FROM Employee e " +
+           "WHERE e.id IN :ids")
+    List<EmployeeSummary> findSummariesByIds(@Param("ids") Collection<Integer> ids);
+
+    // Summary of the employee signed in under a username
+    @Query("SELECT new com.dmcdesigns.capstone.DTOs.EmployeeSummary(e.id, e.firstName, e.lastName, e.email, " +
+           "e.phoneNumber, e.department, e.role, e.salary, e.hireDate, e.hasAccess, TYPE(e)) FROM Employee e " +
+           "WHERE e.username = :username")
+    Optional<EmployeeSummary> findSummaryByUsername(@Param("username") String username);
+
+    // Summaries of employees changed in a change sequence range, on the change_seq index; for delta sync
+    @Query("SELECT new com.dmcdesigns.capstone.DTOs.EmployeeSummary(e.id, e.firstName, e.lastName, e.email, " +
+           "e.phoneNumber, e.department, e.role, e.salary, e.hireDate, e.hasAccess, TYPE(e)) FROM Employee e " +
+           "WHERE e.changeSeq > :after AND e.changeSeq <= :upTo ORDER BY e.changeSeq, e.id")
+    List<EmployeeSummary> findSummariesChangedBetween(@Param("after") long after, @Param("upTo") long upTo);
+
     // Find all employees (override the inherited findAll to return Employee objects)
     @Query("SELECT e FROM Employee e")
     List<Employee> findAllEmployees();
 
+    // ============ Report Streaming Queries ============
+    // Forward-only cursors for PDF/CSV reports. Must be consumed inside a transaction
+    // and closed by the caller; entities are loaded read-only so no dirty-check snapshots are kept.
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Employee e ORDER BY e.department ASC, e.lastName ASC, e.firstName ASC")
+    Stream<Employee> streamAllEmployees();
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Employee e WHERE e.departmentRef.id = :departmentId ORDER BY e.lastName ASC, e.firstName ASC")
+    Stream<Employee> streamEmployeesByDepartmentId(@Param("departmentId") Integer departmentId);
+
+    // Distinct departments that currently have employees
+    @Query("SELECT DISTINCT e.department FROM Employee e ORDER BY e.department ASC")
+    List<String> findDistinctDepartments();
+
+    // Analytic columns for every employee: id, salary, department, role
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e.id, e.salary, e.department, e.role FROM Employee e")
+    Stream<Object[]> streamAnalyticsRows();
+
+    // Analytic columns for the given employees; ids with no row were deleted
+    @Query("SELECT e.id, e.salary, e.department, e.role FROM Employee e WHERE e.id IN :ids")
+    List<Object[]> findAnalyticsRowsByIds(@Param("ids") Collection<Integer> ids);
+
+    // Headcount and salary sum per department key; source for rebuilding department_stats
+    @Query("SELECT e.departmentRef.id, COUNT(e), SUM(e.salary) FROM Employee e " +
+           "WHERE e.departmentRef IS NOT NULL GROUP BY e.departmentRef.id")
+    List<Object[]> getDepartmentStatsSource();
+
+    // The same totals for a few departments, after a bulk move between them
+    @Query("SELECT e.departmentRef.id, COUNT(e), SUM(e.salary) FROM Employee e " +
+           "WHERE e.departmentRef.id IN :departmentIds GROUP BY e.departmentRef.id")
+    List<Object[]> getDepartmentStatsSource(@Param("departmentIds") Collection<Integer> departmentIds);
+
+    // Employees assigned to a department, counted on the department_id index
+    @Query("SELECT COUNT(e) FROM Employee e WHERE e.departmentRef.id = ?1")
+    long countByDepartmentId(int departmentId);
+
+    // ============ Bulk Access and Role Changes ============
+    // Set-based updates that bypass the entity listeners. Rows already holding the
+    // new value are left alone, so each returns the number of employees changed.
+    // A null department id or role filter matches every employee. change_seq is cleared so
+    // the delta-sync stamp picks the rows up.
+
+    @Query("SELECT e.id FROM Employee e WHERE e.id IN :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT COUNT(e) FROM Employee e WHERE (:departmentId IS NULL OR e.departmentRef.id = :departmentId) " +
+           "AND (:role IS NULL OR e.role = :role)")
+    long countByFilter(@Param("departmentId") Integer departmentId, @Param("role") String role);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Employee e SET e.hasAccess = :hasAccess, e.changeSeq = NULL WHERE e.id IN :ids AND e.hasAccess <> :hasAccess")
+    int updateAccessByIds(@Param("ids") Collection<Integer> ids, @Param("hasAccess") boolean hasAccess);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Employee e SET e.hasAccess = :hasAccess, e.changeSeq = NULL WHERE (:departmentId IS NULL OR e.departmentRef.id = :departmentId) " +
+           "AND (:role IS NULL OR e.role = :role) AND e.hasAccess <> :hasAccess")
+    int updateAccessByFilter(@Param("departmentId") Integer departmentId, @Param("role") String role,
+                             @Param("hasAccess") boolean hasAccess);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Employee e SET e.role = :newRole, e.changeSeq = NULL WHERE e.id IN :ids AND e.role <> :newRole")
+    int updateRoleByIds(@Param("ids") Collection<Integer> ids, @Param("newRole") String newRole);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Employee e SET e.role = :newRole, e.changeSeq = NULL WHERE (:departmentId IS NULL OR e.departmentRef.id = :departmentId) " +
+           "AND (:role IS NULL OR e.role = :role) AND e.role <> :newRole")
+    int updateRoleByFilter(@Param("departmentId") Integer departmentId, @Param("role") String role,
+                           @Param("newRole") String newRole);
+
 }
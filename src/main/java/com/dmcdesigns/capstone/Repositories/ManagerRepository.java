@@ -19,10 +19,6 @@ public interface ManagerRepository extends UserRepository {
     // Check if manager exists by email
     boolean existsByEmail(String email);
 
-    // Get all managers by department
-    @Query("SELECT m FROM Manager m WHERE m.department = ?1")
-    List<Manager> findByDepartment(String department);
-
     // Get managers with access
     @Query("SELECT m FROM Manager m WHERE m.hasAccess = true")
     List<Manager> findManagersWithAccess();
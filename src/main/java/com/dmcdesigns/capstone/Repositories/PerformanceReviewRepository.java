@@ -3,7 +3,9 @@ package com.dmcdesigns.capstone.Repositories;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.dmcdesigns.capstone.Entities.PerformanceReview;
 
@@ -33,7 +35,8 @@ public interface PerformanceReviewRepository extends JpaRepository<PerformanceRe
     List<PerformanceReview> findAllByRating(int rating);
 
     // Get all review by department
-    List<PerformanceReview> findAllByDepartment(String department);
+    @Query("SELECT pr FROM PerformanceReview pr WHERE pr.departmentRef.id = ?1")
+    List<PerformanceReview> findAllByDepartmentId(Integer departmentId);
 
     // Get reviews within rating range using @Query
     @Query("SELECT pr FROM PerformanceReview pr WHERE pr.rating BETWEEN ?1 AND ?2")
@@ -48,8 +51,8 @@ public interface PerformanceReviewRepository extends JpaRepository<PerformanceRe
     Double getAverageRatingForEmployee(int employeeId);
 
     // Get review count by department using @Query
-    @Query("SELECT COUNT(pr) FROM PerformanceReview pr WHERE pr.department = ?1")
-    Long getReviewCountByDepartment(String department);
+    @Query("SELECT COUNT(pr) FROM PerformanceReview pr WHERE pr.departmentRef.id = ?1")
+    Long getReviewCountByDepartmentId(Integer departmentId);
 
     // Get top rated employees using @Query
     @Query("SELECT pr.employee.id, AVG(pr.rating) FROM PerformanceReview pr GROUP BY pr.employee.id ORDER BY AVG(pr.rating) DESC")
@@ -74,4 +77,28 @@ public interface PerformanceReviewRepository extends JpaRepository<PerformanceRe
     // Get reviews for a specific review period
     @Query("SELECT pr FROM PerformanceReview pr WHERE pr.reviewPeriod = ?1 AND pr.employee.id = ?2")
     List<PerformanceReview> findByReviewPeriodAndEmployeeId(String reviewPeriod, int employeeId);
+
+    // Review counts per department, period, rating and status; source for rebuilding performance_rollups
+    @Query("SELECT pr.department, pr.reviewPeriod, pr.rating, pr.status, COUNT(pr) FROM PerformanceReview pr " +
+           "GROUP BY pr.department, pr.reviewPeriod, pr.rating, pr.status")
+    List<Object[]> getRollupSourceCounts();
+
+    // The same counts for one department/period
+    @Query("SELECT pr.department, pr.reviewPeriod, pr.rating, pr.status, COUNT(pr) FROM PerformanceReview pr " +
+           "WHERE pr.department = :department AND pr.reviewPeriod = :reviewPeriod " +
+           "GROUP BY pr.department, pr.reviewPeriod, pr.rating, pr.status")
+    List<Object[]> getRollupSourceCounts(@Param("department") String department,
+                                         @Param("reviewPeriod") String reviewPeriod);
+
+    // Rewrites the stored name of a renamed department on its reviews in one statement on the
+    // department_id index
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE performance_reviews SET department = :newName WHERE department_id = :departmentId",
+           nativeQuery = true)
+    int updateDepartmentName(@Param("departmentId") int departmentId, @Param("newName") String newName);
+
+    // Review counts per department key; source for rebuilding department_stats
+    @Query("SELECT pr.departmentRef.id, COUNT(pr) FROM PerformanceReview pr WHERE pr.departmentRef IS NOT NULL " +
+           "GROUP BY pr.departmentRef.id")
+    List<Object[]> getDepartmentStatsSource();
 }
@@ -0,0 +1,41 @@
+package com.dmcdesigns.capstone.Repositories;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.dmcdesigns.capstone.Entities.PerformanceRollup;
+
+import jakarta.persistence.LockModeType;
+
+public interface PerformanceRollupRepository extends JpaRepository<PerformanceRollup, Integer> {
+
+    boolean existsByDepartmentAndReviewPeriod(String department, String reviewPeriod);
+
+    // Row lock so concurrent review writes apply their deltas one after another
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM PerformanceRollup r WHERE r.department = :department AND r.reviewPeriod = :reviewPeriod")
+    Optional<PerformanceRollup> findForUpdate(@Param("department") String department,
+                                              @Param("reviewPeriod") String reviewPeriod);
+
+    // Lock every rollup row for the full rebuild
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM PerformanceRollup r")
+    List<PerformanceRollup> findAllForUpdate();
+
+    // Moves a renamed department's rows to its new name
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PerformanceRollup r SET r.department = :newName WHERE r.department = :oldName")
+    int updateDepartmentName(@Param("oldName") String oldName, @Param("newName") String newName);
+
+    // Rollups matching optional department / review period filters (null = any)
+    @Query("SELECT r FROM PerformanceRollup r WHERE (:department IS NULL OR r.department = :department) " +
+           "AND (:reviewPeriod IS NULL OR r.reviewPeriod = :reviewPeriod) ORDER BY r.department, r.reviewPeriod")
+    List<PerformanceRollup> findByFilters(@Param("department") String department,
+                                          @Param("reviewPeriod") String reviewPeriod);
+}
@@ -2,13 +2,21 @@ package com.dmcdesigns.capstone.Repositories;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.dmcdesigns.capstone.DTOs.ProjectReportRow;
 import com.dmcdesigns.capstone.Entities.Project;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * Repository interface for Project entity operations.
  * Extends JpaRepository to provide standard CRUD operations plus custom queries
@@ -24,7 +32,12 @@ public interface ProjectRepository extends JpaRepository<Project, Integer> {
     // ============ Basic Filtering Methods ============
     
     List<Project> findAllByStatus(String status);
-    List<Project> findAllByDepartment(String department);
+    @Query("SELECT p FROM Project p WHERE p.departmentRef.id = ?1")
+    List<Project> findAllByDepartmentId(Integer departmentId);
+
+    // Projects of every department in a subtree interval (see Department.treeLeft)
+    @Query("SELECT p FROM Project p WHERE p.departmentRef.treeLeft BETWEEN :left AND :right")
+    List<Project> findAllInDepartmentTree(@Param("left") int left, @Param("right") int right);
     List<Project> findAllByPriority(String priority);
     List<Project> findAllByProjectManagerId(int managerId);
 
@@ -61,20 +74,32 @@ public interface ProjectRepository extends JpaRepository<Project, Integer> {
     Long countByStatus(String status);
 
     // Get project count by department
-    @Query("SELECT COUNT(p) FROM Project p WHERE p.department = ?1")
-    Long countByDepartment(String department);
+    @Query("SELECT COUNT(p) FROM Project p WHERE p.departmentRef.id = ?1")
+    Long countByDepartmentId(Integer departmentId);
+
+    @Query("SELECT COUNT(p) FROM Project p WHERE p.departmentRef.treeLeft BETWEEN :left AND :right")
+    Long countInDepartmentTree(@Param("left") int left, @Param("right") int right);
 
     // Get average project progress by department
-    @Query("SELECT AVG(p.progressPercentage) FROM Project p WHERE p.department = ?1")
-    Double getAverageProgressByDepartment(String department);
+    @Query("SELECT AVG(p.progressPercentage) FROM Project p WHERE p.departmentRef.id = ?1")
+    Double getAverageProgressByDepartmentId(Integer departmentId);
+
+    @Query("SELECT AVG(p.progressPercentage) FROM Project p WHERE p.departmentRef.treeLeft BETWEEN :left AND :right")
+    Double getAverageProgressInDepartmentTree(@Param("left") int left, @Param("right") int right);
 
     // Get total budget by department
-    @Query("SELECT SUM(p.budget) FROM Project p WHERE p.department = ?1")
-    BigDecimal getTotalBudgetByDepartment(String department);
+    @Query("SELECT SUM(p.budget) FROM Project p WHERE p.departmentRef.id = ?1")
+    BigDecimal getTotalBudgetByDepartmentId(Integer departmentId);
+
+    @Query("SELECT SUM(p.budget) FROM Project p WHERE p.departmentRef.treeLeft BETWEEN :left AND :right")
+    BigDecimal getTotalBudgetInDepartmentTree(@Param("left") int left, @Param("right") int right);
 
     // Get total budget used by department
-    @Query("SELECT SUM(p.budgetUsed) FROM Project p WHERE p.department = ?1")
-    BigDecimal getTotalBudgetUsedByDepartment(String department);
+    @Query("SELECT SUM(p.budgetUsed) FROM Project p WHERE p.departmentRef.id = ?1")
+    BigDecimal getTotalBudgetUsedByDepartmentId(Integer departmentId);
+
+    @Query("SELECT SUM(p.budgetUsed) FROM Project p WHERE p.departmentRef.treeLeft BETWEEN :left AND :right")
+    BigDecimal getTotalBudgetUsedInDepartmentTree(@Param("left") int left, @Param("right") int right);
 
     // Find projects ending soon (within specified date)
     @Query("SELECT p FROM Project p WHERE p.endDate <= ?1 AND p.status IN ('ACTIVE', 'PLANNING')")
@@ -125,4 +150,37 @@ public interface ProjectRepository extends JpaRepository<Project, Integer> {
     // Find projects by active status
     @Query("SELECT p FROM Project p WHERE (:isActive = true AND p.status = 'ACTIVE') OR (:isActive = false AND p.status != 'ACTIVE')")
     org.springframework.data.domain.Page<Project> findProjectsByActiveStatus(@org.springframework.data.repository.query.Param("isActive") boolean isActive, org.springframework.data.domain.Pageable pageable);
+
+    // ============ Reporting Projections ============
+
+    // Stream report rows as DTOs; the assigned count is a correlated subquery, so no collection is loaded
+    @Query("SELECT new com.dmcdesigns.capstone.DTOs.ProjectReportRow(p.id, p.name, p.status, p.department, " +
+           "p.budget, p.budgetUsed, p.progressPercentage, " +
+           "(SELECT COUNT(e) FROM Project ap JOIN ap.assignedEmployees e WHERE ap.id = p.id)) " +
+           "FROM Project p ORDER BY p.department, p.name")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ProjectReportRow> streamProjectReportRows();
+
+    // Project counts for every status in one pass: [status, count]
+    @Query("SELECT p.status, COUNT(p) FROM Project p GROUP BY p.status")
+    List<Object[]> getProjectCountsByStatus();
+
+    // Project counts per department key; source for rebuilding department_stats
+    @Query("SELECT p.departmentRef.id, COUNT(p) FROM Project p WHERE p.departmentRef IS NOT NULL " +
+           "GROUP BY p.departmentRef.id")
+    List<Object[]> getDepartmentStatsSource();
+
+    // Rewrites the stored name of a renamed department on its projects in one statement on the
+    // department_id index; the cleared change_seq is stamped on commit
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE projects SET department = :newName, change_seq = NULL WHERE department_id = :departmentId",
+           nativeQuery = true)
+    int updateDepartmentName(@Param("departmentId") int departmentId, @Param("newName") String newName);
+
+    // Projects changed in a change sequence range, on the change_seq index; for delta sync
+    @Query("SELECT p FROM Project p WHERE p.changeSeq > ?1 AND p.changeSeq <= ?2 ORDER BY p.changeSeq, p.id")
+    List<Project> findChangedBetween(long after, long upTo);
 }
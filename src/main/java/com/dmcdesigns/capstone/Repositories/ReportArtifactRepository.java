@@ -0,0 +1,27 @@
+package com.dmcdesigns.capstone.Repositories;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.dmcdesigns.capstone.Entities.ReportArtifact;
+
+public interface ReportArtifactRepository extends JpaRepository<ReportArtifact, Integer> {
+
+    // Newest artifact for a report type
+    Optional<ReportArtifact> findTopByReportTypeOrderByVersionDesc(String reportType);
+
+    // Highest version number and the data version it was built from, without loading the content
+    @Query("SELECT a.version, a.dataVersion FROM ReportArtifact a WHERE a.reportType = :reportType " +
+           "AND a.version = (SELECT MAX(b.version) FROM ReportArtifact b WHERE b.reportType = :reportType)")
+    List<Object[]> findLatestVersionInfo(@Param("reportType") String reportType);
+
+    // Remove all but the newest versions of a report type
+    @Modifying
+    @Query("DELETE FROM ReportArtifact a WHERE a.reportType = :reportType AND a.version <= :maxVersion")
+    int deleteVersionsUpTo(@Param("reportType") String reportType, @Param("maxVersion") int maxVersion);
+}
@@ -0,0 +1,25 @@
+package com.dmcdesigns.capstone.Repositories;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.dmcdesigns.capstone.Entities.ReportLock;
+
+public interface ReportLockRepository extends JpaRepository<ReportLock, String> {
+
+    // Take the lease if it is free, expired, or already ours. Returns 1 when acquired.
+    @Modifying
+    @Query("UPDATE ReportLock l SET l.lockedBy = :owner, l.lockedUntil = :until " +
+           "WHERE l.name = :name AND (l.lockedUntil < :now OR l.lockedBy = :owner)")
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner,
+                   @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    // Release the lease if we still hold it
+    @Modifying
+    @Query("UPDATE ReportLock l SET l.lockedBy = NULL, l.lockedUntil = :now WHERE l.name = :name AND l.lockedBy = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
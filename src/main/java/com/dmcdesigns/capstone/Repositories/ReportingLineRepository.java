@@ -0,0 +1,89 @@
+package com.dmcdesigns.capstone.Repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.dmcdesigns.capstone.DTOs.EmployeeSummary;
+import com.dmcdesigns.capstone.Entities.ReportingLine;
+
+// The bulk statements keep the persistence context: they run in the middle of employee deletes, and
+// no ReportingLine entity is held across them
+public interface ReportingLineRepository extends JpaRepository<ReportingLine, ReportingLine.Key> {
+
+    // Everyone up to maxDepth levels under a manager, nearest first; one range scan of the primary key
+    @Query(value = "SELECT new com.dmcdesigns.capstone.DTOs.EmployeeSummary(e.id, e.firstName, e.lastName, e.email, " +
+                   "e.phoneNumber, e.department, e.role, e.salary, e.hireDate, e.hasAccess, TYPE(e)) " +
+                   "FROM ReportingLine r JOIN Employee e ON e.id = r.descendantId " +
+                   "WHERE r.ancestorId = :managerId AND r.depth <= :maxDepth ORDER BY r.depth, e.lastName, e.id",
+           countQuery = "SELECT COUNT(r) FROM ReportingLine r WHERE r.ancestorId = :managerId AND r.depth <= :maxDepth")
+    Page<EmployeeSummary> findReportSummaries(@Param("managerId") int managerId, @Param("maxDepth") int maxDepth,
+                                              Pageable pageable);
+
+    // Managers above a user, direct manager first; one range scan of idx_reporting_lines_descendant
+    @Query("SELECT new com.dmcdesigns.capstone.DTOs.EmployeeSummary(e.id, e.firstName, e.lastName, e.email, " +
+           "e.phoneNumber, e.department, e.role, e.salary, e.hireDate, e.hasAccess, TYPE(e)) " +
+           "FROM ReportingLine r JOIN Employee e ON e.id = r.ancestorId " +
+           "WHERE r.descendantId = :userId ORDER BY r.depth")
+    List<EmployeeSummary> findChainOfCommand(@Param("userId") int userId);
+
+    // Whether the user is below any of the given users; used to refuse cycles
+    @Query("SELECT COUNT(r) > 0 FROM ReportingLine r WHERE r.ancestorId IN :ids AND r.descendantId = :userId")
+    boolean isBelowAny(@Param("ids") List<Integer> ids, @Param("userId") int userId);
+
+    // The ancestor/descendant pairs within a set of users
+    @Query("SELECT r FROM ReportingLine r WHERE r.ancestorId IN :ids AND r.descendantId IN :ids")
+    List<ReportingLine> findLinksAmong(@Param("ids") List<Integer> ids);
+
+    // Cuts the given users' subtrees off everything above them. The subtrees must not
+    // overlap: no user in ids may be below another.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM reporting_lines " +
+                   "WHERE ancestor_id IN (SELECT a.ancestor_id FROM reporting_lines a WHERE a.descendant_id IN (:ids)) " +
+                   "AND (descendant_id IN (:ids) " +
+                   "OR descendant_id IN (SELECT d.descendant_id FROM reporting_lines d WHERE d.ancestor_id IN (:ids)))",
+           nativeQuery = true)
+    int detachSubtrees(@Param("ids") List<Integer> ids);
+
+    // Links every user in the given (detached) subtrees to the new manager and everyone above them
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO reporting_lines (ancestor_id, descendant_id, depth) " +
+                   "SELECT up.ancestor_id, down.descendant_id, up.depth + down.depth + 1 " +
+                   "FROM (SELECT a.ancestor_id, a.depth FROM reporting_lines a WHERE a.descendant_id = :managerId " +
+                   "UNION ALL SELECT u.id, 0 FROM users u WHERE u.id = :managerId) up " +
+                   "CROSS JOIN (SELECT d.descendant_id, d.depth FROM reporting_lines d WHERE d.ancestor_id IN (:ids) " +
+                   "UNION ALL SELECT u.id, 0 FROM users u WHERE u.id IN (:ids)) down",
+           nativeQuery = true)
+    int attachSubtrees(@Param("ids") List<Integer> ids, @Param("managerId") int managerId);
+
+    // Drops a leaf user's links to the managers above it
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM reporting_lines WHERE descendant_id = :userId", nativeQuery = true)
+    int deleteLinksAbove(@Param("userId") int userId);
+
+    // ============ Full Rebuild ============
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM reporting_lines", nativeQuery = true)
+    int deleteAllLinks();
+
+    // Depth 1: every user's direct manager
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO reporting_lines (ancestor_id, descendant_id, depth) " +
+                   "SELECT u.manager_id, u.id, 1 FROM users u WHERE u.manager_id IS NOT NULL",
+           nativeQuery = true)
+    int insertDirectLinks();
+
+    // Depth n + 1 from depth n: the managers above each user's direct manager
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO reporting_lines (ancestor_id, descendant_id, depth) " +
+                   "SELECT r.ancestor_id, u.id, r.depth + 1 FROM reporting_lines r " +
+                   "JOIN users u ON u.manager_id = r.descendant_id WHERE r.depth = :depth",
+           nativeQuery = true)
+    int insertLinksBelow(@Param("depth") int depth);
+}
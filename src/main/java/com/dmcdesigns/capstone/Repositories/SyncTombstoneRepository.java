@@ -0,0 +1,27 @@
+package com.dmcdesigns.capstone.Repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.dmcdesigns.capstone.Entities.SyncTombstone;
+
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+
+    // Deletes in a change sequence range: entity type and id, on the change_seq index
+    @Query("SELECT t.entityType, t.entityId FROM SyncTombstone t " +
+           "WHERE t.changeSeq > :after AND t.changeSeq <= :upTo ORDER BY t.changeSeq, t.id")
+    List<Object[]> findDeletedBetween(@Param("after") long after, @Param("upTo") long upTo);
+
+    // Highest change sequence among tombstones older than the cutoff, or null if there are none
+    @Query("SELECT MAX(t.changeSeq) FROM SyncTombstone t WHERE t.deletedAt < :cutoff")
+    Long findMaxChangeSeqBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM SyncTombstone t WHERE t.changeSeq <= :changeSeq")
+    int deleteUpTo(@Param("changeSeq") long changeSeq);
+}
@@ -22,9 +22,13 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     @Query("SELECT u FROM User u") 
     List<User> getAllUsers();
 
-    // Get all users by department
-    @Query("SELECT u FROM User u WHERE u.department = ?1")
-    List<User> getUsersByDepartment(String department);
+    // Get all users by department foreign key
+    @Query("SELECT u FROM User u WHERE u.departmentRef.id = ?1")
+    List<User> getUsersByDepartmentId(Integer departmentId);
+
+    // Users of every department in a subtree interval (see Department.treeLeft)
+    @Query("SELECT u FROM User u WHERE u.departmentRef.treeLeft BETWEEN :left AND :right")
+    List<User> getUsersInDepartmentTree(@Param("left") int left, @Param("right") int right);
 
     // Get all users sorted by last name
     @Query("SELECT u FROM User u ORDER BY u.lastName ASC")
@@ -57,8 +61,8 @@ public interface UserRepository extends JpaRepository<User, Integer> {
            "OR LOWER(u.username) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     Page<User> searchUsers(@Param("searchTerm") String searchTerm, Pageable pageable);
 
-    @Query("SELECT u FROM User u WHERE u.department = :department")
-    Page<User> findUsersByDepartment(@Param("department") String department, Pageable pageable);
+    @Query("SELECT u FROM User u WHERE u.departmentRef.id = :departmentId")
+    Page<User> findUsersByDepartmentId(@Param("departmentId") Integer departmentId, Pageable pageable);
 
     @Query("SELECT u FROM User u WHERE u.id = :userId")
     Page<User> findUserById(@Param("userId") Integer userId, Pageable pageable);
@@ -86,4 +90,35 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     @Query(value = "UPDATE users SET has_access = true WHERE user_type IN ('ADMIN', 'MANAGER')", nativeQuery = true)
     int updateAccessByDiscriminator();
 
+    // Move every user of one department key to another (or rewrite the stored name after a
+    // rename, when both keys are the same) in a single statement on the department_id index;
+    // returns the row count. change_seq is cleared so the delta-sync stamp picks the rows up.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE users SET department = :newName, department_id = :newId, change_seq = NULL " +
+                   "WHERE department_id = :fromId",
+           nativeQuery = true)
+    int moveDepartment(@Param("fromId") int fromId, @Param("newName") String newName, @Param("newId") int newId);
+
+    // ============ Reporting Lines ============
+
+    // Id and current direct manager (or null) of each given user that exists
+    @Query("SELECT u.id, u.managerId FROM User u WHERE u.id IN :ids")
+    List<Object[]> findManagerIds(@Param("ids") List<Integer> ids);
+
+    @Query("SELECT u.id FROM User u WHERE u.managerId = :managerId")
+    List<Integer> findDirectReportIds(@Param("managerId") int managerId);
+
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE u.managerId IS NOT NULL")
+    boolean existsWithManager();
+
+    // Sets the direct manager column; reporting_lines is rewritten alongside by ReportingLineService.
+    // The persistence context is kept, as these run in the middle of employee deletes.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE users SET manager_id = :managerId, change_seq = NULL WHERE id IN (:ids)", nativeQuery = true)
+    int updateManager(@Param("ids") List<Integer> ids, @Param("managerId") int managerId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE users SET manager_id = NULL, change_seq = NULL WHERE id IN (:ids)", nativeQuery = true)
+    int clearManager(@Param("ids") List<Integer> ids);
+
 }
@@ -1,5 +1,6 @@
 package com.dmcdesigns.capstone.Security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -55,6 +56,9 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
+                // The JWT filter only authenticates the original request; async report results and error
+                // pages are dispatched again without the token, after the request was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                 .requestMatchers("/", "/api", "/health", "/actuator/**").permitAll()
                 .requestMatchers("/static/**", "/css/**", "/js/**", "/images/**", "/assets/**", "/*.html", "/*.js", "/*.css", "/*.ico", "/*.svg").permitAll()
                 .requestMatchers("/login", "/register", "/forgot-password", "/reset-password", "/unauthorized").permitAll()
@@ -80,7 +84,7 @@ public class SecurityConfig {
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOriginPatterns(Arrays.asList("*"));
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setAllowCredentials(true);
         
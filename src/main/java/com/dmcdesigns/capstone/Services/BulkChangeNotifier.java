@@ -0,0 +1,99 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.DTOs.ChangeEvent;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Tells every derived view that rows changed through bulk statements or JDBC
+ * inserts, which bypass the entity listeners that normally keep them current:
+ * the report data version, the employee analytics snapshot, the salary
+ * sketches, the change stream and the directory sync stamps.
+ * <p>
+ * The in-transaction methods must be called from the transaction that made
+ * the writes, so each view is updated only if it commits.
+ *
+ * @author DMC Designs
+ */
+@Service
+public class BulkChangeNotifier {
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private EmployeeAnalyticsService employeeAnalyticsService;
+
+    @Autowired
+    private SalaryDistributionService salaryDistributionService;
+
+    @Autowired
+    private DepartmentStatsService departmentStatsService;
+
+    @Autowired
+    private ChangeStreamService changeStreamService;
+
+    @Autowired
+    private DirectorySyncService directorySyncService;
+
+    /**
+     * Employees were updated in bulk
+     *
+     * @param analyticsChanged Whether salary, department or role may have changed,
+     *                         so the analytics snapshot and salary sketches are rebuilt
+     */
+    public void employeesUpdated(boolean analyticsChanged) {
+        dataVersionService.markChanged(DataVersionService.REPORT_DATA);
+        if (analyticsChanged) {
+            employeeAnalyticsService.requestFullRebuild();
+            salaryDistributionService.rebuildAfterCommit();
+        }
+        recordEmployeeChange();
+    }
+
+    /**
+     * Every employee of one department name moved to another; the salary
+     * sketches merge the two groups instead of rebuilding
+     */
+    public void employeesMoved(String fromDepartment, String toDepartment) {
+        dataVersionService.markChanged(DataVersionService.REPORT_DATA);
+        employeeAnalyticsService.requestFullRebuild();
+        salaryDistributionService.recordDepartmentMove(fromDepartment, toDepartment);
+        recordEmployeeChange();
+    }
+
+    /**
+     * An import committed new employees chunk by chunk; runs after the last
+     * chunk, outside any transaction. Each chunk stamps its own directory sync rows.
+     */
+    public void employeesImported() {
+        dataVersionService.markChanged(DataVersionService.REPORT_DATA);
+        employeeAnalyticsService.requestFullRebuild();
+        salaryDistributionService.rebuild();
+        departmentStatsService.rebuildStats();
+        changeStreamService.recordBulkChange(ChangeEvent.EMPLOYEE);
+    }
+
+    /**
+     * Projects were updated in bulk
+     */
+    public void projectsUpdated() {
+        dataVersionService.markChanged(DataVersionService.REPORT_DATA);
+        changeStreamService.recordBulkChange(ChangeEvent.PROJECT);
+        directorySyncService.recordBulkChange(DirectorySyncService.PROJECTS);
+    }
+
+    /**
+     * Performance reviews were updated in bulk
+     */
+    public void reviewsUpdated() {
+        dataVersionService.markChanged(DataVersionService.REPORT_DATA);
+        changeStreamService.recordBulkChange(ChangeEvent.REVIEW);
+    }
+
+    private void recordEmployeeChange() {
+        changeStreamService.recordBulkChange(ChangeEvent.EMPLOYEE);
+        directorySyncService.recordBulkChange(DirectorySyncService.USERS);
+    }
+}
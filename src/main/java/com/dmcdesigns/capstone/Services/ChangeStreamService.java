@@ -0,0 +1,385 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.DTOs.ChangeEvent;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed employee, project and review changes to clients over
+ * server-sent events, so lists can be patched in place instead of re-polled.
+ * <p>
+ * Entity listeners record changes during a transaction; they are collapsed to
+ * one event per entity and published only after commit, each with the next
+ * stream version. The last replay-size events are kept so a reconnecting
+ * client can resume after its Last-Event-ID; a client too far behind (or
+ * resuming across a restart) gets a "reset" event and reloads its lists.
+ * <p>
+ * Every client has a bounded buffer drained by its own sender task; a sender
+ * thread is only held while a client has something to send, so a client that
+ * stops reading stalls nobody else. Publishing never waits on a client: one
+ * whose buffer is full, or whose send has been blocked for send-timeout, is
+ * evicted and reconnects with its Last-Event-ID. The blocked write itself is
+ * released by the container's write timeout. Heartbeats go through the same
+ * buffer, so a stalled connection is found even when nothing changes. Events
+ * are per node.
+ *
+ * @author DMC Designs
+ */
+@Service
+public class ChangeStreamService {
+
+    public static final Set<String> TYPES = Set.of(ChangeEvent.EMPLOYEE, ChangeEvent.PROJECT, ChangeEvent.REVIEW);
+
+    private static final String RESOURCE_KEY = ChangeStreamService.class.getName() + ".pending";
+
+    // Control messages have no entity type
+    private static final String READY = "ready";
+    private static final String RESET = "reset";
+    private static final ChangeEvent HEARTBEAT = new ChangeEvent(null, null, "heartbeat", -1);
+
+    private final int clientBuffer;
+    private final int replaySize;
+    private final int maxClients;
+    private final long timeoutMs;
+    private final long sendTimeoutNanos;
+    private final ThreadPoolExecutor senderPool;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    // Guarded by lock: the sequence, the replay history and delivery order
+    private final Object lock = new Object();
+    private final ArrayDeque<ChangeEvent> history = new ArrayDeque<>();
+    private long sequence;
+
+    /**
+     * A change recorded in the current transaction, not yet numbered
+     */
+    private record PendingChange(String type, Integer id, String op) {
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final Set<String> types;
+        final BlockingQueue<ChangeEvent> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+        // When the send in progress started, or 0 between sends
+        volatile long sendStartedAt;
+
+        Subscriber(SseEmitter emitter, Set<String> types, int capacity) {
+            this.emitter = emitter;
+            this.types = types;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        boolean wants(ChangeEvent event) {
+            return event.type() == null || types.isEmpty() || types.contains(event.type());
+        }
+    }
+
+    public ChangeStreamService(@Value("${app.events.client-buffer:256}") int clientBuffer,
+                               @Value("${app.events.replay-size:2000}") int replaySize,
+                               @Value("${app.events.max-clients:500}") int maxClients,
+                               @Value("${app.events.send-timeout-ms:10000}") long sendTimeoutMs,
+                               @Value("${app.events.timeout-ms:1800000}") long timeoutMs) {
+        this.clientBuffer = Math.max(2, clientBuffer);
+        this.replaySize = Math.max(0, replaySize);
+        this.maxClients = Math.max(1, maxClients);
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, sendTimeoutMs));
+        AtomicInteger threadCount = new AtomicInteger();
+        // One drain task per client at most, each on its own thread so a blocked send holds up only its client.
+        // Idle threads exit, so the pool is only as large as the number of clients with something to send.
+        this.senderPool = new ThreadPoolExecutor(0, this.maxClients, 60L, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "change-stream-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    // ============ Recording ============
+
+    /**
+     * Records a change to one entity. Inside a transaction the event is held
+     * until commit and merged with earlier changes to the same entity (created
+     * then updated is still created; created then deleted is dropped).
+     */
+    public void record(String type, int id, String op) {
+        add(new PendingChange(type, id, op));
+    }
+
+    /**
+     * Records that many rows of a type changed without entity callbacks (bulk
+     * imports and updates); clients reload that list
+     */
+    public void recordBulkChange(String type) {
+        add(new PendingChange(type, null, ChangeEvent.BULK));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void add(PendingChange change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(List.of(change));
+            return;
+        }
+        Map<String, PendingChange> pending = (Map<String, PendingChange>) TransactionSynchronizationManager.getResource(RESOURCE_KEY);
+        if (pending == null) {
+            Map<String, PendingChange> changes = new LinkedHashMap<>();
+            pending = changes;
+            TransactionSynchronizationManager.bindResource(RESOURCE_KEY, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(changes.values());
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RESOURCE_KEY);
+                }
+            });
+        }
+        String key = change.type() + ":" + change.id();
+        // Re-inserted so events keep the order of each entity's last change
+        PendingChange previous = pending.remove(key);
+        String op = merge(previous != null ? previous.op() : null, change.op());
+        if (op != null) {
+            pending.put(key, new PendingChange(change.type(), change.id(), op));
+        }
+    }
+
+    private static String merge(String previous, String next) {
+        if (ChangeEvent.CREATED.equals(previous)) {
+            if (ChangeEvent.DELETED.equals(next)) {
+                return null;
+            }
+            return ChangeEvent.CREATED;
+        }
+        return next;
+    }
+
+    private void publish(Collection<PendingChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            for (PendingChange change : changes) {
+                ChangeEvent event = new ChangeEvent(change.type(), change.id(), change.op(), ++sequence);
+                history.addLast(event);
+                if (history.size() > replaySize) {
+                    history.removeFirst();
+                }
+                for (Subscriber subscriber : subscribers) {
+                    deliver(subscriber, event);
+                }
+            }
+        }
+    }
+
+    // ============ Subscribers ============
+
+    /**
+     * Opens a stream for one client
+     *
+     * @param lastEventId Version of the last event the client applied, or null for a fresh start
+     * @param types Entity types to receive; empty for all
+     * @throws IllegalStateException if the node already serves max-clients streams
+     */
+    public SseEmitter subscribe(Long lastEventId, Set<String> types) {
+        return subscribe(new SseEmitter(timeoutMs), lastEventId, types);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Long lastEventId, Set<String> types) {
+        Set<String> wanted = types != null ? Set.copyOf(types) : Set.of();
+        for (String type : wanted) {
+            if (!TYPES.contains(type)) {
+                throw new IllegalArgumentException("Unknown event type: " + type + " (expected one of " + TYPES + ")");
+            }
+        }
+        Subscriber subscriber = new Subscriber(emitter, wanted, clientBuffer);
+        synchronized (lock) {
+            if (subscribers.size() >= maxClients) {
+                throw new IllegalStateException("Too many event stream clients");
+            }
+            subscriber.queue.addAll(replay(subscriber, lastEventId));
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(error -> close(subscriber));
+        scheduleDrain(subscriber);
+        return emitter;
+    }
+
+    /**
+     * The first messages for a new client: the events it missed followed by
+     * "ready" once it is caught up, or a lone "reset" when it must reload.
+     * Both carry the current version, so a later resume starts from there.
+     */
+    private List<ChangeEvent> replay(Subscriber subscriber, Long lastEventId) {
+        ChangeEvent ready = new ChangeEvent(null, null, READY, sequence);
+        ChangeEvent reset = new ChangeEvent(null, null, RESET, sequence);
+        if (lastEventId == null || lastEventId == sequence) {
+            return List.of(ready);
+        }
+        long oldest = history.isEmpty() ? sequence + 1 : history.peekFirst().version();
+        // Ahead of this node means the sequence restarted; before the oldest kept event means events were dropped
+        if (lastEventId > sequence || lastEventId < oldest - 1) {
+            return List.of(reset);
+        }
+        List<ChangeEvent> messages = new ArrayList<>();
+        for (ChangeEvent event : history) {
+            if (event.version() > lastEventId && subscriber.wants(event)) {
+                messages.add(event);
+            }
+        }
+        // Too many to buffer; reloading is cheaper than replaying anyway
+        if (messages.size() >= clientBuffer) {
+            return List.of(reset);
+        }
+        messages.add(ready);
+        return messages;
+    }
+
+    // Called with the lock held, so every client sees events in version order
+    private void deliver(Subscriber subscriber, ChangeEvent event) {
+        if (subscriber.closed || !subscriber.wants(event)) {
+            return;
+        }
+        if (subscriber.queue.offer(event)) {
+            scheduleDrain(subscriber);
+        } else {
+            evict(subscriber, "buffer full");
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies and finds clients that stopped reading
+     */
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.sendStartedAt;
+            if (started != 0 && now - started > sendTimeoutNanos) {
+                evict(subscriber, "send timed out");
+            } else if (subscriber.queue.offer(HEARTBEAT)) {
+                scheduleDrain(subscriber);
+            } else {
+                evict(subscriber, "no heartbeat room");
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getCurrentVersion() {
+        synchronized (lock) {
+            return sequence;
+        }
+    }
+
+    private void evict(Subscriber subscriber, String reason) {
+        System.out.println("🐢 Evicting slow event stream client (" + reason + ")");
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+        subscriber.queue.clear();
+        // The drain task completes the emitter once any send in progress returns or fails;
+        // completing here would wait on the emitter behind a blocked send
+        scheduleDrain(subscriber);
+    }
+
+    private void close(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+    }
+
+    // ============ Sending ============
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            senderPool.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.draining.set(false);
+            close(subscriber);
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            ChangeEvent event;
+            while (!subscriber.closed && (event = subscriber.queue.poll()) != null) {
+                subscriber.sendStartedAt = System.nanoTime();
+                subscriber.emitter.send(toSse(event));
+                subscriber.sendStartedAt = 0;
+            }
+            if (subscriber.closed) {
+                subscriber.emitter.complete();
+                return;
+            }
+        } catch (Exception e) {
+            // Client went away, or the emitter already completed
+            close(subscriber);
+            return;
+        } finally {
+            subscriber.sendStartedAt = 0;
+            subscriber.draining.set(false);
+        }
+        // An event may have arrived after the last poll but before draining was cleared
+        if (!subscriber.queue.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(ChangeEvent event) {
+        if (event == HEARTBEAT) {
+            return SseEmitter.event().comment("heartbeat");
+        }
+        if (event.type() == null) {
+            return SseEmitter.event().id(String.valueOf(event.version())).name(event.op())
+                .data(Map.of("version", event.version()), MediaType.APPLICATION_JSON);
+        }
+        return SseEmitter.event().id(String.valueOf(event.version())).name("change")
+            .data(event, MediaType.APPLICATION_JSON);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            close(subscriber);
+            subscriber.emitter.complete();
+        }
+        senderPool.shutdownNow();
+    }
+}
@@ -0,0 +1,252 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Entities.CustomReportDefinition;
+import com.dmcdesigns.capstone.Reports.CompiledReport;
+import com.dmcdesigns.capstone.Reports.CustomReportCompiler;
+import com.dmcdesigns.capstone.Reports.CustomReportSpec;
+import com.dmcdesigns.capstone.Reports.PdfReportLayout;
+import com.dmcdesigns.capstone.Repositories.CustomReportDefinitionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Saves, compiles and runs user-defined reports.
+ * A definition is validated and compiled once when it is saved; runs reuse the
+ * compiled query for as long as the definition is unchanged, and reuse the last
+ * result for as long as the report data version is unchanged.
+ *
+ * @author DMC Designs
+ */
+@Service
+public class CustomReportService {
+
+    @Autowired
+    private CustomReportDefinitionRepository customReportDefinitionRepository;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.reports.pdf.output-mode:COMPACT}")
+    private PdfReportLayout.OutputMode pdfOutputMode = PdfReportLayout.OutputMode.COMPACT;
+
+    private static final int MAX_DEFINITION_LENGTH = 10000;
+
+    private final CustomReportCompiler compiler;
+
+    // Keyed by definition id; an entry is only used while its updatedAt matches the stored definition
+    private final Map<Integer, CompiledEntry> compiledReports = new ConcurrentHashMap<>();
+    private final Map<Integer, CachedResult> results = new ConcurrentHashMap<>();
+
+    private record CompiledEntry(LocalDateTime definitionUpdatedAt, CompiledReport report) {
+    }
+
+    private record CachedResult(LocalDateTime definitionUpdatedAt, long dataVersion, LocalDateTime generatedAt,
+                                List<Map<String, Object>> rows) {
+    }
+
+    public CustomReportService(EntityManagerFactory entityManagerFactory) {
+        this.compiler = new CustomReportCompiler(entityManagerFactory.getCriteriaBuilder());
+    }
+
+    // ============ Definitions ============
+
+    @Transactional(readOnly = true)
+    public List<CustomReportDefinition> getReports() {
+        return customReportDefinitionRepository.findAllByOrderByNameAsc();
+    }
+
+    @Transactional(readOnly = true)
+    public CustomReportDefinition getReport(int id) {
+        return findDefinition(id);
+    }
+
+    /**
+     * Validates, compiles and saves a new report definition
+     *
+     * @throws IllegalArgumentException if the definition is invalid
+     */
+    @Transactional
+    public CustomReportDefinition saveReport(CustomReportSpec spec) {
+        String name = requireName(spec);
+        if (customReportDefinitionRepository.existsByName(name)) {
+            throw new RuntimeException("Custom report already exists with name: " + name);
+        }
+        CompiledReport compiled = compiler.compile(spec);
+
+        CustomReportDefinition definition = customReportDefinitionRepository.save(
+            new CustomReportDefinition(name, spec.description(), spec.entity().toLowerCase(), toJson(spec)));
+        cacheAfterCommit(definition, compiled);
+        return definition;
+    }
+
+    /**
+     * Replaces a saved definition; its cached plan and results are dropped
+     */
+    @Transactional
+    public CustomReportDefinition updateReport(int id, CustomReportSpec spec) {
+        CustomReportDefinition definition = findDefinition(id);
+        String name = requireName(spec);
+        if (customReportDefinitionRepository.existsByNameAndIdNot(name, id)) {
+            throw new RuntimeException("Custom report already exists with name: " + name);
+        }
+        CompiledReport compiled = compiler.compile(spec);
+
+        definition.update(name, spec.description(), spec.entity().toLowerCase(), toJson(spec));
+        customReportDefinitionRepository.save(definition);
+        cacheAfterCommit(definition, compiled);
+        return definition;
+    }
+
+    @Transactional
+    public void deleteReport(int id) {
+        customReportDefinitionRepository.delete(findDefinition(id));
+        compiledReports.remove(id);
+        results.remove(id);
+    }
+
+    // ============ Running ============
+
+    /**
+     * Runs a saved report
+     *
+     * @return Column labels, rows, and whether the rows came from the result cache
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> runReport(int id) {
+        CustomReportDefinition definition = findDefinition(id);
+        CompiledReport compiled = compiledFor(definition);
+
+        // Read the version before the query, so a write racing the run leaves the result marked older
+        long dataVersion = dataVersionService.getVersion(DataVersionService.REPORT_DATA);
+        CachedResult cached = results.get(id);
+        boolean fromCache = cached != null && cached.definitionUpdatedAt().equals(definition.getUpdatedAt())
+            && cached.dataVersion() == dataVersion;
+        if (!fromCache) {
+            cached = new CachedResult(definition.getUpdatedAt(), dataVersion, LocalDateTime.now(),
+                compiled.execute(entityManager));
+            results.put(id, cached);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", definition.getId());
+        result.put("name", definition.getName());
+        result.put("columns", compiled.getColumnLabels());
+        result.put("rows", cached.rows());
+        result.put("rowCount", cached.rows().size());
+        result.put("truncated", cached.rows().size() >= compiled.getLimit());
+        result.put("generatedAt", cached.generatedAt());
+        result.put("cached", fromCache);
+        return result;
+    }
+
+    /**
+     * Renders a saved report as a PDF table using its compiled column plan
+     */
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public byte[] generateReportPdf(int id) throws IOException {
+        Map<String, Object> result = runReport(id);
+        CompiledReport compiled = compiledFor(findDefinition(id));
+
+        try (PdfReportLayout layout = new PdfReportLayout((String) result.get("name"), pdfOutputMode)) {
+            PdfReportLayout.TableWriter<Map<String, Object>> table = layout.table(compiled.getPdfColumns());
+            table.writeRows(((List<Map<String, Object>>) result.get("rows")).iterator());
+            layout.space(10);
+            layout.line("Total rows: " + table.getRowCount(), 0);
+            return layout.toByteArray();
+        }
+    }
+
+    // ============ Helpers ============
+
+    private CompiledReport compiledFor(CustomReportDefinition definition) {
+        CompiledEntry entry = compiledReports.get(definition.getId());
+        if (entry != null && entry.definitionUpdatedAt().equals(definition.getUpdatedAt())) {
+            return entry.report();
+        }
+        // First run on this node, or the definition was edited elsewhere
+        CompiledReport compiled = compiler.compile(fromJson(definition.getDefinition()));
+        compiledReports.put(definition.getId(), new CompiledEntry(definition.getUpdatedAt(), compiled));
+        return compiled;
+    }
+
+    private void cacheAfterCommit(CustomReportDefinition definition, CompiledReport compiled) {
+        int id = definition.getId();
+        LocalDateTime updatedAt = definition.getUpdatedAt();
+        Runnable cache = () -> {
+            compiledReports.put(id, new CompiledEntry(updatedAt, compiled));
+            results.remove(id);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.run();
+            }
+        });
+    }
+
+    private CustomReportDefinition findDefinition(int id) {
+        return customReportDefinitionRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Custom report not found with id: " + id));
+    }
+
+    private static String requireName(CustomReportSpec spec) {
+        if (spec == null || spec.name() == null || spec.name().isBlank()) {
+            throw new IllegalArgumentException("Report name is required");
+        }
+        if (spec.name().length() > 100) {
+            throw new IllegalArgumentException("Report name must be at most 100 characters");
+        }
+        if (spec.description() != null && spec.description().length() > 500) {
+            throw new IllegalArgumentException("Report description must be at most 500 characters");
+        }
+        return spec.name().trim();
+    }
+
+    private String toJson(CustomReportSpec spec) {
+        try {
+            String json = objectMapper.writeValueAsString(spec);
+            if (json.length() > MAX_DEFINITION_LENGTH) {
+                throw new IllegalArgumentException("Report definition is too large");
+            }
+            return json;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Report definition could not be serialized: " + e.getMessage());
+        }
+    }
+
+    public CustomReportSpec fromJson(String definition) {
+        try {
+            return objectMapper.readValue(definition, CustomReportSpec.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Stored custom report definition is unreadable: " + e.getMessage());
+        }
+    }
+}
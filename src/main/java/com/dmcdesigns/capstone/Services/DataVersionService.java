@@ -0,0 +1,118 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Entities.DataVersion;
+import com.dmcdesigns.capstone.Repositories.DataVersionRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Tracks database-backed data versions.
+ * A version is bumped once per committed transaction that touched the data set,
+ * so every node sees the same value and rolled-back writes never count.
+ *
+ * @author DMC Designs
+ */
+@Service
+public class DataVersionService {
+
+    /** Data behind the standard reports: users, projects and performance reviews */
+    public static final String REPORT_DATA = "report-data";
+
+    @Autowired
+    private DataVersionRepository dataVersionRepository;
+
+    private final TransactionTemplate requiresNew;
+
+    public DataVersionService(PlatformTransactionManager transactionManager) {
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public long getVersion(String name) {
+        Long version = dataVersionRepository.findVersion(name);
+        return version != null ? version : 0L;
+    }
+
+    /**
+     * Records that the data set changed. Inside a transaction the bump is deferred
+     * until commit and happens only once, however many rows the transaction wrote.
+     */
+    public void markChanged(String name) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(name);
+            return;
+        }
+
+        String resourceKey = DataVersionService.class.getName() + "." + name;
+        if (TransactionSynchronizationManager.hasResource(resourceKey)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(resourceKey, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(resourceKey);
+                if (status == STATUS_COMMITTED) {
+                    increment(name);
+                }
+            }
+        });
+    }
+
+    /**
+     * Moves a counter up to at least the given value, creating it if needed.
+     * Used for watermarks rather than change counts.
+     */
+    public void raiseTo(String name, long version) {
+        if (dataVersionRepository.findVersion(name) == null) {
+            createCounter(name);
+        }
+        dataVersionRepository.raise(name, version);
+    }
+
+    /**
+     * Bumps a counter inside the caller's transaction. The counter row stays
+     * locked until that transaction ends, so callers that take the same counter
+     * first run one after another.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void incrementAndLock(String name) {
+        if (dataVersionRepository.increment(name) == 0) {
+            createCounter(name);
+            dataVersionRepository.increment(name);
+        }
+    }
+
+    private void increment(String name) {
+        requiresNew.executeWithoutResult(status -> {
+            if (dataVersionRepository.increment(name) == 0) {
+                createCounter(name);
+                dataVersionRepository.increment(name);
+            }
+        });
+    }
+
+    /**
+     * Creates a counter at zero in its own transaction; a no-op if it exists
+     */
+    public void createCounter(String name) {
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                if (dataVersionRepository.findVersion(name) == null) {
+                    dataVersionRepository.saveAndFlush(new DataVersion(name));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the counter first
+        }
+    }
+}
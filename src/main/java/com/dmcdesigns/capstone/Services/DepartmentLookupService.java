@@ -0,0 +1,182 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Entities.Department;
+import com.dmcdesigns.capstone.Interfaces.DepartmentAssignable;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves department names to department ids through a cached map, so the
+ * department foreign keys can be filled on write and department filters can
+ * compare integer keys. Lookups use plain JDBC rather than the persistence
+ * context, because they run inside entity callbacks while Hibernate is flushing.
+ * <p>
+ * Writes must name an existing department; departments are only created
+ * explicitly, or by the startup backfill for names found in rows written
+ * before the foreign key existed.
+ *
+ * @author DMC Designs
+ */
+@Service
+public class DepartmentLookupService {
+
+    private static final String CREATED_DESCRIPTION = "Created from existing department assignments";
+
+    private static final String[] REFERENCING_TABLES = { "users", "projects", "performance_reviews" };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // Department name to id; null until first use and after invalidate()
+    private volatile Map<String, Integer> idsByName;
+
+    public DepartmentLookupService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * The id of an existing department, for read paths; never creates one
+     */
+    public Optional<Integer> findId(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        Integer id = ids().get(name);
+        if (id == null) {
+            // Created on another node since the map was loaded
+            id = selectId(name);
+            if (id != null) {
+                ids().put(name, id);
+            }
+        }
+        return Optional.ofNullable(id);
+    }
+
+    /**
+     * The id of the named department, for write paths
+     *
+     * @return The id, or null for a blank name
+     * @throws IllegalArgumentException if no department has that name
+     */
+    public Integer requireId(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        return findId(name).orElseThrow(() -> new IllegalArgumentException("Unknown department: " + name));
+    }
+
+    /**
+     * Points the entity's department foreign key at the department it names
+     */
+    public void assign(DepartmentAssignable entity) {
+        Integer id = requireId(entity.getDepartment());
+        Department current = entity.getDepartmentRef();
+        if (id == null) {
+            entity.setDepartmentRef(null);
+        } else if (current == null || current.getId() != id) {
+            entity.setDepartmentRef(entityManager.getReference(Department.class, id));
+        }
+    }
+
+    /**
+     * Drops the cached map once the current transaction commits, after a
+     * department is created, renamed or deleted
+     */
+    public void invalidate() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            idsByName = null;
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                idsByName = null;
+            }
+        });
+    }
+
+    // ============ Migration ============
+
+    /**
+     * Fills department_id on rows written before the foreign key existed.
+     * Names with no department row get one first. Only rows whose key is
+     * still null are touched, so this is a no-op once every row is migrated.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    // Before other startup listeners that read the department keys
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void backfillDepartmentReferences() {
+        int[] counts = transactionTemplate.execute(status -> {
+            int created = jdbcTemplate.update(
+                "INSERT INTO departments (name, description) "
+                    + "SELECT DISTINCT src.name, ? FROM ("
+                    + "SELECT department AS name FROM users "
+                    + "UNION SELECT department FROM projects "
+                    + "UNION SELECT department FROM performance_reviews) src "
+                    + "WHERE src.name IS NOT NULL AND NOT EXISTS "
+                    + "(SELECT 1 FROM departments d WHERE d.name = src.name)",
+                CREATED_DESCRIPTION);
+            int linked = 0;
+            for (String table : REFERENCING_TABLES) {
+                linked += jdbcTemplate.update("UPDATE " + table + " SET department_id = "
+                    + "(SELECT d.id FROM departments d WHERE d.name = " + table + ".department) "
+                    + "WHERE department_id IS NULL AND department IS NOT NULL");
+            }
+            return new int[] { created, linked };
+        });
+        idsByName = null;
+        if (counts[0] > 0 || counts[1] > 0) {
+            System.out.println("🏢 Department backfill: created " + counts[0] + " department(s), linked "
+                + counts[1] + " row(s)");
+        }
+        // Schema update skips the unique name index while duplicates exist, and
+        // name lookups then resolve to just one of each duplicate's ids
+        List<String> duplicates = jdbcTemplate.queryForList(
+            "SELECT name FROM departments GROUP BY name HAVING COUNT(*) > 1", String.class);
+        if (!duplicates.isEmpty()) {
+            System.err.println("⚠️ Duplicate department names " + duplicates
+                + " must be merged by hand before idx_departments_name can be created");
+        }
+    }
+
+    // ============ Helpers ============
+
+    private Map<String, Integer> ids() {
+        Map<String, Integer> ids = idsByName;
+        if (ids == null) {
+            ids = new ConcurrentHashMap<>();
+            for (Map<String, Object> row : jdbcTemplate.queryForList("SELECT id, name FROM departments")) {
+                ids.put((String) row.get("name"), ((Number) row.get("id")).intValue());
+            }
+            idsByName = ids;
+        }
+        return ids;
+    }
+
+    private Integer selectId(String name) {
+        List<Integer> ids = jdbcTemplate.queryForList("SELECT id FROM departments WHERE name = ?", Integer.class, name);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+}
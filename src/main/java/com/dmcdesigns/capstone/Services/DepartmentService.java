@@ -1,15 +1,27 @@
 package com.dmcdesigns.capstone.Services;
 
+import com.dmcdesigns.capstone.DTOs.MergePatch;
+import com.dmcdesigns.capstone.DTOs.MultiGetEntry;
 import com.dmcdesigns.capstone.Entities.Department;
 import com.dmcdesigns.capstone.Entities.Employee;
+import com.dmcdesigns.capstone.Entities.User;
 import com.dmcdesigns.capstone.Repositories.DepartmentRepository;
 import com.dmcdesigns.capstone.Repositories.EmployeeRepository;
+import com.dmcdesigns.capstone.Repositories.PerformanceReviewRepository;
+import com.dmcdesigns.capstone.Repositories.ProjectRepository;
+import com.dmcdesigns.capstone.Repositories.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,6 +33,36 @@ public class DepartmentService {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private PerformanceReviewRepository performanceReviewRepository;
+
+    @Autowired
+    private PerformanceRollupService performanceRollupService;
+
+    @Autowired
+    private DepartmentLookupService departmentLookupService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private DepartmentStatsService departmentStatsService;
+
+    @Autowired
+    private BulkChangeNotifier bulkChangeNotifier;
+
+    @Autowired
+    private DepartmentTreeService departmentTreeService;
+
     public List<Department> getAllDepartments() {
         return departmentRepository.findAll();
     }
@@ -33,17 +75,42 @@ public class DepartmentService {
         return departmentRepository.findById(id);
     }
 
+    /**
+     * The requested departments in request order, with a not-found entry for
+     * each id that has no department
+     */
+    @Transactional(readOnly = true)
+    public List<MultiGetEntry<Department>> getDepartmentsByIds(List<Integer> ids) {
+        return MultiGetEntry.collect(ids, departmentRepository::findAllById, Department::getId);
+    }
+
     public Department getDepartmentByName(String name) {
         return departmentRepository.findByName(name);
     }
 
+    /**
+     * Creates a department, under the parent given by its parentId if set
+     *
+     * @throws IllegalArgumentException if the parent does not exist
+     */
+    @Transactional
     public Department createDepartment(Department department) {
         if (departmentRepository.existsByName(department.getName())) {
             throw new RuntimeException("Department with name '" + department.getName() + "' already exists");
         }
-        return departmentRepository.save(department);
+        Integer parentId = department.getParentId();
+        if (parentId != null && !departmentRepository.existsById(parentId)) {
+            throw new IllegalArgumentException("Parent department not found with id: " + parentId);
+        }
+        Department created = departmentRepository.save(department);
+        if (parentId != null) {
+            departmentTreeService.moveDepartment(created.getId(), parentId);
+        }
+        departmentLookupService.invalidate();
+        return created;
     }
 
+    @Transactional
     public Department updateDepartment(Integer id, Department departmentDetails) {
         Department department = departmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Department not found with id: " + id));
@@ -60,27 +127,88 @@ public class DepartmentService {
 
         Department updatedDepartment = departmentRepository.save(department);
 
-        // Update all employees with the new department name if it changed
+        // Update every row that stores the department name if it changed
         if (!oldName.equals(departmentDetails.getName())) {
-            updateEmployeeDepartmentNames(oldName, departmentDetails.getName());
+            renameDepartmentReferences(oldName, updatedDepartment);
         }
 
         return updatedDepartment;
     }
 
+    /**
+     * Applies an RFC 7396 merge patch (name, description, parentId). A patch
+     * that changes nothing returns the department without writing; a rename
+     * carries over to the department's rows the same way a full update does, and a
+     * new parentId moves the department with everything below it.
+     */
+    @Transactional
+    public Department patchDepartment(Integer id, JsonNode body) {
+        Department department = departmentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Department not found with id: " + id));
+        String oldName = department.getName();
+
+        MergePatch patch = MergePatch.of(body, objectMapper);
+        // Checked before the entity changes, so the query's auto-flush cannot match the department itself
+        String newName = patch.has("name") ? patch.value("name", String.class) : oldName;
+        if (newName != null && !oldName.equals(newName) && departmentRepository.existsByName(newName)) {
+            throw new RuntimeException("Department with name '" + newName + "' already exists");
+        }
+        Integer parentId = department.getParentId();
+        if (patch.has("parentId")) {
+            parentId = patch.value("parentId", Integer.class);
+            if (!Objects.equals(parentId, department.getParentId())) {
+                patch.markChanged("parentId");
+            }
+        }
+        patch.requiredField("name", String.class, department::getName, department::setName)
+                .requiredField("description", String.class, department::getDescription, department::setDescription)
+                .rejectUnknownFields();
+
+        if (!patch.isChanged()) {
+            return department;
+        }
+        patch.validate(department, validator);
+        if (!oldName.equals(department.getName())) {
+            renameDepartmentReferences(oldName, department);
+        }
+        if (!Objects.equals(parentId, department.getParentId())) {
+            departmentTreeService.moveDepartment(id, parentId);
+            department.setParentId(parentId);
+        }
+        System.out.println("🩹 Patched department " + id + ": " + patch.getChangedFields());
+        return department;
+    }
+
     @Transactional
     public void deleteDepartment(Integer id) {
         Department department = departmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Department not found with id: " + id));
 
         // Check if any employees are assigned to this department
-        List<Employee> employeesInDepartment = getEmployeesByDepartmentName(department.getName());
-        if (!employeesInDepartment.isEmpty()) {
+        long assigned = employeeRepository.countByDepartmentId(department.getId());
+        if (assigned > 0) {
             throw new RuntimeException("Cannot delete department '" + department.getName() + 
-                    "' because " + employeesInDepartment.size() + " employee(s) are assigned to it");
+                    "' because " + assigned + " employee(s) are assigned to it");
+        }
+        // Projects and reviews reference the department through a foreign key as well
+        long projects = projectRepository.countByDepartmentId(department.getId());
+        long reviews = performanceReviewRepository.getReviewCountByDepartmentId(department.getId());
+        if (projects > 0 || reviews > 0) {
+            throw new RuntimeException("Cannot delete department '" + department.getName() +
+                    "' because " + projects + " project(s) and " + reviews + " review(s) reference it");
         }
 
+        departmentTreeService.removeFromTree(department.getId());
         departmentRepository.delete(department);
+        departmentStatsService.removeDepartment(department.getId());
+        departmentLookupService.invalidate();
+    }
+
+    /**
+     * Headcount, salary and project/review counts for every department
+     */
+    public List<Map<String, Object>> getDepartmentStats() {
+        return departmentStatsService.getDepartmentStats();
     }
 
     public List<Department> searchDepartments(String searchTerm) {
@@ -99,41 +227,114 @@ public class DepartmentService {
         return departmentRepository.existsByName(name);
     }
 
+    /**
+     * Headcount, salary, project, review and budget totals for a department and
+     * every department below it
+     */
+    public Map<String, Object> getDepartmentRollup(Integer id) {
+        return departmentTreeService.getRollup(id);
+    }
+
+    /**
+     * A department followed by every department below it, in tree order
+     */
+    public List<Department> getDepartmentSubtree(Integer id) {
+        return departmentTreeService.getSubtree(id);
+    }
+
     public List<Employee> getEmployeesByDepartmentName(String departmentName) {
-        return employeeRepository.getUsersByDepartment(departmentName).stream()
+        return getEmployeesByDepartmentName(departmentName, false);
+    }
+
+    public List<Employee> getEmployeesByDepartmentName(String departmentName, boolean includeDescendants) {
+        return departmentLookupService.findId(departmentName)
+                .map(id -> getUsersInDepartment(id, includeDescendants))
+                .orElse(List.of()).stream()
                 .filter(user -> user instanceof Employee)
                 .map(user -> (Employee) user)
                 .collect(Collectors.toList());
     }
 
     public List<Employee> getEmployeesByDepartmentId(Integer departmentId) {
+        return getEmployeesByDepartmentId(departmentId, false);
+    }
+
+    public List<Employee> getEmployeesByDepartmentId(Integer departmentId, boolean includeDescendants) {
         Department department = departmentRepository.findById(departmentId)
                 .orElseThrow(() -> new RuntimeException("Department not found with id: " + departmentId));
-        return getEmployeesByDepartmentName(department.getName());
+        return getUsersInDepartment(department.getId(), includeDescendants).stream()
+                .filter(user -> user instanceof Employee)
+                .map(user -> (Employee) user)
+                .collect(Collectors.toList());
     }
 
-    @Transactional
-    private void updateEmployeeDepartmentNames(String oldName, String newName) {
-        List<Employee> employees = getEmployeesByDepartmentName(oldName);
-        for (Employee employee : employees) {
-            employee.setDepartment(newName);
-            employeeRepository.save(employee);
+    private List<User> getUsersInDepartment(int departmentId, boolean includeDescendants) {
+        return departmentTreeService.findSubtree(departmentId, includeDescendants)
+                .map(tree -> employeeRepository.getUsersInDepartmentTree(tree.left(), tree.right()))
+                .orElseGet(() -> employeeRepository.getUsersByDepartmentId(departmentId));
+    }
+
+    /**
+     * Rewrites the stored department name on employees, projects, reviews and
+     * review rollups after a rename. Rows are matched on department_id, which a
+     * rename leaves alone, so the name column is only a display copy of the
+     * department they already reference; the project, review and headcount
+     * totals in department_stats are unaffected.
+     */
+    private void renameDepartmentReferences(String oldName, Department department) {
+        String newName = department.getName();
+        moveEmployees(department.getId(), oldName, department);
+        int projects = projectRepository.updateDepartmentName(department.getId(), newName);
+        int reviews = performanceReviewRepository.updateDepartmentName(department.getId(), newName);
+        performanceRollupService.renameDepartment(oldName, newName);
+        if (projects > 0) {
+            bulkChangeNotifier.projectsUpdated();
+        }
+        if (reviews > 0) {
+            bulkChangeNotifier.reviewsUpdated();
         }
+        departmentLookupService.invalidate();
+        System.out.println("🔄 Renamed department '" + oldName + "' to '" + newName + "' on " + projects
+            + " project(s) and " + reviews + " review(s)");
     }
 
-    public Department transferEmployeesToDepartment(Integer fromDepartmentId, Integer toDepartmentId) {
+    /**
+     * Moves every employee of the source department key to the target department
+     * with a single UPDATE of both the foreign key and the stored name; runs in
+     * the caller's transaction. With the target's own id as the source, this
+     * rewrites the name after a rename.
+     *
+     * @return Number of employees moved
+     */
+    private int moveEmployees(int sourceId, String sourceName, Department target) {
+        String newName = target.getName();
+        int moved = userRepository.moveDepartment(sourceId, newName, target.getId());
+        if (moved > 0) {
+            if (sourceId != target.getId()) {
+                departmentStatsService.recountEmployees(Set.of(sourceId, target.getId()));
+            }
+            bulkChangeNotifier.employeesMoved(sourceName, newName);
+        }
+        System.out.println("🔄 Moved " + moved + " employee(s) from department '" + sourceName + "' to '" + newName + "'");
+        return moved;
+    }
+
+    /**
+     * Moves every employee of one department to another
+     *
+     * @return Number of employees moved
+     */
+    @Transactional
+    public int transferEmployeesToDepartment(Integer fromDepartmentId, Integer toDepartmentId) {
         Department fromDepartment = departmentRepository.findById(fromDepartmentId)
                 .orElseThrow(() -> new RuntimeException("Source department not found with id: " + fromDepartmentId));
         
         Department toDepartment = departmentRepository.findById(toDepartmentId)
                 .orElseThrow(() -> new RuntimeException("Target department not found with id: " + toDepartmentId));
 
-        List<Employee> employees = getEmployeesByDepartmentName(fromDepartment.getName());
-        for (Employee employee : employees) {
-            employee.setDepartment(toDepartment.getName());
-            employeeRepository.save(employee);
+        if (fromDepartment.getId() == toDepartment.getId()) {
+            return 0;
         }
-
-        return toDepartment;
+        return moveEmployees(fromDepartment.getId(), fromDepartment.getName(), toDepartment);
     }
 }
@@ -0,0 +1,284 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Entities.DepartmentStats;
+import com.dmcdesigns.capstone.Entities.Employee;
+import com.dmcdesigns.capstone.Repositories.DepartmentStatsRepository;
+import com.dmcdesigns.capstone.Repositories.EmployeeRepository;
+import com.dmcdesigns.capstone.Repositories.PerformanceReviewRepository;
+import com.dmcdesigns.capstone.Repositories.ProjectRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Maintains the department_stats table: headcount, salary sum, project count
+ * and review count per department. Employee, project and review writes apply
+ * their delta to the affected department rows in the same transaction; bulk
+ * moves recount the departments involved, and a scheduled full rebuild
+ * recomputes every row and reports any drift.
+ * <p>
+ * Rows are keyed by department id, so renaming a department leaves its stats
+ * in place.
+ *
+ * @author DMC Designs
+ */
+@Service
+public class DepartmentStatsService {
+
+    @Autowired
+    private DepartmentStatsRepository departmentStatsRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private PerformanceReviewRepository performanceReviewRepository;
+
+    @Autowired
+    private DepartmentLookupService departmentLookupService;
+
+    private final TransactionTemplate requiresNew;
+
+    public DepartmentStatsService(PlatformTransactionManager transactionManager) {
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * The fields of an employee that contribute to its department's row,
+     * captured before a change so the old contribution can be subtracted
+     */
+    public record EmployeeShare(String department, BigDecimal salary) {
+        public static EmployeeShare of(Employee employee) {
+            return new EmployeeShare(employee.getDepartment(), employee.getSalary());
+        }
+    }
+
+    // ============ Incremental Maintenance ============
+
+    /**
+     * Moves an employee's contribution from before to after. Either side may be
+     * null for a create or delete. Must run inside the transaction that writes
+     * the employee.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordEmployeeChange(EmployeeShare before, EmployeeShare after) {
+        if (sameAmount(before, after)) {
+            return;
+        }
+        if (before != null) {
+            lockRow(before.department()).ifPresent(stats -> stats.addEmployees(-1, before.salary()));
+        }
+        if (after != null) {
+            lockRow(after.department()).ifPresent(stats -> stats.addEmployees(1, after.salary()));
+        }
+    }
+
+    /**
+     * Moves a project from one department to another; either may be null for a
+     * create or delete
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordProjectChange(String beforeDepartment, String afterDepartment) {
+        if (Objects.equals(beforeDepartment, afterDepartment)) {
+            return;
+        }
+        lockRow(beforeDepartment).ifPresent(stats -> stats.addProjects(-1));
+        lockRow(afterDepartment).ifPresent(stats -> stats.addProjects(1));
+    }
+
+    /**
+     * Moves a review from one department to another; either may be null for a
+     * create or delete
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordReviewChange(String beforeDepartment, String afterDepartment) {
+        if (Objects.equals(beforeDepartment, afterDepartment)) {
+            return;
+        }
+        lockRow(beforeDepartment).ifPresent(stats -> stats.addReviews(-1));
+        lockRow(afterDepartment).ifPresent(stats -> stats.addReviews(1));
+    }
+
+    /**
+     * Recounts the employee totals of the given departments, after a bulk
+     * UPDATE moved employees between them without entity callbacks
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recountEmployees(Collection<Integer> departmentIds) {
+        // Locked in id order so two bulk moves cannot deadlock, and before counting
+        // so no single-employee delta lands between the count and the write
+        List<DepartmentStats> rows = new ArrayList<>();
+        for (int departmentId : new TreeSet<>(departmentIds)) {
+            rows.add(lockRow(departmentId));
+        }
+        Map<Integer, Object[]> totals = new HashMap<>();
+        for (Object[] row : employeeRepository.getDepartmentStatsSource(departmentIds)) {
+            totals.put(((Number) row[0]).intValue(), row);
+        }
+        for (DepartmentStats stats : rows) {
+            Object[] row = totals.get(stats.getDepartmentId());
+            stats.setEmployeeTotals(row != null ? ((Number) row[1]).longValue() : 0, row != null ? (BigDecimal) row[2] : null);
+        }
+    }
+
+    /**
+     * Drops a deleted department's row
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeDepartment(int departmentId) {
+        departmentStatsRepository.findForUpdate(departmentId).ifPresent(departmentStatsRepository::delete);
+    }
+
+    private static boolean sameAmount(EmployeeShare before, EmployeeShare after) {
+        if (before == null || after == null) {
+            return before == after;
+        }
+        return Objects.equals(before.department(), after.department())
+            && (before.salary() == null ? after.salary() == null
+                : after.salary() != null && before.salary().compareTo(after.salary()) == 0);
+    }
+
+    private Optional<DepartmentStats> lockRow(String department) {
+        // An unknown name has no row; the department_id listener rejects the same write
+        return departmentLookupService.findId(department).map(this::lockRow);
+    }
+
+    private DepartmentStats lockRow(int departmentId) {
+        return departmentStatsRepository.findForUpdate(departmentId).orElseGet(() -> {
+            // First write for this department: create the empty row on its own
+            // so a concurrent creator's insert cannot fail the caller's transaction
+            try {
+                requiresNew.executeWithoutResult(status -> {
+                    if (!departmentStatsRepository.existsById(departmentId)) {
+                        departmentStatsRepository.saveAndFlush(new DepartmentStats(departmentId));
+                    }
+                });
+            } catch (DataIntegrityViolationException e) {
+                // Another transaction created it first
+            }
+            return departmentStatsRepository.findForUpdate(departmentId)
+                .orElseThrow(() -> new RuntimeException("Department stats not found for department: " + departmentId));
+        });
+    }
+
+    // ============ Full Rebuild ============
+
+    /**
+     * Recomputes every row from the employee, project and review tables and
+     * corrects any drift. Existing rows are locked first, so writes running
+     * concurrently either commit before the recount or apply their delta on top
+     * of the rebuilt value.
+     *
+     * @return number of rows that had drifted
+     */
+    @Scheduled(cron = "${app.departments.stats.rebuild-cron:0 45 3 * * *}")
+    @Transactional
+    public int rebuildStats() {
+        Map<Integer, DepartmentStats> existing = new HashMap<>();
+        for (DepartmentStats stats : departmentStatsRepository.findAllForUpdate()) {
+            existing.put(stats.getDepartmentId(), stats);
+        }
+
+        Map<Integer, DepartmentStats> expected = new TreeMap<>();
+        for (Object[] row : employeeRepository.getDepartmentStatsSource()) {
+            expected.computeIfAbsent(((Number) row[0]).intValue(), DepartmentStats::new)
+                .addEmployees(((Number) row[1]).longValue(), (BigDecimal) row[2]);
+        }
+        for (Object[] row : projectRepository.getDepartmentStatsSource()) {
+            expected.computeIfAbsent(((Number) row[0]).intValue(), DepartmentStats::new)
+                .addProjects(((Number) row[1]).longValue());
+        }
+        for (Object[] row : performanceReviewRepository.getDepartmentStatsSource()) {
+            expected.computeIfAbsent(((Number) row[0]).intValue(), DepartmentStats::new)
+                .addReviews(((Number) row[1]).longValue());
+        }
+
+        int drifted = 0;
+        for (Map.Entry<Integer, DepartmentStats> entry : expected.entrySet()) {
+            DepartmentStats current = existing.remove(entry.getKey());
+            if (current == null) {
+                departmentStatsRepository.save(entry.getValue());
+                drifted++;
+            } else if (!current.hasSameTotals(entry.getValue())) {
+                System.err.println("⚠️ Department stats drift corrected: " + current + " -> " + entry.getValue());
+                current.copyTotalsFrom(entry.getValue());
+                drifted++;
+            }
+        }
+        // Rows for departments with nothing left in them
+        for (DepartmentStats orphan : existing.values()) {
+            if (!orphan.isEmpty()) {
+                drifted++;
+            }
+            departmentStatsRepository.delete(orphan);
+        }
+
+        System.out.println("🏢 Department stats rebuilt: " + expected.size() + " rows, " + drifted + " corrected");
+        return drifted;
+    }
+
+    /**
+     * Builds the stats at startup when the table is still empty, e.g. on the
+     * first deployment against a database that already holds employees. Runs
+     * after the department_id backfill, which it counts by.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeStats() {
+        if (departmentStatsRepository.count() == 0 && employeeRepository.count() > 0) {
+            requiresNew.executeWithoutResult(status -> rebuildStats());
+        }
+    }
+
+    // ============ Queries ============
+
+    /**
+     * Stats for every department in name order; departments with no employees,
+     * projects or reviews report zeros
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getDepartmentStats() {
+        List<Map<String, Object>> departments = new ArrayList<>();
+        for (Object[] row : departmentStatsRepository.findAllWithDepartmentNames()) {
+            DepartmentStats stats = row[2] != null ? (DepartmentStats) row[2] : new DepartmentStats(((Number) row[0]).intValue());
+            departments.add(toMap((String) row[1], stats));
+        }
+        return departments;
+    }
+
+    private static Map<String, Object> toMap(String department, DepartmentStats stats) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("departmentId", stats.getDepartmentId());
+        entry.put("department", department);
+        entry.put("headcount", stats.getHeadcount());
+        entry.put("totalSalary", stats.getSalarySum());
+        entry.put("averageSalary", stats.getAverageSalary());
+        entry.put("projectCount", stats.getProjectCount());
+        entry.put("reviewCount", stats.getReviewCount());
+        return entry;
+    }
+}
@@ -0,0 +1,328 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Entities.Department;
+import com.dmcdesigns.capstone.Entities.DepartmentStats;
+import com.dmcdesigns.capstone.Repositories.DepartmentRepository;
+import com.dmcdesigns.capstone.Repositories.DepartmentStatsRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Maintains the department hierarchy: departments.parent_id for each
+ * department's parent, and a nested interval (tree_left, tree_right) from a
+ * depth-first numbering of the tree, so every department below another has its
+ * tree_left inside that department's interval. "A department and everything
+ * under it" is then one range scan of idx_departments_tree, which the employee
+ * and project filters and the subtree rollups join against.
+ * <p>
+ * Moves renumber the whole tree from parent_id and write only the rows whose
+ * interval changed; there are few departments, so the walk is cheap. Writes
+ * take the hierarchy counter's row lock first, so they run one at a time.
+ * Departments created since the last renumbering have no interval yet; they
+ * are leaves, and callers keep to the single-department queries for them.
+ *
+ * @author DMC Designs
+ */
+@Service
+public class DepartmentTreeService {
+
+    /** Counter bumped by every hierarchy write; its row lock serializes the writes */
+    public static final String HIERARCHY = "department-tree";
+
+    private static final String UPDATE_INTERVAL = "UPDATE departments SET tree_left = ?, tree_right = ? WHERE id = ?";
+    private static final int[] UPDATE_INTERVAL_TYPES = {Types.INTEGER, Types.INTEGER, Types.INTEGER};
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private DepartmentStatsRepository departmentStatsRepository;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private DirectorySyncService directorySyncService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate requiresNew;
+
+    public DepartmentTreeService(PlatformTransactionManager transactionManager) {
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * A department's subtree as a range of tree_left values, both ends included
+     */
+    public record Interval(int left, int right) {
+        public boolean hasDescendants() {
+            return right > left + 1;
+        }
+    }
+
+    // ============ Queries ============
+
+    /**
+     * The interval a department filter should range over, or empty when it can
+     * stay on the department's own id: descendants were not asked for, or the
+     * department has none
+     */
+    public Optional<Interval> findSubtree(Integer departmentId, boolean includeDescendants) {
+        if (!includeDescendants) {
+            return Optional.empty();
+        }
+        return departmentRepository.findById(departmentId)
+            .flatMap(DepartmentTreeService::intervalOf)
+            .filter(Interval::hasDescendants);
+    }
+
+    /**
+     * A department and every department below it, in tree order
+     */
+    @Transactional(readOnly = true)
+    public List<Department> getSubtree(Integer departmentId) {
+        Department department = requireDepartment(departmentId);
+        return intervalOf(department)
+            .filter(Interval::hasDescendants)
+            .map(tree -> departmentRepository.findInTree(tree.left(), tree.right()))
+            .orElse(List.of(department));
+    }
+
+    /**
+     * Headcount, salary, project and review totals, plus project budgets, for a
+     * department together with every department below it, from one query over
+     * the subtree's interval, however deep the tree is.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getRollup(Integer departmentId) {
+        Department department = requireDepartment(departmentId);
+        Optional<Interval> tree = intervalOf(department).filter(Interval::hasDescendants);
+
+        Object[] sums = tree
+            .map(interval -> departmentStatsRepository.sumInTree(interval.left(), interval.right()))
+            .orElseGet(() -> departmentStatsRepository.sumForDepartment(departmentId))
+            .get(0);
+        DepartmentStats totals = new DepartmentStats(departmentId);
+        totals.addEmployees(count(sums[1]), (BigDecimal) sums[2]);
+        totals.addProjects(count(sums[3]));
+        totals.addReviews(count(sums[4]));
+
+        Map<String, Object> rollup = new LinkedHashMap<>();
+        rollup.put("departmentId", departmentId);
+        rollup.put("department", department.getName());
+        rollup.put("departmentCount", count(sums[0]));
+        rollup.put("headcount", totals.getHeadcount());
+        rollup.put("totalSalary", totals.getSalarySum());
+        rollup.put("averageSalary", totals.getAverageSalary());
+        rollup.put("projectCount", totals.getProjectCount());
+        rollup.put("reviewCount", totals.getReviewCount());
+        rollup.put("totalBudget", sums[5] != null ? sums[5] : BigDecimal.ZERO);
+        rollup.put("totalBudgetUsed", sums[6] != null ? sums[6] : BigDecimal.ZERO);
+        return rollup;
+    }
+
+    private Department requireDepartment(Integer departmentId) {
+        return departmentRepository.findById(departmentId)
+            .orElseThrow(() -> new RuntimeException("Department not found with id: " + departmentId));
+    }
+
+    private static Optional<Interval> intervalOf(Department department) {
+        if (department.getTreeLeft() == null || department.getTreeRight() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Interval(department.getTreeLeft(), department.getTreeRight()));
+    }
+
+    private static long count(Object value) {
+        return value != null ? ((Number) value).longValue() : 0;
+    }
+
+    // ============ Re-parenting ============
+
+    /**
+     * Moves a department, with every department below it, under a new parent
+     *
+     * @param parentId The new parent, or null to make the department top-level
+     * @return Whether the parent changed
+     * @throws IllegalArgumentException if the department would end up under itself or a department below it
+     * @throws RuntimeException if either department does not exist
+     */
+    @Transactional
+    public boolean moveDepartment(int departmentId, Integer parentId) {
+        lockHierarchy();
+        List<Object[]> rows = departmentRepository.findTreeRows();
+        Map<Integer, Integer> parents = parentsOf(rows);
+        if (!parents.containsKey(departmentId)) {
+            throw new RuntimeException("Department not found with id: " + departmentId);
+        }
+        if (parentId != null) {
+            if (!parents.containsKey(parentId)) {
+                throw new RuntimeException("Parent department not found with id: " + parentId);
+            }
+            // Walk up from the new parent; the step limit stops at a parent_id cycle written outside the application
+            Integer above = parentId;
+            for (int steps = 0; above != null && steps <= parents.size(); steps++) {
+                if (above == departmentId) {
+                    throw new IllegalArgumentException("A department cannot be moved under itself or a department below it");
+                }
+                above = parents.get(above);
+            }
+        }
+        if (Objects.equals(parents.get(departmentId), parentId)) {
+            return false;
+        }
+
+        setParent(List.of(departmentId), parentId);
+        parents.put(departmentId, parentId);
+        int renumbered = renumber(rows, parents);
+        directorySyncService.recordBulkChange(DirectorySyncService.DEPARTMENTS);
+        System.out.println("🌳 Moved department " + departmentId
+                + (parentId != null ? " under department " + parentId : " to the top level")
+                + "; " + renumbered + " interval(s) renumbered");
+        return true;
+    }
+
+    /**
+     * Takes a department out of the tree ahead of deleting it: the departments
+     * directly below it move up to its parent. Must run inside the transaction
+     * that deletes the department.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeFromTree(int departmentId) {
+        List<Integer> children = departmentRepository.findChildIds(departmentId);
+        if (children.isEmpty()) {
+            // A leaf only leaves a gap in the numbering, which no range query notices
+            return;
+        }
+        lockHierarchy();
+        List<Object[]> rows = departmentRepository.findTreeRows();
+        Map<Integer, Integer> parents = parentsOf(rows);
+        Integer parentId = parents.remove(departmentId);
+        setParent(children, parentId);
+        children.forEach(child -> parents.put(child, parentId));
+        renumber(rows, parents);
+        directorySyncService.recordBulkChange(DirectorySyncService.DEPARTMENTS);
+        System.out.println("🌳 Moved " + children.size() + " department(s) up from department " + departmentId);
+    }
+
+    private void setParent(List<Integer> ids, Integer parentId) {
+        // parent_id is set by bulk UPDATE, bypassing the entity listeners
+        if (parentId != null) {
+            departmentRepository.updateParent(ids, parentId);
+        } else {
+            departmentRepository.clearParent(ids);
+        }
+    }
+
+    private void lockHierarchy() {
+        dataVersionService.incrementAndLock(HIERARCHY);
+    }
+
+    private static Map<Integer, Integer> parentsOf(List<Object[]> rows) {
+        Map<Integer, Integer> parents = new HashMap<>();
+        rows.forEach(row -> parents.put((Integer) row[0], (Integer) row[1]));
+        return parents;
+    }
+
+    // ============ Numbering ============
+
+    /**
+     * Renumbers every department's interval from departments.parent_id
+     *
+     * @return Number of departments whose interval changed
+     */
+    @Transactional
+    public int rebuildTree() {
+        lockHierarchy();
+        List<Object[]> rows = departmentRepository.findTreeRows();
+        int renumbered = renumber(rows, parentsOf(rows));
+        System.out.println("🌳 Department tree rebuilt: " + renumbered + " interval(s) renumbered");
+        return renumbered;
+    }
+
+    /**
+     * Numbers the tree at startup when a parent was set without it, e.g. by SQL
+     * outside the application
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeTree() {
+        if (departmentRepository.existsUnnumberedChild()) {
+            requiresNew.executeWithoutResult(status -> rebuildTree());
+        }
+    }
+
+    // Numbers the departments in parents depth first, children in id order, and writes
+    // the intervals that differ from the ones read in rows
+    private int renumber(List<Object[]> rows, Map<Integer, Integer> parents) {
+        Map<Integer, List<Integer>> children = new HashMap<>();
+        List<Integer> roots = new ArrayList<>();
+        for (Object[] row : rows) {
+            Integer id = (Integer) row[0];
+            if (!parents.containsKey(id)) {
+                continue;
+            }
+            Integer parentId = parents.get(id);
+            if (parentId == null || !parents.containsKey(parentId)) {
+                roots.add(id);
+            } else {
+                children.computeIfAbsent(parentId, key -> new ArrayList<>()).add(id);
+            }
+        }
+
+        Map<Integer, Interval> intervals = new HashMap<>();
+        int[] counter = {0};
+        roots.forEach(root -> number(root, children, intervals, counter));
+        if (intervals.size() < parents.size()) {
+            System.err.println("⚠️ " + (parents.size() - intervals.size())
+                    + " department(s) are on a parent_id cycle and were left out of the department tree");
+        }
+
+        List<Object[]> updates = new ArrayList<>();
+        for (Object[] row : rows) {
+            Integer id = (Integer) row[0];
+            if (!parents.containsKey(id)) {
+                continue;
+            }
+            Interval interval = intervals.get(id);
+            Integer left = interval != null ? interval.left() : null;
+            Integer right = interval != null ? interval.right() : null;
+            if (!Objects.equals(left, row[2]) || !Objects.equals(right, row[3])) {
+                updates.add(new Object[] {left, right, id});
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_INTERVAL, updates, UPDATE_INTERVAL_TYPES);
+        }
+        return updates.size();
+    }
+
+    private static void number(int id, Map<Integer, List<Integer>> children, Map<Integer, Interval> intervals, int[] counter) {
+        int left = ++counter[0];
+        for (int child : children.getOrDefault(id, List.of())) {
+            number(child, children, intervals, counter);
+        }
+        intervals.put(id, new Interval(left, ++counter[0]));
+    }
+}
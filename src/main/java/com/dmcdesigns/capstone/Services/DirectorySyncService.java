@@ -0,0 +1,326 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.DTOs.DirectorySyncResult;
+import com.dmcdesigns.capstone.DTOs.EmployeeSummary;
+import com.dmcdesigns.capstone.Entities.Department;
+import com.dmcdesigns.capstone.Entities.Project;
+import com.dmcdesigns.capstone.Repositories.DepartmentRepository;
+import com.dmcdesigns.capstone.Repositories.EmployeeRepository;
+import com.dmcdesigns.capstone.Repositories.ProjectRepository;
+import com.dmcdesigns.capstone.Repositories.SyncTombstoneRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Delta sync for offline directory clients: users, departments and projects
+ * changed since a client's sync token.
+ * <p>
+ * Every transaction that writes one of the three tables takes the next value
+ * of the directory-sync counter in data_versions just before it commits, and
+ * stamps that value into the change_seq column of each row it wrote (deleted
+ * rows get a sync_tombstones row instead). The counter row stays locked until
+ * the commit, so values are handed out in commit order: once a reader sees
+ * the counter at N, every change stamped N or lower is visible too. A sync
+ * therefore reads the counter, returns the rows with change_seq between the
+ * client's token and that value, and hands the value back as the next token.
+ * <p>
+ * Bulk statements that bypass the entity listeners set change_seq to NULL on
+ * the rows they write and call {@link #recordBulkChange(String)}, which
+ * stamps every NULL row of that table.
+ *
+ * @author DMC Designs
+ */
+@Service
+public class DirectorySyncService {
+
+    public static final String USERS = "users";
+    public static final String DEPARTMENTS = "departments";
+    public static final String PROJECTS = "projects";
+
+    private static final List<String> TABLES = List.of(USERS, DEPARTMENTS, PROJECTS);
+
+    /** data_versions counter that hands out change sequence numbers */
+    public static final String SEQUENCE = "directory-sync";
+
+    /** data_versions watermark: tombstones up to this sequence have been pruned */
+    public static final String PRUNED_THROUGH = "directory-sync-pruned";
+
+    /** Ids per IN list when stamping, well under every driver's bind parameter limit */
+    private static final int STAMP_CHUNK_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private SyncTombstoneRepository syncTombstoneRepository;
+
+    private final TransactionTemplate transactionTemplate;
+    private final int tombstoneRetentionDays;
+
+    public DirectorySyncService(PlatformTransactionManager transactionManager,
+                                @Value("${app.sync.tombstone-retention-days:30}") int tombstoneRetentionDays) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tombstoneRetentionDays = tombstoneRetentionDays;
+    }
+
+    /**
+     * Rows one transaction wrote, stamped together just before it commits
+     */
+    private static final class PendingChanges {
+        final Map<String, Set<Integer>> changed = new LinkedHashMap<>();
+        final Map<String, Set<Integer>> deleted = new LinkedHashMap<>();
+        final Set<String> bulk = new HashSet<>();
+
+        boolean isEmpty() {
+            return changed.isEmpty() && deleted.isEmpty() && bulk.isEmpty();
+        }
+    }
+
+    // ============ Recording Changes ============
+
+    /**
+     * Records a created, updated or deleted row of the current transaction.
+     * Called from the entity listener, possibly while the session is flushing.
+     */
+    public void record(String table, int id, boolean deleted) {
+        PendingChanges pending = pendingChanges();
+        if (pending == null) {
+            return;
+        }
+        if (deleted) {
+            removeFrom(pending.changed, table, id);
+            pending.deleted.computeIfAbsent(table, k -> new LinkedHashSet<>()).add(id);
+        } else {
+            pending.changed.computeIfAbsent(table, k -> new LinkedHashSet<>()).add(id);
+        }
+    }
+
+    /**
+     * Stamps every row of the table whose change_seq is NULL when the current
+     * transaction commits; for bulk statements that bypass the entity listeners
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordBulkChange(String table) {
+        if (!TABLES.contains(table)) {
+            throw new IllegalArgumentException("Unknown sync table: " + table);
+        }
+        PendingChanges pending = pendingChanges();
+        if (pending != null) {
+            pending.bulk.add(table);
+        }
+    }
+
+    private static void removeFrom(Map<String, Set<Integer>> ids, String table, int id) {
+        Set<Integer> tableIds = ids.get(table);
+        if (tableIds != null) {
+            tableIds.remove(id);
+            if (tableIds.isEmpty()) {
+                ids.remove(table);
+            }
+        }
+    }
+
+    private PendingChanges pendingChanges() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        // Keyed by session rather than a fixed name: a REQUIRES_NEW transaction has
+        // its own session, while resources bound by the outer one stay visible
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(session);
+        if (pending != null) {
+            return pending;
+        }
+        PendingChanges created = new PendingChanges();
+        TransactionSynchronizationManager.bindResource(session, created);
+        // Runs after Hibernate's final flush, which may still record changes, and before the JDBC commit
+        session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) s -> stamp(created));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(session);
+            }
+        });
+        return created;
+    }
+
+    // ============ Stamping ============
+
+    private void stamp(PendingChanges pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long sequence = nextSequence();
+        for (String table : TABLES) {
+            if (pending.bulk.contains(table)) {
+                jdbcTemplate.update("UPDATE " + table + " SET change_seq = ? WHERE change_seq IS NULL", sequence);
+            }
+            List<Integer> ids = new ArrayList<>(pending.changed.getOrDefault(table, Set.of()));
+            for (int from = 0; from < ids.size(); from += STAMP_CHUNK_SIZE) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + STAMP_CHUNK_SIZE, ids.size()));
+                List<Object> args = new ArrayList<>(chunk.size() + 1);
+                args.add(sequence);
+                args.addAll(chunk);
+                jdbcTemplate.update("UPDATE " + table + " SET change_seq = ? WHERE id IN ("
+                    + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")", args.toArray());
+            }
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> tombstones = new ArrayList<>();
+        pending.deleted.forEach((table, ids) -> ids.forEach(id -> tombstones.add(new Object[] {table, id, sequence, now})));
+        if (!tombstones.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO sync_tombstones (entity_type, entity_id, change_seq, deleted_at) "
+                + "VALUES (?, ?, ?, ?)", tombstones);
+        }
+    }
+
+    /**
+     * Takes the next sequence number. The UPDATE locks the counter row until
+     * this transaction ends, which is what keeps numbers in commit order.
+     */
+    private long nextSequence() {
+        if (jdbcTemplate.update("UPDATE data_versions SET version = version + 1 WHERE name = ?", SEQUENCE) == 0) {
+            // Normally created at startup; a concurrent creator fails this commit, not the other one
+            jdbcTemplate.update("INSERT INTO data_versions (name, version) VALUES (?, 1)", SEQUENCE);
+        }
+        return jdbcTemplate.queryForObject("SELECT version FROM data_versions WHERE name = ?", Long.class, SEQUENCE);
+    }
+
+    /**
+     * Creates the counter and stamps rows that predate change tracking, or
+     * were written by SQL outside the application, so the first sync sees them
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeSequence() {
+        dataVersionService.createCounter(SEQUENCE);
+        transactionTemplate.executeWithoutResult(status -> {
+            int unstamped = 0;
+            for (String table : TABLES) {
+                Integer count = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM " + table + " WHERE change_seq IS NULL", Integer.class);
+                if (count != null && count > 0) {
+                    recordBulkChange(table);
+                    unstamped += count;
+                }
+            }
+            if (unstamped > 0) {
+                System.out.println("🔁 Stamping " + unstamped + " row(s) for delta sync");
+            }
+        });
+    }
+
+    // ============ Sync ============
+
+    /**
+     * Everything created, updated or deleted since the token, or a full
+     * snapshot for a missing token or one that is too old to serve a delta
+     *
+     * @param token Token from the client's last sync, or null for a first sync
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    @Transactional(readOnly = true)
+    public DirectorySyncResult sync(String token) {
+        // Read first: every change stamped up to here has committed
+        long upTo = dataVersionService.getVersion(SEQUENCE);
+        long after = parseToken(token);
+        // A token ahead of the counter comes from another database, e.g. before a restore
+        boolean reset = after < 0 || after > upTo || after < dataVersionService.getVersion(PRUNED_THROUGH);
+        if (reset) {
+            after = 0;
+        }
+
+        List<EmployeeSummary> users = employeeRepository.findSummariesChangedBetween(after, upTo);
+        List<Department> departments = departmentRepository.findChangedBetween(after, upTo);
+        List<Project> projects = projectRepository.findChangedBetween(after, upTo);
+        Map<String, List<Integer>> deleted = new LinkedHashMap<>();
+        for (String table : TABLES) {
+            deleted.put(table, new ArrayList<>());
+        }
+        if (!reset) {
+            for (Object[] row : syncTombstoneRepository.findDeletedBetween(after, upTo)) {
+                deleted.get((String) row[0]).add((Integer) row[1]);
+            }
+        }
+        return new DirectorySyncResult(String.valueOf(upTo), reset, users, departments, projects, deleted);
+    }
+
+    private static long parseToken(String token) {
+        if (token == null || token.isBlank()) {
+            return -1;
+        }
+        try {
+            long after = Long.parseLong(token.trim());
+            if (after >= 0) {
+                return after;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid sync token: " + token);
+    }
+
+    // ============ Tombstone Retention ============
+
+    /**
+     * Drops tombstones older than the retention window. Clients whose token
+     * predates the pruned range get a full snapshot on their next sync.
+     *
+     * @return number of tombstones removed
+     */
+    @Scheduled(cron = "${app.sync.tombstone-prune-cron:0 30 4 * * *}")
+    @Transactional
+    public int pruneTombstones() {
+        Long prunedThrough = syncTombstoneRepository.findMaxChangeSeqBefore(
+            LocalDateTime.now().minusDays(tombstoneRetentionDays));
+        if (prunedThrough == null) {
+            return 0;
+        }
+        dataVersionService.raiseTo(PRUNED_THROUGH, prunedThrough);
+        int pruned = syncTombstoneRepository.deleteUpTo(prunedThrough);
+        System.out.println("🪦 Pruned " + pruned + " sync tombstone(s) through change " + prunedThrough);
+        return pruned;
+    }
+}
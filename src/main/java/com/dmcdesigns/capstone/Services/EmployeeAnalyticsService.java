@@ -0,0 +1,193 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Reports.EmployeeColumnarSnapshot;
+import com.dmcdesigns.capstone.Repositories.EmployeeRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Holds the current {@link EmployeeColumnarSnapshot} used by salary and headcount
+ * analytics. Committed employee changes are queued in a change log of ids; a
+ * scheduled refresh reloads only those rows, builds a new snapshot and swaps it in
+ * atomically, so readers always see a complete snapshot and never wait on a refresh.
+ * A periodic full rebuild picks up writes made by other nodes.
+ *
+ * @author DMC Designs
+ */
+@Service
+public class EmployeeAnalyticsService {
+
+    /** Beyond this many queued ids a full rebuild is cheaper than a targeted reload */
+    private static final int MAX_PENDING_CHANGES = 10_000;
+    private static final int RELOAD_CHUNK_SIZE = 1000;
+    private static final String PENDING_RESOURCE_KEY = EmployeeAnalyticsService.class.getName() + ".pending";
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Value("${app.reports.analytics.full-rebuild-minutes:60}")
+    private long fullRebuildMinutes;
+
+    private final AtomicReference<EmployeeColumnarSnapshot> snapshot = new AtomicReference<>();
+    private final Set<Integer> pendingChanges = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean fullRebuildRequested = new AtomicBoolean(false);
+    private final Object refreshLock = new Object();
+    private final TransactionTemplate readOnlyTransaction;
+    private volatile long lastFullRebuildMillis;
+
+    public EmployeeAnalyticsService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Current snapshot. Only the very first call on a node waits for a build.
+     */
+    public EmployeeColumnarSnapshot getSnapshot() {
+        EmployeeColumnarSnapshot current = snapshot.get();
+        if (current == null) {
+            refresh();
+            current = snapshot.get();
+        }
+        return current;
+    }
+
+    // ============ Change Log ============
+
+    /**
+     * Queues an employee for reload. Inside a transaction the id is only queued
+     * once the transaction commits, so rolled-back writes never reach the snapshot.
+     */
+    @SuppressWarnings("unchecked")
+    public void recordChange(int employeeId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(Set.of(employeeId));
+            return;
+        }
+
+        Set<Integer> ids = (Set<Integer>) TransactionSynchronizationManager.getResource(PENDING_RESOURCE_KEY);
+        if (ids == null) {
+            Set<Integer> transactionIds = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING_RESOURCE_KEY, transactionIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_RESOURCE_KEY);
+                    if (status == STATUS_COMMITTED) {
+                        enqueue(transactionIds);
+                    }
+                }
+            });
+            ids = transactionIds;
+        }
+        ids.add(employeeId);
+    }
+
+    /**
+     * Forces the next refresh to rebuild from the full table, e.g. after a bulk
+     * UPDATE that bypassed entity listeners
+     */
+    public void requestFullRebuild() {
+        fullRebuildRequested.set(true);
+    }
+
+    private void enqueue(Set<Integer> ids) {
+        if (pendingChanges.size() + ids.size() > MAX_PENDING_CHANGES) {
+            fullRebuildRequested.set(true);
+        } else {
+            pendingChanges.addAll(ids);
+        }
+    }
+
+    // ============ Refresh ============
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeSnapshot() {
+        refresh();
+    }
+
+    /**
+     * Applies queued changes, or rebuilds from scratch when none exists yet, a full
+     * rebuild was requested, or the full-rebuild interval has passed
+     */
+    @Scheduled(fixedDelayString = "${app.reports.analytics.refresh-interval-ms:30000}")
+    public void refresh() {
+        synchronized (refreshLock) {
+            EmployeeColumnarSnapshot current = snapshot.get();
+            boolean rebuildDue = System.currentTimeMillis() - lastFullRebuildMillis > fullRebuildMinutes * 60_000;
+            if (current == null || fullRebuildRequested.getAndSet(false) || rebuildDue) {
+                rebuild();
+            } else if (!pendingChanges.isEmpty()) {
+                applyPendingChanges(current);
+            }
+        }
+    }
+
+    private void rebuild() {
+        // Changes committed while the table is read are re-applied on the next refresh; reloading is idempotent
+        pendingChanges.clear();
+        long started = System.currentTimeMillis();
+        EmployeeColumnarSnapshot rebuilt = readOnlyTransaction.execute(status -> {
+            try (Stream<Object[]> rows = employeeRepository.streamAnalyticsRows()) {
+                List<EmployeeColumnarSnapshot.Row> loaded = new ArrayList<>();
+                rows.forEach(row -> loaded.add(toRow(row)));
+                return EmployeeColumnarSnapshot.of(loaded);
+            }
+        });
+        snapshot.set(rebuilt);
+        lastFullRebuildMillis = started;
+        System.out.println("📊 Employee analytics snapshot rebuilt: " + rebuilt.size() + " employees in "
+            + (System.currentTimeMillis() - started) + " ms");
+    }
+
+    private void applyPendingChanges(EmployeeColumnarSnapshot current) {
+        List<Integer> ids = new ArrayList<>();
+        Iterator<Integer> iterator = pendingChanges.iterator();
+        while (iterator.hasNext()) {
+            ids.add(iterator.next());
+            iterator.remove();
+        }
+
+        List<EmployeeColumnarSnapshot.Row> loaded = new ArrayList<>();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (int from = 0; from < ids.size(); from += RELOAD_CHUNK_SIZE) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + RELOAD_CHUNK_SIZE, ids.size()));
+                for (Object[] row : employeeRepository.findAnalyticsRowsByIds(chunk)) {
+                    loaded.add(toRow(row));
+                }
+            }
+        });
+
+        // Queued ids that no longer load as employees were deleted
+        Set<Integer> removed = new HashSet<>(ids);
+        for (EmployeeColumnarSnapshot.Row row : loaded) {
+            removed.remove(row.id());
+        }
+        snapshot.set(current.withChanges(loaded, removed));
+    }
+
+    private static EmployeeColumnarSnapshot.Row toRow(Object[] row) {
+        return new EmployeeColumnarSnapshot.Row(((Number) row[0]).intValue(), (BigDecimal) row[1],
+            (String) row[2], (String) row[3]);
+    }
+}
@@ -0,0 +1,610 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Config.UserInheritanceMapping;
+import com.dmcdesigns.capstone.DTOs.EmployeeImportResult;
+import com.dmcdesigns.capstone.Entities.Admin;
+import com.dmcdesigns.capstone.Entities.Employee;
+import com.dmcdesigns.capstone.Entities.Manager;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk-creates employees from a CSV or newline-delimited JSON stream.
+ * The input is read incrementally in chunks, so memory use is bounded by the
+ * chunk size rather than the file size. Each chunk is validated and has its
+ * passwords hashed on a worker pool while the previous chunk is written with
+ * JDBC batch inserts in its own transaction; a row that fails validation or
+ * its insert is reported by row number and does not stop the rest.
+ * <p>
+ * Rows use the same fields as a single create (firstName, lastName, department,
+ * position, userRole, phoneNumber, hireDate, salary, password), plus optional
+ * username and email overrides. Rows without a password get a locked
+ * credential and activate their account through the password reset flow.
+ *
+ * @author DMC Designs
+ */
+@Service
+public class EmployeeImportService {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private static final String EXISTING_USERNAMES =
+        "SELECT LOWER(username) FROM users WHERE LOWER(username) IN (:values)";
+    private static final String EXISTING_EMAILS =
+        "SELECT LOWER(email) FROM users WHERE LOWER(email) IN (:values)";
+
+    private static final String INSERT_USER =
+        "INSERT INTO users (user_type, first_name, last_name, email, phone_number, username, password, department, "
+            + "department_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Single-table user mapping: the employee columns live on users
+    private static final String INSERT_USER_SINGLE_TABLE =
+        "INSERT INTO users (user_type, first_name, last_name, email, phone_number, username, password, department, "
+            + "department_id, role, has_access, salary, hire_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_EMPLOYEE =
+        "INSERT INTO employee (id, role, has_access, salary, hire_date) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_MANAGER = "INSERT INTO manager (id) VALUES (?)";
+    private static final String INSERT_ADMIN = "INSERT INTO admin (id) VALUES (?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DepartmentLookupService departmentLookupService;
+
+    @Autowired
+    private UserInheritanceMapping userInheritanceMapping;
+
+    @Autowired
+    private DirectorySyncService directorySyncService;
+
+    @Autowired
+    private BulkChangeNotifier bulkChangeNotifier;
+
+    private final TransactionTemplate chunkTransaction;
+    private final ThreadPoolExecutor workerPool;
+    private final int workers;
+    private final int batchSize;
+
+    /**
+     * A parsed input row; values are raw strings keyed by field name
+     */
+    private record RawRow(long rowNumber, Map<String, String> values, String parseError) {
+    }
+
+    /**
+     * A validated row ready to insert, or the reason it was rejected
+     */
+    private record PreparedRow(long rowNumber, String userType, Employee employee, Integer departmentId,
+                               String error) {
+    }
+
+    public EmployeeImportService(PlatformTransactionManager transactionManager,
+                                 @Value("${app.employees.import.threads:0}") int threads,
+                                 @Value("${app.employees.import.batch-size:500}") int batchSize) {
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.batchSize = Math.max(1, batchSize);
+        AtomicInteger threadCount = new AtomicInteger();
+        // Two chunks are in flight at most per import; when the queue is full the
+        // importing thread prepares the slice itself, which slows its reading down
+        this.workerPool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(workers * 4), runnable -> {
+                Thread thread = new Thread(runnable, "employee-import-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workerPool.shutdownNow();
+    }
+
+    /**
+     * Determines the input format from a request content type
+     *
+     * @throws IllegalArgumentException if the content type is not CSV or NDJSON
+     */
+    public static Format formatFor(String contentType) {
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (type.startsWith("text/csv")) {
+            return Format.CSV;
+        }
+        if (type.startsWith("application/x-ndjson") || type.startsWith("application/jsonl")
+                || type.startsWith("application/json")) {
+            return Format.NDJSON;
+        }
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType
+            + " (use text/csv or application/x-ndjson)");
+    }
+
+    /**
+     * Imports every row of the stream
+     *
+     * @return Counts, timing and the per-row errors
+     * @throws IllegalArgumentException if the input cannot be parsed at all (e.g. a CSV without a header)
+     */
+    public EmployeeImportResult importEmployees(InputStream input, Format format) throws IOException {
+        long started = System.nanoTime();
+        EmployeeImportResult result = new EmployeeImportResult(format.name());
+
+        // One hash of a secret nobody knows; these accounts can only be entered after a password reset
+        String lockedPassword = passwordEncoder.encode(UUID.randomUUID().toString());
+
+        try (RowReader reader = format == Format.CSV ? new CsvRowReader(input) : new NdjsonRowReader(input)) {
+            CompletableFuture<List<PreparedRow>> pending = null;
+            List<RawRow> chunk;
+            while (!(chunk = reader.next(batchSize)).isEmpty()) {
+                CompletableFuture<List<PreparedRow>> prepared = prepare(chunk, lockedPassword);
+                if (pending != null) {
+                    insertChunk(claimUnique(pending.join(), result), result);
+                }
+                pending = prepared;
+            }
+            if (pending != null) {
+                insertChunk(claimUnique(pending.join(), result), result);
+            }
+            result.setTotalRows(reader.rowCount());
+        } finally {
+            if (result.getImported() > 0) {
+                // The JDBC inserts bypass the entity listeners
+                bulkChangeNotifier.employeesImported();
+            }
+        }
+
+        result.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        System.out.println("📥 Imported " + result.getImported() + " of " + result.getTotalRows()
+            + " employees (" + result.getFailed() + " rejected) in " + result.getDurationMs() + " ms");
+        return result;
+    }
+
+    // ============ Validation and hashing ============
+
+    private CompletableFuture<List<PreparedRow>> prepare(List<RawRow> chunk, String lockedPassword) {
+        int sliceSize = Math.max(1, (chunk.size() + workers - 1) / workers);
+        List<CompletableFuture<List<PreparedRow>>> slices = new ArrayList<>();
+        for (int from = 0; from < chunk.size(); from += sliceSize) {
+            List<RawRow> slice = chunk.subList(from, Math.min(chunk.size(), from + sliceSize));
+            slices.add(CompletableFuture.supplyAsync(() -> {
+                List<PreparedRow> prepared = new ArrayList<>(slice.size());
+                for (RawRow row : slice) {
+                    prepared.add(prepareRow(row, lockedPassword));
+                }
+                return prepared;
+            }, workerPool));
+        }
+        return CompletableFuture.allOf(slices.toArray(new CompletableFuture<?>[0]))
+            .thenApply(done -> {
+                List<PreparedRow> prepared = new ArrayList<>(chunk.size());
+                slices.forEach(slice -> prepared.addAll(slice.join()));
+                return prepared;
+            });
+    }
+
+    private PreparedRow prepareRow(RawRow row, String lockedPassword) {
+        if (row.parseError() != null) {
+            return new PreparedRow(row.rowNumber(), null, null, null, row.parseError());
+        }
+        Map<String, String> values = row.values();
+        try {
+            String userType = value(values, "userRole");
+            userType = userType == null ? "EMPLOYEE" : userType.toUpperCase(Locale.ROOT);
+            Employee employee = switch (userType) {
+                case "ADMIN" -> new Admin();
+                case "MANAGER" -> new Manager();
+                case "EMPLOYEE" -> new Employee();
+                default -> throw new IllegalArgumentException("userRole must be EMPLOYEE, MANAGER or ADMIN");
+            };
+
+            String firstName = value(values, "firstName");
+            String lastName = value(values, "lastName");
+            if (firstName == null || lastName == null) {
+                throw new IllegalArgumentException("firstName and lastName are required");
+            }
+            employee.setFirstName(firstName);
+            employee.setLastName(lastName);
+            employee.setDepartment(value(values, "department"));
+            employee.setPhoneNumber(value(values, "phoneNumber"));
+            employee.setHireDate(value(values, "hireDate"));
+            if (value(values, "position") != null) {
+                employee.setRole(value(values, "position"));
+            }
+            if (value(values, "salary") != null) {
+                try {
+                    employee.setSalary(new BigDecimal(value(values, "salary")));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("salary is not a number: " + value(values, "salary"));
+                }
+            }
+
+            String username = value(values, "username");
+            if (username != null) {
+                employee.setUsername(username);
+            } else {
+                employee.setUsername(firstName, lastName);
+            }
+            String email = value(values, "email");
+            if (email != null) {
+                employee.setEmail(email);
+            } else {
+                employee.createEmail(employee.getUsername());
+            }
+
+            // Constraints are checked against the plain password, then it is replaced by its hash
+            String password = value(values, "password");
+            employee.setPassword(password != null ? password : lockedPassword);
+            String violations = validator.validate(employee).stream()
+                .sorted(Comparator.comparing((ConstraintViolation<Employee> v) -> v.getPropertyPath().toString()))
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .reduce((a, b) -> a + "; " + b)
+                .orElse(null);
+            if (violations != null) {
+                return new PreparedRow(row.rowNumber(), userType, null, null, violations);
+            }
+            if (password != null) {
+                employee.setPassword(passwordEncoder.encode(password));
+            }
+            return new PreparedRow(row.rowNumber(), userType, employee,
+                departmentLookupService.requireId(employee.getDepartment()), null);
+        } catch (IllegalArgumentException e) {
+            return new PreparedRow(row.rowNumber(), null, null, null, e.getMessage());
+        }
+    }
+
+    /**
+     * Rejects rows whose username or email already exists, either stored or
+     * earlier in the input. Only this chunk's values are looked up; rows from
+     * earlier chunks are already inserted by the time it runs. Runs on the
+     * importing thread in row order, so the first occurrence always wins.
+     */
+    private List<PreparedRow> claimUnique(List<PreparedRow> rows, EmployeeImportResult result) {
+        Set<String> candidateUsernames = new HashSet<>();
+        Set<String> candidateEmails = new HashSet<>();
+        for (PreparedRow row : rows) {
+            if (row.error() == null) {
+                candidateUsernames.add(row.employee().getUsername().toLowerCase(Locale.ROOT));
+                candidateEmails.add(row.employee().getEmail().toLowerCase(Locale.ROOT));
+            }
+        }
+        Set<String> usernames = existing(EXISTING_USERNAMES, candidateUsernames);
+        Set<String> emails = existing(EXISTING_EMAILS, candidateEmails);
+
+        List<PreparedRow> accepted = new ArrayList<>(rows.size());
+        for (PreparedRow row : rows) {
+            if (row.error() != null) {
+                result.addError(row.rowNumber(), row.error());
+                continue;
+            }
+            String username = row.employee().getUsername().toLowerCase(Locale.ROOT);
+            String email = row.employee().getEmail().toLowerCase(Locale.ROOT);
+            if (usernames.contains(username)) {
+                result.addError(row.rowNumber(), "Username already exists: " + row.employee().getUsername());
+            } else if (emails.contains(email)) {
+                result.addError(row.rowNumber(), "Email already exists: " + row.employee().getEmail());
+            } else {
+                usernames.add(username);
+                emails.add(email);
+                accepted.add(row);
+            }
+        }
+        return accepted;
+    }
+
+    private Set<String> existing(String query, Set<String> values) {
+        if (values.isEmpty()) {
+            return new HashSet<>();
+        }
+        return new HashSet<>(new NamedParameterJdbcTemplate(jdbcTemplate)
+            .queryForList(query, Map.of("values", values), String.class));
+    }
+
+    // ============ Inserts ============
+
+    private void insertChunk(List<PreparedRow> rows, EmployeeImportResult result) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            chunkTransaction.executeWithoutResult(status -> insertRows(rows));
+            result.addImported(rows.size());
+        } catch (DataAccessException e) {
+            // Retry one row per transaction to find the rows the database rejects
+            for (PreparedRow row : rows) {
+                try {
+                    chunkTransaction.executeWithoutResult(status -> insertRows(List.of(row)));
+                    result.addImported(1);
+                } catch (DataAccessException rowError) {
+                    result.addError(row.rowNumber(), "Insert failed: "
+                        + NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                }
+            }
+        }
+    }
+
+    private void insertRows(List<PreparedRow> rows) {
+        // New rows start with no change_seq and are stamped when the chunk commits
+        directorySyncService.recordBulkChange(DirectorySyncService.USERS);
+        boolean singleTable = userInheritanceMapping.isSingleTable();
+        String insertUser = singleTable ? INSERT_USER_SINGLE_TABLE : INSERT_USER;
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(insertUser, new String[] {"id"}),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    PreparedRow row = rows.get(i);
+                    Employee employee = row.employee();
+                    ps.setString(1, row.userType());
+                    ps.setString(2, employee.getFirstName());
+                    ps.setString(3, employee.getLastName());
+                    ps.setString(4, employee.getEmail());
+                    ps.setString(5, employee.getPhoneNumber());
+                    ps.setString(6, employee.getUsername());
+                    ps.setString(7, employee.getPassword());
+                    ps.setString(8, employee.getDepartment());
+                    ps.setObject(9, row.departmentId(), Types.INTEGER);
+                    if (singleTable) {
+                        ps.setString(10, employee.getRole());
+                        ps.setBoolean(11, employee.hasAccess());
+                        ps.setBigDecimal(12, employee.getSalary());
+                        ps.setString(13, employee.getHireDate());
+                    }
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return rows.size();
+                }
+            }, keyHolder);
+        if (singleTable) {
+            return;
+        }
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != rows.size()) {
+            throw new IllegalStateException("Expected " + rows.size() + " generated ids, got " + keys.size());
+        }
+        List<Integer> ids = new ArrayList<>(rows.size());
+        keys.forEach(key -> ids.add(((Number) key.values().iterator().next()).intValue()));
+
+        jdbcTemplate.batchUpdate(INSERT_EMPLOYEE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Employee employee = rows.get(i).employee();
+                ps.setInt(1, ids.get(i));
+                ps.setString(2, employee.getRole());
+                ps.setBoolean(3, employee.hasAccess());
+                ps.setBigDecimal(4, employee.getSalary());
+                ps.setString(5, employee.getHireDate());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+
+        List<Object[]> managers = new ArrayList<>();
+        List<Object[]> admins = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if ("MANAGER".equals(rows.get(i).userType())) {
+                managers.add(new Object[] {ids.get(i)});
+            } else if ("ADMIN".equals(rows.get(i).userType())) {
+                admins.add(new Object[] {ids.get(i)});
+            }
+        }
+        if (!managers.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_MANAGER, managers);
+        }
+        if (!admins.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ADMIN, admins);
+        }
+    }
+
+    // ============ Parsing ============
+
+    private static String value(Map<String, String> values, String field) {
+        String value = values.get(field.toLowerCase(Locale.ROOT));
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Reads input rows a chunk at a time; field names are lower-cased
+     */
+    private abstract static class RowReader implements AutoCloseable {
+        protected long rowCount;
+
+        abstract List<RawRow> next(int max) throws IOException;
+
+        long rowCount() {
+            return rowCount;
+        }
+
+        @Override
+        public abstract void close() throws IOException;
+    }
+
+    /**
+     * RFC 4180 style CSV: a header line, optional double-quoted fields, and
+     * doubled quotes inside quoted fields. Quoted fields may span lines.
+     */
+    private static class CsvRowReader extends RowReader {
+        private final BufferedReader reader;
+        private final List<String> header;
+
+        CsvRowReader(InputStream input) throws IOException {
+            this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            List<String> columns = readRecord();
+            if (columns == null || columns.isEmpty()) {
+                throw new IllegalArgumentException("CSV import requires a header line");
+            }
+            List<String> names = new ArrayList<>();
+            for (String column : columns) {
+                // Drop a UTF-8 byte order mark left by spreadsheet exports
+                names.add(column.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT));
+            }
+            this.header = names;
+        }
+
+        @Override
+        List<RawRow> next(int max) throws IOException {
+            List<RawRow> rows = new ArrayList<>(max);
+            List<String> record;
+            while (rows.size() < max && (record = readRecord()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                rowCount++;
+                Map<String, String> values = new HashMap<>();
+                for (int i = 0; i < header.size() && i < record.size(); i++) {
+                    values.put(header.get(i), record.get(i));
+                }
+                rows.add(new RawRow(rowCount, values, null));
+            }
+            return rows;
+        }
+
+        private List<String> readRecord() throws IOException {
+            String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                for (int i = 0; i < line.length(); i++) {
+                    char c = line.charAt(i);
+                    if (quoted) {
+                        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            field.append('"');
+                            i++;
+                        } else if (c == '"') {
+                            quoted = false;
+                        } else {
+                            field.append(c);
+                        }
+                    } else if (c == '"') {
+                        quoted = true;
+                    } else if (c == ',') {
+                        fields.add(field.toString());
+                        field.setLength(0);
+                    } else {
+                        field.append(c);
+                    }
+                }
+                if (!quoted) {
+                    break;
+                }
+                line = reader.readLine();
+                if (line == null) {
+                    break;
+                }
+                field.append('\n');
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * One JSON object per line; a malformed line is reported as a row error
+     */
+    private class NdjsonRowReader extends RowReader {
+        private final BufferedReader reader;
+
+        NdjsonRowReader(InputStream input) {
+            this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        List<RawRow> next(int max) throws IOException {
+            List<RawRow> rows = new ArrayList<>(max);
+            String line;
+            while (rows.size() < max && (line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                rowCount++;
+                Map<String, String> values = new HashMap<>();
+                String parseError = null;
+                try {
+                    Map<String, Object> parsed = objectMapper.readerForMapOf(Object.class).readValue(line);
+                    parsed.forEach((key, value) -> {
+                        if (value != null) {
+                            values.put(key.toLowerCase(Locale.ROOT), value.toString());
+                        }
+                    });
+                } catch (JsonProcessingException e) {
+                    parseError = "Malformed JSON: " + e.getOriginalMessage();
+                }
+                rows.add(new RawRow(rowCount, values, parseError));
+            }
+            return rows;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
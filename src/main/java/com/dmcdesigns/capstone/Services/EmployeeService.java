@@ -1,36 +1,107 @@
 package com.dmcdesigns.capstone.Services;
 
+import com.dmcdesigns.capstone.DTOs.BulkEmployeeUpdateRequest;
+import com.dmcdesigns.capstone.DTOs.BulkUpdateResult;
+import com.dmcdesigns.capstone.DTOs.EmployeeSummary;
+import com.dmcdesigns.capstone.DTOs.MergePatch;
+import com.dmcdesigns.capstone.DTOs.MultiGetEntry;
 import com.dmcdesigns.capstone.Entities.Employee;
 import com.dmcdesigns.capstone.Entities.Admin;
 import com.dmcdesigns.capstone.Entities.Manager;
 import com.dmcdesigns.capstone.Entities.User;
 import com.dmcdesigns.capstone.Repositories.EmployeeRepository;
+import com.dmcdesigns.capstone.Services.DepartmentStatsService.EmployeeShare;
+import com.dmcdesigns.capstone.Services.ReportingLineService.Position;
+import com.dmcdesigns.capstone.Services.SalaryDistributionService.Contribution;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 @Service
 public class EmployeeService {
 
+    /** Largest page the employee listing serves (dropdowns load up to 1000) */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /** Ids per IN list in a bulk update, well under every driver's bind parameter limit */
+    private static final int BULK_CHUNK_SIZE = 1000;
+
+    private static final Set<String> SORTABLE_FIELDS = Set.of(
+        "id", "firstName", "lastName", "email", "department", "role", "salary", "hireDate");
+
     @Autowired
     private EmployeeRepository employeeRepository;
     
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private SalaryDistributionService salaryDistributionService;
+
+    @Autowired
+    private DepartmentStatsService departmentStatsService;
+
+    @Autowired
+    private BulkChangeNotifier bulkChangeNotifier;
+
+    @Autowired
+    private DepartmentLookupService departmentLookupService;
+
+    @Autowired
+    private ReportingLineService reportingLineService;
+
+    @Autowired
+    private DepartmentTreeService departmentTreeService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
     @Transactional(readOnly = true)
     public List<Employee> getAllEmployees() {
-        return employeeRepository.findAll().stream()
-                .filter(user -> user instanceof Employee)
-                .map(user -> (Employee) user)
-                .collect(Collectors.toList());
+        return employeeRepository.findAllEmployees();
+    }
+
+    /**
+     * One page of employees as summaries, sorted by a listed field
+     *
+     * @throws IllegalArgumentException for an unknown sort field or page size out of range
+     */
+    @Transactional(readOnly = true)
+    public Page<EmployeeSummary> getEmployeeSummaries(int page, int size, String sortBy, String sortDir) {
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException("sortBy must be one of " + SORTABLE_FIELDS);
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        Sort sort = sortDir.equalsIgnoreCase("desc") ?
+            Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        // Tie-break on id so rows with equal sort values keep a stable order across pages
+        if (!sortBy.equals("id")) {
+            sort = sort.and(Sort.by("id"));
+        }
+        return employeeRepository.findEmployeeSummaries(PageRequest.of(page, size, sort));
     }
 
     public Optional<Employee> getEmployeeById(Integer id) {
@@ -38,13 +109,36 @@ public class EmployeeService {
         return user.map(u -> u instanceof Employee ? (Employee) u : null);
     }
 
+    /**
+     * Summary of the employee record for a signed-in username
+     */
+    public Optional<EmployeeSummary> getEmployeeSummaryByUsername(String username) {
+        return employeeRepository.findSummaryByUsername(username);
+    }
+
+    /**
+     * Summaries of the requested employees in request order, with a not-found
+     * entry for each id that has no employee
+     */
+    @Transactional(readOnly = true)
+    public List<MultiGetEntry<EmployeeSummary>> getEmployeesByIds(List<Integer> ids) {
+        return MultiGetEntry.collect(ids, employeeRepository::findSummariesByIds, EmployeeSummary::getId);
+    }
+
+    @Transactional
     public Employee createEmployee(Employee employee) {
-        return employeeRepository.save(employee);
+        Employee saved = employeeRepository.save(employee);
+        salaryDistributionService.recordChange(null, Contribution.of(saved));
+        departmentStatsService.recordEmployeeChange(null, EmployeeShare.of(saved));
+        return saved;
     }
 
+    @Transactional
     public Employee updateEmployee(Integer id, Employee employeeDetails) {
         Employee employee = (Employee) employeeRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Employee not found with id: " + id));
+        Contribution before = Contribution.of(employee);
+        EmployeeShare shareBefore = EmployeeShare.of(employee);
 
         employee.setFirstName(employeeDetails.getFirstName());
         employee.setLastName(employeeDetails.getLastName());
@@ -59,18 +153,27 @@ public class EmployeeService {
             employee.revokeAccess();
         }
 
-        return employeeRepository.save(employee);
+        Employee saved = employeeRepository.save(employee);
+        salaryDistributionService.recordChange(before, Contribution.of(saved));
+        departmentStatsService.recordEmployeeChange(shareBefore, EmployeeShare.of(saved));
+        return saved;
     }
 
+    @Transactional
     public void deleteEmployee(Integer id) {
         Employee employee = (Employee) employeeRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Employee not found with id: " + id));
+        // Direct reports move up to the employee's manager
+        reportingLineService.removeFromHierarchy(id);
         employeeRepository.delete(employee);
+        salaryDistributionService.recordChange(Contribution.of(employee), null);
+        departmentStatsService.recordEmployeeChange(EmployeeShare.of(employee), null);
     }
 
     /**
      * Create employee from form data with separate userRole and position
      */
+    @Transactional
     public Employee createEmployeeFromData(Map<String, Object> data) {
         String userRole = (String) data.get("userRole");
         String position = (String) data.get("position");
@@ -114,15 +217,21 @@ public class EmployeeService {
             employee.setPassword(passwordEncoder.encode((String) data.get("password")));
         }
         
-        return employeeRepository.save(employee);
+        Employee saved = employeeRepository.save(employee);
+        salaryDistributionService.recordChange(null, Contribution.of(saved));
+        departmentStatsService.recordEmployeeChange(null, EmployeeShare.of(saved));
+        return saved;
     }
 
     /**
      * Update employee from form data with separate userRole and position
      */
+    @Transactional
     public Employee updateEmployeeFromData(Integer id, Map<String, Object> data) {
         Employee existingEmployee = (Employee) employeeRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Employee not found with id: " + id));
+        Contribution before = Contribution.of(existingEmployee);
+        EmployeeShare shareBefore = EmployeeShare.of(existingEmployee);
         
         String userRole = (String) data.get("userRole");
         String position = (String) data.get("position");
@@ -145,10 +254,16 @@ public class EmployeeService {
             String existingEmail = existingEmployee.getEmail();
             String existingPassword = existingEmployee.getPassword();
             
+            Position reportingPosition = reportingLineService.removeFromHierarchy(id);
             employeeRepository.delete(existingEmployee);
+            // Remove the old row before inserting the replacement with the same username and email
+            employeeRepository.flush();
             
-            // Create new employee with correct type
+            // Create new employee with correct type, in the old one's place in the reporting lines
             Employee newEmployee = createEmployeeFromTypeChange(data, userRole, existingUsername, existingEmail, existingPassword);
+            reportingLineService.restorePosition(newEmployee.getId(), reportingPosition);
+            salaryDistributionService.recordChange(before, Contribution.of(newEmployee));
+            departmentStatsService.recordEmployeeChange(shareBefore, EmployeeShare.of(newEmployee));
             return newEmployee;
         } else {
             // Update existing employee
@@ -170,10 +285,76 @@ public class EmployeeService {
                 existingEmployee.setPassword(passwordEncoder.encode((String) data.get("password")));
             }
             
-            return employeeRepository.save(existingEmployee);
+            Employee saved = employeeRepository.save(existingEmployee);
+            salaryDistributionService.recordChange(before, Contribution.of(saved));
+            departmentStatsService.recordEmployeeChange(shareBefore, EmployeeShare.of(saved));
+            return saved;
         }
     }
 
+    /**
+     * Applies an RFC 7396 merge patch (firstName, lastName, phoneNumber,
+     * department, position, hireDate, salary, hasAccess, password). Only fields
+     * whose value changes are set, so the UPDATE covers just those columns; a
+     * patch that changes nothing returns the employee without writing.
+     * Username, email and id are read-only, and userRole may only repeat the
+     * current type since a type change recreates the employee (use PUT).
+     * Only administrators may send hasAccess, or a password for someone else.
+     *
+     * @param callerUsername Username of the authenticated caller
+     * @param callerIsAdmin Whether the caller has ROLE_ADMIN
+     */
+    @Transactional
+    public Employee patchEmployee(Integer id, JsonNode body, String callerUsername, boolean callerIsAdmin) {
+        Employee employee = (Employee) employeeRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Employee not found with id: " + id));
+        Contribution before = Contribution.of(employee);
+        EmployeeShare shareBefore = EmployeeShare.of(employee);
+
+        MergePatch patch = MergePatch.of(body, objectMapper);
+        if (!callerIsAdmin) {
+            if (patch.has("hasAccess")) {
+                throw new RuntimeException("access denied: only administrators can change hasAccess");
+            }
+            if (patch.has("password") && !employee.getUsername().equals(callerUsername)) {
+                throw new RuntimeException("access denied: only administrators can change another user's password");
+            }
+        }
+        patch.requiredField("firstName", String.class, employee::getFirstName, employee::setFirstName)
+                .requiredField("lastName", String.class, employee::getLastName, employee::setLastName)
+                .requiredField("phoneNumber", String.class, employee::getPhoneNumber, employee::setPhoneNumber)
+                .requiredField("department", String.class, employee::getDepartment, employee::setDepartment)
+                .requiredField("position", String.class, employee::getRole, employee::setRole)
+                .field("hireDate", String.class, employee::getHireDate, employee::setHireDate)
+                .field("salary", BigDecimal.class, employee::getSalary, employee::setSalary)
+                .requiredField("hasAccess", Boolean.class, employee::hasAccess, employee::setHasAccess);
+
+        if (patch.has("userRole")) {
+            String userRole = patch.value("userRole", String.class);
+            if (!employee.getClass().getSimpleName().equalsIgnoreCase(userRole)) {
+                throw new IllegalArgumentException("userRole cannot be changed with PATCH; use PUT");
+            }
+        }
+        if (patch.has("password")) {
+            String password = patch.value("password", String.class);
+            if (password == null || password.trim().length() < 8) {
+                throw new IllegalArgumentException("password: Password must be at least 8 characters");
+            }
+            employee.setPassword(passwordEncoder.encode(password));
+            patch.markChanged("password");
+        }
+        patch.rejectUnknownFields();
+
+        if (!patch.isChanged()) {
+            return employee;
+        }
+        patch.validate(employee, validator);
+        salaryDistributionService.recordChange(before, Contribution.of(employee));
+        departmentStatsService.recordEmployeeChange(shareBefore, EmployeeShare.of(employee));
+        System.out.println("🩹 Patched employee " + id + ": " + patch.getChangedFields());
+        return employee;
+    }
+
     /**
      * Helper method to create new employee when changing type
      */
@@ -225,7 +406,20 @@ public class EmployeeService {
 
     @Transactional(readOnly = true)
     public List<Employee> getEmployeesByDepartment(String department) {
-        return employeeRepository.getUsersByDepartment(department).stream()
+        return getEmployeesByDepartment(department, false);
+    }
+
+    /**
+     * Employees of a department; with includeDescendants, also those of every
+     * department below it
+     */
+    @Transactional(readOnly = true)
+    public List<Employee> getEmployeesByDepartment(String department, boolean includeDescendants) {
+        return departmentLookupService.findId(department)
+                .map(id -> departmentTreeService.findSubtree(id, includeDescendants)
+                        .map(tree -> employeeRepository.getUsersInDepartmentTree(tree.left(), tree.right()))
+                        .orElseGet(() -> employeeRepository.getUsersByDepartmentId(id)))
+                .orElse(List.of()).stream()
                 .filter(user -> user instanceof Employee)
                 .map(user -> (Employee) user)
                 .collect(Collectors.toList());
@@ -244,4 +438,86 @@ public class EmployeeService {
         employee.revokeAccess();
         return employeeRepository.save(employee);
     }
+
+    // ============ Bulk Access and Role Changes ============
+
+    /**
+     * Grants or revokes access for every selected employee in one UPDATE per
+     * {@value #BULK_CHUNK_SIZE} ids (or one UPDATE for a filter)
+     *
+     * @throws IllegalArgumentException if the request selects no employees or mixes ids and a filter
+     */
+    @Transactional
+    public BulkUpdateResult updateAccessInBulk(BulkEmployeeUpdateRequest request, boolean hasAccess) {
+        BulkUpdateResult result = applyInBulk(request,
+                ids -> employeeRepository.updateAccessByIds(ids, hasAccess),
+                departmentId -> employeeRepository.updateAccessByFilter(departmentId, request.role(), hasAccess));
+        if (result.updated() > 0) {
+            // Access is not part of the analytics or salary data
+            bulkChangeNotifier.employeesUpdated(false);
+        }
+        System.out.println("🔑 " + (hasAccess ? "Granted" : "Revoked") + " access for " + result.updated()
+                + " of " + result.matched() + " selected employee(s)");
+        return result;
+    }
+
+    /**
+     * Assigns request.newRole to every selected employee in one UPDATE per
+     * {@value #BULK_CHUNK_SIZE} ids (or one UPDATE for a filter)
+     *
+     * @throws IllegalArgumentException if the new role is invalid, the request selects no employees or mixes ids and a filter
+     */
+    @Transactional
+    public BulkUpdateResult updateRoleInBulk(BulkEmployeeUpdateRequest request) {
+        String newRole = request.newRole() != null ? request.newRole().trim() : "";
+        if (newRole.length() < 2 || newRole.length() > 50) {
+            throw new IllegalArgumentException("newRole must be between 2 and 50 characters");
+        }
+        BulkUpdateResult result = applyInBulk(request,
+                ids -> employeeRepository.updateRoleByIds(ids, newRole),
+                departmentId -> employeeRepository.updateRoleByFilter(departmentId, request.role(), newRole));
+        if (result.updated() > 0) {
+            bulkChangeNotifier.employeesUpdated(true);
+        }
+        System.out.println("🏷️ Changed role to '" + newRole + "' for " + result.updated()
+                + " of " + result.matched() + " selected employee(s)");
+        return result;
+    }
+
+    private BulkUpdateResult applyInBulk(BulkEmployeeUpdateRequest request,
+                                         ToIntFunction<List<Integer>> updateByIds,
+                                         ToIntFunction<Integer> updateByFilter) {
+        boolean hasFilter = request.department() != null || request.role() != null;
+        if (request.ids() != null) {
+            if (hasFilter) {
+                throw new IllegalArgumentException("Select employees by ids or by department/role, not both");
+            }
+            if (request.ids().isEmpty() || request.ids().contains(null)) {
+                throw new IllegalArgumentException("ids must be a non-empty list of employee ids");
+            }
+            List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(request.ids()));
+            Set<Integer> found = new HashSet<>();
+            long updated = 0;
+            for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size()));
+                found.addAll(employeeRepository.findExistingIds(chunk));
+                updated += updateByIds.applyAsInt(chunk);
+            }
+            List<Integer> notFound = ids.stream().filter(id -> !found.contains(id)).collect(Collectors.toList());
+            return new BulkUpdateResult(found.size(), updated, notFound);
+        }
+        if (!hasFilter) {
+            throw new IllegalArgumentException("Select employees by ids or by department and/or role");
+        }
+        // Resolved once, so the filter compares department_id; unknown names are a 400
+        Integer departmentId = null;
+        if (request.department() != null) {
+            departmentId = departmentLookupService.requireId(request.department());
+            if (departmentId == null) {
+                throw new IllegalArgumentException("department must not be blank");
+            }
+        }
+        long matched = employeeRepository.countByFilter(departmentId, request.role());
+        return new BulkUpdateResult(matched, updateByFilter.applyAsInt(departmentId), null);
+    }
 }
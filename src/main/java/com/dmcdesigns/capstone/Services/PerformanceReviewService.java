@@ -4,8 +4,10 @@ import com.dmcdesigns.capstone.Entities.PerformanceReview;
 import com.dmcdesigns.capstone.Entities.User;
 import com.dmcdesigns.capstone.Repositories.PerformanceReviewRepository;
 import com.dmcdesigns.capstone.Repositories.UserRepository;
+import com.dmcdesigns.capstone.Services.PerformanceRollupService.Contribution;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -21,6 +23,15 @@ public class PerformanceReviewService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PerformanceRollupService performanceRollupService;
+
+    @Autowired
+    private DepartmentLookupService departmentLookupService;
+
+    @Autowired
+    private DepartmentStatsService departmentStatsService;
+
     public List<PerformanceReview> getAllPerformanceReviews() {
         return performanceReviewRepository.findAll();
     }
@@ -38,7 +49,9 @@ public class PerformanceReviewService {
     }
 
     public List<PerformanceReview> getPerformanceReviewsByDepartment(String department) {
-        return performanceReviewRepository.findAllByDepartment(department);
+        return departmentLookupService.findId(department)
+                .map(performanceReviewRepository::findAllByDepartmentId)
+                .orElse(List.of());
     }
 
     public List<PerformanceReview> getPerformanceReviewsByStatus(String status) {
@@ -57,6 +70,7 @@ public class PerformanceReviewService {
         return performanceReviewRepository.findAllByManagerIdAndStatus(managerId, status);
     }
 
+    @Transactional
     public PerformanceReview createPerformanceReview(PerformanceReview performanceReview) {
         // Validate employee and manager exist
         User employee = userRepository.findById(performanceReview.getEmployee().getId())
@@ -79,9 +93,13 @@ public class PerformanceReviewService {
             throw new RuntimeException("Manager can only review employees in the same department");
         }
 
-        return performanceReviewRepository.save(performanceReview);
+        PerformanceReview saved = performanceReviewRepository.save(performanceReview);
+        performanceRollupService.recordChange(null, Contribution.of(saved));
+        departmentStatsService.recordReviewChange(null, saved.getDepartment());
+        return saved;
     }
 
+    @Transactional
     public PerformanceReview updatePerformanceReview(Integer id, PerformanceReview reviewDetails) {
         return performanceReviewRepository.findById(id)
             .map(review -> {
@@ -89,6 +107,7 @@ public class PerformanceReviewService {
                 if ("APPROVED".equals(review.getStatus()) || "COMPLETED".equals(review.getStatus())) {
                     throw new RuntimeException("Cannot update review with status: " + review.getStatus());
                 }
+                Contribution before = Contribution.of(review);
 
                 if (reviewDetails.getReviewDate() != null) {
                     review.setReviewDate(reviewDetails.getReviewDate());
@@ -111,47 +130,62 @@ public class PerformanceReviewService {
                     review.getReviewGoals().addAll(reviewDetails.getReviewGoals());
                 }
 
-                return performanceReviewRepository.save(review);
+                PerformanceReview saved = performanceReviewRepository.save(review);
+                performanceRollupService.recordChange(before, Contribution.of(saved));
+                return saved;
             })
             .orElseThrow(() -> new RuntimeException("Performance review not found with ID: " + id));
     }
 
+    @Transactional
     public PerformanceReview submitReview(Integer id) {
         return performanceReviewRepository.findById(id)
             .map(review -> {
                 if (!"DRAFT".equals(review.getStatus())) {
                     throw new RuntimeException("Only draft reviews can be submitted");
                 }
+                Contribution before = Contribution.of(review);
                 review.setStatus("SUBMITTED");
-                return performanceReviewRepository.save(review);
+                PerformanceReview saved = performanceReviewRepository.save(review);
+                performanceRollupService.recordChange(before, Contribution.of(saved));
+                return saved;
             })
             .orElseThrow(() -> new RuntimeException("Performance review not found with ID: " + id));
     }
 
+    @Transactional
     public PerformanceReview approveReview(Integer id) {
         return performanceReviewRepository.findById(id)
             .map(review -> {
                 if (!"SUBMITTED".equals(review.getStatus())) {
                     throw new RuntimeException("Only submitted reviews can be approved");
                 }
+                Contribution before = Contribution.of(review);
                 review.setStatus("APPROVED");
-                return performanceReviewRepository.save(review);
+                PerformanceReview saved = performanceReviewRepository.save(review);
+                performanceRollupService.recordChange(before, Contribution.of(saved));
+                return saved;
             })
             .orElseThrow(() -> new RuntimeException("Performance review not found with ID: " + id));
     }
 
+    @Transactional
     public PerformanceReview completeReview(Integer id) {
         return performanceReviewRepository.findById(id)
             .map(review -> {
                 if (!"APPROVED".equals(review.getStatus())) {
                     throw new RuntimeException("Only approved reviews can be completed");
                 }
+                Contribution before = Contribution.of(review);
                 review.setStatus("COMPLETED");
-                return performanceReviewRepository.save(review);
+                PerformanceReview saved = performanceReviewRepository.save(review);
+                performanceRollupService.recordChange(before, Contribution.of(saved));
+                return saved;
             })
             .orElseThrow(() -> new RuntimeException("Performance review not found with ID: " + id));
     }
 
+    @Transactional
     public void deletePerformanceReview(Integer id) {
         PerformanceReview review = performanceReviewRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Performance review not found with ID: " + id));
@@ -162,6 +196,8 @@ public class PerformanceReviewService {
         }
         
         performanceReviewRepository.deleteById(id);
+        performanceRollupService.recordChange(Contribution.of(review), null);
+        departmentStatsService.recordReviewChange(review.getDepartment(), null);
     }
 
     public Double getAverageRatingForEmployee(Integer employeeId) {
@@ -169,7 +205,9 @@ public class PerformanceReviewService {
     }
 
     public Long getReviewCountByDepartment(String department) {
-        return performanceReviewRepository.getReviewCountByDepartment(department);
+        return departmentLookupService.findId(department)
+                .map(performanceReviewRepository::getReviewCountByDepartmentId)
+                .orElse(0L);
     }
 
     public Long getReviewCountByStatus(String status) {
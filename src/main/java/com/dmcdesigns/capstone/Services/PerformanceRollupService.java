@@ -0,0 +1,247 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Entities.PerformanceReview;
+import com.dmcdesigns.capstone.Entities.PerformanceRollup;
+import com.dmcdesigns.capstone.Repositories.PerformanceReviewRepository;
+import com.dmcdesigns.capstone.Repositories.PerformanceRollupRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maintains the performance_rollups table and serves performance analytics from it.
+ * Review writes apply their delta to the affected department/period row in the same
+ * transaction, and a scheduled full rebuild recomputes every row from the reviews
+ * and reports any drift.
+ *
+ * @author DMC Designs
+ */
+@Service
+public class PerformanceRollupService {
+
+    @Autowired
+    private PerformanceRollupRepository performanceRollupRepository;
+
+    @Autowired
+    private PerformanceReviewRepository performanceReviewRepository;
+
+    private final TransactionTemplate requiresNew;
+
+    public PerformanceRollupService(PlatformTransactionManager transactionManager) {
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * The fields of a review that contribute to its rollup row, captured before a
+     * change so the old contribution can be subtracted
+     */
+    public record Contribution(String department, String reviewPeriod, int rating, String status) {
+        public static Contribution of(PerformanceReview review) {
+            return new Contribution(review.getDepartment(), review.getReviewPeriod(), review.getRating(), review.getStatus());
+        }
+    }
+
+    // ============ Incremental Maintenance ============
+
+    /**
+     * Moves a review's contribution from before to after. Either side may be null
+     * for a create or delete. Must run inside the transaction that writes the review.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(Contribution before, Contribution after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            apply(before, -1);
+        }
+        if (after != null) {
+            apply(after, 1);
+        }
+    }
+
+    private void apply(Contribution contribution, int count) {
+        if (contribution.department() == null || contribution.reviewPeriod() == null) {
+            return;
+        }
+        PerformanceRollup rollup = lockRow(contribution.department(), contribution.reviewPeriod());
+        rollup.add(contribution.rating(), contribution.status(), count);
+        performanceRollupRepository.save(rollup);
+    }
+
+    private PerformanceRollup lockRow(String department, String reviewPeriod) {
+        return performanceRollupRepository.findForUpdate(department, reviewPeriod).orElseGet(() -> {
+            // First review for this department/period: create the empty row on its own
+            // so a concurrent creator's insert cannot fail the caller's transaction
+            try {
+                requiresNew.executeWithoutResult(status -> {
+                    if (!performanceRollupRepository.existsByDepartmentAndReviewPeriod(department, reviewPeriod)) {
+                        performanceRollupRepository.saveAndFlush(new PerformanceRollup(department, reviewPeriod));
+                    }
+                });
+            } catch (DataIntegrityViolationException e) {
+                // Another transaction created it first
+            }
+            return performanceRollupRepository.findForUpdate(department, reviewPeriod)
+                .orElseThrow(() -> new RuntimeException("Performance rollup not found for department: " + department));
+        });
+    }
+
+    /**
+     * Carries a department rename over to its rollup rows. Must run inside the
+     * transaction that renames the department's reviews.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void renameDepartment(String oldName, String newName) {
+        performanceRollupRepository.updateDepartmentName(oldName, newName);
+    }
+
+    // ============ Full Rebuild ============
+
+    /**
+     * Recomputes every rollup row from the reviews table and corrects any drift.
+     * Existing rows are locked first, so review writes running concurrently either
+     * commit before the recount or apply their delta on top of the rebuilt value.
+     * A missing row is created and locked the way the incremental path does it,
+     * then recounted under its lock, since a review for it may have committed
+     * after the first count.
+     *
+     * @return number of rows that had drifted
+     */
+    @Scheduled(cron = "${app.reports.rollup.rebuild-cron:0 30 3 * * *}")
+    @Transactional
+    public int rebuildRollups() {
+        Map<String, PerformanceRollup> existing = new HashMap<>();
+        for (PerformanceRollup rollup : performanceRollupRepository.findAllForUpdate()) {
+            existing.put(key(rollup.getDepartment(), rollup.getReviewPeriod()), rollup);
+        }
+
+        Map<String, PerformanceRollup> expected = totals(performanceReviewRepository.getRollupSourceCounts());
+
+        int drifted = 0;
+        for (Map.Entry<String, PerformanceRollup> entry : expected.entrySet()) {
+            PerformanceRollup current = existing.remove(entry.getKey());
+            if (current == null) {
+                String department = entry.getValue().getDepartment();
+                String reviewPeriod = entry.getValue().getReviewPeriod();
+                PerformanceRollup created = lockRow(department, reviewPeriod);
+                created.copyTotalsFrom(totals(performanceReviewRepository.getRollupSourceCounts(department, reviewPeriod))
+                    .getOrDefault(entry.getKey(), new PerformanceRollup(department, reviewPeriod)));
+                drifted++;
+            } else if (!current.hasSameTotals(entry.getValue())) {
+                System.err.println("⚠️ Performance rollup drift corrected: " + current + " -> " + entry.getValue());
+                current.copyTotalsFrom(entry.getValue());
+                drifted++;
+            }
+        }
+        // Rows for department/periods that no longer have any reviews
+        for (PerformanceRollup orphan : existing.values()) {
+            if (orphan.getReviewCount() != 0) {
+                drifted++;
+            }
+            performanceRollupRepository.delete(orphan);
+        }
+
+        System.out.println("📊 Performance rollups rebuilt: " + expected.size() + " rows, " + drifted + " corrected");
+        return drifted;
+    }
+
+    /**
+     * Builds the rollups at startup when the table is still empty, e.g. on the
+     * first deployment against a database that already holds reviews
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeRollups() {
+        if (performanceRollupRepository.count() == 0 && performanceReviewRepository.count() > 0) {
+            requiresNew.executeWithoutResult(status -> rebuildRollups());
+        }
+    }
+
+    // Rollup totals keyed by department/period from grouped review counts
+    private static Map<String, PerformanceRollup> totals(List<Object[]> counts) {
+        Map<String, PerformanceRollup> totals = new LinkedHashMap<>();
+        for (Object[] row : counts) {
+            String department = (String) row[0];
+            String reviewPeriod = (String) row[1];
+            // As in apply(), reviews without a department or period have no row
+            if (department == null || reviewPeriod == null) {
+                continue;
+            }
+            totals.computeIfAbsent(key(department, reviewPeriod), k -> new PerformanceRollup(department, reviewPeriod))
+                .add(((Number) row[2]).intValue(), (String) row[3], ((Number) row[4]).intValue());
+        }
+        return totals;
+    }
+
+    private static String key(String department, String reviewPeriod) {
+        return department + '\u0000' + reviewPeriod;
+    }
+
+    // ============ Analytics ============
+
+    /**
+     * Rating averages, distributions and status counts per department, read from
+     * the rollup rows only
+     *
+     * @param department Optional department filter (null for all)
+     * @param reviewPeriod Optional review period filter (null for all)
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getPerformanceAnalytics(String department, String reviewPeriod) {
+        PerformanceRollup overall = new PerformanceRollup(department, reviewPeriod);
+        Map<String, PerformanceRollup> byDepartment = new LinkedHashMap<>();
+        for (PerformanceRollup rollup : performanceRollupRepository.findByFilters(department, reviewPeriod)) {
+            overall.merge(rollup);
+            byDepartment.computeIfAbsent(rollup.getDepartment(), d -> new PerformanceRollup(d, reviewPeriod)).merge(rollup);
+        }
+
+        List<Map<String, Object>> departments = new ArrayList<>();
+        for (PerformanceRollup rollup : byDepartment.values()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("department", rollup.getDepartment());
+            entry.putAll(summarize(rollup));
+            departments.add(entry);
+        }
+
+        Map<String, Object> analytics = summarize(overall);
+        analytics.put("departments", departments);
+        return analytics;
+    }
+
+    /**
+     * Review counts per rating 1-5 across all departments and periods
+     */
+    @Transactional(readOnly = true)
+    public Map<Integer, Long> getRatingDistribution() {
+        PerformanceRollup overall = new PerformanceRollup(null, null);
+        performanceRollupRepository.findByFilters(null, null).forEach(overall::merge);
+        return overall.getRatingDistribution();
+    }
+
+    private static Map<String, Object> summarize(PerformanceRollup rollup) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("totalReviews", rollup.getReviewCount());
+        summary.put("ratedReviews", rollup.getRatedCount());
+        summary.put("averageRating", rollup.getAverageRating());
+        summary.put("ratingDistribution", rollup.getRatingDistribution());
+        summary.put("statusCounts", rollup.getStatusCounts());
+        return summary;
+    }
+}
@@ -1,9 +1,14 @@
 package com.dmcdesigns.capstone.Services;
 
+import com.dmcdesigns.capstone.DTOs.MergePatch;
+import com.dmcdesigns.capstone.DTOs.MultiGetEntry;
 import com.dmcdesigns.capstone.Entities.Project;
 import com.dmcdesigns.capstone.Entities.User;
 import com.dmcdesigns.capstone.Repositories.ProjectRepository;
 import com.dmcdesigns.capstone.Repositories.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,6 +17,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -30,6 +36,21 @@ public class ProjectService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private DepartmentLookupService departmentLookupService;
+
+    @Autowired
+    private DepartmentStatsService departmentStatsService;
+
+    @Autowired
+    private DepartmentTreeService departmentTreeService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
     // ============ Basic CRUD Operations ============
 
     @Transactional(readOnly = true)
@@ -41,13 +62,34 @@ public class ProjectService {
         return projectRepository.findById(id);
     }
 
+    /**
+     * The requested projects in request order, with a not-found entry for each
+     * id that has no project
+     */
+    @Transactional(readOnly = true)
+    public List<MultiGetEntry<Project>> getProjectsByIds(List<Integer> ids) {
+        return MultiGetEntry.collect(ids, projectRepository::findAllById, Project::getId);
+    }
+
     @Transactional(readOnly = true)
     public List<Project> getProjectsByStatus(String status) {
         return projectRepository.findAllByStatus(status);
     }
 
     public List<Project> getProjectsByDepartment(String department) {
-        return projectRepository.findAllByDepartment(department);
+        return getProjectsByDepartment(department, false);
+    }
+
+    /**
+     * Projects of a department; with includeDescendants, also those of every
+     * department below it
+     */
+    public List<Project> getProjectsByDepartment(String department, boolean includeDescendants) {
+        return departmentLookupService.findId(department)
+                .map(id -> departmentTreeService.findSubtree(id, includeDescendants)
+                        .map(tree -> projectRepository.findAllInDepartmentTree(tree.left(), tree.right()))
+                        .orElseGet(() -> projectRepository.findAllByDepartmentId(id)))
+                .orElse(List.of());
     }
 
     public List<Project> getProjectsByPriority(String priority) {
@@ -78,6 +120,7 @@ public class ProjectService {
         return projectRepository.findProjectsWithoutAssignedEmployees();
     }
 
+    @Transactional
     public Project createProject(Project project) {
         // Validate project manager if provided
         if (project.getProjectManager() != null) {
@@ -98,9 +141,12 @@ public class ProjectService {
             }
         }
 
-        return projectRepository.save(project);
+        Project saved = projectRepository.save(project);
+        departmentStatsService.recordProjectChange(null, saved.getDepartment());
+        return saved;
     }
 
+    @Transactional
     public Project updateProject(Integer id, Project projectDetails) {
         return projectRepository.findById(id)
             .map(project -> {
@@ -108,6 +154,7 @@ public class ProjectService {
                 if ("COMPLETED".equals(project.getStatus()) || "CANCELLED".equals(project.getStatus())) {
                     throw new RuntimeException("Cannot update project with status: " + project.getStatus());
                 }
+                String departmentBefore = project.getDepartment();
 
                 if (projectDetails.getName() != null) {
                     project.setName(projectDetails.getName());
@@ -146,11 +193,63 @@ public class ProjectService {
                     project.setProjectManager(manager);
                 }
 
-                return projectRepository.save(project);
+                Project saved = projectRepository.save(project);
+                departmentStatsService.recordProjectChange(departmentBefore, saved.getDepartment());
+                return saved;
             })
             .orElseThrow(() -> new RuntimeException("Project not found with ID: " + id));
     }
 
+    /**
+     * Applies an RFC 7396 merge patch to a project. Only fields whose value
+     * changes are set, so the UPDATE covers just those columns; a patch that
+     * changes nothing returns the project without writing. The manager is
+     * patched by id as projectManagerId.
+     */
+    @Transactional
+    public Project patchProject(Integer id, JsonNode body) {
+        Project project = projectRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Project not found with ID: " + id));
+        String status = project.getStatus();
+        String departmentBefore = project.getDepartment();
+
+        MergePatch patch = MergePatch.of(body, objectMapper)
+            .requiredField("name", String.class, project::getName, project::setName)
+            .field("description", String.class, project::getDescription, project::setDescription)
+            .requiredField("startDate", String.class, project::getStartDate, project::setStartDate)
+            .field("endDate", String.class, project::getEndDate, project::setEndDate)
+            .requiredField("status", String.class, project::getStatus, project::setStatus)
+            .requiredField("priority", String.class, project::getPriority, project::setPriority)
+            .requiredField("department", String.class, project::getDepartment, project::setDepartment)
+            .field("budget", BigDecimal.class, project::getBudget, project::setBudget)
+            .field("budgetUsed", BigDecimal.class, project::getBudgetUsed, project::setBudgetUsed)
+            .requiredField("progressPercentage", Integer.class, project::getProgressPercentage,
+                project::setProgressPercentage);
+
+        if (patch.has("projectManagerId")) {
+            Integer managerId = patch.value("projectManagerId", Integer.class);
+            Integer currentId = project.getProjectManager() != null ? project.getProjectManager().getId() : null;
+            if (!Objects.equals(managerId, currentId)) {
+                project.setProjectManager(managerId == null ? null : userRepository.findById(managerId)
+                    .orElseThrow(() -> new RuntimeException("Project manager not found")));
+                patch.markChanged("projectManagerId");
+            }
+        }
+        patch.rejectUnknownFields();
+
+        if (!patch.isChanged()) {
+            return project;
+        }
+        // Same rule as a full update
+        if ("COMPLETED".equals(status) || "CANCELLED".equals(status)) {
+            throw new IllegalArgumentException("Cannot update project with status: " + status);
+        }
+        patch.validate(project, validator);
+        departmentStatsService.recordProjectChange(departmentBefore, project.getDepartment());
+        System.out.println("🩹 Patched project " + id + ": " + patch.getChangedFields());
+        return project;
+    }
+
     public Project assignEmployee(Integer projectId, Integer employeeId) {
         Project project = projectRepository.findById(projectId)
             .orElseThrow(() -> new RuntimeException("Project not found with ID: " + projectId));
@@ -292,6 +391,7 @@ public class ProjectService {
             .orElseThrow(() -> new RuntimeException("Project not found with ID: " + id));
     }
 
+    @Transactional
     public void deleteProject(Integer id) {
         Project project = projectRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Project not found with ID: " + id));
@@ -302,6 +402,7 @@ public class ProjectService {
         }
         
         projectRepository.deleteById(id);
+        departmentStatsService.recordProjectChange(project.getDepartment(), null);
     }
 
     public Long getProjectCountByStatus(String status) {
@@ -309,19 +410,51 @@ public class ProjectService {
     }
 
     public Long getProjectCountByDepartment(String department) {
-        return projectRepository.countByDepartment(department);
+        return getProjectCountByDepartment(department, false);
+    }
+
+    public Long getProjectCountByDepartment(String department, boolean includeDescendants) {
+        return departmentLookupService.findId(department)
+                .map(id -> departmentTreeService.findSubtree(id, includeDescendants)
+                        .map(tree -> projectRepository.countInDepartmentTree(tree.left(), tree.right()))
+                        .orElseGet(() -> projectRepository.countByDepartmentId(id)))
+                .orElse(0L);
     }
 
     public Double getAverageProgressByDepartment(String department) {
-        return projectRepository.getAverageProgressByDepartment(department);
+        return getAverageProgressByDepartment(department, false);
+    }
+
+    public Double getAverageProgressByDepartment(String department, boolean includeDescendants) {
+        return departmentLookupService.findId(department)
+                .map(id -> departmentTreeService.findSubtree(id, includeDescendants)
+                        .map(tree -> projectRepository.getAverageProgressInDepartmentTree(tree.left(), tree.right()))
+                        .orElseGet(() -> projectRepository.getAverageProgressByDepartmentId(id)))
+                .orElse(null);
     }
 
     public BigDecimal getTotalBudgetByDepartment(String department) {
-        return projectRepository.getTotalBudgetByDepartment(department);
+        return getTotalBudgetByDepartment(department, false);
+    }
+
+    public BigDecimal getTotalBudgetByDepartment(String department, boolean includeDescendants) {
+        return departmentLookupService.findId(department)
+                .map(id -> departmentTreeService.findSubtree(id, includeDescendants)
+                        .map(tree -> projectRepository.getTotalBudgetInDepartmentTree(tree.left(), tree.right()))
+                        .orElseGet(() -> projectRepository.getTotalBudgetByDepartmentId(id)))
+                .orElse(null);
     }
 
     public BigDecimal getTotalBudgetUsedByDepartment(String department) {
-        return projectRepository.getTotalBudgetUsedByDepartment(department);
+        return getTotalBudgetUsedByDepartment(department, false);
+    }
+
+    public BigDecimal getTotalBudgetUsedByDepartment(String department, boolean includeDescendants) {
+        return departmentLookupService.findId(department)
+                .map(id -> departmentTreeService.findSubtree(id, includeDescendants)
+                        .map(tree -> projectRepository.getTotalBudgetUsedInDepartmentTree(tree.left(), tree.right()))
+                        .orElseGet(() -> projectRepository.getTotalBudgetUsedByDepartmentId(id)))
+                .orElse(null);
     }
 
     public List<Project> getProjectsByDateRange(String startDate, String endDate) {
@@ -0,0 +1,193 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Entities.ReportArtifact;
+import com.dmcdesigns.capstone.Entities.ReportLock;
+import com.dmcdesigns.capstone.Repositories.ReportArtifactRepository;
+import com.dmcdesigns.capstone.Repositories.ReportLockRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Pre-renders the standard reports during the off-peak window and stores them
+ * as versioned artifacts, so morning requests are served without rendering.
+ * A report is only re-rendered when the report data version has moved since its
+ * newest artifact, and a database lease keeps nodes from rendering concurrently.
+ *
+ * @author DMC Designs
+ */
+@Service
+public class ReportArtifactService {
+
+    public static final String EMPLOYEE_ROSTER = "employee-roster";
+    public static final String SALARY_ANALYSIS = "salary-analysis";
+    public static final String PERFORMANCE_SUMMARY = "performance-summary";
+    public static final List<String> STANDARD_REPORTS = List.of(EMPLOYEE_ROSTER, SALARY_ANALYSIS, PERFORMANCE_SUMMARY);
+
+    private static final String PREGENERATION_LOCK = "report-pregeneration";
+    private static final String PDF_CONTENT_TYPE = "application/pdf";
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ReportArtifactRepository reportArtifactRepository;
+
+    @Autowired
+    private ReportLockRepository reportLockRepository;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private EmployeeAnalyticsService employeeAnalyticsService;
+
+    @Value("${app.reports.pregenerate.max-duration-minutes:180}")
+    private long maxDurationMinutes;
+
+    @Value("${app.reports.artifacts.retain:5}")
+    private int retainVersions;
+
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+
+    public ReportArtifactService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nodeId = resolveHostName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    // ============ Scheduled Pre-generation ============
+
+    /**
+     * Runs at the start of the off-peak window (app.reports.pregenerate.cron, "-" disables).
+     * Stops picking up new reports once max-duration-minutes has elapsed.
+     */
+    @Scheduled(cron = "${app.reports.pregenerate.cron:0 0 2 * * *}")
+    public void pregenerateStandardReports() {
+        LocalDateTime windowEnd = LocalDateTime.now().plusMinutes(maxDurationMinutes);
+        if (!acquireLock(PREGENERATION_LOCK, windowEnd)) {
+            System.out.println("ℹ️ Report pre-generation already running on another node - skipping");
+            return;
+        }
+
+        try {
+            for (String reportType : STANDARD_REPORTS) {
+                if (LocalDateTime.now().isAfter(windowEnd)) {
+                    System.out.println("⏰ Off-peak window closed - remaining reports will render on demand");
+                    break;
+                }
+                try {
+                    regenerateIfChanged(reportType);
+                } catch (Exception e) {
+                    System.err.println("❌ Failed to pre-generate " + reportType + ": " + e.getMessage());
+                }
+            }
+        } finally {
+            releaseLock(PREGENERATION_LOCK);
+        }
+    }
+
+    /**
+     * Renders and stores a new artifact version if the data changed since the newest one
+     *
+     * @return true if a new version was stored
+     */
+    public boolean regenerateIfChanged(String reportType) throws IOException {
+        // Read the data version before rendering: a write during rendering leaves the
+        // artifact marked as older, so it is picked up again on the next run
+        long dataVersion = dataVersionService.getVersion(DataVersionService.REPORT_DATA);
+        List<Object[]> latest = reportArtifactRepository.findLatestVersionInfo(reportType);
+        if (!latest.isEmpty() && ((Number) latest.get(0)[1]).longValue() == dataVersion) {
+            return false;
+        }
+
+        byte[] content = render(reportType);
+        int nextVersion = latest.isEmpty() ? 1 : ((Number) latest.get(0)[0]).intValue() + 1;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            reportArtifactRepository.save(new ReportArtifact(reportType, nextVersion, dataVersion, PDF_CONTENT_TYPE, content));
+            reportArtifactRepository.deleteVersionsUpTo(reportType, nextVersion - retainVersions);
+        });
+        System.out.println("📄 Pre-generated " + reportType + " v" + nextVersion + " (" + content.length + " bytes)");
+        return true;
+    }
+
+    // ============ Artifact Access ============
+
+    @Transactional(readOnly = true)
+    public Optional<ReportArtifact> getLatestArtifact(String reportType) {
+        return reportArtifactRepository.findTopByReportTypeOrderByVersionDesc(reportType);
+    }
+
+    /**
+     * Whether the data has changed since the artifact was rendered
+     */
+    public boolean isStale(ReportArtifact artifact) {
+        return artifact.getDataVersion() != dataVersionService.getVersion(DataVersionService.REPORT_DATA);
+    }
+
+    private byte[] render(String reportType) throws IOException {
+        switch (reportType) {
+            case EMPLOYEE_ROSTER:
+                return reportService.generateEmployeeRosterReport();
+            case SALARY_ANALYSIS:
+                // The snapshot only tracks this node's writes between full rebuilds; the artifact must match dataVersion
+                employeeAnalyticsService.requestFullRebuild();
+                employeeAnalyticsService.refresh();
+                return reportService.generateSalaryAnalysisReport();
+            case PERFORMANCE_SUMMARY:
+                return reportService.generatePerformanceSummaryReport();
+            default:
+                throw new IllegalArgumentException("Unknown report type: " + reportType);
+        }
+    }
+
+    // ============ Distributed Lock ============
+
+    private boolean acquireLock(String name, LocalDateTime until) {
+        Boolean acquired = transactionTemplate.execute(status ->
+            reportLockRepository.tryAcquire(name, nodeId, LocalDateTime.now(), until) == 1);
+        if (Boolean.TRUE.equals(acquired)) {
+            return true;
+        }
+
+        // First run anywhere: create the lock row, then race for it like everyone else
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!reportLockRepository.existsById(name)) {
+                    reportLockRepository.saveAndFlush(new ReportLock(name));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another node inserted it concurrently
+        }
+        return Boolean.TRUE.equals(transactionTemplate.execute(status ->
+            reportLockRepository.tryAcquire(name, nodeId, LocalDateTime.now(), until) == 1));
+    }
+
+    private void releaseLock(String name) {
+        transactionTemplate.executeWithoutResult(status ->
+            reportLockRepository.release(name, nodeId, LocalDateTime.now()));
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "unknown-host";
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Repositories.EmployeeRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Service for rendering multi-document report bundles.
+ * Department reports are rendered in parallel on the shared report render pool;
+ * each task calls through the ReportService proxy so it runs in its own read-only
+ * transaction and reads only its own department's rows.
+ *
+ * @author DMC Designs
+ */
+@Service
+public class ReportBundleService {
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ReportRenderingService reportRenderingService;
+
+    private final int concurrency;
+
+    public ReportBundleService(@Value("${app.reports.bundle.concurrency:4}") int concurrency) {
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    /**
+     * Writes a ZIP with one PDF per department.
+     * Documents are added in completion order as soon as each finishes; at most
+     * {@code concurrency} departments are in flight, so no more than that many
+     * rendered PDFs are ever held in memory at once. If writing fails, e.g. the
+     * client disconnected, the renders still in flight are cancelled.
+     */
+    public void writeDepartmentReportBundle(OutputStream outputStream) throws IOException {
+        List<String> departments = employeeRepository.findDistinctDepartments();
+        CompletionService<DepartmentReport> completionService = new ExecutorCompletionService<>(reportRenderingService.partExecutor());
+        List<Future<DepartmentReport>> inFlight = new ArrayList<>();
+
+        try (ZipOutputStream zip = new ZipOutputStream(outputStream, StandardCharsets.UTF_8)) {
+            int submitted = 0;
+            int written = 0;
+            while (written < departments.size()) {
+                // Keep the pool full without queueing more work than it can run
+                while (submitted < departments.size() && submitted - written < concurrency) {
+                    String department = departments.get(submitted++);
+                    inFlight.add(completionService.submit(() -> renderDepartment(department)));
+                }
+                Future<DepartmentReport> done = completionService.take();
+                inFlight.remove(done);
+                writeEntry(zip, done);
+                written++;
+            }
+            zip.finish();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Department report bundle interrupted", e);
+        } finally {
+            // Empty unless the bundle stopped early; nobody will read those documents
+            if (!inFlight.isEmpty()) {
+                System.err.println("🛑 Department report bundle stopped; cancelling " + inFlight.size() + " renders");
+                inFlight.forEach(future -> future.cancel(true));
+            }
+        }
+    }
+
+    private DepartmentReport renderDepartment(String department) {
+        try {
+            return new DepartmentReport(department, reportService.generateDepartmentReport(department), null);
+        } catch (Exception e) {
+            // One failed department should not cost the client the rest of the bundle
+            System.err.println("Failed to render report for department " + department + ": " + e.getMessage());
+            return new DepartmentReport(department, null, e.getMessage());
+        }
+    }
+
+    private void writeEntry(ZipOutputStream zip, Future<DepartmentReport> future) throws IOException, InterruptedException {
+        DepartmentReport report;
+        try {
+            report = future.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Department report task failed", e.getCause());
+        }
+
+        String baseName = "department-" + safeFileName(report.department);
+        if (report.pdf != null) {
+            zip.putNextEntry(new ZipEntry(baseName + ".pdf"));
+            zip.write(report.pdf);
+        } else {
+            zip.putNextEntry(new ZipEntry(baseName + "-error.txt"));
+            zip.write(("Report could not be generated: " + report.error).getBytes(StandardCharsets.UTF_8));
+        }
+        zip.closeEntry();
+        // Push each finished document to the client instead of buffering the archive
+        zip.flush();
+    }
+
+    private static String safeFileName(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private static class DepartmentReport {
+        private final String department;
+        private final byte[] pdf;
+        private final String error;
+
+        private DepartmentReport(String department, byte[] pdf, String error) {
+            this.department = department;
+            this.pdf = pdf;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Exceptions.ReportCapacityException;
+import com.dmcdesigns.capstone.Reports.EmployeeColumnarSnapshot.SalaryGroup;
+import com.dmcdesigns.capstone.Reports.ReportCharts;
+
+import jakarta.annotation.PreDestroy;
+import org.jfree.chart.JFreeChart;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Renders the report charts as images for dashboard widgets.
+ * Images are cached by chart, format, size and a hash of the chart's dataset, so
+ * a chart is only re-rendered after its data changes; concurrent requests for the
+ * same image share one render. Rendering runs on a small pool because JFreeChart
+ * and Java2D rasterizing is CPU-bound; when the pool and its queue are full the
+ * request is rejected with 429 rather than queueing without bound.
+ *
+ * @author DMC Designs
+ */
+@Service
+public class ReportChartService {
+
+    public static final String SALARY_DISTRIBUTION = "salary-distribution";
+    public static final String PERFORMANCE_RATINGS = "performance-ratings";
+
+    public static final int MIN_SIZE = 100;
+    public static final int MAX_SIZE = 2000;
+
+    /**
+     * A rendered chart; the etag identifies the dataset, format and size
+     */
+    public record ChartImage(byte[] content, String contentType, String etag) {
+    }
+
+    @Autowired
+    private EmployeeAnalyticsService employeeAnalyticsService;
+
+    @Autowired
+    private PerformanceRollupService performanceRollupService;
+
+    private final ThreadPoolExecutor rendererPool;
+    private final int cacheSize;
+
+    // Access-ordered LRU of rendered (or in-flight) images; guarded by itself
+    private final Map<String, CompletableFuture<ChartImage>> cache;
+
+    public ReportChartService(@Value("${app.reports.charts.threads:2}") int threads,
+                              @Value("${app.reports.charts.queue-capacity:16}") int queueCapacity,
+                              @Value("${app.reports.charts.cache-size:200}") int cacheSize) {
+        this.cacheSize = Math.max(1, cacheSize);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<ChartImage>> eldest) {
+                return size() > ReportChartService.this.cacheSize;
+            }
+        };
+        AtomicInteger threadCount = new AtomicInteger();
+        int poolSize = Math.max(1, threads);
+        this.rendererPool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                Thread thread = new Thread(runnable, "chart-render-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rendererPool.shutdownNow();
+    }
+
+    /**
+     * Department salary totals pie chart, from the columnar analytics snapshot
+     */
+    public CompletableFuture<ChartImage> getSalaryDistributionChart(int width, int height, String format) {
+        List<SalaryGroup> departmentTotals = employeeAnalyticsService.getSnapshot().byDepartment();
+        StringBuilder dataset = new StringBuilder();
+        for (SalaryGroup group : departmentTotals) {
+            dataset.append(group.name()).append('=').append(group.totalCents()).append('\n');
+        }
+        return getChart(SALARY_DISTRIBUTION, dataset.toString(), width, height, format,
+            () -> ReportCharts.salaryDistribution(departmentTotals));
+    }
+
+    /**
+     * Review count per rating bar chart, from the performance rollups
+     */
+    public CompletableFuture<ChartImage> getPerformanceRatingChart(int width, int height, String format) {
+        Map<Integer, Long> ratingCounts = performanceRollupService.getRatingDistribution();
+        return getChart(PERFORMANCE_RATINGS, ratingCounts.toString(), width, height, format,
+            () -> ReportCharts.performanceRatings(ratingCounts));
+    }
+
+    private CompletableFuture<ChartImage> getChart(String chartType, String dataset, int width, int height,
+                                                   String format, Supplier<JFreeChart> chart) {
+        String imageFormat = validate(width, height, format);
+        String etag = sha256(chartType + '|' + imageFormat + '|' + width + 'x' + height + '|' + dataset);
+
+        CompletableFuture<ChartImage> image;
+        synchronized (cache) {
+            image = cache.get(etag);
+            if (image != null) {
+                return image;
+            }
+            image = new CompletableFuture<>();
+            cache.put(etag, image);
+        }
+
+        CompletableFuture<ChartImage> result = image;
+        try {
+            rendererPool.execute(() -> {
+                try {
+                    byte[] png = renderPng(chart.get(), width, height);
+                    result.complete(imageFormat.equals("svg") ?
+                        new ChartImage(wrapInSvg(png, width, height), "image/svg+xml", etag) :
+                        new ChartImage(png, "image/png", etag));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new ReportCapacityException("Chart rendering is at capacity, try again shortly", 1));
+        }
+        // Failed renders are not cached
+        result.whenComplete((rendered, error) -> {
+            if (error != null) {
+                synchronized (cache) {
+                    cache.remove(etag, result);
+                }
+            }
+        });
+        return result;
+    }
+
+    private static String validate(int width, int height, String format) {
+        if (width < MIN_SIZE || width > MAX_SIZE || height < MIN_SIZE || height > MAX_SIZE) {
+            throw new IllegalArgumentException("width and height must be between " + MIN_SIZE + " and " + MAX_SIZE);
+        }
+        String imageFormat = format != null ? format.toLowerCase(Locale.ROOT) : "png";
+        if (!imageFormat.equals("png") && !imageFormat.equals("svg")) {
+            throw new IllegalArgumentException("format must be 'png' or 'svg'");
+        }
+        return imageFormat;
+    }
+
+    private static byte[] renderPng(JFreeChart chart, int width, int height) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(chart.createBufferedImage(width, height), "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // No vector SVG backend in the build; the raster is embedded at the requested size
+    private static byte[] wrapInSvg(byte[] png, int width, int height) {
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + width + "\" height=\"" + height
+            + "\" viewBox=\"0 0 " + width + " " + height + "\"><image width=\"" + width + "\" height=\"" + height
+            + "\" href=\"data:image/png;base64," + Base64.getEncoder().encodeToString(png) + "\"/></svg>";
+        return svg.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
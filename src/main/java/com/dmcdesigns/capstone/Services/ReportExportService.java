@@ -0,0 +1,176 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Entities.Employee;
+import com.dmcdesigns.capstone.Repositories.EmployeeRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service for flat-file (CSV / XLSX) exports of report data.
+ * Rows are read from a forward-only cursor and written straight to the response
+ * stream, so memory use does not grow with the number of employees.
+ *
+ * @author DMC Designs
+ */
+@Service
+public class ReportExportService {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final String[] ROSTER_HEADERS = {
+        "ID", "First Name", "Last Name", "Email", "Department", "Role", "Salary", "Hire Date"
+    };
+
+    /** Rows SXSSF keeps in memory before flushing older rows to a temp file */
+    private static final int XLSX_ROW_WINDOW = 100;
+
+    /** Leading characters that make spreadsheet applications evaluate a CSV field */
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    /**
+     * Write the employee roster as CSV (RFC 4180, UTF-8)
+     */
+    @Transactional(readOnly = true)
+    public void writeEmployeeRosterCsv(OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writeCsvLine(writer, ROSTER_HEADERS);
+
+        try (Stream<Employee> employees = employeeRepository.streamAllEmployees()) {
+            Iterator<Employee> iterator = employees.iterator();
+            while (iterator.hasNext()) {
+                Employee employee = iterator.next();
+                writeCsvLine(writer, new String[] {
+                    String.valueOf(employee.getId()),
+                    employee.getFirstName(),
+                    employee.getLastName(),
+                    employee.getEmail(),
+                    employee.getDepartment(),
+                    employee.getRole(),
+                    employee.getSalary() != null ? employee.getSalary().toPlainString() : "",
+                    employee.getHireDate()
+                });
+                entityManager.detach(employee);
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Write the employee roster as an XLSX workbook.
+     * Uses a windowed streaming workbook; rows beyond the window are flushed to a
+     * compressed temp file, and a new sheet is started if the Excel row limit is reached.
+     */
+    @Transactional(readOnly = true)
+    public void writeEmployeeRosterXlsx(OutputStream outputStream) throws IOException {
+        // Closing the workbook also removes the temp files backing flushed rows
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_ROW_WINDOW);
+             Stream<Employee> employees = employeeRepository.streamAllEmployees()) {
+            workbook.setCompressTempFiles(true);
+
+            CellStyle headerStyle = workbook.createCellStyle();
+            Font headerFont = workbook.createFont();
+            headerFont.setBold(true);
+            headerStyle.setFont(headerFont);
+
+            CellStyle salaryStyle = workbook.createCellStyle();
+            salaryStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
+
+            int maxRowIndex = SpreadsheetVersion.EXCEL2007.getLastRowIndex();
+            int sheetNumber = 1;
+            Sheet sheet = createRosterSheet(workbook, "Employee Roster", headerStyle);
+            int rowIndex = 1;
+
+            Iterator<Employee> iterator = employees.iterator();
+            while (iterator.hasNext()) {
+                if (rowIndex > maxRowIndex) {
+                    sheetNumber++;
+                    sheet = createRosterSheet(workbook, "Employee Roster (" + sheetNumber + ")", headerStyle);
+                    rowIndex = 1;
+                }
+
+                Employee employee = iterator.next();
+                Row row = sheet.createRow(rowIndex++);
+                row.createCell(0).setCellValue(employee.getId());
+                row.createCell(1).setCellValue(employee.getFirstName());
+                row.createCell(2).setCellValue(employee.getLastName());
+                row.createCell(3).setCellValue(employee.getEmail());
+                row.createCell(4).setCellValue(employee.getDepartment());
+                row.createCell(5).setCellValue(employee.getRole());
+                if (employee.getSalary() != null) {
+                    Cell salaryCell = row.createCell(6);
+                    salaryCell.setCellValue(employee.getSalary().doubleValue());
+                    salaryCell.setCellStyle(salaryStyle);
+                }
+                row.createCell(7).setCellValue(employee.getHireDate());
+                entityManager.detach(employee);
+            }
+
+            workbook.write(outputStream);
+            outputStream.flush();
+        }
+    }
+
+    private Sheet createRosterSheet(SXSSFWorkbook workbook, String name, CellStyle headerStyle) {
+        Sheet sheet = workbook.createSheet(name);
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < ROSTER_HEADERS.length; i++) {
+            Cell cell = header.createCell(i);
+            cell.setCellValue(ROSTER_HEADERS[i]);
+            cell.setCellStyle(headerStyle);
+        }
+        return sheet;
+    }
+
+    private static void writeCsvLine(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Quotes a CSV field when it contains a delimiter, quote or line break.
+     * A field that a spreadsheet would read as a formula gets a leading
+     * apostrophe, so an employee-entered value cannot run on the reader's machine.
+     */
+    static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,192 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Exceptions.ReportCapacityException;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulkhead for report rendering. Reports render on a small dedicated pool instead of
+ * the request threads, so a burst of large reports cannot take the Tomcat threads
+ * or Hikari connections the CRUD API needs:
+ * <ul>
+ *   <li>Every PDF render, including each department PDF of a bundle, runs on the
+ *       render pool and holds at most one database connection, so the pool size
+ *       bounds the connections rendering draws from the shared Hikari pool.</li>
+ *   <li>Streamed exports (CSV, XLSX and the bundle's ZIP writer) block on the client,
+ *       so they write from the MVC async threads instead; a CSV or XLSX export holds
+ *       one connection while it streams, and its per-type limit bounds how many
+ *       do.</li>
+ *   <li>Each report type has its own limit on admitted (running + queued) requests;
+ *       over the limit a request is rejected immediately with 429.</li>
+ *   <li>Admitted requests wait in a bounded queue; a request that is still queued
+ *       after the queue timeout is dropped with 429 instead of rendering for a
+ *       client that has likely given up.</li>
+ * </ul>
+ *
+ * @author DMC Designs
+ */
+@Service
+public class ReportRenderingService {
+
+    private final int perTypeLimit;
+    private final long queueTimeoutMillis;
+    private final ThreadPoolExecutor renderExecutor;
+    private final Executor partExecutor;
+
+    // Report type -> admitted requests, created on first use
+    private final Map<String, Semaphore> typePermits = new ConcurrentHashMap<>();
+
+    public ReportRenderingService(@Value("${app.reports.render.threads:3}") int threads,
+                                  @Value("${app.reports.render.queue-capacity:20}") int queueCapacity,
+                                  @Value("${app.reports.render.per-type-limit:2}") int perTypeLimit,
+                                  @Value("${app.reports.render.queue-timeout-ms:30000}") long queueTimeoutMillis) {
+        this.perTypeLimit = Math.max(1, perTypeLimit);
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        int poolSize = Math.max(1, threads);
+        this.renderExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                Thread thread = new Thread(runnable, "report-render-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.partExecutor = runnable -> {
+            try {
+                renderExecutor.execute(runnable);
+            } catch (RejectedExecutionException e) {
+                System.err.println("⚠️ Report render queue full, rejected a report part");
+                throw new ReportCapacityException("Report rendering is at capacity, try again shortly", retryAfterSeconds());
+            }
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderExecutor.shutdownNow();
+    }
+
+    /**
+     * Admits and renders a report on the render pool
+     *
+     * @param reportType Report type the per-type limit applies to, e.g. "salary-analysis"
+     * @param renderer Produces the result; runs on a render thread
+     * @return Completes with the renderer's result, or exceptionally with a
+     *         {@link ReportCapacityException} as soon as the request has waited in
+     *         the queue for the queue timeout; a render that has started is not timed out
+     * @throws ReportCapacityException if the type is at its limit or the queue is full
+     */
+    public <T> CompletableFuture<T> submit(String reportType, Callable<T> renderer) {
+        Permit permit = admit(reportType);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        // Claimed once, by whichever comes first: a render thread or the queue deadline
+        AtomicBoolean claimed = new AtomicBoolean();
+        Runnable task = () -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try (permit) {
+                result.complete(renderer.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        };
+        try {
+            renderExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            permit.close();
+            System.err.println("⚠️ Report render queue full, rejected: " + reportType);
+            throw new ReportCapacityException("Report rendering is at capacity, try again shortly", retryAfterSeconds());
+        }
+        CompletableFuture.delayedExecutor(queueTimeoutMillis, TimeUnit.MILLISECONDS).execute(() -> {
+            if (claimed.compareAndSet(false, true)) {
+                renderExecutor.remove(task);
+                permit.close();
+                System.err.println("⚠️ Report timed out in the render queue: " + reportType);
+                result.completeExceptionally(new ReportCapacityException(
+                    "Report " + reportType + " timed out waiting to render", retryAfterSeconds()));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Runs the parts of an already-admitted report, such as the department PDFs of
+     * a bundle, on the render pool. Parts share the render threads with every other
+     * render and take no per-type slot of their own; execute throws
+     * {@link ReportCapacityException} if the render queue is full.
+     */
+    public Executor partExecutor() {
+        return partExecutor;
+    }
+
+    /**
+     * Takes one of the type's admission slots without using the render pool, for
+     * streamed exports that write from the request's own async thread. Close the
+     * permit when the response is finished.
+     *
+     * @throws ReportCapacityException if the type is at its limit
+     */
+    public Permit admit(String reportType) {
+        Semaphore permits = typePermits.computeIfAbsent(reportType, type -> new Semaphore(perTypeLimit));
+        if (!permits.tryAcquire()) {
+            System.err.println("⚠️ Report concurrency limit reached, rejected: " + reportType);
+            throw new ReportCapacityException("Too many " + reportType + " reports in progress, try again shortly",
+                retryAfterSeconds());
+        }
+        return new Permit(permits);
+    }
+
+    /**
+     * Current load, for monitoring
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Integer> inProgress = new ConcurrentHashMap<>();
+        typePermits.forEach((type, permits) -> inProgress.put(type, perTypeLimit - permits.availablePermits()));
+        return Map.of(
+            "activeRenders", renderExecutor.getActiveCount(),
+            "queuedRenders", renderExecutor.getQueue().size(),
+            "renderThreads", renderExecutor.getMaximumPoolSize(),
+            "perTypeLimit", perTypeLimit,
+            "inProgressByType", inProgress
+        );
+    }
+
+    private long retryAfterSeconds() {
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(queueTimeoutMillis) / 2);
+    }
+
+    /**
+     * One admitted report; releases its slot exactly once when closed
+     */
+    public static final class Permit implements AutoCloseable {
+        private final Semaphore permits;
+        private boolean released;
+
+        private Permit(Semaphore permits) {
+            this.permits = permits;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!released) {
+                released = true;
+                permits.release();
+            }
+        }
+    }
+}
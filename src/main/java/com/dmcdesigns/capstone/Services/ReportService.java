@@ -1,39 +1,35 @@
 package com.dmcdesigns.capstone.Services;
 
+import com.dmcdesigns.capstone.DTOs.ProjectReportRow;
 import com.dmcdesigns.capstone.Entities.Employee;
-import com.dmcdesigns.capstone.Entities.PerformanceReview;
 import com.dmcdesigns.capstone.Repositories.EmployeeRepository;
-import com.dmcdesigns.capstone.Repositories.PerformanceReviewRepository;
-
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.PDPageContentStream;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
-import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
-import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
-import org.jfree.chart.ChartFactory;
+import com.dmcdesigns.capstone.Repositories.ProjectRepository;
+
+import com.dmcdesigns.capstone.Reports.EmployeeColumnarSnapshot;
+import com.dmcdesigns.capstone.Reports.EmployeeColumnarSnapshot.SalaryGroup;
+import com.dmcdesigns.capstone.Reports.PdfReportLayout;
+import com.dmcdesigns.capstone.Reports.ReportCharts;
+import com.dmcdesigns.capstone.Reports.ReportColumn;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.jfree.chart.JFreeChart;
-import org.jfree.chart.plot.PlotOrientation;
-import org.jfree.data.category.DefaultCategoryDataset;
-import org.jfree.data.general.DefaultPieDataset;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.ArrayList;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ReportService {
@@ -42,85 +38,70 @@ public class ReportService {
     private EmployeeRepository employeeRepository;
 
     @Autowired
-    private PerformanceReviewRepository performanceReviewRepository;
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EmployeeAnalyticsService employeeAnalyticsService;
+
+    @Autowired
+    private DepartmentStatsService departmentStatsService;
+
+    @Autowired
+    private DepartmentLookupService departmentLookupService;
+
+    @Autowired
+    private PerformanceRollupService performanceRollupService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // COMPACT shares identical chart images and writes compressed object / xref streams
+    @Value("${app.reports.pdf.output-mode:COMPACT}")
+    private PdfReportLayout.OutputMode pdfOutputMode = PdfReportLayout.OutputMode.COMPACT;
 
-    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final List<ReportColumn<Employee>> EMPLOYEE_ROSTER_COLUMNS = List.of(
+        new ReportColumn<>("ID", 40, emp -> String.valueOf(emp.getId())),
+        new ReportColumn<>("Name", 120, emp -> emp.getFirstName() + " " + emp.getLastName()),
+        new ReportColumn<>("Email", 150, Employee::getEmail),
+        new ReportColumn<>("Department", 90, Employee::getDepartment),
+        new ReportColumn<>("Role", 75, Employee::getRole),
+        new ReportColumn<>("Salary", 65, emp -> "$" + (emp.getSalary() != null ? emp.getSalary().toString() : "0.00"))
+    );
+
+    private static List<ReportColumn<SalaryGroup>> salarySummaryColumns(String groupHeader) {
+        return List.of(
+            new ReportColumn<>(groupHeader, 160, SalaryGroup::name),
+            new ReportColumn<>("Employees", 80, group -> String.valueOf(group.headcount())),
+            new ReportColumn<>("Total", 130, group -> "$" + group.getTotal()),
+            new ReportColumn<>("Average", 130, group -> "$" + group.getAverage())
+        );
+    }
 
     /**
      * Generate Employee Roster Report
      */
     @Transactional(readOnly = true)
     public byte[] generateEmployeeRosterReport() throws IOException {
-        PDDocument document = new PDDocument();
-        try {
-            PDPage page = new PDPage();
-            document.addPage(page);
+        try (PdfReportLayout layout = newLayout("Employee Roster Report");
+             Stream<Employee> employees = employeeRepository.streamAllEmployees()) {
+            writeEmployeeTable(layout, employees);
+            return layout.toByteArray();
+        }
+    }
 
-            PDPageContentStream contentStream = new PDPageContentStream(document, page);
-            
-            // Add title and timestamp
-            addReportHeader(contentStream, "Employee Roster Report");
-            
-            float yPosition = 720;
-            
-            // Table headers
-            contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 10);
-            contentStream.beginText();
-            contentStream.newLineAtOffset(50, yPosition);
-            contentStream.showText("ID");
-            contentStream.newLineAtOffset(40, 0);
-            contentStream.showText("Name");
-            contentStream.newLineAtOffset(120, 0);
-            contentStream.showText("Email");
-            contentStream.newLineAtOffset(150, 0);
-            contentStream.showText("Department");
-            contentStream.newLineAtOffset(100, 0);
-            contentStream.showText("Role");
-            contentStream.newLineAtOffset(80, 0);
-            contentStream.showText("Salary");
-            contentStream.endText();
-            
-            yPosition -= 20;
-            
-            // Employee data
-            List<Employee> employees = employeeRepository.findAllEmployees();
-            contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 9);
-            
-            for (Employee employee : employees) {
-                if (yPosition < 50) {
-                    contentStream.close();
-                    page = new PDPage();
-                    document.addPage(page);
-                    contentStream = new PDPageContentStream(document, page);
-                    yPosition = 750;
-                }
-                
-                contentStream.beginText();
-                contentStream.newLineAtOffset(50, yPosition);
-                contentStream.showText(String.valueOf(employee.getId()));
-                contentStream.newLineAtOffset(40, 0);
-                contentStream.showText(employee.getFirstName() + " " + employee.getLastName());
-                contentStream.newLineAtOffset(120, 0);
-                contentStream.showText(employee.getEmail());
-                contentStream.newLineAtOffset(150, 0);
-                contentStream.showText(employee.getDepartment());
-                contentStream.newLineAtOffset(100, 0);
-                contentStream.showText(employee.getRole());
-                contentStream.newLineAtOffset(80, 0);
-                contentStream.showText("$" + (employee.getSalary() != null ? employee.getSalary().toString() : "0.00"));
-                contentStream.endText();
-                
-                yPosition -= 15;
-            }
-            
-            contentStream.close();
-            
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            document.save(baos);
-            return baos.toByteArray();
-            
-        } finally {
-            document.close();
+    /**
+     * Generate Department Report - roster of a single department
+     */
+    @Transactional(readOnly = true)
+    public byte[] generateDepartmentReport(String department) throws IOException {
+        try (PdfReportLayout layout = newLayout("Department Report: " + department);
+             Stream<Employee> employees = departmentLookupService.findId(department)
+                 .map(employeeRepository::streamEmployeesByDepartmentId)
+                 .orElseGet(Stream::empty)) {
+            long rowCount = writeEmployeeTable(layout, employees);
+            layout.space(10);
+            layout.line("Total employees: " + rowCount, 0);
+            return layout.toByteArray();
         }
     }
 
@@ -129,276 +110,122 @@ public class ReportService {
      */
     @Transactional(readOnly = true)
     public byte[] generateSalaryAnalysisReport() throws IOException {
-        PDDocument document = new PDDocument();
-        try {
-            PDPage page = new PDPage();
-            document.addPage(page);
+        try (PdfReportLayout layout = newLayout("Salary Analysis Report")) {
+            // Aggregated from the in-memory columnar snapshot, not the employee table
+            EmployeeColumnarSnapshot snapshot = employeeAnalyticsService.getSnapshot();
+            List<SalaryGroup> departmentTotals = snapshot.byDepartment();
 
-            PDPageContentStream contentStream = new PDPageContentStream(document, page);
-            
-            // Add title and timestamp
-            addReportHeader(contentStream, "Salary Analysis Report");
-            
-            float yPosition = 680;
-            
-            // Salary statistics
-            List<Employee> employees = employeeRepository.findAllEmployees();
-            Map<String, List<Employee>> departmentGroups = employees.stream()
-                .collect(Collectors.groupingBy(Employee::getDepartment));
-            
-            // Department salary summary
-            contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 12);
-            contentStream.beginText();
-            contentStream.newLineAtOffset(50, yPosition);
-            contentStream.showText("Salary Summary by Department");
-            contentStream.endText();
-            yPosition -= 25;
-            
-            contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 10);
-            for (Map.Entry<String, List<Employee>> entry : departmentGroups.entrySet()) {
-                String department = entry.getKey();
-                List<Employee> deptEmployees = entry.getValue();
-                
-                BigDecimal totalSalary = deptEmployees.stream()
-                    .map(Employee::getSalary)
-                    .filter(salary -> salary != null)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-                
-                BigDecimal avgSalary = deptEmployees.size() > 0 ? 
-                    totalSalary.divide(new BigDecimal(deptEmployees.size()), 2, RoundingMode.HALF_UP) : 
-                    BigDecimal.ZERO;
-                
-                contentStream.beginText();
-                contentStream.newLineAtOffset(70, yPosition);
-                contentStream.showText(department + " - Employees: " + deptEmployees.size() + 
-                    ", Total: $" + totalSalary + ", Average: $" + avgSalary);
-                contentStream.endText();
-                yPosition -= 15;
+            layout.heading("Salary Summary by Department");
+            PdfReportLayout.TableWriter<SalaryGroup> departmentTable = layout.table(salarySummaryColumns("Department"));
+            for (SalaryGroup group : departmentTotals) {
+                departmentTable.writeRow(group);
             }
-            
-            // Add salary distribution chart
-            if (yPosition > 300) {
-                yPosition -= 30;
-                addSalaryDistributionChart(document, page, contentStream, yPosition, departmentGroups);
+
+            layout.space(20);
+            layout.heading("Salary Summary by Role");
+            PdfReportLayout.TableWriter<SalaryGroup> roleTable = layout.table(salarySummaryColumns("Role"));
+            for (SalaryGroup group : snapshot.byRole()) {
+                roleTable.writeRow(group);
             }
-            
-            contentStream.close();
-            
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            document.save(baos);
-            return baos.toByteArray();
-            
-        } finally {
-            document.close();
+
+            // Add salary distribution chart
+            layout.space(30);
+            addSalaryDistributionChart(layout, departmentTotals);
+
+            return layout.toByteArray();
         }
     }
 
     /**
      * Generate Performance Summary Report
      */
+    @SuppressWarnings("unchecked")
     @Transactional(readOnly = true)
     public byte[] generatePerformanceSummaryReport() throws IOException {
-        PDDocument document = new PDDocument();
-        try {
-            PDPage page = new PDPage();
-            document.addPage(page);
+        try (PdfReportLayout layout = newLayout("Performance Summary Report")) {
+            // Performance statistics, read from the per department/period rollup rows
+            Map<String, Object> analytics = performanceRollupService.getPerformanceAnalytics(null, null);
 
-            PDPageContentStream contentStream = new PDPageContentStream(document, page);
-            
-            // Add title and timestamp
-            addReportHeader(contentStream, "Performance Summary Report");
-            
-            float yPosition = 680;
-            
-            // Performance statistics
-            List<PerformanceReview> reviews = performanceReviewRepository.findAll();
-            Map<String, List<PerformanceReview>> departmentReviews = reviews.stream()
-                .collect(Collectors.groupingBy(PerformanceReview::getDepartment));
-            
             // Department performance summary
-            contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 12);
-            contentStream.beginText();
-            contentStream.newLineAtOffset(50, yPosition);
-            contentStream.showText("Performance Summary by Department");
-            contentStream.endText();
-            yPosition -= 25;
-            
-            contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 10);
-            for (Map.Entry<String, List<PerformanceReview>> entry : departmentReviews.entrySet()) {
-                String department = entry.getKey();
-                List<PerformanceReview> deptReviews = entry.getValue();
-                
-                double avgRating = deptReviews.stream()
-                    .mapToInt(PerformanceReview::getRating)
-                    .average()
-                    .orElse(0.0);
-                
-                long completedReviews = deptReviews.stream()
-                    .filter(review -> "COMPLETED".equals(review.getStatus()))
-                    .count();
-                
-                contentStream.beginText();
-                contentStream.newLineAtOffset(70, yPosition);
-                contentStream.showText(String.format("%s - Reviews: %d, Completed: %d, Avg Rating: %.2f", 
-                    department, deptReviews.size(), completedReviews, avgRating));
-                contentStream.endText();
-                yPosition -= 15;
+            layout.heading("Performance Summary by Department");
+            for (Map<String, Object> department : (List<Map<String, Object>>) analytics.get("departments")) {
+                Map<String, Long> departmentStatuses = (Map<String, Long>) department.get("statusCounts");
+                Double avgRating = (Double) department.get("averageRating");
+                layout.line(String.format("%s - Reviews: %d, Completed: %d, Avg Rating: %.2f",
+                    department.get("department"), (Long) department.get("totalReviews"),
+                    departmentStatuses.getOrDefault("COMPLETED", 0L), avgRating != null ? avgRating : 0.0), 20);
             }
-            
+
             // Status distribution
-            yPosition -= 20;
-            Map<String, Long> statusCounts = reviews.stream()
-                .collect(Collectors.groupingBy(PerformanceReview::getStatus, Collectors.counting()));
-            
-            contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 12);
-            contentStream.beginText();
-            contentStream.newLineAtOffset(50, yPosition);
-            contentStream.showText("Review Status Distribution");
-            contentStream.endText();
-            yPosition -= 25;
-            
-            contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 10);
+            layout.space(20);
+            Map<String, Long> statusCounts = (Map<String, Long>) analytics.get("statusCounts");
+
+            layout.heading("Review Status Distribution");
             for (Map.Entry<String, Long> entry : statusCounts.entrySet()) {
-                contentStream.beginText();
-                contentStream.newLineAtOffset(70, yPosition);
-                contentStream.showText(entry.getKey() + ": " + entry.getValue() + " reviews");
-                contentStream.endText();
-                yPosition -= 15;
+                layout.line(entry.getKey() + ": " + entry.getValue() + " reviews", 20);
             }
-            
+
             // Add performance rating chart
-            if (yPosition > 200) {
-                yPosition -= 30;
-                addPerformanceRatingChart(document, page, contentStream, yPosition, reviews);
-            }
-            
-            contentStream.close();
-            
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            document.save(baos);
-            return baos.toByteArray();
-            
-        } finally {
-            document.close();
+            layout.space(30);
+            addPerformanceRatingChart(layout, (Map<Integer, Long>) analytics.get("ratingDistribution"));
+
+            return layout.toByteArray();
         }
     }
 
     /**
-     * Add report header with title and timestamp
+     * Writes employees as roster rows, detaching each entity once written so the
+     * persistence context stays empty no matter how many rows the cursor returns
+     *
+     * @return Number of rows written
      */
-    private void addReportHeader(PDPageContentStream contentStream, String title) throws IOException {
-        // Title
-        contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 16);
-        contentStream.beginText();
-        contentStream.newLineAtOffset(50, 750);
-        contentStream.showText(title);
-        contentStream.endText();
-        
-        // Timestamp
-        contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 10);
-        contentStream.beginText();
-        contentStream.newLineAtOffset(50, 730);
-        contentStream.showText("Generated on: " + LocalDateTime.now().format(TIMESTAMP_FORMATTER));
-        contentStream.endText();
-        
-        // Line separator
-        contentStream.moveTo(50, 720);
-        contentStream.lineTo(550, 720);
-        contentStream.stroke();
+    private long writeEmployeeTable(PdfReportLayout layout, Stream<Employee> employees) throws IOException {
+        PdfReportLayout.TableWriter<Employee> table = layout.table(EMPLOYEE_ROSTER_COLUMNS);
+        Iterator<Employee> iterator = employees.iterator();
+        while (iterator.hasNext()) {
+            Employee employee = iterator.next();
+            table.writeRow(employee);
+            entityManager.detach(employee);
+        }
+        return table.getRowCount();
     }
 
     /**
      * Add salary distribution chart to PDF
      */
-    private void addSalaryDistributionChart(PDDocument document, PDPage page, PDPageContentStream contentStream, 
-                                          float yPosition, Map<String, List<Employee>> departmentGroups) throws IOException {
+    private void addSalaryDistributionChart(PdfReportLayout layout, List<SalaryGroup> departmentTotals) throws IOException {
         try {
-            // Create pie chart data
-            DefaultPieDataset<String> dataset = new DefaultPieDataset<>();
-            for (Map.Entry<String, List<Employee>> entry : departmentGroups.entrySet()) {
-                BigDecimal totalSalary = entry.getValue().stream()
-                    .map(Employee::getSalary)
-                    .filter(salary -> salary != null)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-                dataset.setValue(entry.getKey(), totalSalary.doubleValue());
-            }
-            
-            // Create chart
-            JFreeChart chart = ChartFactory.createPieChart(
-                "Salary Distribution by Department",
-                dataset,
-                true, true, false
-            );
-            
-            // Convert chart to image and add to PDF
-            addChartToPDF(document, contentStream, chart, 50, yPosition - 200, 400, 200);
-            
+            addChartToPDF(layout, ReportCharts.salaryDistribution(departmentTotals), 400, 200);
         } catch (Exception e) {
             // If chart creation fails, add error text
-            contentStream.beginText();
-            contentStream.newLineAtOffset(50, yPosition - 20);
-            contentStream.showText("Chart could not be generated: " + e.getMessage());
-            contentStream.endText();
+            layout.line("Chart could not be generated: " + e.getMessage(), 0);
         }
     }
 
     /**
      * Add performance rating chart to PDF
      */
-    private void addPerformanceRatingChart(PDDocument document, PDPage page, PDPageContentStream contentStream, 
-                                         float yPosition, List<PerformanceReview> reviews) throws IOException {
+    private void addPerformanceRatingChart(PdfReportLayout layout, Map<Integer, Long> ratingCounts) throws IOException {
         try {
-            // Create bar chart data
-            DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-            Map<Integer, Long> ratingCounts = reviews.stream()
-                .collect(Collectors.groupingBy(PerformanceReview::getRating, Collectors.counting()));
-            
-            for (int i = 1; i <= 5; i++) {
-                dataset.addValue(ratingCounts.getOrDefault(i, 0L), "Reviews", "Rating " + i);
-            }
-            
-            // Create chart
-            JFreeChart chart = ChartFactory.createBarChart(
-                "Performance Rating Distribution",
-                "Rating",
-                "Number of Reviews",
-                dataset,
-                PlotOrientation.VERTICAL,
-                false, true, false
-            );
-            
-            // Convert chart to image and add to PDF
-            addChartToPDF(document, contentStream, chart, 50, yPosition - 150, 400, 150);
-            
+            addChartToPDF(layout, ReportCharts.performanceRatings(ratingCounts), 400, 150);
         } catch (Exception e) {
             // If chart creation fails, add error text
-            contentStream.beginText();
-            contentStream.newLineAtOffset(50, yPosition - 20);
-            contentStream.showText("Chart could not be generated: " + e.getMessage());
-            contentStream.endText();
+            layout.line("Chart could not be generated: " + e.getMessage(), 0);
         }
     }
 
+    private PdfReportLayout newLayout(String title) throws IOException {
+        return new PdfReportLayout(title, pdfOutputMode);
+    }
+
     /**
      * Convert JFreeChart to image and add to PDF
      */
-    private void addChartToPDF(PDDocument document, PDPageContentStream contentStream, JFreeChart chart, 
-                              float x, float y, int width, int height) throws IOException {
+    private void addChartToPDF(PdfReportLayout layout, JFreeChart chart, int width, int height) throws IOException {
         try {
-            // Convert chart to BufferedImage
+            // Rendered straight into the document; no intermediate PNG encode/decode
             BufferedImage chartImage = chart.createBufferedImage(width, height);
-            
-            // Convert BufferedImage to byte array
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ImageIO.write(chartImage, "png", baos);
-            byte[] imageBytes = baos.toByteArray();
-            
-            // Create PDImageXObject from byte array
-            PDImageXObject pdImage = PDImageXObject.createFromByteArray(
-                document, imageBytes, "chart.png");
-            
-            // Draw image on PDF
-            contentStream.drawImage(pdImage, x, y, width, height);
+            layout.image(chartImage, width, height);
             
         } catch (Exception e) {
             // If image creation fails, silently continue
@@ -429,53 +256,45 @@ public class ReportService {
     }
 
     /**
-     * Get project data for frontend reports
+     * Write project data for frontend reports as a JSON array.
+     * Rows are streamed as DTO projections and written as they are read, so
+     * neither Project entities nor the whole result are held in memory.
+     *
+     * @return Number of rows written
      */
     @Transactional(readOnly = true)
-    public List<Map<String, Object>> getProjectReportData() {
-        // This is a placeholder - you would implement project repository calls here
-        List<Map<String, Object>> projects = new ArrayList<>();
-        
-        Map<String, Object> project1 = new HashMap<>();
-        project1.put("id", 1);
-        project1.put("name", "Sample Project");
-        project1.put("status", "ACTIVE");
-        project1.put("department", "ENGINEERING");
-        projects.add(project1);
-        
-        Map<String, Object> project2 = new HashMap<>();
-        project2.put("id", 2);
-        project2.put("name", "Another Project");
-        project2.put("status", "PLANNING");
-        project2.put("department", "MARKETING");
-        projects.add(project2);
-        
-        return projects;
+    public long writeProjectReportData(JsonGenerator generator) throws IOException {
+        long count = 0;
+        generator.writeStartArray();
+        try (Stream<ProjectReportRow> rows = projectRepository.streamProjectReportRows()) {
+            Iterator<ProjectReportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(iterator.next());
+                count++;
+            }
+        }
+        generator.writeEndArray();
+        return count;
     }
 
     /**
-     * Get department data for frontend reports
+     * Get department data for frontend reports, from the maintained department stats
      */
-    @Transactional(readOnly = true)
     public List<Map<String, Object>> getDepartmentReportData() {
-        List<Employee> employees = employeeRepository.findAllEmployees();
-        Map<String, Integer> departmentCounts = new HashMap<>();
-        
-        // Count employees by department
-        for (Employee emp : employees) {
-            String dept = emp.getDepartment();
-            departmentCounts.put(dept, departmentCounts.getOrDefault(dept, 0) + 1);
-        }
-        
-        // Convert to list format for frontend
         List<Map<String, Object>> departments = new ArrayList<>();
-        for (Map.Entry<String, Integer> entry : departmentCounts.entrySet()) {
+        for (Map<String, Object> stats : departmentStatsService.getDepartmentStats()) {
+            if (((Number) stats.get("headcount")).longValue() == 0) {
+                continue;
+            }
             Map<String, Object> deptMap = new HashMap<>();
-            deptMap.put("department", entry.getKey());
-            deptMap.put("employeeCount", entry.getValue());
+            deptMap.put("department", stats.get("department"));
+            deptMap.put("employeeCount", stats.get("headcount"));
+            deptMap.put("totalSalary", stats.get("totalSalary"));
+            deptMap.put("averageSalary", stats.get("averageSalary"));
+            deptMap.put("projectCount", stats.get("projectCount"));
+            deptMap.put("reviewCount", stats.get("reviewCount"));
             departments.add(deptMap);
         }
-        
         return departments;
     }
 
@@ -490,21 +309,28 @@ public class ReportService {
     /**
      * Get department count
      */
-    @Transactional(readOnly = true)
     public long getDepartmentCount() {
-        return employeeRepository.findAllEmployees().stream()
-            .map(Employee::getDepartment)
-            .distinct()
-            .count();
+        return employeeAnalyticsService.getSnapshot().departmentCount();
+    }
+
+    /**
+     * Get project counts keyed by status, from a single grouped query
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> getProjectCountsByStatus() {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : projectRepository.getProjectCountsByStatus()) {
+            counts.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
     }
 
     /**
-     * Get project count
+     * Get total project count
      */
     @Transactional(readOnly = true)
     public long getProjectCount() {
-        // This is a placeholder - you would implement project repository calls here
-        return 5;
+        return getProjectCountsByStatus().values().stream().mapToLong(Long::longValue).sum();
     }
 
     /**
@@ -512,7 +338,6 @@ public class ReportService {
      */
     @Transactional(readOnly = true)
     public long getActiveProjectCount() {
-        // This is a placeholder - you would implement project repository calls here
-        return 3;
+        return getProjectCountsByStatus().getOrDefault("ACTIVE", 0L);
     }
 }
@@ -0,0 +1,292 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.DTOs.BulkUpdateResult;
+import com.dmcdesigns.capstone.DTOs.ChangeEvent;
+import com.dmcdesigns.capstone.DTOs.EmployeeSummary;
+import com.dmcdesigns.capstone.Entities.ReportingLine;
+import com.dmcdesigns.capstone.Repositories.ReportingLineRepository;
+import com.dmcdesigns.capstone.Repositories.UserRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the reporting-line hierarchy: users.manager_id for each user's
+ * direct manager, and the reporting_lines closure table holding every
+ * (manager above, user below, depth) pair. Subtree and chain-of-command reads
+ * are single index range scans of the closure table, whatever the depth.
+ * <p>
+ * Moving users re-parents their whole subtrees with one DELETE and one
+ * INSERT ... SELECT per pass, however many people are below them. Writes
+ * take the hierarchy counter's row lock first, so they run one at a time
+ * and two concurrent moves cannot form a cycle.
+ *
+ * @author DMC Designs
+ */
+@Service
+public class ReportingLineService {
+
+    /** Counter bumped by every hierarchy write; its row lock serializes the writes */
+    public static final String HIERARCHY = "reporting-lines";
+
+    /** Most users one request may move; each subtree below them moves along */
+    public static final int MAX_IDS = 1000;
+
+    // A rebuild that has not run out of users after this many levels is following a manager_id cycle
+    private static final int MAX_LEVELS = 1000;
+
+    @Autowired
+    private ReportingLineRepository reportingLineRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private ChangeStreamService changeStreamService;
+
+    @Autowired
+    private DirectorySyncService directorySyncService;
+
+    private final TransactionTemplate requiresNew;
+
+    public ReportingLineService(PlatformTransactionManager transactionManager) {
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * A user's place in the hierarchy, captured before the user is deleted so a
+     * replacement row can take it over
+     */
+    public record Position(Integer managerId, List<Integer> directReports) {
+    }
+
+    // ============ Queries ============
+
+    /**
+     * Everyone under a manager, nearest levels first
+     *
+     * @param maxDepth Levels to include (1 for direct reports only), or null for the whole subtree
+     * @throws IllegalArgumentException for a maxDepth below 1 or page size out of range
+     */
+    @Transactional(readOnly = true)
+    public Page<EmployeeSummary> getReports(int managerId, Integer maxDepth, int page, int size) {
+        if (maxDepth != null && maxDepth < 1) {
+            throw new IllegalArgumentException("maxDepth must be at least 1");
+        }
+        if (page < 0 || size < 1 || size > EmployeeService.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + EmployeeService.MAX_PAGE_SIZE);
+        }
+        requireUser(managerId);
+        return reportingLineRepository.findReportSummaries(managerId, maxDepth != null ? maxDepth : Integer.MAX_VALUE,
+                                                           PageRequest.of(page, size));
+    }
+
+    /**
+     * The managers above a user, from the direct manager up to the top
+     */
+    @Transactional(readOnly = true)
+    public List<EmployeeSummary> getChainOfCommand(int userId) {
+        requireUser(userId);
+        return reportingLineRepository.findChainOfCommand(userId);
+    }
+
+    private void requireUser(int userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found with id: " + userId);
+        }
+    }
+
+    // ============ Re-parenting ============
+
+    /**
+     * Makes every given user report directly to managerId, bringing along
+     * everyone under them. Users that already report to managerId are matched
+     * but not moved.
+     *
+     * @param managerId The new direct manager, or null to move the users to the top
+     * @throws IllegalArgumentException if ids is empty, holds a null, has more than {@link #MAX_IDS} entries,
+     *         or the move would make a user report to themselves or to someone below them
+     * @throws RuntimeException if the manager does not exist
+     */
+    @Transactional
+    public BulkUpdateResult assignManager(List<Integer> ids, Integer managerId) {
+        if (ids == null || ids.isEmpty() || ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("ids must be a non-empty list of user ids");
+        }
+        if (ids.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " users can be moved at once");
+        }
+        lockHierarchy();
+
+        List<Integer> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Integer, Integer> currentManagers = new HashMap<>();
+        for (Object[] row : userRepository.findManagerIds(distinct)) {
+            currentManagers.put((Integer) row[0], (Integer) row[1]);
+        }
+        List<Integer> found = distinct.stream().filter(currentManagers::containsKey).collect(Collectors.toList());
+        List<Integer> notFound = distinct.stream().filter(id -> !currentManagers.containsKey(id)).collect(Collectors.toList());
+
+        if (managerId != null && !found.isEmpty()) {
+            requireUser(managerId);
+            if (currentManagers.containsKey(managerId) || reportingLineRepository.isBelowAny(found, managerId)) {
+                throw new IllegalArgumentException("A user cannot report to themselves or to someone below them");
+            }
+        }
+
+        List<Integer> moving = found.stream()
+            .filter(id -> !Objects.equals(currentManagers.get(id), managerId))
+            .collect(Collectors.toList());
+        if (!moving.isEmpty()) {
+            move(moving, managerId);
+            recordBulkChange();
+        }
+        System.out.println("🧭 Moved " + moving.size() + " of " + found.size() + " selected user(s) "
+                + (managerId != null ? "under manager " + managerId : "to the top of the hierarchy"));
+        return new BulkUpdateResult(found.size(), moving.size(), notFound);
+    }
+
+    /**
+     * Takes a user out of the hierarchy ahead of deleting it: its direct
+     * reports move up to its manager, and it no longer reports to anyone. Must run
+     * inside the transaction that deletes the user.
+     *
+     * @return The user's former position, or null if the user does not exist
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Position removeFromHierarchy(int userId) {
+        List<Object[]> rows = userRepository.findManagerIds(List.of(userId));
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Integer managerId = (Integer) rows.get(0)[1];
+        List<Integer> directReports = userRepository.findDirectReportIds(userId);
+        if (managerId == null && directReports.isEmpty()) {
+            return new Position(null, List.of());
+        }
+
+        lockHierarchy();
+        if (!directReports.isEmpty()) {
+            move(directReports, managerId);
+        }
+        if (managerId != null) {
+            reportingLineRepository.deleteLinksAbove(userId);
+            userRepository.clearManager(List.of(userId));
+        }
+        recordBulkChange();
+        return new Position(managerId, directReports);
+    }
+
+    /**
+     * Puts a new user where a deleted one was, e.g. after a type change
+     * recreated the employee under a new id. Must run inside the transaction
+     * that created the user.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void restorePosition(int userId, Position position) {
+        if (position == null || (position.managerId() == null && position.directReports().isEmpty())) {
+            return;
+        }
+        lockHierarchy();
+        if (position.managerId() != null) {
+            move(List.of(userId), position.managerId());
+        }
+        if (!position.directReports().isEmpty()) {
+            move(position.directReports(), userId);
+        }
+        recordBulkChange();
+    }
+
+    // Moves in passes, deepest first: a pass holds the users with no other still-to-move user
+    // below them, so its subtrees never overlap and each pass is one detach and one attach
+    private void move(List<Integer> ids, Integer managerId) {
+        Map<Integer, Set<Integer>> below = new HashMap<>();
+        for (ReportingLine link : reportingLineRepository.findLinksAmong(ids)) {
+            below.computeIfAbsent(link.getAncestorId(), id -> new HashSet<>()).add(link.getDescendantId());
+        }
+
+        Set<Integer> remaining = new LinkedHashSet<>(ids);
+        while (!remaining.isEmpty()) {
+            List<Integer> pass = remaining.stream()
+                .filter(id -> below.getOrDefault(id, Set.of()).stream().noneMatch(remaining::contains))
+                .collect(Collectors.toList());
+            reportingLineRepository.detachSubtrees(pass);
+            if (managerId != null) {
+                reportingLineRepository.attachSubtrees(pass, managerId);
+                userRepository.updateManager(pass, managerId);
+            } else {
+                userRepository.clearManager(pass);
+            }
+            pass.forEach(remaining::remove);
+        }
+    }
+
+    private void lockHierarchy() {
+        dataVersionService.incrementAndLock(HIERARCHY);
+    }
+
+    private void recordBulkChange() {
+        // manager_id is set by bulk UPDATE, bypassing the entity listeners
+        changeStreamService.recordBulkChange(ChangeEvent.EMPLOYEE);
+        directorySyncService.recordBulkChange(DirectorySyncService.USERS);
+    }
+
+    // ============ Full Rebuild ============
+
+    /**
+     * Rebuilds the closure table from users.manager_id, one INSERT ... SELECT
+     * per level of the hierarchy
+     *
+     * @return number of reporting_lines rows written
+     * @throws IllegalStateException if manager_id holds a cycle
+     */
+    @Transactional
+    public long rebuildClosure() {
+        lockHierarchy();
+        reportingLineRepository.deleteAllLinks();
+        long total = 0;
+        int written = reportingLineRepository.insertDirectLinks();
+        for (int depth = 1; written > 0; depth++) {
+            if (depth > MAX_LEVELS) {
+                throw new IllegalStateException("Reporting lines are more than " + MAX_LEVELS + " levels deep; manager_id holds a cycle");
+            }
+            total += written;
+            written = reportingLineRepository.insertLinksBelow(depth);
+        }
+        System.out.println("🧭 Reporting lines rebuilt: " + total + " rows");
+        return total;
+    }
+
+    /**
+     * Builds the closure table at startup when it is still empty but managers
+     * are set, e.g. after manager_id was loaded by SQL outside the application
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeClosure() {
+        if (reportingLineRepository.count() == 0 && userRepository.existsWithManager()) {
+            requiresNew.executeWithoutResult(status -> rebuildClosure());
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Entities.Employee;
+import com.dmcdesigns.capstone.Reports.EmployeeColumnarSnapshot;
+import com.dmcdesigns.capstone.Reports.SalarySketch;
+import com.dmcdesigns.capstone.Repositories.EmployeeRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Salary percentiles and histograms per department and role, served from
+ * in-memory {@link SalarySketch}es instead of scanning the employee table.
+ * Employee writes apply their before/after salary to the sketches once the
+ * transaction commits; a scheduled rebuild from the table corrects drift from
+ * writes made on other nodes or through bulk updates.
+ * <p>
+ * A rebuild reads the table and swaps the sketches in while holding the write
+ * side of commitLock; a transaction holds the read side from just before it
+ * commits until its changes are applied. So every change is either committed
+ * and applied before the rebuild reads, or committed and applied after the
+ * swap, never lost or counted twice.
+ *
+ * @author DMC Designs
+ */
+@Service
+public class SalaryDistributionService {
+
+    public static final String GROUP_BY_DEPARTMENT = "department";
+    public static final String GROUP_BY_ROLE = "role";
+
+    private static final double[] PERCENTILES = { 0.10, 0.25, 0.50, 0.75, 0.90 };
+    private static final String[] PERCENTILE_NAMES = { "p10", "p25", "median", "p75", "p90" };
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private static final String RESOURCE_KEY = SalaryDistributionService.class.getName() + ".pending";
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReentrantReadWriteLock commitLock = new ReentrantReadWriteLock();
+
+    // Guarded by this
+    private SalarySketch overall = new SalarySketch();
+    private Map<String, SalarySketch> byDepartment = new TreeMap<>();
+    private Map<String, SalarySketch> byRole = new TreeMap<>();
+
+    public SalaryDistributionService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // A rebuild run after another transaction commits must not join that finished transaction
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * The salary, department and role an employee contributes to the sketches
+     */
+    public record Contribution(BigDecimal salary, String department, String role) {
+        public static Contribution of(Employee employee) {
+            return new Contribution(employee.getSalary(), employee.getDepartment(), employee.getRole());
+        }
+    }
+
+    // ============ Maintenance ============
+
+    /**
+     * The sketch changes of one transaction, applied after it commits while
+     * keeping a rebuild from reading in between the commit and the apply
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+        final List<Runnable> changes = new ArrayList<>();
+        boolean rebuild;
+        boolean locked;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            commitLock.readLock().lock();
+            locked = true;
+        }
+
+        @Override
+        public void afterCommit() {
+            changes.forEach(Runnable::run);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(RESOURCE_KEY);
+            if (locked) {
+                locked = false;
+                commitLock.readLock().unlock();
+            }
+            // After unlocking, since the rebuild takes the write side
+            if (rebuild && status == STATUS_COMMITTED) {
+                rebuild();
+            }
+        }
+    }
+
+    /**
+     * Moves an employee's contribution from before to after once the current
+     * transaction commits. Either side may be null for a create or delete.
+     */
+    public void recordChange(Contribution before, Contribution after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        PendingChanges pending = pendingChanges();
+        if (pending == null) {
+            apply(before, after);
+            return;
+        }
+        pending.changes.add(() -> apply(before, after));
+    }
+
+    /**
+     * Merges one department's sketch into another once the current transaction
+     * commits, for a bulk move of every employee between the two names
+     */
+    public void recordDepartmentMove(String fromDepartment, String toDepartment) {
+        if (Objects.equals(groupKey(fromDepartment), groupKey(toDepartment))) {
+            return;
+        }
+        PendingChanges pending = pendingChanges();
+        if (pending == null) {
+            moveDepartment(fromDepartment, toDepartment);
+            return;
+        }
+        pending.changes.add(() -> moveDepartment(fromDepartment, toDepartment));
+    }
+
+    /**
+     * Rebuilds every sketch once the current transaction commits, for a bulk
+     * UPDATE whose before values were never loaded
+     */
+    public void rebuildAfterCommit() {
+        PendingChanges pending = pendingChanges();
+        if (pending == null) {
+            rebuild();
+            return;
+        }
+        pending.rebuild = true;
+    }
+
+    // The current transaction's changes, or null outside a transaction
+    private PendingChanges pendingChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(RESOURCE_KEY);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(RESOURCE_KEY, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private synchronized void moveDepartment(String fromDepartment, String toDepartment) {
+        SalarySketch moved = byDepartment.remove(groupKey(fromDepartment));
+        if (moved != null) {
+            byDepartment.computeIfAbsent(groupKey(toDepartment), k -> new SalarySketch()).merge(moved);
+        }
+    }
+
+    private synchronized void apply(Contribution before, Contribution after) {
+        if (before != null && before.salary() != null) {
+            long cents = toCents(before.salary());
+            overall.remove(cents);
+            removeFrom(byDepartment, groupKey(before.department()), cents);
+            removeFrom(byRole, groupKey(before.role()), cents);
+        }
+        if (after != null && after.salary() != null) {
+            long cents = toCents(after.salary());
+            overall.add(cents);
+            byDepartment.computeIfAbsent(groupKey(after.department()), k -> new SalarySketch()).add(cents);
+            byRole.computeIfAbsent(groupKey(after.role()), k -> new SalarySketch()).add(cents);
+        }
+    }
+
+    private static void removeFrom(Map<String, SalarySketch> sketches, String key, long cents) {
+        SalarySketch sketch = sketches.get(key);
+        if (sketch != null) {
+            sketch.remove(cents);
+            if (sketch.isEmpty()) {
+                sketches.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds every sketch from the employee table and swaps them in.
+     * Commits that record changes wait until the swap is done.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.reports.salary-distribution.rebuild-cron:0 15 3 * * *}")
+    public void rebuild() {
+        SalarySketch newOverall = new SalarySketch();
+        Map<String, SalarySketch> newByDepartment = new TreeMap<>();
+        Map<String, SalarySketch> newByRole = new TreeMap<>();
+
+        commitLock.writeLock().lock();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = employeeRepository.streamAnalyticsRows()) {
+                    rows.forEach(row -> {
+                        if (row[1] == null) {
+                            return;
+                        }
+                        long cents = toCents((BigDecimal) row[1]);
+                        newOverall.add(cents);
+                        newByDepartment.computeIfAbsent(groupKey((String) row[2]), k -> new SalarySketch()).add(cents);
+                        newByRole.computeIfAbsent(groupKey((String) row[3]), k -> new SalarySketch()).add(cents);
+                    });
+                }
+            });
+
+            synchronized (this) {
+                overall = newOverall;
+                byDepartment = newByDepartment;
+                byRole = newByRole;
+            }
+        } finally {
+            commitLock.writeLock().unlock();
+        }
+        System.out.println("📊 Salary distribution sketches rebuilt: " + newOverall.getCount() + " salaries");
+    }
+
+    // ============ Queries ============
+
+    /**
+     * Percentiles and histogram overall and for each department or role
+     *
+     * @param groupBy "department" or "role"
+     * @param bins Number of histogram bins
+     */
+    public synchronized Map<String, Object> getSalaryDistribution(String groupBy, int bins) {
+        Map<String, SalarySketch> groups;
+        if (GROUP_BY_DEPARTMENT.equalsIgnoreCase(groupBy)) {
+            groups = byDepartment;
+        } else if (GROUP_BY_ROLE.equalsIgnoreCase(groupBy)) {
+            groups = byRole;
+        } else {
+            throw new IllegalArgumentException("groupBy must be 'department' or 'role'");
+        }
+
+        List<Map<String, Object>> groupSummaries = new ArrayList<>();
+        for (Map.Entry<String, SalarySketch> entry : groups.entrySet()) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("name", entry.getKey());
+            summary.putAll(summarize(entry.getValue(), bins));
+            groupSummaries.add(summary);
+        }
+
+        Map<String, Object> distribution = new LinkedHashMap<>();
+        distribution.put("groupBy", groupBy.toLowerCase());
+        distribution.put("relativeAccuracy", SalarySketch.DEFAULT_RELATIVE_ACCURACY);
+        distribution.put("overall", summarize(overall, bins));
+        distribution.put("groups", groupSummaries);
+        return distribution;
+    }
+
+    private static Map<String, Object> summarize(SalarySketch sketch, int bins) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", sketch.getCount());
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            summary.put(PERCENTILE_NAMES[i], sketch.quantile(PERCENTILES[i]));
+        }
+        summary.put("histogram", sketch.histogram(bins));
+        return summary;
+    }
+
+    // TreeMap keys cannot be null
+    private static String groupKey(String value) {
+        return value != null ? value : "Unassigned";
+    }
+
+    private static long toCents(BigDecimal salary) {
+        return EmployeeColumnarSnapshot.toCents(salary);
+    }
+}
@@ -4,6 +4,7 @@ import com.dmcdesigns.capstone.Entities.User;
 import com.dmcdesigns.capstone.Repositories.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +15,9 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ReportingLineService reportingLineService;
+
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
@@ -42,7 +46,9 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    @Transactional
     public void deleteUser(Integer id) {
+        reportingLineService.removeFromHierarchy(id);
         userRepository.deleteById(id);
     }
 
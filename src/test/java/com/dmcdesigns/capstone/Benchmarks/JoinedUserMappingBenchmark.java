@@ -0,0 +1,15 @@
+package com.dmcdesigns.capstone.Benchmarks;
+
+import com.dmcdesigns.capstone.Config.UserInheritanceMapping;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+/**
+ * {@link UserMappingBenchmark} against the default joined-table mapping
+ *
+ * @author DMC Designs
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import(UserInheritanceMapping.class)
+class JoinedUserMappingBenchmark extends UserMappingBenchmark {
+}
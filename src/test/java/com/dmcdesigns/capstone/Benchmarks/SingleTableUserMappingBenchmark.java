@@ -0,0 +1,18 @@
+package com.dmcdesigns.capstone.Benchmarks;
+
+import com.dmcdesigns.capstone.Config.UserInheritanceMapping;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+/**
+ * {@link UserMappingBenchmark} against META-INF/orm-single-table.xml
+ *
+ * @author DMC Designs
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.jpa.mapping-resources=META-INF/orm-single-table.xml"
+})
+@Import(UserInheritanceMapping.class)
+class SingleTableUserMappingBenchmark extends UserMappingBenchmark {
+}
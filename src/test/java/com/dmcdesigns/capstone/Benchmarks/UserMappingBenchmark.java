@@ -0,0 +1,137 @@
+package com.dmcdesigns.capstone.Benchmarks;
+
+import com.dmcdesigns.capstone.Config.UserInheritanceMapping;
+import com.dmcdesigns.capstone.Repositories.EmployeeRepository;
+import com.dmcdesigns.capstone.Repositories.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read latency of the joined-table and single-table User mappings over the
+ * same 100k users. Not part of the regular test run (surefire only picks up
+ * *Test classes); run each mapping in its own JVM so neither gets the
+ * other's JIT warm-up, e.g. {@code mvn test -Dtest=JoinedUserMappingBenchmark}
+ * then {@code -Dtest=SingleTableUserMappingBenchmark}, and compare the printed
+ * median and p95 per operation.
+ *
+ * @author DMC Designs
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Transactional(readOnly = true)
+abstract class UserMappingBenchmark {
+
+    static final int USERS = 100_000;
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private UserInheritanceMapping userInheritanceMapping;
+
+    private final Random random = new Random(42);
+    private final List<String> results = new ArrayList<>();
+
+    private String mapping() {
+        return userInheritanceMapping.isSingleTable() ? "single-table" : "joined";
+    }
+
+    // 80% employees, 15% managers, 5% admins across 25 departments
+    @BeforeAll
+    void seedUsers() {
+        long start = System.currentTimeMillis();
+        String type = "CASE WHEN MOD(X, 20) = 0 THEN 'ADMIN' WHEN MOD(X, 20) < 4 THEN 'MANAGER' ELSE 'EMPLOYEE' END";
+        String userColumns = "user_type, first_name, last_name, email, phone_number, username, password, department";
+        String userValues = type + ", 'First' || X, 'Last' || X, 'user' || X || '@ourcompany.com', '555-010-0000', "
+            + "'user' || X, 'password', 'Dept ' || MOD(X, 25)";
+        if (userInheritanceMapping.isSingleTable()) {
+            jdbcTemplate.update("INSERT INTO users (" + userColumns + ", role, has_access, salary, hire_date) "
+                + "SELECT " + userValues + ", 'Employee', TRUE, 40000 + MOD(X, 1000) * 60, '2020-01-01' "
+                + "FROM SYSTEM_RANGE(1, " + USERS + ")");
+        } else {
+            jdbcTemplate.update("INSERT INTO users (" + userColumns + ") SELECT " + userValues
+                + " FROM SYSTEM_RANGE(1, " + USERS + ")");
+            jdbcTemplate.update("INSERT INTO employee (id, role, has_access, salary, hire_date) "
+                + "SELECT id, 'Employee', TRUE, 40000 + MOD(id, 1000) * 60, '2020-01-01' FROM users");
+            jdbcTemplate.update("INSERT INTO manager (id) SELECT id FROM users WHERE user_type = 'MANAGER'");
+            jdbcTemplate.update("INSERT INTO admin (id) SELECT id FROM users WHERE user_type = 'ADMIN'");
+        }
+        jdbcTemplate.execute("ANALYZE");
+        System.out.println("🌱 [" + mapping() + "] seeded " + USERS + " users in "
+            + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    @AfterAll
+    void printResults() {
+        System.out.println("📏 User mapping benchmark, " + USERS + " users:");
+        results.forEach(System.out::println);
+    }
+
+    @Test
+    void listEmployeeSummaries() {
+        measure("list /api/employees summaries", () -> employeeRepository.findEmployeeSummaries(
+            PageRequest.of(random.nextInt(500), 20, Sort.by("lastName"))).getNumberOfElements());
+    }
+
+    @Test
+    void listUserEntities() {
+        measure("list users (entities)", () -> userRepository.findAllUsersPaginated(
+            PageRequest.of(random.nextInt(500), 20)).getNumberOfElements());
+    }
+
+    @Test
+    void searchUsers() {
+        measure("search users by name", () -> userRepository.searchUsers(
+            "last" + (1000 + random.nextInt(9000)), PageRequest.of(0, 20)).getNumberOfElements());
+    }
+
+    @Test
+    void authLookupByUsername() {
+        measure("auth lookup by username", () ->
+            userRepository.findByUsername("user" + (1 + random.nextInt(USERS))) != null ? 1 : 0);
+    }
+
+    private void measure(String operation, IntSupplier query) {
+        long[] nanos = new long[ITERATIONS];
+        for (int i = -WARMUP; i < ITERATIONS; i++) {
+            // Every iteration reads from the database, not the persistence context
+            entityManager.clear();
+            long start = System.nanoTime();
+            int found = query.getAsInt();
+            long elapsed = System.nanoTime() - start;
+            assertThat(found).isPositive();
+            if (i >= 0) {
+                nanos[i] = elapsed;
+            }
+        }
+        Arrays.sort(nanos);
+        results.add(String.format("   [%-12s] %-32s median %8.1f µs   p95 %8.1f µs", mapping(), operation,
+            nanos[ITERATIONS / 2] / 1000.0, nanos[ITERATIONS * 95 / 100] / 1000.0));
+    }
+}
@@ -0,0 +1,70 @@
+package com.dmcdesigns.capstone.Controllers;
+
+import com.dmcdesigns.capstone.Security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Runs employee endpoints through the full security filter chain against the seeded data
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class EmployeeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void testMultiGetReturnsSummariesWithoutCredentials() throws Exception {
+        mockMvc.perform(get("/api/employees").param("ids", "1,999999")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken("admin")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(1))
+            .andExpect(jsonPath("$[0].found").value(true))
+            .andExpect(jsonPath("$[0].item.email").value("admin@ourcompany.com"))
+            .andExpect(jsonPath("$[0].item.userType").value("ADMIN"))
+            .andExpect(jsonPath("$[0].item.password").doesNotExist())
+            .andExpect(jsonPath("$[0].item.username").doesNotExist())
+            .andExpect(jsonPath("$[1].found").value(false))
+            .andExpect(jsonPath("$[1].item").doesNotExist());
+    }
+
+    @Test
+    void testCurrentEmployeeIsLookedUpFromTheToken() throws Exception {
+        mockMvc.perform(get("/api/employees/me")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken("employee")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.email").value("employee@ourcompany.com"))
+            .andExpect(jsonPath("$.department").value("ENGINEERING"))
+            .andExpect(jsonPath("$.password").doesNotExist());
+    }
+
+    @Test
+    void testNonAdminsCannotPatchAccessOrAnotherUsersPassword() throws Exception {
+        String employeeToken = "Bearer " + jwtUtil.generateToken("employee");
+        mockMvc.perform(patch("/api/employees/1").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"hasAccess\": false}")
+                .header(HttpHeaders.AUTHORIZATION, employeeToken))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(patch("/api/employees/1").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"password\": \"takeover123\"}")
+                .header(HttpHeaders.AUTHORIZATION, employeeToken))
+            .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/employees").param("ids", "1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken("admin")))
+            .andExpect(jsonPath("$[0].item.hasAccess").value(true));
+    }
+}
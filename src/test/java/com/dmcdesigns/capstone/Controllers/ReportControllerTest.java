@@ -0,0 +1,59 @@
+package com.dmcdesigns.capstone.Controllers;
+
+import com.dmcdesigns.capstone.Security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Runs reports through the full security filter chain with a bearer token, including
+ * the async dispatch that writes a rendered report
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void testAsyncPdfReportIsReturnedToAnAuthenticatedAdmin() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/reports/salary-analysis").param("fresh", "true")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken("admin")))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/pdf"));
+    }
+
+    @Test
+    void testAsyncChartIsReturnedToAnAuthenticatedAdmin() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/reports/charts/performance-ratings")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken("admin")))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("image/png"));
+    }
+
+    @Test
+    void testReportsStillRequireAToken() throws Exception {
+        mockMvc.perform(get("/api/reports/salary-analysis"))
+            .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,52 @@
+package com.dmcdesigns.capstone.Entities;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerformanceRollupTest {
+
+    @Test
+    void add_ShouldTrackAverageDistributionAndStatus() {
+        PerformanceRollup rollup = new PerformanceRollup("IT", "Annual");
+
+        rollup.add(4, "DRAFT", 1);
+        rollup.add(2, "SUBMITTED", 1);
+        rollup.add(0, "DRAFT", 1);
+
+        assertEquals(3, rollup.getReviewCount());
+        assertEquals(2, rollup.getRatedCount());
+        assertEquals(3.0, rollup.getAverageRating());
+        assertEquals(1L, rollup.getRatingDistribution().get(4));
+        assertEquals(2L, rollup.getStatusCounts().get("DRAFT"));
+    }
+
+    @Test
+    void add_WithNegativeCount_ShouldReverseContribution() {
+        PerformanceRollup rollup = new PerformanceRollup("IT", "Annual");
+        rollup.add(5, "DRAFT", 1);
+
+        // Status change DRAFT -> SUBMITTED
+        rollup.add(5, "DRAFT", -1);
+        rollup.add(5, "SUBMITTED", 1);
+
+        assertEquals(1, rollup.getReviewCount());
+        assertEquals(0L, rollup.getStatusCounts().get("DRAFT"));
+        assertEquals(1L, rollup.getStatusCounts().get("SUBMITTED"));
+        assertEquals(5.0, rollup.getAverageRating());
+    }
+
+    @Test
+    void copyTotalsFrom_ShouldMatchSource() {
+        PerformanceRollup stale = new PerformanceRollup("IT", "Annual");
+        stale.add(1, "DRAFT", 3);
+        PerformanceRollup expected = new PerformanceRollup("IT", "Annual");
+        expected.add(3, "APPROVED", 2);
+
+        assertFalse(stale.hasSameTotals(expected));
+        stale.copyTotalsFrom(expected);
+
+        assertTrue(stale.hasSameTotals(expected));
+        assertNull(new PerformanceRollup("HR", "Annual").getAverageRating());
+    }
+}
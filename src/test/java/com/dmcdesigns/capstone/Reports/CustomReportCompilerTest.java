@@ -0,0 +1,94 @@
+package com.dmcdesigns.capstone.Reports;
+
+import com.dmcdesigns.capstone.Entities.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+class CustomReportCompilerTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private CustomReportCompiler compiler;
+
+    @BeforeEach
+    void setUp() {
+        compiler = new CustomReportCompiler(entityManager.getEntityManager().getEntityManagerFactory().getCriteriaBuilder());
+
+        persistEmployee("alice", "Engineering", "Developer", "80000.00");
+        persistEmployee("bob", "Engineering", "Developer", "60000.00");
+        persistEmployee("carol", "Marketing", "Analyst", "55000.00");
+    }
+
+    @Test
+    void testFilteredColumnsReportReusesCompiledQuery() {
+        CompiledReport report = compiler.compile(new CustomReportSpec("Engineers", null, "employee",
+            List.of(new CustomReportSpec.Filter("department", "eq", "Engineering"),
+                    new CustomReportSpec.Filter("salary", "gte", "70000")),
+            null, null, List.of("firstName", "salary"), null, null));
+
+        assertThat(report.getColumnLabels()).containsExactly("firstName", "salary");
+        List<Map<String, Object>> rows = report.execute(entityManager.getEntityManager());
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)).containsEntry("firstName", "alice");
+
+        // Running again binds the same parameters on the same compiled query
+        assertThat(report.execute(entityManager.getEntityManager())).isEqualTo(rows);
+    }
+
+    @Test
+    void testGroupedAggregatesAreSortedByAlias() {
+        CompiledReport report = compiler.compile(new CustomReportSpec("Salary by department", null, "employee",
+            List.of(new CustomReportSpec.Filter("department", "in", List.of("Engineering", "Marketing"))),
+            List.of("department"),
+            List.of(new CustomReportSpec.Aggregate("count", null, "headcount"),
+                    new CustomReportSpec.Aggregate("sum", "salary", "totalSalary")),
+            null, List.of(new CustomReportSpec.Sort("totalSalary", "desc")), 10));
+
+        List<Map<String, Object>> rows = report.execute(entityManager.getEntityManager());
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0)).containsEntry("department", "Engineering").containsEntry("headcount", 2L);
+        assertThat((BigDecimal) rows.get(0).get("totalSalary")).isEqualByComparingTo("140000");
+        assertThat(rows.get(1)).containsEntry("department", "Marketing");
+        assertThat(report.getPdfColumns()).extracting(ReportColumn::getHeader)
+            .containsExactly("department", "headcount", "totalSalary");
+    }
+
+    @Test
+    void testInvalidDefinitionsAreRejected() {
+        assertThatThrownBy(() -> compiler.compile(new CustomReportSpec("Bad", null, "employee",
+            List.of(new CustomReportSpec.Filter("password", "eq", "x")), null, null, null, null, null)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Unknown field 'password'");
+        assertThatThrownBy(() -> compiler.compile(new CustomReportSpec("Bad", null, "employee",
+            null, List.of("department"), List.of(new CustomReportSpec.Aggregate("avg", "role", null)), null, null, null)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("numeric field");
+        assertThatThrownBy(() -> compiler.compile(new CustomReportSpec("Bad", null, "employee",
+            List.of(new CustomReportSpec.Filter("salary", "gt", "lots")), null, null, null, null, null)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Invalid value");
+        assertThatThrownBy(() -> compiler.compile(new CustomReportSpec("Bad", null, "invoice",
+            null, null, null, null, null, null)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void persistEmployee(String name, String department, String role, String salary) {
+        Employee employee = new Employee(name, "Tester", name + "@company.com", "555-0000", name, "password123", department);
+        employee.setRole(role);
+        employee.setSalary(new BigDecimal(salary));
+        entityManager.persistAndFlush(employee);
+    }
+}
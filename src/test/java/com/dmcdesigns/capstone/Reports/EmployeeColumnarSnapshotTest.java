@@ -0,0 +1,76 @@
+package com.dmcdesigns.capstone.Reports;
+
+import com.dmcdesigns.capstone.Reports.EmployeeColumnarSnapshot.Row;
+import com.dmcdesigns.capstone.Reports.EmployeeColumnarSnapshot.SalaryGroup;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class EmployeeColumnarSnapshotTest {
+
+    private static final List<Row> ROWS = List.of(
+        new Row(1, new BigDecimal("50000.00"), "IT", "Developer"),
+        new Row(2, new BigDecimal("70000.50"), "IT", "Lead"),
+        new Row(3, new BigDecimal("40000.00"), "HR", "Developer"),
+        new Row(4, null, "HR", "Intern")
+    );
+
+    @Test
+    void testGroupsByDepartmentAndRole() {
+        EmployeeColumnarSnapshot snapshot = EmployeeColumnarSnapshot.of(ROWS);
+
+        assertThat(snapshot.size()).isEqualTo(4);
+        assertThat(snapshot.totalSalaryCents()).isEqualTo(16_000_050L);
+        assertThat(snapshot.departmentCount()).isEqualTo(2);
+
+        List<SalaryGroup> departments = snapshot.byDepartment();
+        assertThat(departments).extracting(SalaryGroup::name).containsExactly("HR", "IT");
+        SalaryGroup it = departments.get(1);
+        assertThat(it.headcount()).isEqualTo(2);
+        assertThat(it.getTotal()).isEqualByComparingTo("120000.50");
+        assertThat(it.getAverage()).isEqualByComparingTo("60000.25");
+        assertThat(it.getMin()).isEqualByComparingTo("50000.00");
+        assertThat(it.getMax()).isEqualByComparingTo("70000.50");
+
+        assertThat(snapshot.byRole()).extracting(SalaryGroup::name, SalaryGroup::headcount)
+            .containsExactly(
+                tuple("Developer", 2L),
+                tuple("Intern", 1L),
+                tuple("Lead", 1L));
+    }
+
+    @Test
+    void testWithChangesLeavesOriginalUntouched() {
+        EmployeeColumnarSnapshot original = EmployeeColumnarSnapshot.of(ROWS);
+
+        // Employee 2 moves to HR with a raise, employee 3 leaves, employee 5 joins a new department
+        EmployeeColumnarSnapshot updated = original.withChanges(List.of(
+            new Row(2, new BigDecimal("75000.00"), "HR", "Lead"),
+            new Row(5, new BigDecimal("30000.00"), "Sales", "Rep")
+        ), Set.of(3));
+
+        assertThat(updated.size()).isEqualTo(4);
+        assertThat(updated.byDepartment()).extracting(SalaryGroup::name, SalaryGroup::headcount)
+            .containsExactly(
+                tuple("HR", 2L),
+                tuple("IT", 1L),
+                tuple("Sales", 1L));
+        assertThat(updated.totalSalaryCents()).isEqualTo(15_500_000L);
+
+        assertThat(original.size()).isEqualTo(4);
+        assertThat(original.totalSalaryCents()).isEqualTo(16_000_050L);
+        assertThat(original.byDepartment()).hasSize(2);
+    }
+
+    @Test
+    void testToCentsRoundsHalfUp() {
+        assertThat(EmployeeColumnarSnapshot.toCents(new BigDecimal("12.345"))).isEqualTo(1235L);
+        assertThat(EmployeeColumnarSnapshot.toCents(new BigDecimal("100"))).isEqualTo(10_000L);
+        assertThat(EmployeeColumnarSnapshot.toCents(null)).isZero();
+    }
+}
@@ -0,0 +1,129 @@
+package com.dmcdesigns.capstone.Reports;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PdfReportLayoutTest {
+
+    private static final List<ReportColumn<Integer>> COLUMNS = List.of(
+        new ReportColumn<>("Number", 60, String::valueOf),
+        new ReportColumn<>("Label", 80, n -> "Row label number " + n)
+    );
+
+    @Test
+    void testLongTablesPaginateAndRepeatHeader() throws IOException {
+        byte[] pdf;
+        try (PdfReportLayout layout = new PdfReportLayout("Test Report")) {
+            PdfReportLayout.TableWriter<Integer> table = layout.table(COLUMNS);
+            table.writeRows(IntStream.rangeClosed(1, 200).iterator());
+            assertThat(table.getRowCount()).isEqualTo(200);
+            pdf = layout.toByteArray();
+        }
+
+        try (PDDocument document = Loader.loadPDF(pdf)) {
+            assertThat(document.getNumberOfPages()).isGreaterThan(1);
+
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setStartPage(2);
+            stripper.setEndPage(2);
+            assertThat(stripper.getText(document)).contains("Number");
+        }
+    }
+
+    @Test
+    void testFitTruncatesToColumnWidth() throws IOException {
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        String text = "A very long department name that cannot possibly fit";
+
+        String fitted = PdfReportLayout.fit(font, 9, text, 80);
+
+        assertThat(fitted).endsWith("...");
+        assertThat(font.getStringWidth(fitted) * 9 / 1000f).isLessThanOrEqualTo(80);
+        assertThat(PdfReportLayout.fit(font, 9, "Short", 80)).isEqualTo("Short");
+    }
+
+    @Test
+    void testUnsupportedCharactersAreReplaced() throws IOException {
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+
+        assertThat(PdfReportLayout.encodable(font, "Zoë 中")).isEqualTo("Zoë ?");
+        assertThat(PdfReportLayout.encodable(font, null)).isEmpty();
+    }
+
+    @Test
+    void testCompactModeSharesImagesAndShrinksOutput() throws IOException {
+        BufferedImage chart = chartImage("Salaries", 400, 200);
+        BufferedImage otherChart = chartImage("Headcount", 400, 150);
+
+        // Warm up both paths once so the timings below compare steady-state rendering
+        render(PdfReportLayout.OutputMode.STANDARD, chart, otherChart);
+        render(PdfReportLayout.OutputMode.COMPACT, chart, otherChart);
+
+        long start = System.nanoTime();
+        byte[] standard = render(PdfReportLayout.OutputMode.STANDARD, chart, otherChart);
+        long standardMillis = (System.nanoTime() - start) / 1_000_000;
+        start = System.nanoTime();
+        byte[] compact = render(PdfReportLayout.OutputMode.COMPACT, chart, otherChart);
+        long compactMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("📊 PDF output: STANDARD " + standard.length + " bytes in " + standardMillis + " ms, COMPACT "
+            + compact.length + " bytes in " + compactMillis + " ms");
+        assertThat(compact.length).isLessThan(standard.length);
+
+        try (PDDocument document = Loader.loadPDF(compact)) {
+            assertThat(document.getNumberOfPages()).isGreaterThan(1);
+            assertThat(new PDFTextStripper().getText(document)).contains("300");
+        }
+    }
+
+    @Test
+    void testCompactModeEmbedsIdenticalImagesOnce() throws IOException {
+        BufferedImage chart = chartImage("Salaries", 400, 200);
+
+        try (PdfReportLayout layout = new PdfReportLayout("Test Report", PdfReportLayout.OutputMode.COMPACT)) {
+            layout.image(chart, 400, 200);
+            layout.image(chartImage("Salaries", 400, 200), 400, 200);
+            layout.image(chartImage("Headcount", 400, 200), 400, 200);
+
+            assertThat(layout.getEmbeddedImageCount()).isEqualTo(2);
+        }
+    }
+
+    // A long table with the same chart repeated on several pages, like the department bundle reports
+    private static byte[] render(PdfReportLayout.OutputMode mode, BufferedImage chart, BufferedImage otherChart)
+            throws IOException {
+        try (PdfReportLayout layout = new PdfReportLayout("Test Report", mode)) {
+            for (int section = 0; section < 3; section++) {
+                layout.image(chart, 400, 200);
+                layout.image(otherChart, 400, 150);
+                layout.table(COLUMNS).writeRows(IntStream.rangeClosed(1, 300).iterator());
+            }
+            return layout.toByteArray();
+        }
+    }
+
+    private static BufferedImage chartImage(String title, int width, int height) {
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        dataset.addValue(72000, "Average", "Engineering");
+        dataset.addValue(58000, "Average", "Sales");
+        dataset.addValue(64000, "Average", "Operations");
+        JFreeChart chart = ChartFactory.createBarChart(title, "Department", "Salary", dataset,
+            PlotOrientation.VERTICAL, false, false, false);
+        return chart.createBufferedImage(width, height);
+    }
+}
@@ -0,0 +1,80 @@
+package com.dmcdesigns.capstone.Reports;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SalarySketchTest {
+
+    @Test
+    void testQuantilesWithinRelativeAccuracy() {
+        SalarySketch sketch = new SalarySketch();
+        // Salaries $30,000.00 to $129,999.00 in $1 steps
+        for (long dollars = 30_000; dollars < 130_000; dollars++) {
+            sketch.add(dollars * 100);
+        }
+
+        assertThat(sketch.getCount()).isEqualTo(100_000);
+        assertRelativelyClose(sketch.quantile(0.10), 40_000);
+        assertRelativelyClose(sketch.quantile(0.50), 80_000);
+        assertRelativelyClose(sketch.quantile(0.90), 120_000);
+    }
+
+    @Test
+    void testRemoveReversesAdd() {
+        SalarySketch sketch = new SalarySketch();
+        sketch.add(5_000_000);
+        sketch.add(7_000_000);
+
+        // Salary change from $70,000 to $90,000
+        assertThat(sketch.remove(7_000_000)).isTrue();
+        sketch.add(9_000_000);
+
+        assertThat(sketch.getCount()).isEqualTo(2);
+        assertRelativelyClose(sketch.quantile(1.0), 90_000);
+        assertThat(sketch.remove(12_300_000)).isFalse();
+    }
+
+    @Test
+    void testMergeMatchesCombinedSketch() {
+        SalarySketch engineering = new SalarySketch();
+        SalarySketch sales = new SalarySketch();
+        SalarySketch combined = new SalarySketch();
+        for (long cents = 1_000_000; cents <= 2_000_000; cents += 10_000) {
+            engineering.add(cents);
+            combined.add(cents);
+        }
+        for (long cents = 5_000_000; cents <= 6_000_000; cents += 10_000) {
+            sales.add(cents);
+            combined.add(cents);
+        }
+
+        engineering.merge(sales);
+
+        assertThat(engineering.getCount()).isEqualTo(combined.getCount());
+        assertThat(engineering.quantile(0.5)).isEqualTo(combined.quantile(0.5));
+    }
+
+    @Test
+    void testHistogramCountsEveryValue() {
+        SalarySketch sketch = new SalarySketch();
+        for (long dollars = 40_000; dollars <= 100_000; dollars += 500) {
+            sketch.add(dollars * 100);
+        }
+
+        List<SalarySketch.HistogramBin> bins = sketch.histogram(6);
+
+        assertThat(bins).hasSize(6);
+        assertThat(bins.stream().mapToLong(SalarySketch.HistogramBin::count).sum()).isEqualTo(sketch.getCount());
+        assertThat(new SalarySketch().histogram(6)).isEmpty();
+        assertThat(new SalarySketch().quantile(0.5)).isNull();
+    }
+
+    private static void assertRelativelyClose(BigDecimal actual, double expected) {
+        assertThat(actual.doubleValue()).isCloseTo(expected, within(expected * SalarySketch.DEFAULT_RELATIVE_ACCURACY));
+    }
+}
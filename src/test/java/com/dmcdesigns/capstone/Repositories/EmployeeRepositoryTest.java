@@ -1,13 +1,21 @@
 package com.dmcdesigns.capstone.Repositories;
 
+import com.dmcdesigns.capstone.DTOs.EmployeeSummary;
+import com.dmcdesigns.capstone.Entities.Department;
 import com.dmcdesigns.capstone.Entities.Employee;
+import com.dmcdesigns.capstone.Entities.Manager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
@@ -209,4 +217,76 @@ class EmployeeRepositoryTest {
         assertThat(updatedEmployee.getSalary()).isEqualTo(new BigDecimal("80000.00"));
         assertThat(updatedEmployee.getHireDate()).isEqualTo("2022-01-16");
     }
+
+    @Test
+    void testFindEmployeeSummariesPagesAndSorts() {
+        Manager manager = new Manager("Carol", "Adams", "carol.adams@company.com",
+                                      "555-3333", "carol.adams", "password789", "Engineering");
+        entityManager.persistAndFlush(manager);
+        entityManager.clear();
+
+        Page<EmployeeSummary> firstPage = employeeRepository.findEmployeeSummaries(
+            PageRequest.of(0, 2, Sort.by("lastName").ascending()));
+
+        assertThat(firstPage.getTotalElements()).isEqualTo(3);
+        assertThat(firstPage.getTotalPages()).isEqualTo(2);
+        assertThat(firstPage.getContent()).extracting(EmployeeSummary::getLastName)
+            .containsExactly("Adams", "Brown");
+        EmployeeSummary carol = firstPage.getContent().get(0);
+        assertThat(carol.getUserType()).isEqualTo("MANAGER");
+        assertThat(carol.getPosition()).isEqualTo("Manager");
+
+        Page<EmployeeSummary> bySalary = employeeRepository.findEmployeeSummaries(
+            PageRequest.of(0, 1, Sort.by("salary").descending()));
+        assertThat(bySalary.getContent().get(0).getEmail()).isEqualTo("alice.johnson@company.com");
+        assertThat(bySalary.getContent().get(0).getUserType()).isEqualTo("EMPLOYEE");
+    }
+
+    @Test
+    void testFindEmployeesByDepartmentIdFiltersOnForeignKey() {
+        Department engineering = entityManager.persistAndFlush(new Department("Engineering", "Builds the product"));
+        testEmployee1.setDepartmentRef(engineering);
+        entityManager.persistAndFlush(testEmployee1);
+        entityManager.clear();
+
+        Page<Employee> employees = employeeRepository.findEmployeesByDepartmentId(
+            engineering.getId(), PageRequest.of(0, 10));
+
+        assertThat(employees.getContent()).extracting(Employee::getUsername).containsExactly("alice.johnson");
+        assertThat(employeeRepository.getUsersByDepartmentId(engineering.getId())).hasSize(1);
+        assertThat(employeeRepository.getUsersByDepartmentId(engineering.getId() + 1)).isEmpty();
+    }
+
+    @Test
+    void testBulkAccessAndRoleUpdatesCountOnlyChangedRows() {
+        Department engineering = entityManager.persistAndFlush(new Department("Engineering", "Builds the product"));
+        testEmployee1.setDepartmentRef(engineering);
+        entityManager.persistAndFlush(testEmployee1);
+        Manager carol = new Manager("Carol", "Adams", "carol.adams@company.com",
+                                    "555-3333", "carol.adams", "password789", "Engineering");
+        carol.setDepartmentRef(engineering);
+        entityManager.persistAndFlush(carol);
+        int missingId = carol.getId() + 100;
+
+        assertThat(employeeRepository.findExistingIds(List.of(testEmployee1.getId(), carol.getId(), missingId)))
+            .containsExactlyInAnyOrder(testEmployee1.getId(), carol.getId());
+        // Carol already has access as a manager
+        assertThat(employeeRepository.updateAccessByIds(List.of(testEmployee1.getId(), carol.getId()), true))
+            .isEqualTo(1);
+        assertThat(employeeRepository.countByFilter(engineering.getId(), null)).isEqualTo(2);
+        assertThat(employeeRepository.countByFilter(engineering.getId() + 1, null)).isZero();
+        assertThat(employeeRepository.updateAccessByFilter(engineering.getId(), null, false)).isEqualTo(2);
+        assertThat(employeeRepository.updateAccessByFilter(null, "Employee", false)).isEqualTo(0);
+
+        assertThat(employeeRepository.updateRoleByFilter(null, "Employee", "Analyst")).isEqualTo(2);
+        assertThat(employeeRepository.updateRoleByIds(List.of(testEmployee2.getId()), "Analyst")).isEqualTo(0);
+
+        Employee alice = (Employee) employeeRepository.findById(testEmployee1.getId()).orElseThrow();
+        assertThat(alice.hasAccess()).isFalse();
+        assertThat(alice.getRole()).isEqualTo("Analyst");
+        Employee reloadedCarol = (Employee) employeeRepository.findById(carol.getId()).orElseThrow();
+        assertThat(reloadedCarol).isInstanceOf(Manager.class);
+        assertThat(reloadedCarol.hasAccess()).isFalse();
+        assertThat(reloadedCarol.getRole()).isEqualTo("Manager");
+    }
 }
@@ -1,5 +1,6 @@
 package com.dmcdesigns.capstone.Repositories;
 
+import com.dmcdesigns.capstone.Entities.Department;
 import com.dmcdesigns.capstone.Entities.Employee;
 import com.dmcdesigns.capstone.Entities.Manager;
 import com.dmcdesigns.capstone.Entities.PerformanceReview;
@@ -22,6 +23,8 @@ class PerformanceReviewRepositoryTest {
     @Autowired
     private PerformanceReviewRepository performanceReviewRepository;
 
+    private Department it;
+    private Department hr;
     private Employee testEmployee1;
     private Employee testEmployee2;
     private Manager testManager;
@@ -31,6 +34,9 @@ class PerformanceReviewRepositoryTest {
 
     @BeforeEach
     void setUp() {
+        it = entityManager.persist(new Department("IT", "IT department"));
+        hr = entityManager.persist(new Department("HR", "HR department"));
+
         // Create test users
         testEmployee1 = new Employee("John", "Doe", "john.doe@company.com", 
                                    "555-1111", "john.doe", "password123", "IT");
@@ -50,6 +56,7 @@ class PerformanceReviewRepositoryTest {
         review1.setReviewDate("2024-01-15");
         review1.setRating(4);
         review1.setDepartment("IT");
+        review1.setDepartmentRef(it);
         review1.setReviewPeriod("Annual");
         review1.setStatus("COMPLETED");
         review1.addReviewComment("Excellent performance");
@@ -61,6 +68,7 @@ class PerformanceReviewRepositoryTest {
         review2.setReviewDate("2024-06-15");
         review2.setRating(5);
         review2.setDepartment("IT");
+        review2.setDepartmentRef(it);
         review2.setReviewPeriod("Mid-Year");
         review2.setStatus("APPROVED");
         review2.addReviewComment("Outstanding work");
@@ -72,6 +80,7 @@ class PerformanceReviewRepositoryTest {
         review3.setReviewDate("2024-03-15");
         review3.setRating(3);
         review3.setDepartment("HR");
+        review3.setDepartmentRef(hr);
         review3.setReviewPeriod("Quarterly");
         review3.setStatus("SUBMITTED");
         review3.addReviewComment("Good progress");
@@ -118,8 +127,8 @@ class PerformanceReviewRepositoryTest {
     @Test
     void testFindAllByDepartment() {
         // Test finding reviews by department
-        List<PerformanceReview> itReviews = performanceReviewRepository.findAllByDepartment("IT");
-        List<PerformanceReview> hrReviews = performanceReviewRepository.findAllByDepartment("HR");
+        List<PerformanceReview> itReviews = performanceReviewRepository.findAllByDepartmentId(it.getId());
+        List<PerformanceReview> hrReviews = performanceReviewRepository.findAllByDepartmentId(hr.getId());
         
         assertThat(itReviews).hasSize(2);
         assertThat(hrReviews).hasSize(1);
@@ -182,8 +191,8 @@ class PerformanceReviewRepositoryTest {
     @Test
     void testGetReviewCountByDepartment() {
         // Test counting reviews by department
-        Long itCount = performanceReviewRepository.getReviewCountByDepartment("IT");
-        Long hrCount = performanceReviewRepository.getReviewCountByDepartment("HR");
+        Long itCount = performanceReviewRepository.getReviewCountByDepartmentId(it.getId());
+        Long hrCount = performanceReviewRepository.getReviewCountByDepartmentId(hr.getId());
         
         assertThat(itCount).isEqualTo(2);
         assertThat(hrCount).isEqualTo(1);
@@ -1,5 +1,7 @@
 package com.dmcdesigns.capstone.Repositories;
 
+import com.dmcdesigns.capstone.DTOs.ProjectReportRow;
+import com.dmcdesigns.capstone.Entities.Department;
 import com.dmcdesigns.capstone.Entities.Employee;
 import com.dmcdesigns.capstone.Entities.Manager;
 import com.dmcdesigns.capstone.Entities.Project;
@@ -11,6 +13,9 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -23,6 +28,8 @@ class ProjectRepositoryTest {
     @Autowired
     private ProjectRepository projectRepository;
 
+    private Department it;
+    private Department hr;
     private Employee testEmployee1;
     private Employee testEmployee2;
     private Manager testManager;
@@ -32,6 +39,9 @@ class ProjectRepositoryTest {
 
     @BeforeEach
     void setUp() {
+        it = entityManager.persist(new Department("IT", "IT department"));
+        hr = entityManager.persist(new Department("HR", "HR department"));
+
         // Create test users
         testEmployee1 = new Employee("John", "Doe", "john.doe@company.com", 
                                    "555-1111", "john.doe", "password123", "IT");
@@ -53,6 +63,7 @@ class ProjectRepositoryTest {
         project1.setStatus("ACTIVE");
         project1.setPriority("HIGH");
         project1.setDepartment("IT");
+        project1.setDepartmentRef(it);
         project1.setBudget(new BigDecimal("100000.00"));
         project1.setBudgetUsed(new BigDecimal("50000.00"));
         project1.setProgressPercentage(50);
@@ -70,6 +81,7 @@ class ProjectRepositoryTest {
         project2.setStatus("PLANNING");
         project2.setPriority("MEDIUM");
         project2.setDepartment("HR");
+        project2.setDepartmentRef(hr);
         project2.setBudget(new BigDecimal("75000.00"));
         project2.setBudgetUsed(new BigDecimal("10000.00"));
         project2.setProgressPercentage(10);
@@ -85,6 +97,7 @@ class ProjectRepositoryTest {
         project3.setStatus("COMPLETED");
         project3.setPriority("LOW");
         project3.setDepartment("IT");
+        project3.setDepartmentRef(it);
         project3.setBudget(new BigDecimal("200000.00"));
         project3.setBudgetUsed(new BigDecimal("180000.00"));
         project3.setProgressPercentage(100);
@@ -111,10 +124,10 @@ class ProjectRepositoryTest {
 
     @Test
     void testFindAllByDepartment() {
-        List<Project> itProjects = projectRepository.findAllByDepartment("IT");
+        List<Project> itProjects = projectRepository.findAllByDepartmentId(it.getId());
         assertThat(itProjects).hasSize(2);
 
-        List<Project> hrProjects = projectRepository.findAllByDepartment("HR");
+        List<Project> hrProjects = projectRepository.findAllByDepartmentId(hr.getId());
         assertThat(hrProjects).hasSize(1);
         assertThat(hrProjects.get(0).getName()).isEqualTo("Project Beta");
     }
@@ -219,37 +232,37 @@ class ProjectRepositoryTest {
 
     @Test
     void testCountByDepartment() {
-        Long itCount = projectRepository.countByDepartment("IT");
+        Long itCount = projectRepository.countByDepartmentId(it.getId());
         assertThat(itCount).isEqualTo(2);
 
-        Long hrCount = projectRepository.countByDepartment("HR");
+        Long hrCount = projectRepository.countByDepartmentId(hr.getId());
         assertThat(hrCount).isEqualTo(1);
     }
 
     @Test
     void testGetAverageProgressByDepartment() {
-        Double itAvgProgress = projectRepository.getAverageProgressByDepartment("IT");
+        Double itAvgProgress = projectRepository.getAverageProgressByDepartmentId(it.getId());
         assertThat(itAvgProgress).isEqualTo(75.0); // (50 + 100) / 2
 
-        Double hrAvgProgress = projectRepository.getAverageProgressByDepartment("HR");
+        Double hrAvgProgress = projectRepository.getAverageProgressByDepartmentId(hr.getId());
         assertThat(hrAvgProgress).isEqualTo(10.0);
     }
 
     @Test
     void testGetTotalBudgetByDepartment() {
-        BigDecimal itTotalBudget = projectRepository.getTotalBudgetByDepartment("IT");
+        BigDecimal itTotalBudget = projectRepository.getTotalBudgetByDepartmentId(it.getId());
         assertThat(itTotalBudget).isEqualTo(new BigDecimal("300000.00")); // 100000 + 200000
 
-        BigDecimal hrTotalBudget = projectRepository.getTotalBudgetByDepartment("HR");
+        BigDecimal hrTotalBudget = projectRepository.getTotalBudgetByDepartmentId(hr.getId());
         assertThat(hrTotalBudget).isEqualTo(new BigDecimal("75000.00"));
     }
 
     @Test
     void testGetTotalBudgetUsedByDepartment() {
-        BigDecimal itBudgetUsed = projectRepository.getTotalBudgetUsedByDepartment("IT");
+        BigDecimal itBudgetUsed = projectRepository.getTotalBudgetUsedByDepartmentId(it.getId());
         assertThat(itBudgetUsed).isEqualTo(new BigDecimal("230000.00")); // 50000 + 180000
 
-        BigDecimal hrBudgetUsed = projectRepository.getTotalBudgetUsedByDepartment("HR");
+        BigDecimal hrBudgetUsed = projectRepository.getTotalBudgetUsedByDepartmentId(hr.getId());
         assertThat(hrBudgetUsed).isEqualTo(new BigDecimal("10000.00"));
     }
 
@@ -368,4 +381,40 @@ class ProjectRepositoryTest {
         assertThat(project1.matchesSearch("ACTIVE")).isTrue();
         assertThat(project1.matchesSearch("nonexistent")).isFalse();
     }
+
+    @Test
+    void testStreamProjectReportRows() {
+        entityManager.clear();
+
+        List<ProjectReportRow> rows;
+        try (Stream<ProjectReportRow> stream = projectRepository.streamProjectReportRows()) {
+            rows = stream.collect(Collectors.toList());
+        }
+
+        // Ordered by department, then name
+        assertThat(rows).extracting(ProjectReportRow::getName)
+            .containsExactly("Project Beta", "Project Alpha", "Project Gamma");
+
+        ProjectReportRow alpha = rows.get(1);
+        assertThat(alpha.getStatus()).isEqualTo("ACTIVE");
+        assertThat(alpha.getDepartment()).isEqualTo("IT");
+        assertThat(alpha.getBudget()).isEqualByComparingTo("100000.00");
+        assertThat(alpha.getBudgetUsed()).isEqualByComparingTo("50000.00");
+        assertThat(alpha.getProgress()).isEqualTo(50);
+        assertThat(alpha.getAssignedCount()).isEqualTo(1);
+
+        // Rows are DTOs only; no Project entity was loaded into the persistence context
+        assertThat(entityManager.getEntityManager().contains(project1)).isFalse();
+    }
+
+    @Test
+    void testGetProjectCountsByStatus() {
+        Map<String, Long> counts = projectRepository.getProjectCountsByStatus().stream()
+            .collect(Collectors.toMap(row -> (String) row[0], row -> (Long) row[1]));
+
+        assertThat(counts).containsEntry("ACTIVE", 1L)
+            .containsEntry("PLANNING", 1L)
+            .containsEntry("COMPLETED", 1L)
+            .hasSize(3);
+    }
 }
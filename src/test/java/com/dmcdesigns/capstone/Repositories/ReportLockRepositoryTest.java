@@ -0,0 +1,55 @@
+package com.dmcdesigns.capstone.Repositories;
+
+import com.dmcdesigns.capstone.Entities.ReportLock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class ReportLockRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ReportLockRepository reportLockRepository;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.now();
+        entityManager.persistAndFlush(new ReportLock("report-pregeneration"));
+    }
+
+    @Test
+    void testOnlyOneNodeAcquiresLease() {
+        assertThat(reportLockRepository.tryAcquire("report-pregeneration", "node-a", now, now.plusHours(1))).isEqualTo(1);
+        assertThat(reportLockRepository.tryAcquire("report-pregeneration", "node-b", now, now.plusHours(1))).isZero();
+
+        // The holder can renew its own lease
+        assertThat(reportLockRepository.tryAcquire("report-pregeneration", "node-a", now, now.plusHours(2))).isEqualTo(1);
+    }
+
+    @Test
+    void testExpiredLeaseCanBeTaken() {
+        reportLockRepository.tryAcquire("report-pregeneration", "node-a", now.minusHours(3), now.minusHours(1));
+
+        assertThat(reportLockRepository.tryAcquire("report-pregeneration", "node-b", now, now.plusHours(1))).isEqualTo(1);
+    }
+
+    @Test
+    void testReleaseOnlyByHolder() {
+        reportLockRepository.tryAcquire("report-pregeneration", "node-a", now, now.plusHours(1));
+
+        assertThat(reportLockRepository.release("report-pregeneration", "node-b", now)).isZero();
+        assertThat(reportLockRepository.release("report-pregeneration", "node-a", now)).isEqualTo(1);
+        assertThat(reportLockRepository.tryAcquire("report-pregeneration", "node-b", now.plusSeconds(1), now.plusHours(1))).isEqualTo(1);
+    }
+}
@@ -1,5 +1,6 @@
 package com.dmcdesigns.capstone.Repositories;
 
+import com.dmcdesigns.capstone.Entities.Department;
 import com.dmcdesigns.capstone.Entities.Employee;
 import com.dmcdesigns.capstone.Entities.Manager;
 import com.dmcdesigns.capstone.Entities.User;
@@ -13,6 +14,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
 class UserRepositoryTest {
@@ -23,16 +25,22 @@ class UserRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    private Department it;
+    private Department hr;
     private Employee testEmployee;
     private Manager testManager;
 
     @BeforeEach
     void setUp() {
         // Create test data
+        it = entityManager.persist(new Department("IT", "IT department"));
+        hr = entityManager.persist(new Department("HR", "HR department"));
         testEmployee = new Employee("John", "Doe", "john.doe@company.com", 
                                   "555-1234", "john.doe", "password123", "IT");
+        testEmployee.setDepartmentRef(it);
         testManager = new Manager("Jane", "Smith", "jane.smith@company.com", 
                                 "555-5678", "jane.smith", "password456", "HR");
+        testManager.setDepartmentRef(hr);
         
         // Persist test data
         entityManager.persistAndFlush(testEmployee);
@@ -87,8 +95,8 @@ class UserRepositoryTest {
     @Test
     void testGetUsersByDepartment() {
         // Test getting users by department
-        List<User> itUsers = userRepository.getUsersByDepartment("IT");
-        List<User> hrUsers = userRepository.getUsersByDepartment("HR");
+        List<User> itUsers = userRepository.getUsersByDepartmentId(it.getId());
+        List<User> hrUsers = userRepository.getUsersByDepartmentId(hr.getId());
         
         assertThat(itUsers).hasSize(1);
         assertThat(itUsers.get(0).getUsername()).isEqualTo("john.doe");
@@ -193,4 +201,22 @@ class UserRepositoryTest {
         
         assertThat(userCount).isEqualTo(2);
     }
+
+    @Test
+    void testMoveDepartmentMovesEveryUserInOneStatement() {
+        Employee jim = new Employee("Jim", "Beam", "jim.beam@company.com",
+                                  "555-9012", "jim.beam", "password789", "IT");
+        jim.setDepartmentRef(it);
+        entityManager.persistAndFlush(jim);
+        Department platform = entityManager.persistAndFlush(new Department("Platform", "Platform department"));
+
+        int moved = userRepository.moveDepartment(it.getId(), "Platform", platform.getId());
+
+        assertThat(moved).isEqualTo(2);
+        assertThat(userRepository.getUsersByDepartmentId(it.getId())).isEmpty();
+        assertThat(userRepository.getUsersByDepartmentId(platform.getId()))
+                           .extracting(User::getUsername, User::getDepartment)
+                           .containsExactlyInAnyOrder(tuple("john.doe", "Platform"), tuple("jim.beam", "Platform"));
+        assertThat(userRepository.getUsersByDepartmentId(hr.getId())).hasSize(1);
+    }
 }
@@ -0,0 +1,107 @@
+package com.dmcdesigns.capstone.Repositories;
+
+import com.dmcdesigns.capstone.Config.UserInheritanceMapping;
+import com.dmcdesigns.capstone.DTOs.EmployeeSummary;
+import com.dmcdesigns.capstone.Entities.Admin;
+import com.dmcdesigns.capstone.Entities.Employee;
+import com.dmcdesigns.capstone.Entities.Manager;
+import com.dmcdesigns.capstone.Entities.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.mapping-resources=META-INF/orm-single-table.xml")
+@Import(UserInheritanceMapping.class)
+class UserSingleTableMappingTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserInheritanceMapping userInheritanceMapping;
+
+    @Test
+    void testHierarchyIsStoredInUsersTable() {
+        Employee employee = new Employee("Alice", "Johnson", "alice.johnson@company.com",
+                                         "555-1111", "alice.johnson", "password123", "Engineering");
+        employee.setSalary(new BigDecimal("75000.00"));
+        Manager manager = new Manager("Carol", "Davis", "carol.davis@company.com",
+                                      "555-3333", "carol.davis", "password789", "Engineering");
+        entityManager.persist(employee);
+        entityManager.persist(manager);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(userInheritanceMapping.isSingleTable()).isTrue();
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+            "SELECT user_type, role, salary FROM users WHERE username = 'carol.davis'");
+        assertThat(row.get("USER_TYPE")).isEqualTo("MANAGER");
+        assertThat(row.get("ROLE")).isEqualTo("Manager");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.tables "
+            + "WHERE table_name = 'EMPLOYEE'", Integer.class)).isZero();
+
+        // Polymorphic loads still return the subclass for each row
+        User loaded = userRepository.findByUsername("carol.davis");
+        assertThat(loaded).isInstanceOf(Manager.class);
+        assertThat(employeeRepository.findByUsername("alice.johnson").getSalary()).isEqualByComparingTo("75000.00");
+
+        Page<EmployeeSummary> summaries = employeeRepository.findEmployeeSummaries(
+            PageRequest.of(0, 10, Sort.by("lastName")));
+        assertThat(summaries.getContent()).extracting(EmployeeSummary::getUserType)
+            .containsExactly("MANAGER", "EMPLOYEE");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testMigrationMovesRowsOutOfJoinedTables() {
+        // Layout left behind by the default joined-table mapping
+        jdbcTemplate.execute("CREATE TABLE employee (id INT PRIMARY KEY, role VARCHAR(255) NOT NULL, "
+            + "has_access BOOLEAN NOT NULL, salary NUMERIC(10,2), hire_date VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE admin (id INT PRIMARY KEY REFERENCES employee (id))");
+        jdbcTemplate.update("INSERT INTO users (user_type, first_name, last_name, email, phone_number, username, "
+            + "password, department, role, has_access) VALUES ('ADMIN', 'Dana', 'Lee', 'dana.lee@company.com', "
+            + "'555-4444', 'dana.lee', 'password123', 'Operations', '-', FALSE)");
+        Integer id = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'dana.lee'", Integer.class);
+        jdbcTemplate.update("INSERT INTO employee VALUES (?, 'Administrator', TRUE, 91000.00, '2020-02-02')", id);
+        jdbcTemplate.update("INSERT INTO admin VALUES (?)", id);
+
+        try {
+            assertThat(userInheritanceMapping.migrateToSingleTable()).isEqualTo(1);
+            assertThat(userInheritanceMapping.migrateToSingleTable()).isZero();
+
+            Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT role, has_access, salary, hire_date FROM users WHERE id = ?", id);
+            assertThat(row.get("ROLE")).isEqualTo("Administrator");
+            assertThat(row.get("HAS_ACCESS")).isEqualTo(true);
+            assertThat((BigDecimal) row.get("SALARY")).isEqualByComparingTo("91000.00");
+            assertThat(row.get("HIRE_DATE")).isEqualTo("2020-02-02");
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.tables "
+                + "WHERE table_name IN ('EMPLOYEE', 'ADMIN')", Integer.class)).isZero();
+            assertThat(userRepository.findByUsername("dana.lee")).isInstanceOf(Admin.class);
+        } finally {
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", id);
+        }
+    }
+}
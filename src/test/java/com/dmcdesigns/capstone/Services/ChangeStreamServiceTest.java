@@ -0,0 +1,246 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.DTOs.ChangeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ChangeStreamServiceTest {
+
+    /**
+     * One SSE message as the client would see it
+     */
+    record Sent(String name, String id, Object data) {
+    }
+
+    /**
+     * Emitter that records messages instead of writing to a response; sends
+     * block until released, to simulate a client that stopped reading
+     */
+    static class RecordingEmitter extends SseEmitter {
+        final BlockingQueue<Sent> sent = new LinkedBlockingQueue<>();
+        final CountDownLatch released;
+        volatile boolean completed;
+
+        RecordingEmitter(boolean blocked) {
+            released = new CountDownLatch(blocked ? 1 : 0);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            try {
+                released.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String name = null;
+            String id = null;
+            Object data = null;
+            for (DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String text && MediaType.TEXT_PLAIN.includes(part.getMediaType())) {
+                    for (String line : text.split("\n")) {
+                        if (line.startsWith("event:")) {
+                            name = line.substring(6);
+                        } else if (line.startsWith("id:")) {
+                            id = line.substring(3);
+                        } else if (line.startsWith(":")) {
+                            name = "comment";
+                        }
+                    }
+                } else {
+                    data = part.getData();
+                }
+            }
+            sent.add(new Sent(name, id, data));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        Sent next() throws InterruptedException {
+            Sent message = sent.poll(5, TimeUnit.SECONDS);
+            assertThat(message).as("message sent").isNotNull();
+            return message;
+        }
+
+        List<Sent> next(int count) throws InterruptedException {
+            List<Sent> messages = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                messages.add(next());
+            }
+            return messages;
+        }
+    }
+
+    private ChangeStreamService service;
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testChangesArePublishedAfterCommitOncePerEntity() throws Exception {
+        service = new ChangeStreamService(16, 100, 10, 10000, 60000);
+        RecordingEmitter client = new RecordingEmitter(false);
+        service.subscribe(client, null, Set.of());
+        assertThat(client.next().name()).isEqualTo("ready");
+
+        TransactionSynchronizationManager.initSynchronization();
+        service.record(ChangeEvent.EMPLOYEE, 1, ChangeEvent.CREATED);
+        service.record(ChangeEvent.EMPLOYEE, 1, ChangeEvent.UPDATED);
+        service.record(ChangeEvent.PROJECT, 7, ChangeEvent.UPDATED);
+        service.record(ChangeEvent.REVIEW, 3, ChangeEvent.CREATED);
+        service.record(ChangeEvent.REVIEW, 3, ChangeEvent.DELETED);
+        // Nothing goes out before the commit
+        assertThat(service.getCurrentVersion()).isZero();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(client.next(2)).containsExactly(
+            new Sent("change", "1", new ChangeEvent(ChangeEvent.EMPLOYEE, 1, ChangeEvent.CREATED, 1)),
+            new Sent("change", "2", new ChangeEvent(ChangeEvent.PROJECT, 7, ChangeEvent.UPDATED, 2)));
+        assertThat(service.getCurrentVersion()).isEqualTo(2);
+        assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+
+        // Without a transaction the change goes out at once
+        service.recordBulkChange(ChangeEvent.EMPLOYEE);
+        assertThat(client.next().data()).isEqualTo(new ChangeEvent(ChangeEvent.EMPLOYEE, null, ChangeEvent.BULK, 3));
+        assertThat(new MappingJackson2HttpMessageConverter().getObjectMapper()
+            .writeValueAsString(new ChangeEvent(ChangeEvent.EMPLOYEE, null, ChangeEvent.BULK, 3)))
+            .isEqualTo("{\"type\":\"employee\",\"op\":\"bulk\",\"version\":3}");
+    }
+
+    @Test
+    void testResumeReplaysMissedEventsOrAsksForReset() throws Exception {
+        service = new ChangeStreamService(4, 5, 10, 10000, 60000);
+        for (int id = 1; id <= 8; id++) {
+            service.record(id % 2 == 0 ? ChangeEvent.PROJECT : ChangeEvent.EMPLOYEE, id, ChangeEvent.UPDATED);
+        }
+
+        RecordingEmitter resumed = new RecordingEmitter(false);
+        service.subscribe(resumed, 6L, Set.of(ChangeEvent.EMPLOYEE, ChangeEvent.PROJECT));
+        assertThat(resumed.next(3)).extracting(Sent::id).containsExactly("7", "8", "8");
+        assertThat(resumed.sent).isEmpty();
+
+        // Only the requested types are replayed
+        RecordingEmitter filtered = new RecordingEmitter(false);
+        service.subscribe(filtered, 4L, Set.of(ChangeEvent.PROJECT));
+        assertThat(filtered.next(3)).extracting(Sent::name, Sent::id)
+            .containsExactly(tuple("change", "6"), tuple("change", "8"), tuple("ready", "8"));
+    }
+
+    @Test
+    void testStaleOrUnknownPositionGetsReset() throws Exception {
+        service = new ChangeStreamService(4, 5, 10, 10000, 60000);
+        for (int id = 1; id <= 8; id++) {
+            service.record(ChangeEvent.EMPLOYEE, id, ChangeEvent.UPDATED);
+        }
+
+        // Events 2 and 3 fell out of the replay window
+        RecordingEmitter stale = new RecordingEmitter(false);
+        service.subscribe(stale, 1L, Set.of());
+        assertThat(stale.next()).isEqualTo(new Sent("reset", "8", Map.of("version", 8L)));
+
+        // A position this node never reached, e.g. from before a restart
+        RecordingEmitter restarted = new RecordingEmitter(false);
+        service.subscribe(restarted, 42L, Set.of());
+        assertThat(restarted.next().name()).isEqualTo("reset");
+
+        // More missed events than the client buffer holds
+        RecordingEmitter behind = new RecordingEmitter(false);
+        service.subscribe(behind, 3L, Set.of());
+        assertThat(behind.next().name()).isEqualTo("reset");
+
+        assertThatThrownBy(() -> service.subscribe(new RecordingEmitter(false), null, Set.of("salary")))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testSlowClientsAreEvictedWithoutHoldingUpOthers() throws Exception {
+        service = new ChangeStreamService(2, 100, 10, 10000, 60000);
+        // Each stalled client blocks only its own sender
+        List<RecordingEmitter> slow = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            RecordingEmitter client = new RecordingEmitter(true);
+            service.subscribe(client, null, Set.of());
+            slow.add(client);
+        }
+        RecordingEmitter fast = new RecordingEmitter(false);
+        service.subscribe(fast, null, Set.of());
+        assertThat(fast.next().name()).isEqualTo("ready");
+
+        // The slow clients are stuck on their first message; two more fill their buffers
+        for (int id = 1; id <= 5; id++) {
+            service.record(ChangeEvent.PROJECT, id, ChangeEvent.UPDATED);
+            assertThat(fast.next().id()).isEqualTo(String.valueOf(id));
+        }
+        assertThat(service.getSubscriberCount()).isEqualTo(1);
+
+        for (RecordingEmitter client : slow) {
+            client.released.countDown();
+            awaitCompleted(client);
+        }
+
+        // At capacity new clients are turned away
+        ChangeStreamService full = new ChangeStreamService(2, 100, 1, 10000, 60000);
+        try {
+            full.subscribe(new RecordingEmitter(false), null, Set.of());
+            assertThatThrownBy(() -> full.subscribe(new RecordingEmitter(false), null, Set.of()))
+                .isInstanceOf(IllegalStateException.class);
+        } finally {
+            full.shutdown();
+        }
+    }
+
+    @Test
+    void testClientBlockedPastTheSendTimeoutIsEvicted() throws Exception {
+        service = new ChangeStreamService(16, 100, 10, 50, 60000);
+        RecordingEmitter stalled = new RecordingEmitter(true);
+        service.subscribe(stalled, null, Set.of());
+
+        // Its buffer has room, so only the time spent in send gives it away
+        service.heartbeat();
+        assertThat(service.getSubscriberCount()).isEqualTo(1);
+        Thread.sleep(200);
+        service.heartbeat();
+        assertThat(service.getSubscriberCount()).isZero();
+
+        stalled.released.countDown();
+        awaitCompleted(stalled);
+        assertThat(stalled.next().name()).isEqualTo("ready");
+        assertThat(stalled.sent).isEmpty();
+    }
+
+    private static void awaitCompleted(RecordingEmitter client) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!client.completed && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(client.completed).isTrue();
+    }
+}
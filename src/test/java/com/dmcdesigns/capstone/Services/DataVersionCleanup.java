@@ -0,0 +1,18 @@
+package com.dmcdesigns.capstone.Services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.AfterTransaction;
+
+/**
+ * Mixed into transactional tests whose services create data version counters.
+ * The counters are created in their own transaction, so they outlive the
+ * test's rollback.
+ */
+interface DataVersionCleanup {
+
+    @AfterTransaction
+    default void deleteDataVersions(@Autowired JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("DELETE FROM data_versions");
+    }
+}
@@ -0,0 +1,52 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Entities.Department;
+import com.dmcdesigns.capstone.Entities.Employee;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.AfterTransaction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import(DepartmentLookupService.class)
+class DepartmentLookupServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DepartmentLookupService departmentLookupService;
+
+    @AfterTransaction
+    void cleanUp() {
+        departmentLookupService.invalidate();
+    }
+
+    @Test
+    void testWritesMustNameAnExistingDepartment() {
+        Department engineering = entityManager.persist(new Department("Engineering", "Engineering department"));
+
+        Employee alice = entityManager.persist(employee("alice", "Engineering"));
+        assertThat(alice.getDepartmentRef().getId()).isEqualTo(engineering.getId());
+
+        assertThatThrownBy(() -> entityManager.persistAndFlush(employee("bob", "Ghost")))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Unknown department: Ghost");
+        assertThat(departmentLookupService.findId("Ghost")).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM departments", Long.class)).isEqualTo(1L);
+    }
+
+    private static Employee employee(String username, String department) {
+        return new Employee(username, "Tester", username + "@company.com",
+                            "555-0000", username, "password123", department);
+    }
+}
@@ -0,0 +1,107 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Entities.Department;
+import com.dmcdesigns.capstone.Entities.Project;
+import com.dmcdesigns.capstone.Repositories.DepartmentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.AfterTransaction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@Import({DepartmentService.class, DepartmentLookupService.class})
+class DepartmentServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private DepartmentLookupService departmentLookupService;
+
+    @MockBean
+    private PerformanceRollupService performanceRollupService;
+
+    @MockBean
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private Validator validator;
+
+    @MockBean
+    private DepartmentStatsService departmentStatsService;
+
+    @MockBean
+    private BulkChangeNotifier bulkChangeNotifier;
+
+    @MockBean
+    private DepartmentTreeService departmentTreeService;
+
+    // The cached name-to-id map would otherwise keep ids the test's rollback removed
+    @AfterTransaction
+    void cleanUp() {
+        departmentLookupService.invalidate();
+    }
+
+    @Test
+    void testDepartmentWithProjectsIsNotDeleted() {
+        Department qa = entityManager.persist(new Department("QA", "QA department"));
+        project(qa);
+        entityManager.flush();
+
+        assertThatThrownBy(() -> departmentService.deleteDepartment(qa.getId()))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessage("Cannot delete department 'QA' because 1 project(s) and 0 review(s) reference it");
+        assertThat(departmentRepository.existsById(qa.getId())).isTrue();
+        verify(departmentTreeService, never()).removeFromTree(qa.getId());
+    }
+
+    @Test
+    void testUnreferencedDepartmentIsDeleted() {
+        Department qa = entityManager.persistAndFlush(new Department("QA", "QA department"));
+
+        departmentService.deleteDepartment(qa.getId());
+        entityManager.flush();
+
+        assertThat(departmentRepository.existsById(qa.getId())).isFalse();
+        verify(departmentStatsService).removeDepartment(qa.getId());
+    }
+
+    @Test
+    void testRenameRewritesTheNameOnRowsThatReferenceTheDepartment() {
+        Department qa = entityManager.persist(new Department("QA", "QA department"));
+        Project project = project(qa);
+        entityManager.flush();
+
+        departmentService.updateDepartment(qa.getId(), new Department("Quality", "Quality department"));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(entityManager.find(Project.class, project.getId()).getDepartment()).isEqualTo("Quality");
+        verify(bulkChangeNotifier).projectsUpdated();
+        verify(performanceRollupService).renameDepartment("QA", "Quality");
+    }
+
+    private Project project(Department department) {
+        Project project = new Project("Test plan", "Regression suite", "2024-01-01", department.getName());
+        project.setStatus("ACTIVE");
+        project.setPriority("HIGH");
+        project.setDepartmentRef(department);
+        return entityManager.persist(project);
+    }
+}
@@ -0,0 +1,136 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Entities.Department;
+import com.dmcdesigns.capstone.Entities.Employee;
+import com.dmcdesigns.capstone.Entities.Project;
+import com.dmcdesigns.capstone.Repositories.UserRepository;
+import com.dmcdesigns.capstone.Services.DepartmentStatsService.EmployeeShare;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.AfterTransaction;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({DepartmentStatsService.class, DepartmentLookupService.class})
+class DepartmentStatsServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DepartmentStatsService departmentStatsService;
+
+    @Autowired
+    private DepartmentLookupService departmentLookupService;
+
+    // Stats rows are created in their own transactions, so they outlive the test's rollback
+    @AfterTransaction
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM department_stats");
+        departmentLookupService.invalidate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        for (String name : new String[] { "Engineering", "Sales", "Support", "QA" }) {
+            entityManager.persist(new Department(name, name + " department"));
+        }
+    }
+
+    @Test
+    void testWritesApplyDeltasThatMatchAFullRebuild() {
+        Employee alice = employee("alice", "Engineering", "100000.00");
+        Employee bob = employee("bob", "Engineering", "80000.00");
+        Employee carol = employee("carol", "Sales", "50000.00");
+        for (Employee employee : new Employee[] { alice, bob, carol }) {
+            departmentStatsService.recordEmployeeChange(null, EmployeeShare.of(employee));
+        }
+        Project project = project("Engineering");
+        departmentStatsService.recordProjectChange(null, project.getDepartment());
+
+        // Moving alice to Sales with a raise
+        EmployeeShare before = EmployeeShare.of(alice);
+        alice.setDepartment("Sales");
+        alice.setSalary(new BigDecimal("110000.00"));
+        entityManager.flush();
+        departmentStatsService.recordEmployeeChange(before, EmployeeShare.of(alice));
+        // An unchanged salary at a different scale is not a change
+        departmentStatsService.recordEmployeeChange(EmployeeShare.of(bob),
+            new EmployeeShare("Engineering", new BigDecimal("80000")));
+
+        Map<String, Map<String, Object>> stats = statsByDepartment();
+        assertThat(stats.get("Engineering")).containsEntry("headcount", 1L).containsEntry("projectCount", 1L);
+        assertThat((BigDecimal) stats.get("Engineering").get("totalSalary")).isEqualByComparingTo("80000.00");
+        assertThat(stats.get("Sales")).containsEntry("headcount", 2L).containsEntry("projectCount", 0L);
+        assertThat((BigDecimal) stats.get("Sales").get("totalSalary")).isEqualByComparingTo("160000.00");
+        assertThat((BigDecimal) stats.get("Sales").get("averageSalary")).isEqualByComparingTo("80000.00");
+
+        entityManager.flush();
+        assertThat(departmentStatsService.rebuildStats()).isZero();
+    }
+
+    @Test
+    void testRebuildCorrectsDriftAndBulkMovesAreRecounted() {
+        employee("dana", "Support", "60000.00");
+        employee("erin", "Support", "40000.00");
+        employee("frank", "QA", "70000.00");
+        entityManager.flush();
+
+        // Written without recording any deltas
+        assertThat(departmentStatsService.rebuildStats()).isEqualTo(2);
+        assertThat(statsByDepartment().get("Support")).containsEntry("headcount", 2L);
+        assertThat(departmentStatsService.rebuildStats()).isZero();
+
+        Integer qa = departmentLookupService.findId("QA").orElseThrow();
+        Integer support = departmentLookupService.findId("Support").orElseThrow();
+        userRepository.moveDepartment(support, "QA", qa);
+        departmentStatsService.recountEmployees(List.of(support, qa));
+
+        Map<String, Map<String, Object>> stats = statsByDepartment();
+        assertThat(stats.get("Support")).containsEntry("headcount", 0L);
+        assertThat(stats.get("QA")).containsEntry("headcount", 3L);
+        assertThat((BigDecimal) stats.get("QA").get("totalSalary")).isEqualByComparingTo("170000.00");
+        assertThat(departmentStatsService.rebuildStats()).isZero();
+    }
+
+    private Employee employee(String username, String department, String salary) {
+        Employee employee = new Employee(username, "Tester", username + "@company.com",
+                                         "555-0000", username, "password123", department);
+        employee.setSalary(new BigDecimal(salary));
+        return entityManager.persist(employee);
+    }
+
+    private Project project(String department) {
+        Project project = new Project();
+        project.setName("Project " + department);
+        project.setDescription("Stats test project");
+        project.setStartDate("2024-01-01");
+        project.setStatus("ACTIVE");
+        project.setPriority("HIGH");
+        project.setDepartment(department);
+        return entityManager.persist(project);
+    }
+
+    private Map<String, Map<String, Object>> statsByDepartment() {
+        return departmentStatsService.getDepartmentStats().stream()
+            .collect(Collectors.toMap(entry -> (String) entry.get("department"), Function.identity()));
+    }
+}
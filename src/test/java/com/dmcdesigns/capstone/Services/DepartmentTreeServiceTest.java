@@ -0,0 +1,198 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Entities.Department;
+import com.dmcdesigns.capstone.Entities.DepartmentStats;
+import com.dmcdesigns.capstone.Entities.Employee;
+import com.dmcdesigns.capstone.Entities.Project;
+import com.dmcdesigns.capstone.Entities.User;
+import com.dmcdesigns.capstone.Repositories.DepartmentRepository;
+import com.dmcdesigns.capstone.Repositories.EmployeeRepository;
+import com.dmcdesigns.capstone.Repositories.ProjectRepository;
+import com.dmcdesigns.capstone.Services.DepartmentTreeService.Interval;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({DepartmentTreeService.class, DataVersionService.class})
+class DepartmentTreeServiceTest implements DataVersionCleanup {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private DepartmentTreeService departmentTreeService;
+
+    @MockBean
+    private DirectorySyncService directorySyncService;
+
+    private Department company, engineering, platform, mobile, sales;
+
+    /**
+     * company
+     * ├── engineering
+     * │   ├── platform
+     * │   └── mobile
+     * └── sales
+     */
+    @BeforeEach
+    void setUp() {
+        company = department("Company");
+        engineering = department("Engineering");
+        platform = department("Platform");
+        mobile = department("Mobile");
+        sales = department("Sales");
+        departmentTreeService.moveDepartment(engineering.getId(), company.getId());
+        departmentTreeService.moveDepartment(sales.getId(), company.getId());
+        departmentTreeService.moveDepartment(platform.getId(), engineering.getId());
+        departmentTreeService.moveDepartment(mobile.getId(), engineering.getId());
+        entityManager.clear();
+    }
+
+    @Test
+    void testSubtreesFollowMovesAndCyclesAreRefused() {
+        assertThat(names(departmentTreeService.getSubtree(company.getId())))
+            .containsExactly("Company", "Engineering", "Platform", "Mobile", "Sales");
+        assertThat(names(departmentTreeService.getSubtree(engineering.getId()))).containsExactly("Engineering", "Platform", "Mobile");
+        assertThat(names(departmentTreeService.getSubtree(platform.getId()))).containsExactly("Platform");
+        assertThat(departmentTreeService.findSubtree(engineering.getId(), false)).isEmpty();
+        // A leaf keeps to its own id
+        assertThat(departmentTreeService.findSubtree(platform.getId(), true)).isEmpty();
+
+        // mobile moves to sales; moving it there again changes nothing
+        assertThat(departmentTreeService.moveDepartment(mobile.getId(), sales.getId())).isTrue();
+        assertThat(departmentTreeService.moveDepartment(mobile.getId(), sales.getId())).isFalse();
+        entityManager.clear();
+        assertThat(names(departmentTreeService.getSubtree(engineering.getId()))).containsExactly("Engineering", "Platform");
+        assertThat(names(departmentTreeService.getSubtree(sales.getId()))).containsExactly("Sales", "Mobile");
+        assertThat(departmentRepository.findById(mobile.getId()).getParentId()).isEqualTo(sales.getId());
+        assertIntervalsMatchRebuild();
+
+        assertThatThrownBy(() -> departmentTreeService.moveDepartment(company.getId(), platform.getId()))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> departmentTreeService.moveDepartment(sales.getId(), sales.getId()))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> departmentTreeService.moveDepartment(sales.getId(), 99999))
+            .hasMessageContaining("not found");
+
+        // To the top level
+        departmentTreeService.moveDepartment(engineering.getId(), null);
+        entityManager.clear();
+        assertThat(names(departmentTreeService.getSubtree(company.getId()))).containsExactly("Company", "Sales", "Mobile");
+        assertThat(names(departmentTreeService.getSubtree(engineering.getId()))).containsExactly("Engineering", "Platform");
+        assertIntervalsMatchRebuild();
+    }
+
+    @Test
+    void testFiltersAndRollupsCoverTheWholeSubtree() {
+        employee("alice", platform, "100000.00");
+        employee("bob", platform, "80000.00");
+        employee("carol", mobile, "60000.00");
+        employee("dave", sales, "50000.00");
+        project(engineering, "200000.00", "50000.00");
+        project(platform, "100000.00", "90000.00");
+        project(sales, "40000.00", "10000.00");
+        stats(platform, 2, "180000.00", 1);
+        stats(mobile, 1, "60000.00", 0);
+        stats(sales, 1, "50000.00", 1);
+        stats(engineering, 0, "0.00", 1);
+
+        Interval tree = departmentTreeService.findSubtree(engineering.getId(), true).orElseThrow();
+        assertThat(employeeRepository.getUsersInDepartmentTree(tree.left(), tree.right()))
+            .extracting(User::getUsername).containsExactlyInAnyOrder("alice", "bob", "carol");
+        assertThat(projectRepository.countInDepartmentTree(tree.left(), tree.right())).isEqualTo(2L);
+        assertThat(projectRepository.getTotalBudgetInDepartmentTree(tree.left(), tree.right()))
+            .isEqualByComparingTo("300000.00");
+
+        Map<String, Object> rollup = departmentTreeService.getRollup(engineering.getId());
+        assertThat(rollup).containsEntry("departmentCount", 3L).containsEntry("headcount", 3L)
+            .containsEntry("projectCount", 2L);
+        assertThat((BigDecimal) rollup.get("totalSalary")).isEqualByComparingTo("240000.00");
+        assertThat((BigDecimal) rollup.get("averageSalary")).isEqualByComparingTo("80000.00");
+        assertThat((BigDecimal) rollup.get("totalBudget")).isEqualByComparingTo("300000.00");
+        assertThat((BigDecimal) rollup.get("totalBudgetUsed")).isEqualByComparingTo("140000.00");
+
+        assertThat(departmentTreeService.getRollup(company.getId())).containsEntry("departmentCount", 5L)
+            .containsEntry("headcount", 4L);
+        // A leaf is rolled up from its own rows
+        Map<String, Object> leaf = departmentTreeService.getRollup(sales.getId());
+        assertThat(leaf).containsEntry("departmentCount", 1L).containsEntry("headcount", 1L);
+        assertThat((BigDecimal) leaf.get("totalBudget")).isEqualByComparingTo("40000.00");
+    }
+
+    @Test
+    void testRemovedDepartmentsHandTheirChildrenUp() {
+        departmentTreeService.removeFromTree(engineering.getId());
+        entityManager.clear();
+        departmentRepository.deleteById(engineering.getId());
+        entityManager.flush();
+
+        assertThat(names(departmentTreeService.getSubtree(company.getId())))
+            .containsExactly("Company", "Platform", "Mobile", "Sales");
+        assertThat(departmentRepository.findById(platform.getId()).getParentId()).isEqualTo(company.getId());
+        assertIntervalsMatchRebuild();
+    }
+
+    private Department department(String name) {
+        return entityManager.persist(new Department(name, name + " department"));
+    }
+
+    private void employee(String username, Department department, String salary) {
+        Employee employee = new Employee(username, "Tester", username + "@company.com",
+                                         "555-0000", username, "password123", department.getName());
+        employee.setSalary(new BigDecimal(salary));
+        employee.setDepartmentRef(entityManager.find(Department.class, department.getId()));
+        entityManager.persist(employee);
+    }
+
+    private void project(Department department, String budget, String budgetUsed) {
+        Project project = new Project();
+        project.setName("Project " + department.getName() + " " + budget);
+        project.setDescription("Tree test project");
+        project.setStartDate("2024-01-01");
+        project.setStatus("ACTIVE");
+        project.setPriority("HIGH");
+        project.setDepartment(department.getName());
+        project.setBudget(new BigDecimal(budget));
+        project.setBudgetUsed(new BigDecimal(budgetUsed));
+        project.setDepartmentRef(entityManager.find(Department.class, department.getId()));
+        entityManager.persist(project);
+    }
+
+    private void stats(Department department, long headcount, String salarySum, long projects) {
+        DepartmentStats stats = new DepartmentStats(department.getId());
+        stats.addEmployees(headcount, new BigDecimal(salarySum));
+        stats.addProjects(projects);
+        entityManager.persist(stats);
+    }
+
+    // The intervals maintained by moves must equal ones numbered from scratch
+    private void assertIntervalsMatchRebuild() {
+        assertThat(departmentTreeService.rebuildTree()).isZero();
+    }
+
+    private static List<String> names(List<Department> departments) {
+        return departments.stream().map(Department::getName).collect(Collectors.toList());
+    }
+}
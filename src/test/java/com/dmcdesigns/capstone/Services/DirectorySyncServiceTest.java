@@ -0,0 +1,144 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.DTOs.DirectorySyncResult;
+import com.dmcdesigns.capstone.DTOs.EmployeeSummary;
+import com.dmcdesigns.capstone.Entities.Department;
+import com.dmcdesigns.capstone.Entities.Employee;
+import com.dmcdesigns.capstone.Entities.Project;
+import com.dmcdesigns.capstone.Repositories.DepartmentRepository;
+import com.dmcdesigns.capstone.Repositories.EmployeeRepository;
+import com.dmcdesigns.capstone.Repositories.ProjectRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Changes are only stamped when a transaction commits, so each write runs in its own transaction
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({DirectorySyncService.class, DataVersionService.class})
+class DirectorySyncServiceTest {
+
+    @Autowired
+    private DirectorySyncService directorySyncService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate inTransaction;
+
+    @BeforeEach
+    void setUp() {
+        inTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (String table : new String[] { "projects", "employee", "users", "departments", "sync_tombstones", "data_versions" }) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    void testDeltaHoldsOnlyRowsChangedSinceTheToken() {
+        Employee alice = inTransaction.execute(status -> employeeRepository.save(employee("alice")));
+        Department support = inTransaction.execute(status -> departmentRepository.save(
+            new Department("Support", "Answers the phones")));
+
+        DirectorySyncResult first = directorySyncService.sync(null);
+        assertThat(first.reset()).isTrue();
+        assertThat(first.users()).extracting(EmployeeSummary::getId).containsExactly(alice.getId());
+        assertThat(first.departments()).extracting(Department::getId).containsExactly(support.getId());
+
+        // One transaction writes several rows of different types
+        Project project = inTransaction.execute(status -> {
+            employeeRepository.save(employee("bob"));
+            Employee loaded = (Employee) employeeRepository.findById(alice.getId()).orElseThrow();
+            loaded.setLastName("Renamed");
+            departmentRepository.deleteById(support.getId());
+            return projectRepository.save(project());
+        });
+
+        DirectorySyncResult delta = directorySyncService.sync(first.token());
+        assertThat(delta.reset()).isFalse();
+        assertThat(Long.parseLong(delta.token())).isEqualTo(Long.parseLong(first.token()) + 1);
+        assertThat(delta.users()).extracting(EmployeeSummary::getLastName).containsExactlyInAnyOrder("Renamed", "Tester");
+        assertThat(delta.departments()).isEmpty();
+        assertThat(delta.projects()).extracting(Project::getId).containsExactly(project.getId());
+        assertThat(delta.deleted().get(DirectorySyncService.DEPARTMENTS)).containsExactly(support.getId());
+
+        DirectorySyncResult unchanged = directorySyncService.sync(delta.token());
+        assertThat(unchanged.token()).isEqualTo(delta.token());
+        assertThat(unchanged.users()).isEmpty();
+        assertThat(unchanged.deleted().values()).allMatch(ids -> ids.isEmpty());
+    }
+
+    @Test
+    void testBulkChangesAreStampedAndStaleTokensReset() {
+        Employee carol = inTransaction.execute(status -> employeeRepository.save(employee("carol")));
+        String token = directorySyncService.sync(null).token();
+
+        // A set-based UPDATE that bypasses the entity listeners
+        inTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE users SET last_name = 'Bulk', change_seq = NULL WHERE id = ?", carol.getId());
+            directorySyncService.recordBulkChange(DirectorySyncService.USERS);
+        });
+        DirectorySyncResult delta = directorySyncService.sync(token);
+        assertThat(delta.users()).extracting(EmployeeSummary::getLastName).containsExactly("Bulk");
+
+        inTransaction.executeWithoutResult(status -> employeeRepository.deleteById(carol.getId()));
+        assertThat(directorySyncService.sync(delta.token()).deleted().get(DirectorySyncService.USERS))
+            .containsExactly(carol.getId());
+
+        // Once the tombstone is pruned, a token from before the delete can no longer be served a delta
+        jdbcTemplate.update("UPDATE sync_tombstones SET deleted_at = DATEADD('DAY', -31, CURRENT_TIMESTAMP)");
+        assertThat(directorySyncService.pruneTombstones()).isEqualTo(1);
+        assertThat(directorySyncService.sync(delta.token()).reset()).isTrue();
+        assertThat(directorySyncService.sync(directorySyncService.sync(null).token()).reset()).isFalse();
+
+        assertThatThrownBy(() -> directorySyncService.sync("abc")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> directorySyncService.sync("-1")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Employee employee(String username) {
+        Employee employee = new Employee(username, "Tester", username + "@company.com",
+                                         "555-0000", username, "password123", "Engineering");
+        employee.setSalary(new BigDecimal("50000.00"));
+        return employee;
+    }
+
+    private static Project project() {
+        Project project = new Project();
+        project.setName("Sync Project");
+        project.setDescription("Delta sync test project");
+        project.setStartDate("2024-01-01");
+        project.setStatus("ACTIVE");
+        project.setPriority("HIGH");
+        project.setDepartment("Engineering");
+        return project;
+    }
+}
@@ -0,0 +1,142 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Config.UserInheritanceMapping;
+import com.dmcdesigns.capstone.DTOs.EmployeeImportResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+class EmployeeImportServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private final DepartmentLookupService departmentLookupService = mock(DepartmentLookupService.class);
+    private final DirectorySyncService directorySyncService = mock(DirectorySyncService.class);
+    private final BulkChangeNotifier bulkChangeNotifier = mock(BulkChangeNotifier.class);
+
+    private EmployeeImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        // Two-row chunks so a small input still goes through several batches
+        importService = new EmployeeImportService(transactionManager, 2, 2);
+        ReflectionTestUtils.setField(importService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(importService, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(importService, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(importService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(importService, "departmentLookupService", departmentLookupService);
+        ReflectionTestUtils.setField(importService, "directorySyncService", directorySyncService);
+        ReflectionTestUtils.setField(importService, "bulkChangeNotifier", bulkChangeNotifier);
+        // Default joined-table user mapping
+        ReflectionTestUtils.setField(importService, "userInheritanceMapping", mock(UserInheritanceMapping.class));
+        // No department rows in this slice; imported rows keep a null department_id
+        when(departmentLookupService.requireId(anyString())).thenReturn(null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    @Test
+    void testCsvImportInsertsValidRowsAndReportsTheRest() throws Exception {
+        String csv = """
+            firstName,lastName,department,position,userRole,phoneNumber,hireDate,salary,password
+            Ada,Lovelace,Engineering,"Engineer, Senior",EMPLOYEE,555-010-2000,2024-01-15,85000,password123
+            Grace,Hopper,Engineering,Engineering Manager,MANAGER,555-010-2001,2023-03-01,120000,password123
+            Alan,Turing,Research,Researcher,EMPLOYEE,555-010-2002,,lots,password123
+            Anna,Lovelace,Engineering,Engineer,EMPLOYEE,555-010-2003,,70000,password123
+            Bo,Ng,Research,Researcher,INTERN,555-010-2004,,50000,password123
+            Edsger,Dijkstra,Research,Researcher,EMPLOYEE,555,,60000,password123
+            """;
+
+        EmployeeImportResult result = importService.importEmployees(stream(csv), EmployeeImportService.Format.CSV);
+
+        assertThat(result.getTotalRows()).isEqualTo(6);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(4);
+        assertThat(result.getErrors()).extracting(EmployeeImportResult.RowError::row).containsExactly(3L, 4L, 5L, 6L);
+        assertThat(result.getErrors().get(0).message()).contains("salary is not a number");
+        assertThat(result.getErrors().get(1).message()).isEqualTo("Username already exists: A.Lovelace");
+        assertThat(result.getErrors().get(2).message()).contains("userRole");
+        assertThat(result.getErrors().get(3).message()).startsWith("phoneNumber:");
+
+        Map<String, Object> manager = jdbcTemplate.queryForMap(
+            "SELECT u.user_type, u.email, u.password, e.role, e.has_access, e.salary FROM users u "
+                + "JOIN employee e ON e.id = u.id JOIN manager m ON m.id = u.id WHERE u.username = 'G.Hopper'");
+        assertThat(manager.get("USER_TYPE")).isEqualTo("MANAGER");
+        assertThat(manager.get("EMAIL")).isEqualTo("G.Hopper@ourcompany.com");
+        assertThat(manager.get("HAS_ACCESS")).isEqualTo(true);
+        assertThat(passwordEncoder.matches("password123", (String) manager.get("PASSWORD"))).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT role FROM employee e JOIN users u ON u.id = e.id "
+            + "WHERE u.username = 'A.Lovelace'", String.class)).isEqualTo("Engineer, Senior");
+
+        verify(bulkChangeNotifier).employeesImported();
+        verify(directorySyncService, atLeastOnce()).recordBulkChange(DirectorySyncService.USERS);
+    }
+
+    @Test
+    void testNdjsonImportReportsMalformedLinesAndLocksPasswordlessAccounts() throws Exception {
+        String ndjson = """
+            {"firstName":"Linus","lastName":"Torvalds","department":"Platform","position":"Kernel Dev","phoneNumber":"555-010-3000","salary":90000,"username":"ltorvalds","email":"linus@example.com"}
+            {"firstName": "Broken"
+
+            {"firstName":"Margaret","lastName":"Hamilton","department":"Platform","userRole":"ADMIN","phoneNumber":"555-010-3001","password":"password123"}
+            """;
+
+        EmployeeImportResult result = importService.importEmployees(stream(ndjson), EmployeeImportService.Format.NDJSON);
+
+        assertThat(result.getTotalRows()).isEqualTo(3);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).hasSize(1);
+        assertThat(result.getErrors().get(0).row()).isEqualTo(2);
+        assertThat(result.getErrors().get(0).message()).startsWith("Malformed JSON");
+
+        String lockedHash = jdbcTemplate.queryForObject(
+            "SELECT password FROM users WHERE username = 'ltorvalds'", String.class);
+        assertThat(lockedHash).startsWith("$2a$");
+        assertThat(passwordEncoder.matches("", lockedHash)).isFalse();
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM admin a JOIN users u ON u.id = a.id WHERE u.username = 'M.Hamilton'", Integer.class))
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testUnsupportedInputIsRejected() {
+        assertThat(EmployeeImportService.formatFor("text/csv; charset=UTF-8")).isEqualTo(EmployeeImportService.Format.CSV);
+        assertThat(EmployeeImportService.formatFor("application/x-ndjson")).isEqualTo(EmployeeImportService.Format.NDJSON);
+        assertThatThrownBy(() -> EmployeeImportService.formatFor("application/pdf"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> importService.importEmployees(stream(""), EmployeeImportService.Format.CSV))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("header");
+        verifyNoInteractions(bulkChangeNotifier);
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,155 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Entities.Employee;
+import com.dmcdesigns.capstone.Repositories.EmployeeRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+    + "com.dmcdesigns.capstone.Services.EmployeeServicePatchTest$SqlRecorder")
+class EmployeeServicePatchTest {
+
+    /**
+     * Keeps every statement Hibernate prepares, so tests can see which columns an UPDATE sets
+     */
+    public static class SqlRecorder implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            // application.properties turns on SQL comments; drop them
+            STATEMENTS.add(sql.replaceAll("/\\*.*?\\*/", "").trim().toLowerCase(Locale.ROOT));
+            return sql;
+        }
+
+        static List<String> updates() {
+            return STATEMENTS.stream().filter(sql -> sql.startsWith("update")).toList();
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private static final String ADMIN = "admin";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SalaryDistributionService salaryDistributionService = mock(SalaryDistributionService.class);
+    private final EmployeeService employeeService = new EmployeeService();
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(employeeService, "employeeRepository", employeeRepository);
+        ReflectionTestUtils.setField(employeeService, "passwordEncoder", new BCryptPasswordEncoder(4));
+        ReflectionTestUtils.setField(employeeService, "salaryDistributionService", salaryDistributionService);
+        ReflectionTestUtils.setField(employeeService, "departmentStatsService", mock(DepartmentStatsService.class));
+        ReflectionTestUtils.setField(employeeService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(employeeService, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+
+        employee = new Employee("Alice", "Johnson", "alice.johnson@company.com",
+                                "555-1111", "alice.johnson", "password123", "Engineering");
+        employee.setSalary(new BigDecimal("75000.00"));
+        entityManager.persistAndFlush(employee);
+        entityManager.clear();
+        SqlRecorder.STATEMENTS.clear();
+    }
+
+    @Test
+    void testPatchUpdatesOnlyChangedColumns() throws Exception {
+        Employee patched = employeeService.patchEmployee(employee.getId(), json("{\"firstName\": \"Alicia\"}"), ADMIN, true);
+        entityManager.flush();
+
+        assertThat(patched.getFirstName()).isEqualTo("Alicia");
+        assertThat(SqlRecorder.updates()).singleElement().satisfies(sql -> {
+            assertThat(sql).startsWith("update users set first_name=?");
+            assertThat(sql).doesNotContain("last_name", "password", "email");
+        });
+
+        SqlRecorder.STATEMENTS.clear();
+        employeeService.patchEmployee(employee.getId(), json("{\"salary\": 80000, \"hireDate\": null}"), ADMIN, true);
+        entityManager.flush();
+
+        assertThat(SqlRecorder.updates()).singleElement().satisfies(sql -> {
+            assertThat(sql).startsWith("update employee set salary=?");
+            assertThat(sql).doesNotContain("role", "has_access", "hire_date");
+        });
+        verify(salaryDistributionService, times(2)).recordChange(any(), any());
+    }
+
+    @Test
+    void testPatchWithNoEffectiveChangeDoesNotWrite() throws Exception {
+        Employee patched = employeeService.patchEmployee(employee.getId(),
+            json("{\"firstName\": \"Alice\", \"salary\": 75000, \"userRole\": \"EMPLOYEE\"}"), ADMIN, true);
+        entityManager.flush();
+
+        assertThat(patched.getSalary()).isEqualByComparingTo("75000.00");
+        assertThat(SqlRecorder.updates()).isEmpty();
+        verifyNoInteractions(salaryDistributionService);
+    }
+
+    @Test
+    void testInvalidPatchesAreRejected() {
+        Integer id = employee.getId();
+        assertThatThrownBy(() -> employeeService.patchEmployee(id, json("[1, 2]"), ADMIN, true))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> employeeService.patchEmployee(id, json("{\"username\": \"someone\"}"), ADMIN, true))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("username");
+        assertThatThrownBy(() -> employeeService.patchEmployee(id, json("{\"lastName\": null}"), ADMIN, true))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("lastName cannot be removed");
+        assertThatThrownBy(() -> employeeService.patchEmployee(id, json("{\"phoneNumber\": \"12\"}"), ADMIN, true))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageStartingWith("phoneNumber:");
+        assertThatThrownBy(() -> employeeService.patchEmployee(id, json("{\"userRole\": \"ADMIN\"}"), ADMIN, true))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> employeeService.patchEmployee(id, json("{\"salary\": \"lots\"}"), ADMIN, true))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("salary");
+    }
+
+    @Test
+    void testOnlyAdminsChangeAccessAndOtherUsersPasswords() throws Exception {
+        Integer id = employee.getId();
+        assertThatThrownBy(() -> employeeService.patchEmployee(id, json("{\"hasAccess\": false}"), "alice.johnson", false))
+            .hasMessageContaining("access denied");
+        assertThatThrownBy(() -> employeeService.patchEmployee(id, json("{\"password\": \"newpassword1\"}"), "bob", false))
+            .hasMessageContaining("access denied");
+        assertThat(SqlRecorder.updates()).isEmpty();
+
+        // Their own password, and anything an admin sends
+        employeeService.patchEmployee(id, json("{\"password\": \"newpassword1\"}"), "alice.johnson", false);
+        employeeService.patchEmployee(id, json("{\"hasAccess\": false}"), ADMIN, true);
+        entityManager.flush();
+        entityManager.clear();
+        Employee patched = (Employee) employeeRepository.findById(id).orElseThrow();
+        assertThat(new BCryptPasswordEncoder().matches("newpassword1", patched.getPassword())).isTrue();
+        assertThat(patched.hasAccess()).isFalse();
+    }
+
+    private JsonNode json(String content) throws Exception {
+        return objectMapper.readTree(content);
+    }
+}
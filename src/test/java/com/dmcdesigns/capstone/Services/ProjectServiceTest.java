@@ -1,5 +1,6 @@
 package com.dmcdesigns.capstone.Services;
 
+import com.dmcdesigns.capstone.DTOs.MultiGetEntry;
 import com.dmcdesigns.capstone.Entities.Employee;
 import com.dmcdesigns.capstone.Entities.Manager;
 import com.dmcdesigns.capstone.Entities.Project;
@@ -16,11 +17,14 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +36,15 @@ class ProjectServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private DepartmentLookupService departmentLookupService;
+
+    @Mock
+    private DepartmentStatsService departmentStatsService;
+
+    @Mock
+    private DepartmentTreeService departmentTreeService;
+
     @InjectMocks
     private ProjectService projectService;
 
@@ -85,6 +98,36 @@ class ProjectServiceTest {
         verify(projectRepository).findById(1);
     }
 
+    @Test
+    void testGetProjectsByIdsKeepsRequestOrderAndMarksMissingIds() {
+        Project other = new Project();
+        other.setId(5);
+        other.setName("Other Project");
+        when(projectRepository.findAllById(List.of(5, 9, 1))).thenReturn(List.of(testProject, other));
+
+        List<MultiGetEntry<Project>> result = projectService.getProjectsByIds(List.of(5, 9, 1, 5));
+
+        assertThat(result).extracting(MultiGetEntry::id).containsExactly(5, 9, 1, 5);
+        assertThat(result).extracting(MultiGetEntry::found).containsExactly(true, false, true, true);
+        assertThat(result.get(0).item()).isSameAs(other);
+        assertThat(result.get(1).item()).isNull();
+        assertThat(result.get(2).item()).isSameAs(testProject);
+    }
+
+    @Test
+    void testGetProjectsByIdsQueriesInChunks() {
+        List<Integer> ids = IntStream.rangeClosed(1, MultiGetEntry.CHUNK_SIZE + 1).boxed().collect(Collectors.toList());
+        when(projectRepository.findAllById(anyList())).thenReturn(List.of(testProject));
+
+        assertThat(projectService.getProjectsByIds(ids)).filteredOn(MultiGetEntry::found).hasSize(1);
+        verify(projectRepository).findAllById(ids.subList(0, MultiGetEntry.CHUNK_SIZE));
+        verify(projectRepository).findAllById(List.of(MultiGetEntry.CHUNK_SIZE + 1));
+
+        List<Integer> tooMany = IntStream.rangeClosed(1, MultiGetEntry.MAX_IDS + 1).boxed().collect(Collectors.toList());
+        assertThatThrownBy(() -> projectService.getProjectsByIds(tooMany)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> projectService.getProjectsByIds(List.of())).isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     void testCreateProject() {
         when(userRepository.findById(anyInt())).thenReturn(Optional.of(testManager));
@@ -387,13 +430,15 @@ class ProjectServiceTest {
     @Test
     void testGetProjectsByDepartment() {
         List<Project> projects = List.of(testProject);
-        when(projectRepository.findAllByDepartment("IT")).thenReturn(projects);
+        when(departmentLookupService.findId("IT")).thenReturn(Optional.of(7));
+        when(projectRepository.findAllByDepartmentId(7)).thenReturn(projects);
 
         List<Project> result = projectService.getProjectsByDepartment("IT");
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getDepartment()).isEqualTo("IT");
-        verify(projectRepository).findAllByDepartment("IT");
+        verify(projectRepository).findAllByDepartmentId(7);
+        assertThat(projectService.getProjectsByDepartment("Unknown")).isEmpty();
     }
 
     @Test
@@ -419,23 +464,25 @@ class ProjectServiceTest {
 
     @Test
     void testGetAverageProgressByDepartment() {
-        when(projectRepository.getAverageProgressByDepartment("IT")).thenReturn(75.0);
+        when(departmentLookupService.findId("IT")).thenReturn(Optional.of(7));
+        when(projectRepository.getAverageProgressByDepartmentId(7)).thenReturn(75.0);
 
         Double result = projectService.getAverageProgressByDepartment("IT");
 
         assertThat(result).isEqualTo(75.0);
-        verify(projectRepository).getAverageProgressByDepartment("IT");
+        verify(projectRepository).getAverageProgressByDepartmentId(7);
     }
 
     @Test
     void testGetTotalBudgetByDepartment() {
         BigDecimal budget = new BigDecimal("500000.00");
-        when(projectRepository.getTotalBudgetByDepartment("IT")).thenReturn(budget);
+        when(departmentLookupService.findId("IT")).thenReturn(Optional.of(7));
+        when(projectRepository.getTotalBudgetByDepartmentId(7)).thenReturn(budget);
 
         BigDecimal result = projectService.getTotalBudgetByDepartment("IT");
 
         assertThat(result).isEqualTo(budget);
-        verify(projectRepository).getTotalBudgetByDepartment("IT");
+        verify(projectRepository).getTotalBudgetByDepartmentId(7);
     }
 
     @Test
@@ -0,0 +1,119 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Repositories.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class ReportBundleServiceTest {
+
+    private final ReportService reportService = mock(ReportService.class);
+    private final EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+    private final ReportRenderingService reportRenderingService = mock(ReportRenderingService.class);
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final ReportBundleService bundleService = new ReportBundleService(2);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bundleService, "reportService", reportService);
+        ReflectionTestUtils.setField(bundleService, "employeeRepository", employeeRepository);
+        ReflectionTestUtils.setField(bundleService, "reportRenderingService", reportRenderingService);
+        when(reportRenderingService.partExecutor()).thenReturn(executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testBundleHoldsOneEntryPerDepartment() throws Exception {
+        when(employeeRepository.findDistinctDepartments()).thenReturn(List.of("Engineering", "R&D", "Sales"));
+        when(reportService.generateDepartmentReport("Engineering")).thenReturn(pdf("Engineering"));
+        when(reportService.generateDepartmentReport("R&D")).thenReturn(pdf("R&D"));
+        when(reportService.generateDepartmentReport("Sales")).thenThrow(new IOException("disk full"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bundleService.writeDepartmentReportBundle(out);
+
+        // Entries are in completion order
+        Map<String, String> entries = unzip(out.toByteArray());
+        assertThat(entries).containsOnlyKeys("department-Engineering.pdf", "department-R_D.pdf", "department-Sales-error.txt");
+        assertThat(entries.get("department-Engineering.pdf")).isEqualTo("%PDF Engineering");
+        assertThat(entries.get("department-R_D.pdf")).isEqualTo("%PDF R&D");
+        assertThat(entries.get("department-Sales-error.txt")).isEqualTo("Report could not be generated: disk full");
+    }
+
+    @Test
+    void testRendersInFlightAreCancelledWhenTheClientGoesAway() throws Exception {
+        when(employeeRepository.findDistinctDepartments()).thenReturn(List.of("Engineering", "Sales", "Support"));
+        CountDownLatch salesStarted = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        // Engineering finishes only once Sales is rendering, so Sales is in flight when the write fails
+        when(reportService.generateDepartmentReport("Engineering")).thenAnswer(invocation -> {
+            salesStarted.await(5, TimeUnit.SECONDS);
+            return pdf("Engineering");
+        });
+        when(reportService.generateDepartmentReport("Sales")).thenAnswer(invocation -> {
+            salesStarted.countDown();
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return pdf("Sales");
+        });
+
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        assertThatThrownBy(() -> bundleService.writeDepartmentReportBundle(disconnected)).isInstanceOf(IOException.class);
+
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).as("slow render interrupted").isTrue();
+        // Never submitted: at most two departments are in flight
+        verify(reportService, never()).generateDepartmentReport("Support");
+    }
+
+    private static byte[] pdf(String department) {
+        return ("%PDF " + department).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> unzip(byte[] zip) throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip), StandardCharsets.UTF_8)) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                entries.put(entry.getName(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,76 @@
+package com.dmcdesigns.capstone.Services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportChartServiceTest {
+
+    @Mock
+    private PerformanceRollupService performanceRollupService;
+
+    private ReportChartService reportChartService;
+
+    @BeforeEach
+    void setUp() {
+        reportChartService = new ReportChartService(1, 4, 10);
+        ReflectionTestUtils.setField(reportChartService, "performanceRollupService", performanceRollupService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reportChartService.shutdown();
+    }
+
+    @Test
+    void testSameDatasetAndSizeIsServedFromCache() throws Exception {
+        when(performanceRollupService.getRatingDistribution()).thenReturn(Map.of(1, 2L, 4, 5L));
+
+        ReportChartService.ChartImage first = reportChartService.getPerformanceRatingChart(400, 200, "png").get(10, TimeUnit.SECONDS);
+        ReportChartService.ChartImage second = reportChartService.getPerformanceRatingChart(400, 200, "png").get(10, TimeUnit.SECONDS);
+        ReportChartService.ChartImage larger = reportChartService.getPerformanceRatingChart(600, 300, "png").get(10, TimeUnit.SECONDS);
+
+        assertThat(first.contentType()).isEqualTo("image/png");
+        assertThat(second).isSameAs(first);
+        assertThat(larger.etag()).isNotEqualTo(first.etag());
+    }
+
+    @Test
+    void testChangedDatasetRendersNewImage() throws Exception {
+        when(performanceRollupService.getRatingDistribution())
+            .thenReturn(Map.of(3, 1L))
+            .thenReturn(Map.of(3, 2L));
+
+        ReportChartService.ChartImage before = reportChartService.getPerformanceRatingChart(400, 200, "png").get(10, TimeUnit.SECONDS);
+        ReportChartService.ChartImage after = reportChartService.getPerformanceRatingChart(400, 200, "png").get(10, TimeUnit.SECONDS);
+
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+    }
+
+    @Test
+    void testSvgFormatAndSizeValidation() throws Exception {
+        when(performanceRollupService.getRatingDistribution()).thenReturn(Map.of(5, 1L));
+
+        ReportChartService.ChartImage svg = reportChartService.getPerformanceRatingChart(300, 150, "svg").get(10, TimeUnit.SECONDS);
+
+        assertThat(svg.contentType()).isEqualTo("image/svg+xml");
+        assertThat(new String(svg.content(), StandardCharsets.UTF_8)).startsWith("<svg").contains("width=\"300\"");
+        assertThatThrownBy(() -> reportChartService.getPerformanceRatingChart(5000, 150, "png"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> reportChartService.getPerformanceRatingChart(300, 150, "gif"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
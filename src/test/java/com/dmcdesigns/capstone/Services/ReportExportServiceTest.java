@@ -0,0 +1,75 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Entities.Department;
+import com.dmcdesigns.capstone.Entities.Employee;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(ReportExportService.class)
+class ReportExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ReportExportService reportExportService;
+
+    @Test
+    void testFieldsAreQuotedAndFormulasDisarmed() {
+        assertThat(ReportExportService.escapeCsv(null)).isEmpty();
+        assertThat(ReportExportService.escapeCsv("plain")).isEqualTo("plain");
+        assertThat(ReportExportService.escapeCsv("Smith, Jr.")).isEqualTo("\"Smith, Jr.\"");
+        assertThat(ReportExportService.escapeCsv("say \"hi\"")).isEqualTo("\"say \"\"hi\"\"\"");
+        assertThat(ReportExportService.escapeCsv("two\nlines")).isEqualTo("\"two\nlines\"");
+
+        assertThat(ReportExportService.escapeCsv("=1+1")).isEqualTo("'=1+1");
+        assertThat(ReportExportService.escapeCsv("+1")).isEqualTo("'+1");
+        assertThat(ReportExportService.escapeCsv("-1")).isEqualTo("'-1");
+        assertThat(ReportExportService.escapeCsv("@SUM(A1)")).isEqualTo("'@SUM(A1)");
+        assertThat(ReportExportService.escapeCsv("\tcmd")).isEqualTo("'\tcmd");
+        // Disarmed first, then quoted as a whole
+        assertThat(ReportExportService.escapeCsv("\r=cmd")).isEqualTo("\"'\r=cmd\"");
+        assertThat(ReportExportService.escapeCsv("=HYPERLINK(\"x\",\"y\")"))
+            .isEqualTo("\"'=HYPERLINK(\"\"x\"\",\"\"y\"\")\"");
+        // Only the first character matters
+        assertThat(ReportExportService.escapeCsv("a=b")).isEqualTo("a=b");
+    }
+
+    @Test
+    void testRosterIsStreamedAsEscapedCsv() throws Exception {
+        Department engineering = entityManager.persist(new Department("Engineering", "Engineering department"));
+        Employee alice = employee("Alice", "Smith, Jr.", engineering, "75000.00");
+        Employee mallory = employee("=cmd|' /C calc'!A0", "Jones", engineering, "50000.00");
+        entityManager.flush();
+        entityManager.clear();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        reportExportService.writeEmployeeRosterCsv(out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\r\n")).containsExactly(
+            "ID,First Name,Last Name,Email,Department,Role,Salary,Hire Date",
+            mallory.getId() + ",'=cmd|' /C calc'!A0,Jones,jones@company.com,Engineering,Developer,50000.00,2024-01-15",
+            alice.getId() + ",Alice,\"Smith, Jr.\",smithjr@company.com,Engineering,Developer,75000.00,2024-01-15");
+    }
+
+    private Employee employee(String firstName, String lastName, Department department, String salary) {
+        String username = lastName.replaceAll("[^A-Za-z]", "").toLowerCase();
+        Employee employee = new Employee(firstName, lastName, username + "@company.com",
+                                         "555-0000", username, "password123", department.getName());
+        employee.setDepartmentRef(department);
+        employee.setRole("Developer");
+        employee.setSalary(new BigDecimal(salary));
+        employee.setHireDate("2024-01-15");
+        return entityManager.persist(employee);
+    }
+}
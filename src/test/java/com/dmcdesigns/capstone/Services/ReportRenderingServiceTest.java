@@ -0,0 +1,121 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Exceptions.ReportCapacityException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReportRenderingServiceTest {
+
+    private ReportRenderingService service;
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testRejectsRequestsOverPerTypeLimit() throws Exception {
+        service = new ReportRenderingService(2, 10, 1, 30000);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = service.submit("salary-analysis", () -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "first";
+        });
+
+        assertThatThrownBy(() -> service.submit("salary-analysis", () -> "second"))
+            .isInstanceOf(ReportCapacityException.class);
+        // Other report types are not affected by a busy type
+        assertThat(service.submit("employee-roster", () -> "roster").get(5, TimeUnit.SECONDS)).isEqualTo("roster");
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        // The slot is released once the render finishes
+        assertThat(service.submit("salary-analysis", () -> "third").get(5, TimeUnit.SECONDS)).isEqualTo("third");
+    }
+
+    @Test
+    void testRejectsWhenQueueIsFull() throws Exception {
+        service = new ReportRenderingService(1, 1, 5, 30000);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> running = service.submit("a", () -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "running";
+        });
+        CompletableFuture<String> queued = service.submit("b", () -> "queued");
+
+        assertThatThrownBy(() -> service.submit("c", () -> "rejected"))
+            .isInstanceOf(ReportCapacityException.class);
+        // The rejected request gave its type slot back
+        assertThat(service.getStatus().get("inProgressByType")).isEqualTo(Map.of("a", 1, "b", 1, "c", 0));
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("running");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+    }
+
+    @Test
+    void testQueuedRequestTimesOutWhileTheRenderThreadIsStillBusy() throws Exception {
+        service = new ReportRenderingService(1, 5, 5, 200);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean rendered = new AtomicBoolean();
+
+        CompletableFuture<String> running = service.submit("a", () -> {
+            release.await(10, TimeUnit.SECONDS);
+            return "running";
+        });
+        long queuedAt = System.nanoTime();
+        CompletableFuture<String> queued = service.submit("a", () -> {
+            rendered.set(true);
+            return "too late";
+        });
+
+        // Fails at the queue timeout, not when the render thread frees up
+        assertThatThrownBy(() -> queued.get(5, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(ReportCapacityException.class);
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queuedAt);
+        assertThat(waitedMillis).isBetween(150L, 3000L);
+        assertThat(running).isNotDone();
+        // The timed-out request left the queue and gave its type slot back
+        assertThat(service.getStatus().get("queuedRenders")).isEqualTo(0);
+        assertThat(service.getStatus().get("inProgressByType")).isEqualTo(Map.of("a", 1));
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("running");
+        assertThat(rendered).isFalse();
+    }
+
+    @Test
+    void testReportPartsShareTheRenderPool() throws Exception {
+        service = new ReportRenderingService(1, 1, 5, 30000);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> running = service.submit("a", () -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "running";
+        });
+        FutureTask<String> part = new FutureTask<>(() -> "part");
+        service.partExecutor().execute(part);
+        // The one render thread is busy and the part holds the only queue slot
+        assertThatThrownBy(() -> service.partExecutor().execute(() -> { }))
+            .isInstanceOf(ReportCapacityException.class);
+        assertThat(service.getStatus().get("queuedRenders")).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("running");
+        assertThat(part.get(5, TimeUnit.SECONDS)).isEqualTo("part");
+    }
+}
@@ -0,0 +1,162 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.DTOs.BulkUpdateResult;
+import com.dmcdesigns.capstone.DTOs.EmployeeSummary;
+import com.dmcdesigns.capstone.Entities.Employee;
+import com.dmcdesigns.capstone.Repositories.ReportingLineRepository;
+import com.dmcdesigns.capstone.Services.ReportingLineService.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({ReportingLineService.class, DataVersionService.class})
+class ReportingLineServiceTest implements DataVersionCleanup {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReportingLineRepository reportingLineRepository;
+
+    @Autowired
+    private ReportingLineService reportingLineService;
+
+    @MockBean
+    private ChangeStreamService changeStreamService;
+
+    @MockBean
+    private DirectorySyncService directorySyncService;
+
+    private int ceo, vp1, vp2, lead, dev, analyst;
+
+    /**
+     * ceo
+     * ├── vp1
+     * │   ├── lead
+     * │   │   └── dev
+     * │   └── analyst
+     * └── vp2
+     */
+    @BeforeEach
+    void setUp() {
+        ceo = employee("ceo");
+        vp1 = employee("vp1");
+        vp2 = employee("vp2");
+        lead = employee("lead");
+        dev = employee("dev");
+        analyst = employee("analyst");
+        reportingLineService.assignManager(List.of(vp1, vp2), ceo);
+        reportingLineService.assignManager(List.of(lead, analyst), vp1);
+        reportingLineService.assignManager(List.of(dev), lead);
+    }
+
+    @Test
+    void testSubtreeAndChainOfCommandFollowMoves() {
+        assertThat(ids(reportingLineService.getReports(ceo, null, 0, 50).getContent()))
+            .containsExactly(vp1, vp2, lead, analyst, dev);
+        assertThat(ids(reportingLineService.getReports(ceo, 1, 0, 50).getContent())).containsExactly(vp1, vp2);
+        assertThat(reportingLineService.getReports(vp1, null, 0, 2).getTotalElements()).isEqualTo(3);
+        assertThat(ids(reportingLineService.getChainOfCommand(dev))).containsExactly(lead, vp1, ceo);
+        assertThat(reportingLineService.getChainOfCommand(ceo)).isEmpty();
+
+        // lead moves to vp2 and takes dev along
+        BulkUpdateResult result = reportingLineService.assignManager(List.of(lead, dev, 99999), vp2);
+        assertThat(result.matched()).isEqualTo(2);
+        assertThat(result.updated()).isEqualTo(2);
+        assertThat(result.notFound()).containsExactly(99999);
+        assertThat(ids(reportingLineService.getChainOfCommand(dev))).containsExactly(vp2, ceo);
+        assertThat(ids(reportingLineService.getChainOfCommand(lead))).containsExactly(vp2, ceo);
+        assertThat(ids(reportingLineService.getReports(vp1, null, 0, 50).getContent())).containsExactly(analyst);
+        assertThat(managerOf(dev)).isEqualTo(vp2);
+
+        // Users already under the manager are matched but not moved
+        assertThat(reportingLineService.assignManager(List.of(lead), vp2).updated()).isZero();
+        assertClosureMatchesRebuild();
+    }
+
+    @Test
+    void testNestedUsersMoveTogetherAndCyclesAreRefused() {
+        // vp1 and lead (under vp1) both move under vp2; lead stays with dev, no longer under vp1
+        reportingLineService.assignManager(List.of(vp1, lead), vp2);
+        assertThat(ids(reportingLineService.getChainOfCommand(dev))).containsExactly(lead, vp2, ceo);
+        assertThat(ids(reportingLineService.getChainOfCommand(analyst))).containsExactly(vp1, vp2, ceo);
+        assertThat(ids(reportingLineService.getReports(vp2, 1, 0, 50).getContent())).containsExactlyInAnyOrder(vp1, lead);
+        assertClosureMatchesRebuild();
+
+        assertThatThrownBy(() -> reportingLineService.assignManager(List.of(vp2), dev))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> reportingLineService.assignManager(List.of(ceo), ceo))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> reportingLineService.assignManager(List.of(dev), 99999))
+            .hasMessageContaining("not found");
+
+        // To the top of the hierarchy
+        reportingLineService.assignManager(List.of(vp2), null);
+        assertThat(ids(reportingLineService.getChainOfCommand(dev))).containsExactly(lead, vp2);
+        assertThat(managerOf(vp2)).isNull();
+        assertClosureMatchesRebuild();
+    }
+
+    @Test
+    void testRemovedUsersHandTheirReportsUpAndPositionsCanBeRestored() {
+        Position position = reportingLineService.removeFromHierarchy(vp1);
+        assertThat(position.managerId()).isEqualTo(ceo);
+        assertThat(position.directReports()).containsExactlyInAnyOrder(lead, analyst);
+        assertThat(ids(reportingLineService.getChainOfCommand(dev))).containsExactly(lead, ceo);
+        assertThat(reportingLineService.getChainOfCommand(vp1)).isEmpty();
+        assertThat(managerOf(vp1)).isNull();
+        assertClosureMatchesRebuild();
+
+        // A replacement takes over the old position
+        int replacement = employee("vp1new");
+        reportingLineService.restorePosition(replacement, position);
+        assertThat(ids(reportingLineService.getChainOfCommand(dev))).containsExactly(lead, replacement, ceo);
+        assertThat(ids(reportingLineService.getReports(replacement, 1, 0, 50).getContent()))
+            .containsExactlyInAnyOrder(lead, analyst);
+    }
+
+    private int employee(String username) {
+        Employee employee = new Employee(username, "Tester", username + "@company.com",
+                                         "555-0000", username, "password123", "Engineering");
+        employee.setSalary(new BigDecimal("50000.00"));
+        return entityManager.persist(employee).getId();
+    }
+
+    private Integer managerOf(int userId) {
+        return jdbcTemplate.queryForObject("SELECT manager_id FROM users WHERE id = ?", Integer.class, userId);
+    }
+
+    // The incrementally maintained closure must equal one rebuilt from manager_id
+    private void assertClosureMatchesRebuild() {
+        Set<String> maintained = closure();
+        reportingLineService.rebuildClosure();
+        assertThat(closure()).isEqualTo(maintained);
+    }
+
+    private Set<String> closure() {
+        return reportingLineRepository.findAll().stream()
+            .map(link -> link.getAncestorId() + ">" + link.getDescendantId() + "@" + link.getDepth())
+            .collect(Collectors.toSet());
+    }
+
+    private static List<Integer> ids(List<EmployeeSummary> summaries) {
+        return summaries.stream().map(EmployeeSummary::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,87 @@
+package com.dmcdesigns.capstone.Services;
+
+import com.dmcdesigns.capstone.Repositories.EmployeeRepository;
+import com.dmcdesigns.capstone.Services.SalaryDistributionService.Contribution;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SalaryDistributionServiceTest {
+
+    // The employee table as the rebuild reads it: id, salary, department, role
+    private final List<Object[]> table = new CopyOnWriteArrayList<>();
+    private final EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+    private final SalaryDistributionService service = new SalaryDistributionService(mock(PlatformTransactionManager.class));
+
+    @BeforeEach
+    void setUp() {
+        when(employeeRepository.streamAnalyticsRows()).thenAnswer(invocation -> table.stream());
+        ReflectionTestUtils.setField(service, "employeeRepository", employeeRepository);
+        table.add(new Object[] { 1, new BigDecimal("50000.00"), "Engineering", "Developer" });
+        service.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testRebuildWaitsForACommitToBeAppliedSoItIsCountedOnce() throws Exception {
+        Contribution hired = new Contribution(new BigDecimal("70000.00"), "Engineering", "Developer");
+        TransactionSynchronizationManager.initSynchronization();
+        service.recordChange(null, hired);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(sync -> sync.beforeCommit(false));
+
+        // The row is committed, but its change is not applied yet
+        table.add(new Object[] { 2, hired.salary(), hired.department(), hired.role() });
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(service::rebuild);
+        assertThatThrownBy(() -> rebuild.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+        rebuild.get(5, TimeUnit.SECONDS);
+
+        assertThat(overallCount()).isEqualTo(2L);
+    }
+
+    @Test
+    void testRolledBackChangesAreNotApplied() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.recordChange(null, new Contribution(new BigDecimal("70000.00"), "Sales", "Rep"));
+        service.rebuildAfterCommit();
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(overallCount()).isEqualTo(1L);
+        assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private long overallCount() {
+        Map<String, Object> overall = (Map<String, Object>) service.getSalaryDistribution("department", 4).get("overall");
+        return (Long) overall.get("count");
+    }
+}
@@ -20,6 +20,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ReportingLineService reportingLineService;
+
     @InjectMocks
     private UserService userService;
 
@@ -104,6 +107,7 @@ class UserServiceTest {
         userService.deleteUser(userId);
 
         // Assert
+        verify(reportingLineService, times(1)).removeFromHierarchy(userId);
         verify(userRepository, times(1)).deleteById(userId);
     }
 }